@@ -0,0 +1,95 @@
+package bench;
+
+import engine.HangmanGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-guess path of the game panel: checking a letter, finding its positions, updating the guess,
+ * and building the guess texts (what formatGuess and getWrongLetters in GameWindow used to do, the server still sends them).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuessBenchmark {
+    private static final String GUESS_ORDER = "etaoinshrdlcumwfgypbvkjxqz";
+
+    @Param({"5", "9", "13", "32", "64"})
+    public int wordLength;
+
+    private HangmanGame game;
+    private HangmanGame midGame;
+    private String word;
+    private int letter;
+    private final StringBuilder text = new StringBuilder();
+
+    @Setup
+    public void setUp() {
+        word = SyntheticWords.word(new SplittableRandom(42), wordLength);
+        game = new HangmanGame();
+        game.start(word);
+
+        // a game in the middle of being played, with a few hits and misses, for the formatting benchmarks
+        midGame = new HangmanGame(HangmanGame.ALPHABET_SIZE);
+        midGame.start(word);
+        for (int i = 0; i < 10; i++) {
+            midGame.guess(GUESS_ORDER.charAt(i));
+        }
+    }
+
+    private char nextLetter() {
+        letter = letter == 25 ? 0 : letter + 1;
+        return (char) ('a' + letter);
+    }
+
+    @Benchmark
+    public boolean isInWord() {
+        return game.isInWord(nextLetter());
+    }
+
+    @Benchmark
+    public long getLetterPositions() {
+        return game.letterPositions(nextLetter());
+    }
+
+    /**
+     * A whole game: starting the word and guessing letters from the most common one until it's over.
+     */
+    @Benchmark
+    public long updateGuessWholeGame() {
+        game.start(word);
+        for (int i = 0; i < GUESS_ORDER.length() && !game.isOver(); i++) {
+            game.guess(GUESS_ORDER.charAt(i));
+        }
+        return game.getRevealedMask();
+    }
+
+    @Benchmark
+    public String formatGuess() {
+        text.setLength(0);
+        midGame.appendGuess(text);
+        return text.toString();
+    }
+
+    @Benchmark
+    public String getWrongLetters() {
+        text.setLength(0);
+        midGame.appendWrongLetters(text);
+        return text.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package bench;
+
+import assets.Asset;
+import assets.Assets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import java.awt.Image;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The image work of GameWindow.downloadImages. Note that getScaledInstance is lazy, the actual scaling
+ * happens the first time an ImageIcon is made from the scaled image (in updateHangman), so we include that.
+ * ImageIcon(URL) goes through the Toolkit image cache, which is why there is also an uncached variant
+ * that decodes the JPEGs every time, like a cold start does.
+ * The asset cache variants show what the game does now: decode and scale once (at 1x and HiDPI 2x),
+ * and then only hand out the same icons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ImageLoadingBenchmark {
+    private static final int STAGES = 7;
+
+    private static URL stage(int i) {
+        return ImageLoadingBenchmark.class.getResource(String.format("/ImageAssets/HangManPics/stage%d.jpg", i));
+    }
+
+    @Benchmark
+    public ImageIcon[] downloadImages() {
+        ImageIcon[] icons = new ImageIcon[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            Image stage = new ImageIcon(stage(i)).getImage().getScaledInstance(90, 140, Image.SCALE_SMOOTH);
+            icons[i] = new ImageIcon(stage);
+        }
+        return icons;
+    }
+
+    @Benchmark
+    public ImageIcon[] downloadImagesUncached() throws IOException {
+        ImageIcon[] icons = new ImageIcon[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            Image stage = ImageIO.read(stage(i)).getScaledInstance(90, 140, Image.SCALE_SMOOTH);
+            icons[i] = new ImageIcon(stage);
+        }
+        return icons;
+    }
+
+    @Benchmark
+    public Image[] assetCacheDecode() {
+        Image[] images = new Image[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            images[i] = Assets.load(Asset.stage(i), 1);
+        }
+        return images;
+    }
+
+    @Benchmark
+    public Image[] assetCacheDecodeHiDpi() {
+        Image[] images = new Image[STAGES];
+        for (int i = 0; i < STAGES; i++) {
+            images[i] = Assets.load(Asset.stage(i), 2);
+        }
+        return images;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Icon assetCacheIcon() {
+        return Assets.icon(Asset.STAGE_3);
+    }
+}
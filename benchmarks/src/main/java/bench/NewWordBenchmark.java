@@ -0,0 +1,93 @@
+package bench;
+
+import dictionary.DictionaryWriter;
+import dictionary.MappedDictionary;
+import dictionary.WordIndex;
+import dictionary.WordQuery;
+import dictionary.WordScores;
+import dictionary.WordSelection;
+import engine.HangmanGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What GameWindow.createNewWord does: pick a random word from the mapped dictionary and start a game with it,
+ * for dictionaries from the size of the built in list up to millions of words. Opening the dictionary is
+ * measured too, since it should not grow with the dictionary size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NewWordBenchmark {
+
+    @Param({"50", "100000", "1000000"})
+    public int dictionarySize;
+
+    private Path folder;
+    private Path file;
+    private MappedDictionary dictionary;
+    private WordSelection any;
+    private WordSelection constrained;
+    private final HangmanGame game = new HangmanGame();
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Setup
+    public void setUp() throws IOException {
+        folder = Files.createTempDirectory("hangman-bench");
+        file = folder.resolve("words.hdict");
+        DictionaryWriter.write(SyntheticWords.dictionary(dictionarySize, dictionarySize), file);
+        dictionary = MappedDictionary.open(file);
+        WordIndex index = WordIndex.openOrBuild(dictionary);
+        any = index.select(WordQuery.ANY);
+        constrained = index.select(WordQuery.parse("length=5-7,unique"));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(WordIndex.indexFile(file));
+        Files.deleteIfExists(WordScores.scoresFile(file));
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(folder);
+    }
+
+    @Benchmark
+    public String createNewWord() {
+        game.start(dictionary.word(any.pick(random)));
+        return game.getWord();
+    }
+
+    @Benchmark
+    public String createNewWordConstrained() {
+        game.start(dictionary.word(constrained.pick(random)));
+        return game.getWord();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public int openDictionaryAndIndex() throws IOException {
+        MappedDictionary opened = MappedDictionary.open(file);
+        return WordIndex.openOrBuild(opened).size();
+    }
+}
@@ -0,0 +1,67 @@
+package bench;
+
+import dictionary.Dictionary;
+import engine.HangmanGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import solver.Candidates;
+import solver.Solver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hint path of the game panel: narrowing the dictionary down after the first guess (the biggest search of a game)
+ * and playing a whole game with the solver's suggestions, which should stay within a 16 ms frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+
+    @Param({"50", "100000", "1000000"})
+    public int dictionarySize;
+
+    private String[] words;
+    private Solver solver;
+    private final SplittableRandom random = new SplittableRandom(3);
+
+    @Setup
+    public void setUp() {
+        words = SyntheticWords.dictionary(dictionarySize, dictionarySize).toArray(String[]::new);
+        solver = new Solver(Dictionary.of(words));
+        solver.prepare();
+    }
+
+    @Benchmark
+    public int firstGuessHint() {
+        HangmanGame game = new HangmanGame();
+        game.start(words[random.nextInt(words.length)]);
+        game.guess('e');
+        return solver.suggest(solver.candidates(game)).getLetter();
+    }
+
+    @Benchmark
+    public boolean autoplayWholeGame() {
+        HangmanGame game = new HangmanGame();
+        game.start(words[random.nextInt(words.length)]);
+        Candidates candidates = null;
+        while (!game.isOver()) {
+            candidates = solver.candidates(Solver.pattern(game), game.getGuessedMask(), game.getWrongMask(), candidates);
+            game.guess(solver.suggest(candidates).getLetter());
+        }
+        return game.isWon();
+    }
+}
@@ -0,0 +1,31 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/**
+ * Generates random lower case words for the benchmarks, so we can test any word length or dictionary size.
+ * The letters follow rough English frequencies, which matters for how many guesses hit.
+ */
+final class SyntheticWords {
+    private static final String LETTERS = "eeeeeeeeeeeettttttttaaaaaaaooooooiiiiiiinnnnnnsssssshhhhhhrrrrrrddddlllluuucccmmmwwffggyyppbbvkjxqz";
+
+    private SyntheticWords() {
+    }
+
+    static String word(SplittableRandom random, int length) {
+        char[] letters = new char[length];
+        for (int i = 0; i < length; i++) {
+            letters[i] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * @return count words of 4 to 14 letters, always the same ones for the same seed
+     */
+    static Stream<String> dictionary(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return Stream.generate(() -> word(random, 4 + random.nextInt(11))).limit(count);
+    }
+}
@@ -0,0 +1,51 @@
+package bench;
+
+import dictionary.Dictionary;
+import dictionary.WordGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counting the dictionary words that fit a pattern with the word graph: early in a game, with one letter revealed
+ * and a few wrong ones, and later on, with most of the word known.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordGraphBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int dictionarySize;
+
+    private WordGraph.Matcher matcher;
+
+    @Setup
+    public void setUp() {
+        String[] words = SyntheticWords.dictionary(dictionarySize, dictionarySize).toArray(String[]::new);
+        matcher = WordGraph.build(Dictionary.of(words)).matcher();
+    }
+
+    @Benchmark
+    public int countEarlyGame() {
+        return matcher.count("__e____", "tao");
+    }
+
+    @Benchmark
+    public int countLateGame() {
+        return matcher.count("s_e_t_er", "aoiun");
+    }
+}
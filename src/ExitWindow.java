@@ -1,3 +1,6 @@
+import assets.Asset;
+import assets.Assets;
+
 import javax.swing.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
@@ -16,7 +19,7 @@ public class ExitWindow extends JFrame {
         cancelButton.setFocusable(false);
         exitButton.setFocusable(false);
 
-        setIconImage(new ImageIcon(getClass().getResource("ImageAssets/StickMan.png")).getImage());
+        setIconImage(Assets.image(Asset.STICK_MAN));
         setContentPane(panel);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
 
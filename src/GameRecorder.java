@@ -0,0 +1,133 @@
+import engine.GuessResult;
+import engine.HangmanGame;
+import journal.Journal;
+
+import java.io.IOException;
+
+/**
+ * Writes what happens in the game panel's game to the journal (see {@link Journal}): the word, every guess that changed
+ * the game, and the outcome, once, whichever guess ended it. A right guess of the whole word goes in as the letters
+ * it revealed, each a hit, so it replays like any other game.
+ * If the journal can't be written we tell the console once and carry on without it, losing the record of a game
+ * is no reason to stop playing it.
+ */
+final class GameRecorder {
+    private final HangmanGame game;
+    private final boolean evil;
+    private final StringBuilder evilGuesses = new StringBuilder();
+    private Journal journal;
+    private long journalGameId;
+
+    /**
+     * @param journal: where to record the games, or null to not record them
+     * @param game: the game to record
+     * @param evil: whether the game is played in evil mode, where the word is only known once the game is over
+     */
+    GameRecorder(Journal journal, HangmanGame game, boolean evil) {
+        this.journal = journal;
+        this.game = game;
+        this.evil = evil;
+    }
+
+    /**
+     * Writes the new word to the journal, it must be called whenever the game starts a new word.
+     */
+    void wordStarted() {
+        evilGuesses.setLength(0);
+        if (journal != null && !evil) {
+            try {
+                journalGameId = journal.gameStarted(game.getWord(), game.getMaxWrongGuesses());
+            } catch (IOException err) {
+                stopJournal(err);
+            }
+        }
+    }
+
+    /**
+     * Writes a guess that changed the game to the journal, and the outcome too if it ended the game.
+     * @param letter: the letter guessed, as a code point, or 0 for a wrong word
+     * @param result: whether it was a hit, a miss or a wrong word
+     */
+    void guessed(int letter, GuessResult result) {
+        record(letter, result);
+        recordOutcome();
+    }
+
+    /**
+     * Writes a right guess of the whole word to the journal, as a hit for every letter it revealed, and then the outcome.
+     * @param revealed: the letters the word revealed, each once
+     */
+    void wordGuessed(CharSequence revealed) {
+        for (int i = 0; i < revealed.length(); ) {
+            int letter = Character.codePointAt(revealed, i);
+            record(letter, GuessResult.HIT);
+            i += Character.charCount(letter);
+        }
+        recordOutcome();
+    }
+
+    private void record(int letter, GuessResult result) {
+        if (evil) {
+            evilGuesses.appendCodePoint(letter); // a wrong word is kept as the letter 0, like in the journal
+            return;
+        }
+        if (journal != null) {
+            try {
+                journalGuess(letter, result);
+            } catch (IOException err) {
+                stopJournal(err);
+            }
+        }
+    }
+
+    private void recordOutcome() {
+        if (!game.isOver()) {
+            return;
+        }
+        if (evil) {
+            recordEvilGame();
+            return;
+        }
+        if (journal != null) {
+            try {
+                journal.gameOver(journalGameId, game.isWon(), game.getWrongGuessCount());
+            } catch (IOException err) {
+                stopJournal(err);
+            }
+        }
+    }
+
+    /**
+     * The evil mode only settles on a word when the game ends, so that's when its game goes into the journal,
+     * as if it had been played with that word all along. The word gives the same answer to every guess, so it replays the same.
+     */
+    private void recordEvilGame() {
+        if (journal != null) {
+            try {
+                journalGameId = journal.gameStarted(game.getWord(), game.getMaxWrongGuesses());
+                for (int i = 0; i < evilGuesses.length(); ) {
+                    int letter = evilGuesses.codePointAt(i);
+                    i += Character.charCount(letter);
+                    GuessResult result = letter == 0 ? GuessResult.WRONG_WORD
+                            : game.isInWord(letter) ? GuessResult.HIT : GuessResult.MISS;
+                    journalGuess(letter, result);
+                }
+                journal.gameOver(journalGameId, game.isWon(), game.getWrongGuessCount());
+            } catch (IOException err) {
+                stopJournal(err);
+            }
+        }
+    }
+
+    private void journalGuess(int letter, GuessResult result) throws IOException {
+        if (!Character.isBmpCodePoint(letter)) { // a journal record has room for one char
+            throw new IOException("Can't journal the letter " + Character.toString(letter));
+        }
+        journal.guessed(journalGameId, (char) HangmanGame.fold(letter), result);
+    }
+
+    private void stopJournal(IOException err) {
+        System.out.println("Unable to write the game journal, games won't be recorded anymore. " + err.getMessage());
+        journal = null;
+    }
+}
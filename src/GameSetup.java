@@ -0,0 +1,47 @@
+import dictionary.Dictionaries;
+import dictionary.Dictionary;
+import dictionary.WordPicker;
+import dictionary.WordSelection;
+import engine.HangmanGame;
+import evil.EvilHangman;
+import journal.Journal;
+import solver.Solver;
+import stats.StatsStore;
+
+/**
+ * Everything the game panel plays with that isn't a Swing component: the words, the journal, the statistics,
+ * the solver and the first game, already started. Building it can take a while for a big dictionary
+ * (the evil mode reads every word of the first word's length), so the window builds it on a background thread
+ * and only hands it to the Swing thread once it's done (see {@link Window}).
+ */
+final class GameSetup {
+    final Dictionary dictionary;
+    final WordSelection selection;
+    final WordPicker picker;
+    final Journal journal;
+    final StatsStore stats;
+    final Solver solver;
+    final EvilHangman evil;
+    final HangmanGame game = new HangmanGame();
+
+    /**
+     * @param dictionary: the words we play with
+     * @param selection: which of those words a new game may pick
+     * @param journal: where to record the games, or null to not record them
+     * @param stats: where to count the players wins and losses, or null to not count them
+     */
+    GameSetup(Dictionary dictionary, WordSelection selection, Journal journal, StatsStore stats) {
+        this.dictionary = dictionary;
+        this.selection = selection;
+        this.picker = Dictionaries.picker(dictionary, selection);
+        this.journal = journal;
+        this.stats = stats;
+        this.solver = new Solver(dictionary);
+        this.evil = Boolean.getBoolean(EvilHangman.EVIL_PROPERTY) ? new EvilHangman(dictionary) : null;
+
+        game.start(picker.nextWord());
+        if (evil != null) {
+            evil.start(game, selection);
+        }
+    }
+}
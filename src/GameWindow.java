@@ -2,41 +2,105 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import assets.Asset;
+import assets.Assets;
+import dictionary.Dictionary;
+import dictionary.SpellChecker;
+import dictionary.WordPicker;
+import dictionary.WordSelection;
+import engine.GameListener;
+import engine.GuessResult;
+import engine.HangmanGame;
+import engine.LetterSet;
+import evil.EvilHangman;
+import metrics.GuessEvent;
+import metrics.Metrics;
+import solver.Candidates;
+import solver.Solver;
+import solver.Suggestion;
+import stats.PlayerStats;
+import stats.StatsStore;
 
 /**
  * This class will be our game panel. Where we'll be playing and interacting with the application.
  * We create multiple functions that automate the creation of this panel as well as to make our code readable.
+ * The rules of the game themselves live in {@link HangmanGame}, this panel only shows its state and forwards
+ * the players input to it. Everything that happens in a game is also written to the game journal (see {@link GameRecorder}),
+ * and every finished game counts towards the players statistics (see {@link StatsStore}).
  * For more specifications read the description of each function.
  */
-public class GameWindow implements Words {
+public class GameWindow {
     private JPanel mainPanel;
     private JButton guessButton;
     private JPanel guessHolderPanel;
     private JTextField input;
     private JPanel inputPanel;
-    private JLabel guessHolder;
+    private LetterSlots guessHolder;
     private JLabel guessCount;
     private JPanel emptyPanelRight;
     private JPanel emptyPanelLeft;
     private JButton newWordButton;
     private JButton exitButton;
-    private JLabel guessedLettersHolder;
+    private LetterSlots guessedLettersHolder;
     private JLabel emptyLeftLabel;
-
-    private String word;
-    private StringBuilder guess;
-    private int guessesRemaining = 6;
-    private ArrayList<Character> guessedLetters = new ArrayList<>();
-    private ArrayList<Character> wrongLetters = new ArrayList<>();
-    private Image[] HangmanStages = new Image[7];
-
-    public GameWindow(CardLayout layout, JPanel container) {
-        createNewWord();
-        createEmptyGuess();
+    private JButton hintButton;
+    private JToggleButton autoplayButton;
+
+    private final Dictionary dictionary;
+    private final WordSelection selection;
+    private final WordPicker picker;
+    private final HangmanGame game;
+    private final EvilHangman evil;
+    private final Solver solver;
+    private SpellChecker.Searcher speller;
+    private final int[] suggestions = new int[3];
+    private final StringBuilder lettersLeft = new StringBuilder();
+    private final LetterSet lettersLeftSeen = new LetterSet();
+    private final Timer autoplayTimer = new Timer(400, null);
+    private SwingWorker<Candidates, Void> hintWorker;
+    private Candidates candidates;
+    private int gameNumber;
+    private final GameRecorder recorder;
+    private StatsStore stats;
+    private final String player = StatsStore.defaultPlayer();
+    private Icon[] HangmanStages = new Icon[Asset.STAGES];
+    private Toast toast;
+    private final List<GameListener> listeners = new ArrayList<>();
+
+    private static final Color WIN_COLOR = new Color(46, 125, 50);
+    private static final Color LOSS_COLOR = new Color(183, 28, 28);
+    private static final Color ERROR_COLOR = new Color(66, 66, 66);
+    private static final int ERROR_MILLIS = 2000;
+
+    /**
+     * Only builds the panel, so it's quick enough for the Swing thread: the words, journal, statistics and the first game
+     * come ready made, from a background thread (see {@link GameSetup}).
+     * @param layout: the card layout of the window
+     * @param container: the panel holding the window's cards
+     * @param setup: what we play with, the first game already started
+     */
+    public GameWindow(CardLayout layout, JPanel container, GameSetup setup) {
+        this.dictionary = setup.dictionary;
+        this.selection = setup.selection;
+        this.picker = setup.picker;
+        this.stats = setup.stats;
+        this.solver = setup.solver;
+        this.evil = setup.evil;
+        this.game = setup.game;
+        this.recorder = new GameRecorder(setup.journal, game, evil != null);
+        wordStarted();
         downloadImages();
         loadMainPanel();
         loadComponents(layout, container);
+        CompletableFuture.runAsync(solver::prepare); // get the solver ready in the background before the first hint
+        CompletableFuture.supplyAsync(() -> SpellChecker.build(dictionary)) // and the spell checker before the first word guess
+                .thenAccept(checker -> SwingUtilities.invokeLater(() -> speller = checker.searcher()));
     }
 
     /**
@@ -49,183 +113,73 @@ public class GameWindow implements Words {
         return this.mainPanel;
     }
 
-    /**
-     * This function is executed upon calling the class, and it simply defines some small characteristics of the game,
+    /*
+     * The components below are handed out to the paint latency harness (see PaintLatency), which types into the
+     * panel and clicks its buttons like a player would, and times how long the panel takes to show the outcome.
      */
-    private void loadMainPanel() {
-        this.mainPanel.setOpaque(true);
-        this.mainPanel.setBackground(new Color(255, 254, 254, 255));
+
+    JTextField getInput() {
+        return input;
     }
 
-    /**
-     * This class implements the Words interface, and this function is simply generating a random word from that interface.
-     */
-    private void createNewWord() {
-        this.word = words[(int) (Math.random() * words.length)];
+    JButton getGuessButton() {
+        return guessButton;
     }
 
-    /**
-     * When we start the game our guess must be empty. Therefore, we simply create a guess with just dashes,
-     * just like how it would be when you play on a blackboard.
-     */
-    private void createEmptyGuess() {
-        StringBuilder guess = new StringBuilder();
-        for (int i = 0; i < word.length(); i++) {
-            guess.append("_");
-        }
-        this.guess = guess;
+    JButton getNewWordButton() {
+        return newWordButton;
     }
 
     /**
-     * Here we format our guess in a way that each character is spaces out from another
-     * and printed out properly. To imitate the feeling of replacing dashes for words when playing.
-     * We could and SHOULD use concatenation here, but since this is meant to be a beginner friendly
-     * project, we'll do it in a more primitive way
-     * @param guess: a certain string about to be formatted accordingly
-     * @return the formatted word
+     * @return the components showing the outcome of a guess: the guess so far, the guesses remaining and the drawing
      */
-    private String formatGuess(String guess) {
-        String newGuess = "";
-        for (int i = 0; i < guess.length(); i++) {
-            if (i == guess.length() - 1) {
-                newGuess += String.format("%c", guess.charAt(i));
-            } else {
-                newGuess += String.format("%c ", guess.charAt(i));
-            }
-        }
-        return newGuess;
+    JComponent[] getOutcomeComponents() {
+        return new JComponent[] {guessHolder, guessCount, emptyLeftLabel};
     }
 
     /**
-     * Simple method to check if a character is in our mystery word.
-     * We use break here to not iterate through unnecessary elements. We only need to find
-     * one exception.
-     * @param letter: a guessed letter from the player
-     * @return a boolean value
+     * This function is executed upon calling the class, and it simply defines some small characteristics of the game,
      */
-    private boolean isInWord(char letter) {
-        boolean isInWord = false;
-        for (char c : word.toCharArray()) {
-            if (c == letter) {
-                isInWord = true;
-                break;
-            }
-        }
-        return isInWord;
+    private void loadMainPanel() {
+        this.mainPanel.setOpaque(true);
+        this.mainPanel.setBackground(new Color(255, 254, 254, 255));
+        this.toast = new Toast(mainPanel); // the game over and error messages show up over the panel
     }
 
     /**
-     * Returns how many times a letter is seen in our mystery word
-     * @param letter: a guessed letter from the player
-     * @return the frequency of the letter in the mystery word
+     * This function is simply picking a random word from our dictionary. That's the words from the Words interface,
+     * unless a bigger dictionary file was given, and only among the words allowed by the chosen length and difficulty (see dictionary.Dictionaries).
+     * The picker never gives us a word from the last games again (see {@link WordPicker}).
+     * Starting the game with it also gives us an empty guess, just dashes, like how it would be when you play on a blackboard.
+     * In evil mode the word is only a first pick, every word of the same length may still take its place (see {@link EvilHangman}).
      */
-    private int getLetterFrequency(char letter) {
-        int count = 0;
-        for (char c : word.toCharArray()) {
-            if (c == letter) {
-                count++;
-            }
+    private void createNewWord() {
+        game.start(picker.nextWord());
+        if (evil != null) {
+            evil.start(game, selection);
         }
-        return count;
+        wordStarted();
     }
 
     /**
-     * This method saves onto an array which are the positions of a letter in the mystery word, so
-     * that we can replace it in our guess accordingly.
-     * @param letter: a guessed letter from the user
-     * @return that letter's positions in the mystery word
+     * Everything that follows a new word, whoever started it: this panel, or the {@link GameSetup} for the first one.
      */
-    private int[] getLetterPositions(char letter) {
-        int[] positions = new int[getLetterFrequency(letter)];
-        int index = 0;
-
-        for (int i = 0; i < word.length(); i++) {
-            if (word.charAt(i) == letter) {
-                positions[index] = i;
-                index++;
-            }
-        }
-        return positions;
+    private void wordStarted() {
+        Metrics.gameStarted();
+        recorder.wordStarted();
     }
 
     /**
-     * The following method loads all the hangman stages onto an Image array. Good
-     * to de-clutter code along the way.
+     * The following method loads all the hangman stages onto an Icon array. Good
+     * to de-clutter code along the way. The icons come already decoded and scaled from the shared asset cache,
+     * so changing the drawing on a wrong guess is just handing the label another icon.
      */
     private void downloadImages(){
         for(int i = 0; i < HangmanStages.length; i++){
-            Image stage = new ImageIcon(getClass().getResource(String.format("ImageAssets/HangManPics/stage%d.jpg", i))).getImage().getScaledInstance( 90, 140, Image.SCALE_SMOOTH);
-            HangmanStages[i] = stage;
+            HangmanStages[i] = Assets.icon(Asset.stage(i));
         }
     }
 
-    /**
-     * Replace the dashes in the players guess by the guessed letter. Uses methods defined
-     * above to make the process more streamlined.
-     * @param letter
-     */
-    private void updateGuess(char letter) {
-        int[] positions = getLetterPositions(letter);
-        for (int pos : positions) {
-            guess.setCharAt(pos, letter);
-        }
-
-    }
-
-    /**
-     * The method gives us the players guess so far.
-     * @return the players guess
-     */
-    private String getGuess() {
-        return guess.toString();
-    }
-
-    /**
-     * This method returns all the wrong guessed letters in a readable format as described in
-     * the formatGuess method.
-     * We can and SHOULD use concatenation, however this is meant to be beginner friendly so
-     * we'll use something more primitive.
-     * @return all the wrong guessed letters already spaced out
-     */
-    private String getWrongLetters(){
-        String letters = "";
-        for(int i = 0; i < wrongLetters.size(); i++){
-            if(i == guessedLetters.size() - 1){
-                letters += String.format("%c", wrongLetters.get(i));
-            } else {
-                letters += String.format("%c ", wrongLetters.get(i));
-            }
-        }
-
-        return letters;
-    }
-
-    /**
-     * Tells us if a word was guessed already or not.
-     * @param letter: the letter guessed by the player
-     * @return whether it was guessed already
-     */
-    private boolean wasGuessedAlready(char letter) {
-        boolean guessed = false;
-        for (char c : guessedLetters) {
-            if (c == letter) {
-                guessed = true;
-                break;
-            }
-        }
-
-        return guessed;
-    }
-
-    /**
-     * Simply checks if a character is a latin character.
-     * @param c: the letter guessed by the user
-     * @return whether its a letter
-     */
-    private boolean isLetter(char c) {
-        return Character.isLetter(c);
-    }
-
     /**
      * This method clears the users input in the text box.
      */
@@ -237,65 +191,38 @@ public class GameWindow implements Words {
      * Updates the hangman drawing on how many letters have been guessed wrongly.
      */
     private void updateHangman(){
-        switch(wrongLetters.size()){
-            case 1: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[1])); break;
-            case 2: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[2])); break;
-            case 3: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[3])); break;
-            case 4: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[4])); break;
-            case 5: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[5])); break;
-            case 6: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[6])); break;
-            default: emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[0])); break;
-
-        }
+        emptyLeftLabel.setIcon(HangmanStages[Math.min(game.getWrongGuessCount(), HangmanStages.length - 1)]);
     }
 
     /**
-     * Simply updates the guess holder to the latest guess.
+     * Simply updates the guess holder to the latest guess. The guess holder only repaints the letters that changed,
+     * and it only needs to be laid out again when the new word has another length.
      */
     private void updateGuessHolder() {
-        this.guessHolder.setText(formatGuess(getGuess()));
+        this.guessHolder.setCapacity(game.getLength());
+        this.guessHolder.setCount(game.getLength());
+        for (int i = 0; i < game.getLength(); i++) {
+            this.guessHolder.setSlot(i, game.maskedCodePointAt(i));
+        }
     }
 
     /**
      * Simply updates the wrong letters panel to the latest wrongly guessed letters.
+     * It always has room for as many letters as the player can get wrong, so it never changes size.
      */
     private void updateWrongLettersHolder(){
-        this.guessedLettersHolder.setText(getWrongLetters());
+        this.guessedLettersHolder.setCapacity(game.getMaxWrongGuesses());
+        for (int i = 0; i < game.getWrongLetterCount(); i++) {
+            this.guessedLettersHolder.setSlot(i, game.wrongLetterAt(i));
+        }
+        this.guessedLettersHolder.setCount(game.getWrongLetterCount());
     }
 
     /**
      * Updates the guesses remaining counter to the latest amount.
      */
     private void updateGuessCounter(){
-        this.guessCount.setText(guessesRemaining + " guesses remaining");
-    }
-
-    /**
-     * Erases all guessed letters.
-     */
-    private void resetGuessedLetters() {
-        guessedLetters.clear();
-    }
-
-    /**
-     * Erases all wrongly guesses letters.
-     */
-    private void resetWrongLetters() {
-        wrongLetters.clear();
-    }
-
-    /**
-     * Decreases how many guesses remaining the player has.
-     */
-    private void decrementGuessCount(){
-        guessesRemaining--;
-    }
-
-    /**
-     * Sets the guesses remaining to its original value.
-     */
-    private void resetGuessesRemaining(){
-        guessesRemaining = 6;
+        this.guessCount.setText(game.getGuessesRemaining() + " guesses remaining");
     }
 
     /**
@@ -304,38 +231,82 @@ public class GameWindow implements Words {
      */
     private void resetGame(){
 
-        // erase all words from the input box and create a new word
+        // erase all words from the input box and create a new word, which also resets the guess, the guessed letters and the guesses remaining
         clearInputText();
         createNewWord();
 
-        // reset the current guess
-        createEmptyGuess();
-        updateGuessHolder();
+        // forget what the solver knew about the previous word
+        gameNumber++;
+        candidates = null;
 
-        // erase all guessed letters and reset the hangman drawing
-        resetGuessedLetters();
-        resetWrongLetters();
+        // update the panel to the fresh game, the message about the last one is old news
+        toast.hideMessage();
+        updateGuessHolder();
         updateWrongLettersHolder();
         updateHangman();
-
-        // reset the guesses remaining to 6
-        resetGuessesRemaining();
         updateGuessCounter();
     }
 
+    /**
+     * Prints the mystery word to the console, handy when testing the game. Only with -Dhangman.showWord=true,
+     * since it's not something to do on every new word for players.
+     */
+    private void printWord() {
+        if (Boolean.getBoolean("hangman.showWord")) {
+            System.out.println(game.getWord());
+        }
+    }
+
     /**
      * Checks if the player has fully guessed the word, or if they have no remaining guesses.
      * In either case, the game is over and the player must click the "New Word" button.
+     * The message stays over the panel until then, but it doesn't stop anything: no dialog to close first.
      */
     private void checkGameStatus(){
-            if( guess.toString().equals(word) ){
-                JOptionPane.showMessageDialog(null, "YOU WON!", "Congrats!", JOptionPane.INFORMATION_MESSAGE);
+            if( game.isOver() ){
+                Metrics.gameOver(game.isWon(), game.getWrongGuessCount(), game.getLength());
+            }
+
+            if( game.isWon() ){
+                toast.showMessage("YOU WON!" + recordGameOver(), WIN_COLOR, 0);
+                fireGameOver();
 
-            } else if( guessesRemaining == 0 ){
-                JOptionPane.showMessageDialog(null, String.format("YOU LOST!\nThe correct word was %s", word), "Oh no...", JOptionPane.ERROR_MESSAGE);
+            } else if( game.isLost() ){
+                toast.showMessage(String.format("YOU LOST!\nThe correct word was %s", game.getWord()) + recordGameOver(), LOSS_COLOR, 0);
+                fireGameOver();
             }
     }
 
+    /**
+     * Tells the listeners the game just ended.
+     */
+    private void fireGameOver() {
+        for (GameListener listener : listeners) {
+            listener.gameOver(game);
+        }
+    }
+
+    /**
+     * Counts the game that just ended in the players statistics.
+     * @return a line about the players streak to add to the message, empty if there are no statistics
+     */
+    private String recordGameOver() {
+        if (stats == null) {
+            return "";
+        }
+        try {
+            PlayerStats totals = stats.recordGame(player, game.getWord(), game.isWon(), game.getWrongGuessCount(), System.currentTimeMillis());
+            if (totals.getStreak() > 1) {
+                return String.format("\n%d wins in a row! (best: %d)", totals.getStreak(), totals.getBestStreak());
+            }
+            return String.format("\n%d won out of %d games", totals.getWins(), totals.getGames());
+        } catch (IOException err) {
+            System.out.println("Unable to save the players statistics, games won't be counted anymore. " + err.getMessage());
+            stats = null;
+            return "";
+        }
+    }
+
     /**
      * Since java swing doesnt offer good methods to easily place components anywhere on the
      * window, many empty panels were created with the purpose of spacing out components.
@@ -351,7 +322,7 @@ public class GameWindow implements Words {
         this.emptyPanelRight.setPreferredSize(new Dimension(100, 50));
 
         this.emptyLeftLabel.setOpaque(false);
-        this.emptyLeftLabel.setIcon(new ImageIcon(HangmanStages[0]));
+        this.emptyLeftLabel.setIcon(HangmanStages[0]);
     }
 
     /**
@@ -419,22 +390,241 @@ public class GameWindow implements Words {
         this.exitButton.setPreferredSize(new Dimension(70, 27));
     }
 
+    /**
+     * Here we create the "Hint" button, that fills the input box with the letter the solver suggests.
+     */
+    private void loadHintButton() {
+        this.hintButton.setFocusable(false);
+        this.hintButton.setPreferredSize(new Dimension(70, 27));
+    }
+
+    /**
+     * Here we create the "Autoplay" button, that lets the solver play the game on its own while it's pressed.
+     */
+    private void loadAutoplayButton() {
+        this.autoplayButton.setFocusable(false);
+        this.autoplayButton.setPreferredSize(new Dimension(90, 27));
+    }
+
     /**
      * Here we load all of the buttons accordinly.
      */
     private void loadButtons(){
         loadGuessButton();
+        loadHintButton();
+        loadAutoplayButton();
         loadNewWordButton();
         loadExitButton();
     }
 
     /**
-     * Simple method that streamlines the process of displaying an error message.
+     * Asks the solver for the next letter. The searching happens on a background thread so the window never freezes,
+     * and the answer is handed over back on the Swing thread. If the player starts a new word in the meantime
+     * the answer is thrown away.
+     * @param then: what to do with the suggestion
+     */
+    private void requestHint(Consumer<Suggestion> then) {
+        if (hintWorker != null || game.isOver()) {
+            return;
+        }
+
+        // copy what the solver needs while we're still on the Swing thread
+        String pattern = Solver.pattern(game);
+        int guessedMask = game.getGuessedMask();
+        int wrongMask = game.getWrongMask();
+        Candidates previous = candidates;
+        int requestedFor = gameNumber;
+
+        hintWorker = new SwingWorker<Candidates, Void>() {
+            protected Candidates doInBackground() {
+                return solver.candidates(pattern, guessedMask, wrongMask, previous);
+            }
+
+            protected void done() {
+                hintWorker = null;
+                if (requestedFor != gameNumber) {
+                    return;
+                }
+                try {
+                    candidates = get();
+                    then.accept(solver.suggest(candidates));
+                } catch (InterruptedException | ExecutionException err) {
+                    System.out.println("Unable to find a hint: " + err);
+                }
+            }
+        };
+        hintWorker.execute();
+    }
+
+    /**
+     * One step of autoplay: stop once the game is over, otherwise guess whatever the solver suggests.
+     */
+    private void autoplayStep() {
+        if (game.isOver()) {
+            autoplayTimer.stop();
+            autoplayButton.setSelected(false);
+            return;
+        }
+        requestHint(suggestion -> {
+            if (autoplayButton.isSelected() && suggestion.getLetter() != 0) {
+                playGuess(String.valueOf(suggestion.getLetter()));
+            }
+        });
+    }
+
+    /**
+     * Simple method that streamlines the process of displaying an error message. It shows up over the panel
+     * for a couple of seconds, the player can just keep on playing.
      * @param title: Type of message we want to display
      * @param message: What text we want to display
      */
     private void showErrorMessage(String title, String message) {
-        JOptionPane.showMessageDialog(null, message, title, JOptionPane.ERROR_MESSAGE);
+        toast.showMessage(title + " " + message, ERROR_COLOR, ERROR_MILLIS);
+    }
+
+    /**
+     * Adds someone to be told about every guess and every game over, see {@link GameListener}.
+     * @param listener: who to tell
+     */
+    public void addGameListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeGameListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Plays whatever the player typed (or the autoplay picked) and updates the panel with the outcome.
+     * @param text: the guess
+     */
+    private void playGuess(String text) {
+        if (text.codePointCount(0, text.length()) > 1) {
+            playWordGuess(text);
+            return;
+        }
+        long start = System.nanoTime();
+        GuessEvent timing = Metrics.guessStarted();
+
+        // the game decides if the guess is valid (one letter, not guessed yet, game not over), we only show the outcome
+        if (evil != null) {
+            evil.beforeGuess(game, text); // the evil mode picks its word family first
+        }
+        GuessResult result = game.guess(text);
+        if (result.isAccepted()) {
+            recorder.guessed(text.codePointAt(0), result);
+        }
+
+        if (result == GuessResult.HIT) {
+            updateGuessHolder();
+
+        } else if (result == GuessResult.MISS) {
+            updateHangman();
+            updateWrongLettersHolder();
+            updateGuessCounter();
+        }
+        Metrics.guessHandled(timing, start, text.length() == 1 ? text.charAt(0) : 0, result);
+
+        // the messages are left out of the timing, they're about showing the outcome, not working it out
+        if (result.isAccepted()) {
+            int letter = text.codePointAt(0);
+            for (GameListener listener : listeners) {
+                listener.guessPlayed(letter, result);
+            }
+            checkGameStatus();
+        } else {
+            showErrorMessage(result == GuessResult.GAME_OVER ? "DENIED!" : "DENIED", result.getMessage());
+            for (GameListener listener : listeners) {
+                listener.guessRejected(result);
+            }
+        }
+    }
+
+    /**
+     * Plays a guess of the whole word. The right word wins the game, a wrong one costs a guess like a wrong letter.
+     * A word that isn't in the dictionary costs nothing: it's most likely a typo, so we tell the player and suggest
+     * the closest words instead (see {@link SpellChecker}). Until the spell checker is ready, which takes a moment with
+     * a big dictionary, every word is played as it is.
+     * @param text: the word guessed
+     */
+    private void playWordGuess(String text) {
+        long start = System.nanoTime();
+        GuessEvent timing = Metrics.guessStarted();
+
+        GuessResult result;
+        if (speller != null && !game.isOver() && text.codePointCount(0, text.length()) == game.getLength()
+                && !speller.isWord(text)) {
+            result = GuessResult.NOT_A_WORD;
+        } else {
+            if (evil != null) {
+                evil.beforeGuess(game, text); // the evil mode switches to another word if it can
+            }
+            findLettersLeft();
+            result = game.guessWord(text);
+        }
+
+        if (result == GuessResult.HIT) {
+            recorder.wordGuessed(lettersLeft);
+            updateGuessHolder();
+
+        } else if (result == GuessResult.WRONG_WORD) {
+            recorder.guessed(0, GuessResult.WRONG_WORD);
+            updateHangman();
+            updateGuessCounter();
+        }
+        Metrics.guessHandled(timing, start, (char) 0, result);
+
+        if (result.isAccepted()) {
+            if (result == GuessResult.WRONG_WORD) {
+                showErrorMessage("NOPE!", text + " is not the word.");
+            }
+            for (GameListener listener : listeners) {
+                listener.wordPlayed(text, result);
+            }
+            checkGameStatus();
+        } else {
+            if (result == GuessResult.NOT_A_WORD) {
+                showErrorMessage("NOT A WORD!", text + " is not in the dictionary." + didYouMean(text));
+            } else {
+                showErrorMessage(result == GuessResult.GAME_OVER ? "DENIED!" : "DENIED", result.getMessage());
+            }
+            for (GameListener listener : listeners) {
+                listener.guessRejected(result);
+            }
+        }
+    }
+
+    /**
+     * Keeps the letters of the word the player hasn't found yet, each once, which a right guess of the word reveals.
+     * It has to be worked out before the guess is played, right or wrong, so it reuses its builder and allocates nothing.
+     */
+    private void findLettersLeft() {
+        lettersLeft.setLength(0);
+        lettersLeftSeen.clear();
+        String word = game.getWord();
+        for (int i = 0; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            int letter = HangmanGame.fold(codePoint);
+            i += Character.charCount(codePoint);
+            if (Character.isLetter(letter) && !game.wasGuessedAlready(letter) && lettersLeftSeen.add(letter)) {
+                lettersLeft.appendCodePoint(letter);
+            }
+        }
+    }
+
+    /**
+     * @return a line with the words closest to what the player typed, or nothing if none is close
+     */
+    private String didYouMean(String text) {
+        int found = speller.suggest(text, suggestions);
+        if (found == 0) {
+            return "";
+        }
+        StringBuilder line = new StringBuilder("\nDid you mean ");
+        for (int i = 0; i < found; i++) {
+            line.append(i == 0 ? "" : i == found - 1 ? " or " : ", ").append(dictionary.word(suggestions[i]));
+        }
+        return line.append('?').toString();
     }
 
     /**
@@ -445,7 +635,7 @@ public class GameWindow implements Words {
      * @param container
      */
     private void loadComponents(CardLayout layout, JPanel container) {
-        System.out.println(word);
+        printWord();
         loadEmptyPanels();
         loadGuessHolder();
         loadWrongLettersHolder();
@@ -456,59 +646,46 @@ public class GameWindow implements Words {
         guessButton.addActionListener(new ActionListener() {
 
             public void actionPerformed(ActionEvent e) {
-
                 String text = input.getText();
                 clearInputText();
+                playGuess(text);
+            }
+        });
 
-                if (guessesRemaining == 0 || guess.toString().equals(word)) {
-                    showErrorMessage("DENIED!", "Game is over!");
-
-                } else if (text.isEmpty()) {
-                    showErrorMessage("DENIED", "Please enter a letter.");
-
-                } else if (text.length() >= 2) {
-                    showErrorMessage("DENIED", "Just one letter");
-
-                } else {
-
-                    char letter = Character.toLowerCase(text.charAt(0));
-
-                    if (!isLetter(letter)) {
-
-                        showErrorMessage("DENIED", "Not a letter");
-
-                    } else if (wasGuessedAlready(letter)) {
-
-                        showErrorMessage("DENIED", "Letter already guessed!");
-
-                    } else {
+        hintButton.addActionListener(new ActionListener() {
 
-                        guessedLetters.add(letter);
+            public void actionPerformed(ActionEvent e) {
+                requestHint(suggestion -> {
+                    if (suggestion.getLetter() != 0) {
+                        input.setText(String.valueOf(suggestion.getLetter()));
+                    }
+                    hintButton.setToolTipText(suggestion.toString());
+                });
+            }
+        });
 
-                        if (isInWord(letter)) {
-                            updateGuess(letter);
-                            updateGuessHolder();
+        autoplayTimer.addActionListener(new ActionListener() {
 
-                        } else {
-                            wrongLetters.add(letter);
-                            updateHangman();
-                            updateWrongLettersHolder();
-                            decrementGuessCount();
-                            updateGuessCounter();
+            public void actionPerformed(ActionEvent e) {
+                autoplayStep();
+            }
+        });
 
-                        }
+        autoplayButton.addActionListener(new ActionListener() {
 
-                        checkGameStatus();
-                    }
+            public void actionPerformed(ActionEvent e) {
+                if (autoplayButton.isSelected()) {
+                    autoplayTimer.start();
+                } else {
+                    autoplayTimer.stop();
                 }
-
             }
         });
 
         newWordButton.addActionListener(new ActionListener() {
 
             public void actionPerformed(ActionEvent e) {
-                resetGame(); System.out.println(word);
+                resetGame(); printWord();
             }
 
         });
@@ -516,7 +693,9 @@ public class GameWindow implements Words {
         exitButton.addActionListener(new ActionListener() {
 
             public void actionPerformed(ActionEvent e) {
-                resetGame(); System.out.println(word);
+                autoplayTimer.stop();
+                autoplayButton.setSelected(false);
+                resetGame(); printWord();
                 layout.show(container, "Main");
             }
 
@@ -0,0 +1,175 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.Arrays;
+
+/**
+ * This component shows a row of letters, one per slot, spaced out like "_ a _ _ l e".
+ * We use it for the players guess and for the wrongly guessed letters instead of a JLabel, because a JLabel
+ * needs a whole new String (and a new layout of the panel) every time a single letter changes.
+ * ------------
+ * Here every slot has the same width, worked out once from the font, so the size of the component only changes
+ * when the number of slots it can hold (its capacity) changes, and changing a letter only repaints that slot.
+ * The shape of each letter is also worked out once and kept, so painting doesn't create anything new.
+ */
+public class LetterSlots extends JComponent {
+    private static final int CACHED_CHARACTERS = 128;
+
+    private int[] slots = new int[0]; // code points, so any letter fits
+    private int count;
+
+    // everything below depends on the font, and is worked out again when it changes
+    private int slotWidth;
+    private int gap;
+    private int ascent;
+    private int height;
+    private FontRenderContext glyphContext;
+    private final GlyphVector[] glyphs = new GlyphVector[CACHED_CHARACTERS];
+    private final float[] glyphOffsets = new float[CACHED_CHARACTERS];
+
+    public LetterSlots() {
+        setOpaque(false);
+        setForeground(UIManager.getColor("Label.foreground")); // same color as the labels around it
+        setFont(new Font(Font.SANS_SERIF, Font.BOLD, 40));
+    }
+
+    @Override
+    public void setFont(Font font) {
+        super.setFont(font);
+        FontMetrics metrics = getFontMetrics(font);
+        slotWidth = Math.max(metrics.charWidth('W'), metrics.charWidth('_'));
+        gap = metrics.charWidth(' ');
+        ascent = metrics.getAscent();
+        height = metrics.getHeight();
+        glyphContext = null;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Sets how many slots the component makes room for. This is the only call that changes the size
+     * of the component, so the panel is laid out again only here.
+     * @param capacity: how many slots to make room for
+     */
+    public void setCapacity(int capacity) {
+        if (capacity != slots.length) {
+            slots = Arrays.copyOf(slots, capacity);
+            count = Math.min(count, capacity);
+            revalidate();
+            repaint();
+        }
+    }
+
+    /**
+     * Sets how many slots are shown, the others are left empty. Since the shown slots are centered,
+     * this repaints the whole row, but never lays the panel out again.
+     * @param count: how many slots to show, at most the capacity
+     */
+    public void setCount(int count) {
+        if (count < 0 || count > slots.length) {
+            throw new IllegalArgumentException("count must be between 0 and " + slots.length);
+        }
+        if (count != this.count) {
+            this.count = count;
+            repaint();
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Puts a letter in a slot, repainting only that slot and only if it changed.
+     * @param i: the slot, from 0 to the count - 1
+     * @param letter: the letter to show in it, as a char or a code point
+     */
+    public void setSlot(int i, int letter) {
+        if (slots[i] != letter) {
+            slots[i] = letter;
+            repaint(slotX(i), 0, slotWidth, getHeight());
+        }
+    }
+
+    public int getSlot(int i) {
+        return slots[i];
+    }
+
+    /**
+     * @return the letters shown, spaced out, like the JLabel used to show them. Only meant for tests and accessibility.
+     */
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").appendCodePoint(slots[i]);
+        }
+        return text.toString();
+    }
+
+    private int rowWidth(int slots) {
+        return slots == 0 ? 0 : slots * slotWidth + (slots - 1) * gap;
+    }
+
+    private int slotX(int i) {
+        Insets insets = getInsets();
+        int available = getWidth() - insets.left - insets.right;
+        return insets.left + Math.max(0, (available - rowWidth(count)) / 2) + i * (slotWidth + gap);
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        Insets insets = getInsets();
+        return new Dimension(rowWidth(slots.length) + insets.left + insets.right, height + insets.top + insets.bottom);
+    }
+
+    @Override
+    public Dimension getMinimumSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D graphics = (Graphics2D) g;
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(getForeground());
+
+        FontRenderContext context = graphics.getFontRenderContext();
+        if (!context.equals(glyphContext)) {
+            Arrays.fill(glyphs, null);
+            glyphContext = context;
+        }
+
+        Rectangle clip = graphics.getClipBounds();
+        int baseline = getInsets().top + ascent;
+        for (int i = 0; i < count; i++) {
+            int x = slotX(i);
+            if (clip != null && (x + slotWidth < clip.x || x > clip.x + clip.width)) {
+                continue;
+            }
+            int letter = slots[i];
+            if (letter < CACHED_CHARACTERS) {
+                GlyphVector glyph = glyph((char) letter, context);
+                graphics.drawGlyphVector(glyph, x + glyphOffsets[letter], baseline);
+            } else {
+                graphics.drawString(Character.toString(letter), x, baseline); // rare letters aren't cached
+            }
+        }
+    }
+
+    /**
+     * @return the shape of a letter in our font, created the first time it's painted and kept afterwards
+     */
+    private GlyphVector glyph(char letter, FontRenderContext context) {
+        GlyphVector glyph = glyphs[letter];
+        if (glyph == null) {
+            glyph = getFont().createGlyphVector(context, new char[]{letter});
+            glyphs[letter] = glyph;
+            glyphOffsets[letter] = (float) (slotWidth - glyph.getLogicalBounds().getWidth()) / 2; // center the letter in its slot
+        }
+        return glyph;
+    }
+}
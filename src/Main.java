@@ -1,5 +1,11 @@
+import assets.Assets;
+import metrics.Metrics;
+
 public class Main {
     public static void main(String[] args) {
+        StartupTimer.mark("main");
+        Metrics.install(); // guess times, games, frozen Swing thread and image loads, over JMX and in flight recordings
+        Assets.preload(); // starts decoding our images in the background while the window is being built
         new Window(); //initializes our application
     }
 }
\ No newline at end of file
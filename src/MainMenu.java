@@ -1,3 +1,6 @@
+import assets.Asset;
+import assets.Assets;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -29,14 +32,14 @@ public class MainMenu {
 
     private JPanel bottomPanel;
 
-    public MainMenu(CardLayout layout, JPanel container) {
+    public MainMenu(Runnable play) {
         loadMainPanel();
         loadGameTitle();
         loadEmptyTopPanel();
         loadAuthorMark();
         loadGithubMark();
         loadLinkedInMark();
-        loadButtons(layout, container);
+        loadButtons(play);
         loadBottomPanel();
     }
 
@@ -61,10 +64,9 @@ public class MainMenu {
      * accross the screen.
      */
     private void loadGameTitle() {
-        ImageIcon hangmanIcon = new ImageIcon(getClass().getResource("ImageAssets/HangmanGameIcon.png"));
         gameTitle.setFont(new Font(Font.DIALOG, Font.PLAIN, 50));
         gameTitle.setOpaque(false);
-        gameTitle.setIcon(new ImageIcon(hangmanIcon.getImage().getScaledInstance(150, 150, Image.SCALE_SMOOTH))); // good practice to load images with custom resolutions to scale them properly
+        gameTitle.setIcon(Assets.icon(Asset.GAME_ICON)); // the asset cache already scaled it to 150x150, good practice to load images with custom resolutions to scale them properly
 
         //text on top of the picture, centered within the frame
         gameTitle.setVerticalTextPosition(JLabel.TOP);
@@ -100,12 +102,10 @@ public class MainMenu {
      * Loads this project's author Github link onto the top right of the frame. Mine.
      */
     private void loadGithubMark() {
-        ImageIcon GitHubIcon = new ImageIcon(getClass().getResource("ImageAssets/GitHubIcon.png"));
-
         githubMark.setText("AfonsoSilvestre");
         githubMark.setFont(new Font(Font.DIALOG, Font.PLAIN, 11));
         githubMark.setOpaque(false);
-        githubMark.setIcon(new ImageIcon(GitHubIcon.getImage().getScaledInstance(18, 18, Image.SCALE_SMOOTH)));
+        githubMark.setIcon(Assets.icon(Asset.GITHUB_ICON));
         githubMark.setHorizontalAlignment(JLabel.CENTER);
         githubMark.setVerticalAlignment(JLabel.CENTER);
         githubMark.setPreferredSize(new Dimension(130, 27));
@@ -133,12 +133,10 @@ public class MainMenu {
      * Loads this project's author LinkedIn link onto the top right of the frame. Mine.
      */
     private void loadLinkedInMark() {
-        ImageIcon LinkedInIcon = new ImageIcon(getClass().getResource("ImageAssets/LinkedInIcon.png"));
-
         linkedInMark.setText("AfonsoSilvestre");
         linkedInMark.setFont(new Font(Font.DIALOG, Font.PLAIN, 11));
         linkedInMark.setOpaque(false);
-        linkedInMark.setIcon(new ImageIcon(LinkedInIcon.getImage().getScaledInstance(12, 12, Image.SCALE_SMOOTH)));
+        linkedInMark.setIcon(Assets.icon(Asset.LINKEDIN_ICON));
         linkedInMark.setHorizontalAlignment(JLabel.CENTER);
         linkedInMark.setVerticalAlignment(JLabel.CENTER);
         linkedInMark.setPreferredSize(new Dimension(130, 27));
@@ -164,10 +162,9 @@ public class MainMenu {
     /**
      * Since we are going to add all of our buttons onto a panel, and then said panel onto a certain cell in the grid,
      * we must first define the size of said panel, and load the buttons onto it.
-     * @param layout our card layour previously created
-     * @param container where we keep each "window" aka the main menu and game panel
+     * @param play what to do when the player clicks "Play", the window takes care of showing the game panel
      */
-    private void loadButtons(CardLayout layout, JPanel container) {
+    private void loadButtons(Runnable play) {
         buttonPanel.setOpaque(false);
         buttonPanel.setPreferredSize(new Dimension(750, 35));
 
@@ -175,10 +172,10 @@ public class MainMenu {
         playButton.setOpaque(false);
         playButton.setPreferredSize(new Dimension(70, 27));
 
-        playButton.addActionListener(new ActionListener() { // if we click to play, we tell the layout to show the game panel that is saved under the "container"
+        playButton.addActionListener(new ActionListener() { // if we click to play, we ask the window to show the game panel
             @Override
             public void actionPerformed(ActionEvent event) {
-                layout.show(container, "Game");
+                play.run();
             }
 
         });
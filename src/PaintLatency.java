@@ -0,0 +1,317 @@
+import assets.Assets;
+import dictionary.Dictionaries;
+import dictionary.Dictionary;
+import dictionary.WordSelection;
+import engine.GameListener;
+import engine.HangmanGame;
+import metrics.Histogram;
+
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A repeatable benchmark of how long the game panel takes to show the outcome of a guess, from the click
+ * on "Guess" to the new pixels. It plays thousands of scripted games on the real game panel, typing each letter
+ * into the input box and clicking the button like a player would, and prints percentiles of the wait for
+ * the guess so far, the guesses remaining and the drawing to be painted again. So an image swap that got slower,
+ * a layout that now runs on every guess or a dialog that sneaked back in shows up as numbers, not as a feeling.
+ * ------------
+ * We know when a component is painted by installing our own RepaintManager, the class Swing asks to repaint every
+ * component: it notes which of our components asked to be repainted, and when the paint they asked for is done
+ * (and flushed to the display). A guess is timed until the last of the components it changed was painted.
+ * A guess that waited too long to get onto the Swing thread, or took too long to show, is a hiccup (100ms, or the
+ * "hangman.stallMillis" system property, like the EDT watchdog of the metrics), and the worst ones are printed.
+ * ------------
+ * It needs a display, so on a build machine it runs under a virtual one, and it needs the IntelliJ build of the
+ * game panel (see game/pom.xml). The words are picked with -Dhangman.seed (42 unless given), so every run plays
+ * the same games:
+ *   xvfb-run -s "-screen 0 1280x1024x24" java -cp out/production/Hangman PaintLatency 2000
+ */
+public final class PaintLatency {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long HICCUP_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("hangman.stallMillis", 100));
+    private static final String[] NAMES = {"guess so far", "guesses remaining", "drawing"};
+
+    private final PaintProbe probe = new PaintProbe();
+    private GameWindow gameWindow;
+    private volatile boolean gameOver;
+
+    private final Histogram outcome = new Histogram();
+    private final Histogram[] components = {new Histogram(), new Histogram(), new Histogram()};
+    private final Histogram queued = new Histogram();
+    private int hiccups;
+    private int neverPainted;
+    private long worstHiccup;
+    private String worstHiccupAt = "";
+
+    private PaintLatency() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("The paint latency harness needs a display. On a machine without one, run it under a virtual display:");
+            System.err.println("  xvfb-run -s \"-screen 0 1280x1024x24\" java -cp out/production/Hangman PaintLatency " + games);
+            System.exit(2);
+        }
+        if (System.getProperty(Dictionaries.SEED_PROPERTY) == null) {
+            System.setProperty(Dictionaries.SEED_PROPERTY, "42");
+        }
+
+        PaintLatency harness = new PaintLatency();
+        Assets.preload();
+        Dictionary dictionary = Dictionaries.load(Words.words);
+        WordSelection selection = Dictionaries.select(Dictionaries.index(dictionary));
+        onSwingThread(() -> harness.showGamePanel(dictionary, selection));
+
+        harness.play(Math.max(1, games / 10), new Random(1)); // warm up, so the JIT isn't what we measure
+        harness.reset();
+        long start = System.nanoTime();
+        harness.play(games, new Random(Long.getLong(Dictionaries.SEED_PROPERTY)));
+        harness.report(games, System.nanoTime() - start);
+        System.exit(0);
+    }
+
+    /**
+     * Builds the game panel in a window of its own, without the main menu, journal or statistics.
+     */
+    private void showGamePanel(Dictionary dictionary, WordSelection selection) {
+        RepaintManager.setCurrentManager(probe);
+        CardLayout layout = new CardLayout();
+        JPanel container = new JPanel(layout);
+        gameWindow = new GameWindow(layout, container, new GameSetup(dictionary, selection, null, null));
+        gameWindow.addGameListener(new GameListener() {
+            public void gameOver(HangmanGame game) {
+                gameOver = true;
+            }
+        });
+        container.add(gameWindow.getPanel(), "Game");
+        layout.show(container, "Game");
+        probe.watch(gameWindow.getOutcomeComponents());
+
+        JFrame frame = new JFrame("Hangman paint latency");
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.add(container);
+        frame.pack();
+        frame.setVisible(true);
+    }
+
+    /**
+     * Plays games until each one is won or lost, guessing the letters in a random order, then starts a new word.
+     */
+    private void play(int games, Random random) throws Exception {
+        char[] letters = "abcdefghijklmnopqrstuvwxyz".toCharArray();
+        for (int game = 0; game < games; game++) {
+            for (int i = letters.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                char letter = letters[i];
+                letters[i] = letters[j];
+                letters[j] = letter;
+            }
+            gameOver = false;
+            for (int i = 0; i < letters.length && !gameOver; i++) {
+                guess(String.valueOf(letters[i]), game, i);
+            }
+            click(null, gameWindow.getNewWordButton()); // the new word isn't timed, but it's painted before we go on
+        }
+    }
+
+    /**
+     * Types a letter, clicks "Guess" and waits until every component that changed was painted again.
+     */
+    private void guess(String letter, int game, int guess) throws Exception {
+        long queuedAt = System.nanoTime();
+        Click click = click(letter, gameWindow.getGuessButton());
+        long wait = click.at - queuedAt;
+        queued.record(wait);
+
+        long slowest = 0;
+        boolean any = false;
+        for (int i = 0; i < click.painted.length; i++) {
+            if (!click.changed[i]) {
+                continue;
+            }
+            any = true;
+            if (click.painted[i] == 0) {
+                neverPainted++;
+                continue;
+            }
+            components[i].record(click.painted[i] - click.at);
+            slowest = Math.max(slowest, click.painted[i] - click.at);
+        }
+        if (any) {
+            outcome.record(slowest);
+        }
+
+        long worst = Math.max(wait, slowest);
+        if (worst >= HICCUP_NANOS) {
+            hiccups++;
+            if (worst > worstHiccup) {
+                worstHiccup = worst;
+                worstHiccupAt = "game " + (game + 1) + ", guess " + (guess + 1) + " ('" + letter + "')"
+                        + (wait >= slowest ? ", waiting for the Swing thread" : ", painting");
+            }
+        }
+    }
+
+    /**
+     * What happened after a click: when it was, which components it changed and when they were painted again.
+     */
+    private static final class Click {
+        long at;
+        boolean[] changed;
+        long[] painted;
+    }
+
+    /**
+     * Clicks a button on the Swing thread, after typing some text into the input box, and waits until every component
+     * that changed was painted again.
+     * @param text: what to type, or null to leave the input box alone
+     */
+    private Click click(String text, JButton button) throws InterruptedException {
+        Click click = new Click();
+        onSwingThread(() -> {
+            click.at = System.nanoTime();
+            probe.arm();
+            if (text != null) {
+                gameWindow.getInput().setText(text);
+            }
+            button.doClick(0);
+            click.changed = probe.changed();
+        });
+        click.painted = probe.awaitPainted(click.changed, click.at, TIMEOUT_NANOS);
+        return click;
+    }
+
+    private void reset() {
+        outcome.reset();
+        queued.reset();
+        for (Histogram histogram : components) {
+            histogram.reset();
+        }
+        hiccups = 0;
+        neverPainted = 0;
+        worstHiccup = 0;
+        worstHiccupAt = "";
+    }
+
+    private void report(int games, long nanos) {
+        System.out.printf("%d games, %d guesses in %.1f s%n", games, queued.getCount(), nanos / 1e9);
+        System.out.println("Click to outcome painted:  " + percentiles(outcome));
+        for (int i = 0; i < NAMES.length; i++) {
+            System.out.printf("  %-22s %s%n", NAMES[i] + ":", percentiles(components[i]));
+        }
+        System.out.println("Wait for the Swing thread: " + percentiles(queued));
+        System.out.printf("Hiccups over %d ms: %d%s%n", TimeUnit.NANOSECONDS.toMillis(HICCUP_NANOS), hiccups,
+                hiccups > 0 ? String.format(", the worst %.1f ms at %s", worstHiccup / 1e6, worstHiccupAt) : "");
+        if (neverPainted > 0) {
+            System.out.println("Components never painted after their change: " + neverPainted);
+        }
+    }
+
+    private static String percentiles(Histogram histogram) {
+        return String.format("%d times, p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms",
+                histogram.getCount(), histogram.getPercentile(50) / 1e6, histogram.getPercentile(90) / 1e6,
+                histogram.getPercentile(99) / 1e6, histogram.getPercentile(99.9) / 1e6, histogram.getMax() / 1e6);
+    }
+
+    private static void onSwingThread(Runnable task) throws InterruptedException {
+        try {
+            EventQueue.invokeAndWait(task);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("The game panel failed", e.getCause());
+        }
+    }
+
+    /**
+     * The RepaintManager of the harness. Swing tells it about every component that needs painting, and asks it
+     * to paint them all at once a little later, so that's where we find out when our components are painted.
+     */
+    private static final class PaintProbe extends RepaintManager {
+        private JComponent[] watched = new JComponent[0];
+        private boolean[] dirty = new boolean[0]; // only used on the Swing thread
+        private boolean[] changed = new boolean[0]; // same
+        private long[] paintedAt = new long[0]; // written on the Swing thread, read by the harness, under the probe's lock
+
+        void watch(JComponent[] components) {
+            watched = components;
+            dirty = new boolean[components.length];
+            changed = new boolean[components.length];
+            paintedAt = new long[components.length];
+        }
+
+        /**
+         * Forgets which components changed before now. Called on the Swing thread.
+         */
+        void arm() {
+            Arrays.fill(changed, false);
+        }
+
+        /**
+         * @return which watched components asked to be painted since {@link #arm()}. Called on the Swing thread.
+         */
+        boolean[] changed() {
+            return changed.clone();
+        }
+
+        @Override
+        public void addDirtyRegion(JComponent component, int x, int y, int width, int height) {
+            super.addDirtyRegion(component, x, y, width, height);
+            Rectangle region = new Rectangle(x, y, width, height);
+            for (int i = 0; i < watched.length; i++) {
+                JComponent target = watched[i];
+                // the component itself, something inside it, or something it's inside of repainting over it
+                boolean covers = target == component || SwingUtilities.isDescendingFrom(component, target)
+                        || SwingUtilities.isDescendingFrom(target, component) && target.getParent() != null
+                        && SwingUtilities.convertRectangle(target.getParent(), target.getBounds(), component).intersects(region);
+                if (covers) {
+                    dirty[i] = true;
+                    changed[i] = true;
+                }
+            }
+        }
+
+        @Override
+        public void paintDirtyRegions() {
+            super.paintDirtyRegions();
+            Toolkit.getDefaultToolkit().sync(); // the pixels are on the display, not just in the back buffer
+            long now = System.nanoTime();
+            synchronized (this) {
+                for (int i = 0; i < watched.length; i++) {
+                    if (dirty[i]) {
+                        dirty[i] = false;
+                        paintedAt[i] = now;
+                    }
+                }
+                notifyAll();
+            }
+        }
+
+        /**
+         * Waits until each of the given components was painted after the given time.
+         * @return when each of them was painted, 0 for those that weren't within the timeout (or weren't waited for)
+         */
+        synchronized long[] awaitPainted(boolean[] components, long after, long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (true) {
+                boolean done = true;
+                for (int i = 0; i < components.length; i++) {
+                    done &= !components[i] || paintedAt[i] > after;
+                }
+                long left = deadline - System.nanoTime();
+                if (done || left <= 0) {
+                    long[] painted = new long[components.length];
+                    for (int i = 0; i < components.length; i++) {
+                        painted[i] = components[i] && paintedAt[i] > after ? paintedAt[i] : 0;
+                    }
+                    return painted;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+        }
+    }
+}
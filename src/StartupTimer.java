@@ -0,0 +1,40 @@
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A tiny stopwatch for the launch of the game, so we can keep an eye on how long players wait for the window.
+ * Each step is measured from when the JVM process started, which includes the JVM's own startup,
+ * and it's printed to the console once the game panel is ready, like:
+ *   Startup: main 85 ms, window shown 240 ms, first frame painted 310 ms, game ready 355 ms
+ */
+public final class StartupTimer {
+    private static final Instant PROCESS_START = ProcessHandle.current().info().startInstant().orElse(Instant.now());
+    private static final StringBuilder REPORT = new StringBuilder("Startup:");
+    private static boolean reported;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Records that a step of the launch is done.
+     * @param step: what was done, like "window shown"
+     * @return how many milliseconds after the process started it happened
+     */
+    public static synchronized long mark(String step) {
+        long millis = Duration.between(PROCESS_START, Instant.now()).toMillis();
+        if (!reported) {
+            REPORT.append(REPORT.length() > "Startup:".length() ? ", " : " ").append(step).append(' ').append(millis).append(" ms");
+        }
+        return millis;
+    }
+
+    /**
+     * Prints every step recorded so far. Only the first call prints anything.
+     */
+    public static synchronized void report() {
+        if (!reported) {
+            reported = true;
+            System.out.println(REPORT);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * A small message that shows up over the top of a panel, like "Letter already guessed!", and goes away on its own
+ * (or when clicked). Unlike JOptionPane it never stops the game: there's no dialog to close and no waiting,
+ * the player can keep typing while it's up, and nothing freezes when nobody is there to click "OK".
+ * ------------
+ * It floats in the window's popup layer rather than inside the panel, so showing it never moves the panel's components around.
+ * Messages can have several lines, separated by "\n".
+ */
+public class Toast extends JComponent {
+    private static final int PADDING = 12;
+    private static final int MARGIN_TOP = 16;
+
+    private final JComponent owner;
+    private final Timer hideTimer = new Timer(0, null);
+    private String[] lines = new String[0];
+    private Color background = Color.DARK_GRAY;
+
+    /**
+     * @param owner: the panel the messages show up over
+     */
+    public Toast(JComponent owner) {
+        this.owner = owner;
+        setFont(new Font(Font.SANS_SERIF, Font.BOLD, 15));
+        setForeground(Color.WHITE);
+        setVisible(false);
+
+        hideTimer.setRepeats(false);
+        hideTimer.addActionListener(new ActionListener() {
+            public void actionPerformed(ActionEvent event) {
+                setVisible(false);
+            }
+        });
+
+        addMouseListener(new MouseAdapter() { // clicking the message makes it go away sooner
+            @Override
+            public void mouseClicked(MouseEvent event) {
+                hideTimer.stop();
+                setVisible(false);
+            }
+        });
+    }
+
+    /**
+     * Shows a message, replacing the one showing already, if any.
+     * @param message: what to say, "\n" starting a new line
+     * @param color: the color behind the text
+     * @param millis: how long to show it for, or 0 to keep it until {@link #hideMessage()} or a click
+     */
+    public void showMessage(String message, Color color, int millis) {
+        this.lines = message.split("\n");
+        this.background = color;
+
+        JRootPane root = SwingUtilities.getRootPane(owner);
+        if (root != null) { // otherwise the panel isn't in a window yet, there's nowhere to paint it
+            JLayeredPane layers = root.getLayeredPane();
+            if (getParent() != layers) {
+                layers.add(this, JLayeredPane.POPUP_LAYER);
+            }
+
+            FontMetrics metrics = getFontMetrics(getFont());
+            int width = 0;
+            for (String line : lines) {
+                width = Math.max(width, metrics.stringWidth(line));
+            }
+            width += 2 * PADDING;
+            int height = lines.length * metrics.getHeight() + 2 * PADDING;
+            Point corner = SwingUtilities.convertPoint(owner, 0, 0, layers);
+            setBounds(corner.x + (owner.getWidth() - width) / 2, corner.y + MARGIN_TOP, width, height);
+        }
+
+        setVisible(true);
+        repaint();
+        hideTimer.stop();
+        if (millis > 0) {
+            hideTimer.setInitialDelay(millis);
+            hideTimer.start();
+        }
+    }
+
+    /**
+     * Takes the message away, if one is showing.
+     */
+    public void hideMessage() {
+        hideTimer.stop();
+        setVisible(false);
+    }
+
+    /**
+     * @return the message showing, or null if there's none. Meant for tests.
+     */
+    public String getMessage() {
+        return isVisible() ? String.join("\n", lines) : null;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D graphics = (Graphics2D) g.create();
+        graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        graphics.setColor(new Color(background.getRed(), background.getGreen(), background.getBlue(), 230));
+        graphics.fillRoundRect(0, 0, getWidth(), getHeight(), 16, 16);
+
+        FontMetrics metrics = graphics.getFontMetrics(getFont());
+        graphics.setFont(getFont());
+        graphics.setColor(getForeground());
+        int y = PADDING + metrics.getAscent();
+        for (String line : lines) {
+            graphics.drawString(line, (getWidth() - metrics.stringWidth(line)) / 2, y);
+            y += metrics.getHeight();
+        }
+        graphics.dispose();
+    }
+}
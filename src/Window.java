@@ -1,5 +1,16 @@
+import assets.Asset;
+import assets.Assets;
+import dictionary.Dictionaries;
+import dictionary.Dictionary;
+import dictionary.WordSelection;
+import journal.Journal;
+import stats.StatsStore;
+
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * This class is simply the frame in which we will be displaying all of our content.
@@ -10,20 +21,50 @@ import java.awt.*;
  * Here we initialize our frame and set its name, icon, size, characteristics, etc.
  * After that we add our panels to aggregate panel, the "container". That panel will store
  * other panels, and due to the layout we use (card layour) we can simply just flip panels easily.
+ * ------------
+ * To get the main menu on screen as fast as possible, only the menu is built before the window is shown.
+ * The dictionary, the game journal (see journal.Journal) and the player statistics (see stats.StatsStore) are loaded
+ * on background threads meanwhile, and so is everything else the game needs (see {@link GameSetup}).
+ * The Swing thread never waits for any of it: once the setup is done, and not before the first frame is painted,
+ * the game panel is built and added to our cards. If the player clicks "Play" before that, the game shows up
+ * as soon as it's ready. If the words can't be loaded at all, the menu says so.
  */
 public class Window extends JFrame {
     private CardLayout layout = new CardLayout();
-    private JPanel container = new JPanel(layout);
-    ImageIcon hangmanIcon = new ImageIcon(getClass().getResource("ImageAssets/StickMan.png"));
+    private JPanel container = new JPanel(layout) {
+        private boolean painted;
+
+        @Override
+        public void paint(Graphics g) {
+            super.paint(g);
+            if (!painted) {
+                painted = true;
+                StartupTimer.mark("first frame painted");
+                setup.whenComplete((ready, error) -> SwingUtilities.invokeLater(() -> loadGamePanel(ready, error)));
+            }
+        }
+    };
+    private final CompletableFuture<Dictionary> dictionary = CompletableFuture.supplyAsync(() -> Dictionaries.load(Words.words));
+    private final CompletableFuture<WordSelection> selection = dictionary.thenApplyAsync(d -> Dictionaries.select(Dictionaries.index(d)));
+    private final CompletableFuture<Journal> journal = CompletableFuture.supplyAsync(Journal::openDefault);
+    private final CompletableFuture<StatsStore> stats = CompletableFuture.supplyAsync(StatsStore::openDefault);
+    private final CompletableFuture<GameSetup> setup = CompletableFuture.allOf(selection, journal, stats)
+            .thenApplyAsync(loaded -> new GameSetup(dictionary.join(), selection.join(), journal.join(), stats.join()));
+    private GameWindow gameWindow;
+    private Throwable loadError;
+    private boolean playClicked;
+    private Toast toast;
 
     public Window() {
         setTitle("Hangman");
-        setIconImage(hangmanIcon.getImage());
+        setIconImage(Assets.image(Asset.STICK_MAN));
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setResizable(false);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeFiles)); // whichever way the game is closed, the journal and stats get flushed
 
-        container.add(new MainMenu(layout, container).getPanel(), "Main");
-        container.add(new GameWindow(layout, container).getPanel(), "Game");
+        JPanel menu = new MainMenu(this::showGame).getPanel();
+        container.add(menu, "Main");
+        toast = new Toast(menu);
 
         layout.show(container, "Main");
         add(container);
@@ -31,5 +72,72 @@ public class Window extends JFrame {
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
+        StartupTimer.mark("window shown");
+    }
+
+    /**
+     * Builds the game panel out of the finished setup and adds it to our cards, then shows it if "Play" was already clicked.
+     * @param ready: what the game plays with, or null if it couldn't be loaded
+     * @param error: why it couldn't be loaded, or null
+     */
+    private void loadGamePanel(GameSetup ready, Throwable error) {
+        if (error != null) {
+            loadError = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.out.println("Unable to load the game. " + loadError);
+            showLoadError();
+            return;
+        }
+        gameWindow = new GameWindow(layout, container, ready);
+        container.add(gameWindow.getPanel(), "Game");
+
+        // the window was packed around the menu alone, so make room if the game panel needs more
+        Dimension needed = container.getPreferredSize();
+        if (needed.width > container.getWidth() || needed.height > container.getHeight()) {
+            pack();
+        }
+        StartupTimer.mark("game ready");
+        StartupTimer.report();
+        if (playClicked) {
+            setCursor(null);
+            layout.show(container, "Game");
+        }
+    }
+
+    private void showLoadError() {
+        setCursor(null);
+        String reason = loadError.getMessage() != null ? loadError.getMessage() : loadError.toString();
+        toast.showMessage("Unable to load the words\n" + reason, Color.DARK_GRAY, 0);
+    }
+
+    /**
+     * Flushes the last few records of the journal and the latest stats to disk when the game closes.
+     */
+    private void closeFiles() {
+        StatsStore openedStats = stats.getNow(null);
+        if (openedStats != null) {
+            openedStats.close();
+        }
+        Journal opened = journal.getNow(null);
+        if (opened != null) {
+            try {
+                opened.close();
+            } catch (IOException e) {
+                System.out.println("Unable to save the game journal. " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * What the main menu's "Play" button does.
+     */
+    private void showGame() {
+        if (gameWindow != null) {
+            layout.show(container, "Game");
+        } else if (loadError != null) {
+            showLoadError();
+        } else {
+            playClicked = true; // still loading, the game shows up once it's ready
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        }
     }
 }
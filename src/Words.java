@@ -5,6 +5,8 @@
  * a class, we'll access them remotely.
  * Since this is meant to be a simple raw java project we didnt use a word generator.
  * If you wish to take your project to other heights, its best advised to install said package.
+ * These words are only the built in fallback, a much bigger list can be packed into a dictionary file
+ * with dictionary.DictionaryWriter and given to the game with -Dhangman.dictionary=path.
  */
 
 public interface Words {
@@ -0,0 +1,59 @@
+package assets;
+
+/**
+ * Every image the game shows, with the size it's shown at. Sizes are in screen points, on a HiDPI screen
+ * the image is also prepared at the matching number of pixels (see {@link Assets}).
+ * A size of 0 means the image is used as it is, like the window icon.
+ */
+public enum Asset {
+    STAGE_0("ImageAssets/HangManPics/stage0.jpg", 90, 140),
+    STAGE_1("ImageAssets/HangManPics/stage1.jpg", 90, 140),
+    STAGE_2("ImageAssets/HangManPics/stage2.jpg", 90, 140),
+    STAGE_3("ImageAssets/HangManPics/stage3.jpg", 90, 140),
+    STAGE_4("ImageAssets/HangManPics/stage4.jpg", 90, 140),
+    STAGE_5("ImageAssets/HangManPics/stage5.jpg", 90, 140),
+    STAGE_6("ImageAssets/HangManPics/stage6.jpg", 90, 140),
+    GAME_ICON("ImageAssets/HangmanGameIcon.png", 150, 150),
+    GITHUB_ICON("ImageAssets/GitHubIcon.png", 18, 18),
+    LINKEDIN_ICON("ImageAssets/LinkedInIcon.png", 12, 12),
+    STICK_MAN("ImageAssets/StickMan.png", 0, 0);
+
+    public static final int STAGES = 7;
+
+    private final String path;
+    private final int width;
+    private final int height;
+
+    Asset(String path, int width, int height) {
+        this.path = path;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param wrongGuesses: how many wrong guesses the player made, from 0 to 6
+     * @return the hangman drawing for that many wrong guesses
+     */
+    public static Asset stage(int wrongGuesses) {
+        return values()[STAGE_0.ordinal() + Math.max(0, Math.min(wrongGuesses, STAGES - 1))];
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return whether the image is shown at its own size
+     */
+    public boolean isOriginalSize() {
+        return width == 0;
+    }
+}
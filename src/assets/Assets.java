@@ -0,0 +1,155 @@
+package assets;
+
+import metrics.AssetLoadEvent;
+import metrics.Metrics;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BaseMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The one place where the game's images are decoded and scaled. Each image is decoded once, scaled once to the size
+ * it's shown at (and to the screen's HiDPI scale), and the same Icon is handed to everyone who asks for it.
+ * ------------
+ * Calling {@link #preload()} as early as possible starts all that work on background threads, so by the time a panel
+ * asks for an icon it's usually already there. If it isn't, the caller waits only for that one image.
+ * Nothing here ever happens on the guess path, panels keep the icons they were given.
+ */
+public final class Assets {
+    private static final Map<Asset, CompletableFuture<ImageIcon>> ICONS = new EnumMap<>(Asset.class);
+    private static ExecutorService loader;
+
+    private Assets() {
+    }
+
+    /**
+     * Starts decoding every asset in the background. Calling it again does nothing.
+     */
+    public static synchronized void preload() {
+        for (Asset asset : Asset.values()) {
+            future(asset);
+        }
+    }
+
+    private static synchronized CompletableFuture<ImageIcon> future(Asset asset) {
+        CompletableFuture<ImageIcon> future = ICONS.get(asset);
+        if (future == null) {
+            if (loader == null) {
+                loader = Executors.newFixedThreadPool(Math.min(4, Runtime.getRuntime().availableProcessors()), task -> {
+                    Thread thread = new Thread(task, "asset-loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            future = CompletableFuture.supplyAsync(() -> new ImageIcon(load(asset, screenScale())), loader);
+            ICONS.put(asset, future);
+        }
+        return future;
+    }
+
+    /**
+     * @param asset: the image we want
+     * @return the shared icon of that image, ready to be painted
+     */
+    public static Icon icon(Asset asset) {
+        return future(asset).join();
+    }
+
+    /**
+     * @param asset: the image we want
+     * @return the shared image, for things that need an Image rather than an Icon (like a window icon)
+     */
+    public static Image image(Asset asset) {
+        return future(asset).join().getImage();
+    }
+
+    /**
+     * @return how many pixels the default screen uses per point, 1 on a regular screen and 2 on most HiDPI ones
+     */
+    static double screenScale() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return 1;
+        }
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getDefaultTransform().getScaleX();
+    }
+
+    /**
+     * Decodes an asset and scales it to its size. On a HiDPI screen we return both the regular and the
+     * high resolution version together, and Swing paints whichever fits the screen.
+     * This does no caching, use {@link #icon(Asset)} in the game.
+     * @param asset: the image to load
+     * @param scale: the screen scale
+     * @return the image at its display size
+     */
+    public static Image load(Asset asset, double scale) {
+        long start = System.nanoTime();
+        AssetLoadEvent timing = Metrics.assetLoading();
+        Image image = decode(asset, scale);
+        Metrics.assetLoaded(timing, start, asset.name(), scale);
+        return image;
+    }
+
+    private static Image decode(Asset asset, double scale) {
+        URL location = Assets.class.getResource("/" + asset.getPath());
+        if (location == null) {
+            throw new IllegalStateException("Missing image " + asset.getPath());
+        }
+        BufferedImage original;
+        try {
+            original = ImageIO.read(location);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read image " + asset.getPath(), e);
+        }
+        if (asset.isOriginalSize()) {
+            return original;
+        }
+
+        BufferedImage regular = scale(original, asset.getWidth(), asset.getHeight());
+        if (scale <= 1) {
+            return regular;
+        }
+        BufferedImage sharp = scale(original, (int) Math.round(asset.getWidth() * scale), (int) Math.round(asset.getHeight() * scale));
+        return new BaseMultiResolutionImage(regular, sharp);
+    }
+
+    /**
+     * Scales an image smoothly by halving it step by step and finishing with a bilinear resize,
+     * which looks as good as SCALE_SMOOTH for the sizes we use but is much faster.
+     */
+    private static BufferedImage scale(BufferedImage image, int width, int height) {
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        while (currentWidth / 2 >= width && currentHeight / 2 >= height) {
+            currentWidth /= 2;
+            currentHeight /= 2;
+            current = resize(current, currentWidth, currentHeight);
+        }
+        return resize(current, width, height);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width, int height) {
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = resized.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(image, 0, 0, width, height, null);
+        graphics.dispose();
+        return resized;
+    }
+}
@@ -0,0 +1,85 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which dictionary the game plays with, and which of its words a new game may pick.
+ * If the "hangman.dictionary" system property points to a packed dictionary file we map that one,
+ * otherwise we fall back to the small list of words compiled into the game.
+ * The "hangman.words" system property narrows the words down with a {@link WordQuery}:
+ *   java -Dhangman.dictionary=words.hdict -Dhangman.words=length=5-7,difficulty=hard Main
+ * "hangman.seed" makes the words picked the same every time, and "hangman.noRepeat" says how many games go by
+ * before a word can come back (100 by default), see {@link WordPicker}.
+ */
+public final class Dictionaries {
+    public static final String DICTIONARY_PROPERTY = "hangman.dictionary";
+    public static final String QUERY_PROPERTY = "hangman.words";
+    public static final String SEED_PROPERTY = "hangman.seed";
+    public static final String NO_REPEAT_PROPERTY = "hangman.noRepeat";
+    public static final int DEFAULT_NO_REPEAT = 100;
+
+    private Dictionaries() {
+    }
+
+    /**
+     * @param builtIn: the words to use when no dictionary file was given
+     * @return the dictionary to play with
+     */
+    public static Dictionary load(String[] builtIn) {
+        String file = System.getProperty(DICTIONARY_PROPERTY);
+        if (file != null && !file.isBlank()) {
+            try {
+                MappedDictionary dictionary = MappedDictionary.open(Path.of(file));
+                if (dictionary.size() > 0) {
+                    return dictionary;
+                }
+                System.out.println("Dictionary " + file + " is empty, using the built in words.");
+            } catch (IOException e) {
+                System.out.println("Unable to open dictionary " + file + ", using the built in words. " + e.getMessage());
+            }
+        }
+        return Dictionary.of(builtIn);
+    }
+
+    /**
+     * @param dictionary: a dictionary from {@link #load(String[])}
+     * @return its word index, read from disk for mapped dictionaries and built in memory otherwise
+     */
+    public static WordIndex index(Dictionary dictionary) {
+        if (dictionary instanceof MappedDictionary) {
+            return WordIndex.openOrBuild((MappedDictionary) dictionary);
+        }
+        return WordIndex.build(dictionary);
+    }
+
+    /**
+     * @param index: the index of the dictionary we play with
+     * @return the words matching the "hangman.words" query, or every word if the query is invalid or matches nothing
+     */
+    public static WordSelection select(WordIndex index) {
+        String text = System.getProperty(QUERY_PROPERTY);
+        try {
+            WordSelection selection = index.select(WordQuery.parse(text));
+            if (!selection.isEmpty()) {
+                return selection;
+            }
+            System.out.println("No word matches " + text + ", using every word.");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid word query " + text + ", using every word. " + e.getMessage());
+        }
+        return index.select(WordQuery.ANY);
+    }
+
+    /**
+     * @param dictionary: the dictionary we play with
+     * @param selection: the words a new game may pick
+     * @return a picker seeded with "hangman.seed" (or a random seed), not repeating a word for "hangman.noRepeat" games
+     */
+    public static WordPicker picker(Dictionary dictionary, WordSelection selection) {
+        Long seed = Long.getLong(SEED_PROPERTY);
+        int noRepeat = Integer.getInteger(NO_REPEAT_PROPERTY, DEFAULT_NO_REPEAT);
+        return new WordPicker(dictionary, selection, seed != null ? seed : ThreadLocalRandom.current().nextLong(), noRepeat);
+    }
+}
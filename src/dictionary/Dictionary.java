@@ -0,0 +1,62 @@
+package dictionary;
+
+/**
+ * A list of words the game can pick from. Each word is known by its id, from 0 to {@link #size()} - 1.
+ * Implementations don't have to keep a String for every word around, they only need to build
+ * one when {@link #word(int)} is called, which is how the memory mapped dictionary stays small on the heap.
+ */
+public interface Dictionary {
+
+    /**
+     * @return how many words the dictionary has
+     */
+    int size();
+
+    /**
+     * @param id: the word id, from 0 to size() - 1
+     * @return the word with that id
+     */
+    String word(int id);
+
+    /**
+     * @param id: the word id, from 0 to size() - 1
+     * @return how many characters the word has
+     */
+    default int length(int id) {
+        return word(id).length();
+    }
+
+    /**
+     * Reads one character of a word. Implementations that can do it without building the whole word should,
+     * since the solver reads words this way while scanning the dictionary.
+     * Whatever the word's encoding is, this must return exactly word(id).charAt(index), so it counts UTF-16 characters
+     * the same way {@link #length(int)} does.
+     * @param id: the word id, from 0 to size() - 1
+     * @param index: the character index inside the word
+     * @return the character
+     */
+    default char charAt(int id, int index) {
+        return word(id).charAt(index);
+    }
+
+    /**
+     * Wraps a plain array of words, like the one in the Words interface, as a dictionary.
+     * @param words: the words, which are not copied
+     * @return a dictionary backed by the array
+     */
+    static Dictionary of(String... words) {
+        return new Dictionary() {
+            public int size() {
+                return words.length;
+            }
+
+            public String word(int id) {
+                return words[id];
+            }
+
+            public char charAt(int id, int index) {
+                return words[id].charAt(index);
+            }
+        };
+    }
+}
@@ -0,0 +1,136 @@
+package dictionary;
+
+import engine.HangmanGame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Packs a list of words into the file format read by {@link MappedDictionary}.
+ * Words are trimmed and lower cased, and blank lines or words too long for the game are skipped. The file is written next to
+ * the target first and then moved over it, so a game that has the old file mapped is never left with half a file.
+ * Once every word is in, the file is read back to hash them, and the hash goes into the header.
+ * ------------
+ * It can also be used from the command line to pack a plain text word list, one word per line:
+ *   java dictionary.DictionaryWriter words.txt words.hdict
+ */
+public final class DictionaryWriter {
+
+    private DictionaryWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DictionaryWriter <words.txt> <output.hdict>");
+            System.exit(2);
+        }
+        try (Stream<String> lines = Files.lines(Path.of(args[0]), StandardCharsets.UTF_8)) {
+            int count = write(lines, Path.of(args[1]));
+            System.out.println("Wrote " + count + " words to " + args[1]);
+        }
+    }
+
+    /**
+     * @param words: the words to pack, in the order they should get their ids
+     * @param file: where to write the dictionary
+     * @return how many words were written
+     * @throws IOException if the file can't be written
+     */
+    public static int write(Stream<String> words, Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Path data = Files.createTempFile(parent, "words", ".tmp");
+        Path packed = Files.createTempFile(parent, "dict", ".tmp");
+        try {
+            // first pass: write the word bytes and remember where each one ends
+            IntList ends = new IntList();
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(data))) {
+                int offset = 0;
+                for (String word : (Iterable<String>) words::iterator) {
+                    // the same form the game compares letters in, so "é" typed as "e" plus an accent is one letter
+                    String normalized = Normalizer.normalize(word.trim(), Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+                    if (normalized.isEmpty() || normalized.codePointCount(0, normalized.length()) > HangmanGame.MAX_WORD_LENGTH) {
+                        continue;
+                    }
+                    byte[] bytes = normalized.getBytes(StandardCharsets.UTF_8);
+                    if ((long) offset + bytes.length > Integer.MAX_VALUE) {
+                        throw new IOException("Dictionary files are limited to 2GB");
+                    }
+                    out.write(bytes);
+                    offset += bytes.length;
+                    // as many bytes as characters only happens when every character is ASCII
+                    ends.add(bytes.length == normalized.length() ? offset | MappedDictionary.ASCII_FLAG : offset);
+                }
+            }
+
+            // second pass: header, offsets, then the word bytes we just wrote
+            int count = ends.size();
+            long dataStart = MappedDictionary.HEADER_BYTES + (count + 1L) * Integer.BYTES;
+            if (dataStart + (count == 0 ? 0 : ends.get(count - 1) & ~MappedDictionary.ASCII_FLAG) > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary files are limited to 2GB");
+            }
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(packed)))) {
+                writeIntLE(out, MappedDictionary.MAGIC);
+                writeIntLE(out, MappedDictionary.VERSION);
+                writeIntLE(out, count);
+                writeIntLE(out, (int) dataStart);
+                out.writeLong(0); // the content hash, filled in below
+                writeIntLE(out, 0);
+                for (int i = 0; i < count; i++) {
+                    writeIntLE(out, ends.get(i));
+                }
+                Files.copy(data, out);
+            }
+            long hash = WordScores.contentHash(MappedDictionary.open(packed));
+            try (FileChannel channel = FileChannel.open(packed, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(0, hash);
+                channel.write(header, MappedDictionary.HASH_OFFSET);
+            }
+            Files.move(packed, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(data);
+            Files.deleteIfExists(packed);
+        }
+    }
+
+    private static void writeIntLE(DataOutputStream out, int value) throws IOException {
+        out.writeInt(Integer.reverseBytes(value));
+    }
+
+    /**
+     * A tiny growable int array so we don't box millions of offsets into a List of Integers.
+     */
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i) {
+            return values[i];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
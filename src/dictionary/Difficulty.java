@@ -0,0 +1,10 @@
+package dictionary;
+
+/**
+ * How hard a word is to guess. The index buckets words by this so the game can offer "hard words only".
+ * ------------
+ * Each dictionary is split in thirds by the scores of its words, see {@link WordScores}.
+ */
+public enum Difficulty {
+    EASY, MEDIUM, HARD
+}
@@ -0,0 +1,209 @@
+package dictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A dictionary that reads its words straight out of a memory mapped file written by {@link DictionaryWriter}.
+ * Opening it only maps the file and checks the header, so it takes the same time for fifty words or fifty million.
+ * The operating system pages the file in as words are read, and the only String we build is the one being asked for.
+ * ------------
+ * File layout, all numbers are little endian ints:
+ *   magic, version, word count, offset of the word bytes, content hash (a long, low int first),
+ *   (count + 1) offsets into the word bytes, the last one being the end of the data,
+ *   the words themselves as UTF-8, one after the other with no separator.
+ * The top bit of the offset where a word ends is set when the word is plain ASCII (since version 3), so its bytes
+ * and its characters line up and {@link #charAt(int, int)} is a single read.
+ * The content hash is worked out once, when the file is written (see {@link WordScores#contentHash(Dictionary)}),
+ * so the files stored next to the dictionary can be checked against it without reading every word at each start.
+ * Files of version 1 don't have it, it's worked out again when it's asked for.
+ * Since a single mapping is limited to 2GB, so are dictionary files.
+ */
+public final class MappedDictionary implements Dictionary {
+    static final int MAGIC = 0x48444943; // "HDIC"
+    static final int VERSION = 3;
+    static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES;
+    static final int HASH_OFFSET = 4 * Integer.BYTES;
+    private static final int V1_HEADER_BYTES = 4 * Integer.BYTES;
+    static final int ASCII_FLAG = 1 << 31;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int offsetsStart;
+    private final int dataStart;
+
+    private MappedDictionary(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a Hangman dictionary file");
+        }
+        int version = buffer.getInt(4);
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported dictionary version " + version);
+        }
+        this.offsetsStart = version == 1 ? V1_HEADER_BYTES : HEADER_BYTES;
+        this.size = buffer.getInt(8);
+        this.dataStart = buffer.getInt(12);
+        if (size < 0 || buffer.capacity() < offsetsStart || dataStart != offsetsStart + (size + 1L) * Integer.BYTES
+                || dataStart > buffer.capacity() || (long) dataStart + offset(size) > buffer.capacity()) {
+            throw new IOException("Corrupted dictionary file");
+        }
+    }
+
+    /**
+     * Maps a dictionary file into memory. The mapping stays valid even after the channel is closed,
+     * and it's released by the garbage collector once the dictionary is no longer used.
+     * @param file: a file written by {@link DictionaryWriter}
+     * @return the mapped dictionary
+     * @throws IOException if the file can't be read or isn't a dictionary
+     */
+    public static MappedDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary files are limited to 2GB: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedDictionary(file, map);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the file this dictionary was mapped from
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * @return the size of the whole file in bytes, used to tell if files stored next to it are out of date
+     */
+    public int byteSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return the hash of the words, the same as {@link WordScores#contentHash(Dictionary)} gives. It's read from the
+     * header, only a file written before the hash was stored there has all its words read to work it out
+     */
+    public long contentHash() {
+        if (offsetsStart == V1_HEADER_BYTES) {
+            return WordScores.contentHash(this);
+        }
+        return buffer.getLong(HASH_OFFSET);
+    }
+
+    private int offset(int id) {
+        return buffer.getInt(offsetsStart + id * Integer.BYTES) & ~ASCII_FLAG;
+    }
+
+    private boolean isAscii(int id) {
+        return (buffer.getInt(offsetsStart + (id + 1) * Integer.BYTES) & ASCII_FLAG) != 0;
+    }
+
+    /**
+     * @param id: the word id
+     * @return how many UTF-8 bytes the word takes, which is its length for plain a-z words
+     */
+    public int byteLength(int id) {
+        checkId(id);
+        return offset(id + 1) - offset(id);
+    }
+
+    /**
+     * Reads one byte of a word without building a String, handy for scanning the dictionary.
+     * @param id: the word id
+     * @param index: the byte index inside the word
+     * @return the byte
+     */
+    public byte byteAt(int id, int index) {
+        return buffer.get(dataStart + offset(id) + index);
+    }
+
+    /**
+     * Reads one character without building a String. A plain ASCII word is a single read, since its bytes and its
+     * characters line up, any other word is decoded up to that character. Either way the result is
+     * the same as word(id).charAt(index).
+     */
+    public char charAt(int id, int index) {
+        checkId(id);
+        int start = dataStart + offset(id);
+        int end = dataStart + offset(id + 1);
+        if (isAscii(id)) {
+            if (index < 0 || index >= end - start) {
+                throw new StringIndexOutOfBoundsException(index);
+            }
+            return (char) buffer.get(start + index);
+        }
+        int chars = 0;
+        for (int i = start; i < end && index >= 0; ) {
+            int b = buffer.get(i++);
+            int codePoint;
+            if (b >= 0) {
+                codePoint = b;
+            } else {
+                int continuations = (b & 0xE0) == 0xC0 ? 1 : (b & 0xF0) == 0xE0 ? 2 : 3;
+                codePoint = b & (0x3F >> continuations);
+                for (int c = 0; c < continuations && i < end; c++) {
+                    codePoint = (codePoint << 6) | (buffer.get(i++) & 0x3F);
+                }
+            }
+            if (Character.isBmpCodePoint(codePoint)) {
+                if (chars++ == index) {
+                    return (char) codePoint;
+                }
+            } else {
+                if (chars++ == index) {
+                    return Character.highSurrogate(codePoint);
+                }
+                if (chars++ == index) {
+                    return Character.lowSurrogate(codePoint);
+                }
+            }
+        }
+        throw new StringIndexOutOfBoundsException(index);
+    }
+
+    public String word(int id) {
+        checkId(id);
+        int start = offset(id);
+        int length = offset(id + 1) - start;
+        byte[] bytes = new byte[length];
+        buffer.get(dataStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int length(int id) {
+        checkId(id);
+        int start = dataStart + offset(id);
+        int end = dataStart + offset(id + 1);
+        if (isAscii(id)) {
+            return end - start;
+        }
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if ((b & 0xC0) != 0x80) { // count every byte that starts a character, then fix up characters outside of the BMP
+                length += (b & 0xF8) == 0xF0 ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException(id);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package dictionary;
+
+import engine.HangmanGame;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Tells whether a word typed by the player is in the dictionary, and if it isn't, which words are the closest to it
+ * by edit distance (how many letters must be added, removed or changed to go from one word to the other).
+ * That's what the game panel says when a whole word guess is a near miss: "hangnan is not a word, did you mean hangman?"
+ * Only words of the same length are suggested, since the player knows how long the mystery word is.
+ * ------------
+ * Scanning every word (or even walking a BK-tree, which still reads thousands of words of a big dictionary) is far too
+ * slow to do on the Swing thread, so we use the symmetric delete trick instead: every word is filed under each of the
+ * words it gives when one of its letters is deleted ("hangman" under "angman", "hngman", ... "hangma"). Two words of the
+ * same length one letter apart ("hangman" and "hangmen") give the same word when that letter is deleted from both,
+ * and so do two words where a letter was moved ("hangman" and "hagnman", "g" deleted from both).
+ * Looking a word up is then only looking up its own deletes, one per letter, and checking the few words filed there.
+ * ------------
+ * The deletes aren't kept as words: each one is a 32 bit hash, packed with its word into a long, and the longs are
+ * sorted so the words filed under a hash are next to each other, found with a binary search. That's 8 bytes per letter
+ * of the dictionary. Two deletes with the same hash only cost a wasted check, since every word found is checked.
+ * It's built once and never changes afterwards, so any number of threads can search it at the same time,
+ * each with its own {@link Searcher}. Letters are compared in the form the game compares them in
+ * (see {@link HangmanGame#fold(int)}).
+ */
+public final class SpellChecker {
+    private static final int NODE_BITS = 32;
+    private static final long HASH_MASK = -1L << NODE_BITS;
+
+    private final int[] letters;
+    private final int[] letterStarts;
+    private final int[] ids;
+    private final long[] deletes;
+
+    private SpellChecker(int[] letters, int[] letterStarts, int[] ids, long[] deletes) {
+        this.letters = letters;
+        this.letterStarts = letterStarts;
+        this.ids = ids;
+        this.deletes = deletes;
+    }
+
+    /**
+     * Files every word of the dictionary the game can play under its deletes. Words that are empty or too long for
+     * the game are left out. It goes over the dictionary once and sorts the deletes on all cores, still something
+     * to do once, in the background, when the game starts.
+     * @param dictionary: the words
+     * @return the spell checker
+     */
+    public static SpellChecker build(Dictionary dictionary) {
+        int[] letters = new int[1024];
+        int[] letterStarts = new int[dictionary.size() + 1];
+        int[] ids = new int[dictionary.size()];
+        int count = 0;
+        int end = 0;
+        for (int id = 0; id < dictionary.size(); id++) {
+            String word = normalize(dictionary.word(id));
+            int length = word.codePointCount(0, word.length());
+            if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+                continue;
+            }
+            if (end + length > letters.length) {
+                letters = Arrays.copyOf(letters, Math.max(letters.length * 2, end + length));
+            }
+            for (int i = 0; i < word.length(); ) {
+                int codePoint = word.codePointAt(i);
+                letters[end++] = codePoint;
+                i += Character.charCount(codePoint);
+            }
+            ids[count] = id;
+            letterStarts[++count] = end;
+        }
+
+        long[] deletes = new long[end];
+        for (int node = 0, at = 0; node < count; node++) {
+            int start = letterStarts[node];
+            int length = letterStarts[node + 1] - start;
+            for (int skip = 0; skip < length; skip++) {
+                deletes[at++] = (long) deleteHash(letters, start, length, skip) << NODE_BITS | node;
+            }
+        }
+        Arrays.parallelSort(deletes);
+        return new SpellChecker(Arrays.copyOf(letters, end), Arrays.copyOf(letterStarts, count + 1),
+                Arrays.copyOf(ids, count), deletes);
+    }
+
+    private static String normalize(CharSequence word) {
+        StringBuilder folded = new StringBuilder(word.length());
+        Normalizer.normalize(word, Normalizer.Form.NFC).toLowerCase(Locale.ROOT).codePoints()
+                .forEach(codePoint -> folded.appendCodePoint(HangmanGame.fold(codePoint)));
+        return folded.toString();
+    }
+
+    /**
+     * @return the hash of a word with one of its letters deleted
+     */
+    private static int deleteHash(int[] word, int from, int length, int skip) {
+        int hash = length;
+        for (int i = 0; i < length; i++) {
+            if (i != skip) {
+                hash = (hash ^ word[from + i]) * 0x9E3779B1;
+                hash = Integer.rotateLeft(hash, 13);
+            }
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        return hash ^ (hash >>> 13);
+    }
+
+    /**
+     * @return how many words are filed
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return roughly how many bytes of heap the spell checker takes
+     */
+    public long heapBytes() {
+        return 4L * letters.length + 4L * letterStarts.length + 4L * ids.length + 8L * deletes.length;
+    }
+
+    /**
+     * @return a new searcher, to be used by one thread only
+     */
+    public Searcher searcher() {
+        return new Searcher();
+    }
+
+    /**
+     * Looks words up. It keeps the word being looked up, the rows of the distance table and the suggestions found
+     * so far, and reuses them for every lookup, so looking up a word typed in lower case doesn't allocate.
+     */
+    public final class Searcher {
+        private final int[] query = new int[HangmanGame.MAX_WORD_LENGTH];
+        private final int[] rows = new int[2 * (HangmanGame.MAX_WORD_LENGTH + 1)];
+        private int[] nodes = new int[8];
+        private int[] distances = new int[8];
+        private int length;
+
+        private Searcher() {
+        }
+
+        /**
+         * @param text: anything the player typed, upper case letters being the same as lower case ones
+         * @return whether it's a word of the dictionary
+         */
+        public boolean isWord(CharSequence text) {
+            if (!load(text)) {
+                return false;
+            }
+            // a word equal to the query is filed under each of the query's deletes, any one of them will do
+            long hash = (long) deleteHash(query, 0, length, 0) << NODE_BITS;
+            for (int at = lowerBound(hash); at < deletes.length && (deletes[at] & HASH_MASK) == hash; at++) {
+                if (distance((int) deletes[at]) == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Finds the words of the same length closest to what the player typed, closest first: the ones with a letter
+         * changed, then the ones with a letter moved. The word itself is left out if it's in the dictionary.
+         * @param text: anything the player typed
+         * @param out: where to put the word ids of the suggestions, as many as it has room for
+         * @return how many suggestions were found
+         */
+        public int suggest(CharSequence text, int[] out) {
+            if (out.length == 0 || !load(text)) {
+                return 0;
+            }
+            if (nodes.length < out.length) {
+                nodes = new int[out.length];
+                distances = new int[out.length];
+            }
+            int found = 0;
+            for (int skip = 0; skip < length; skip++) {
+                long hash = (long) deleteHash(query, 0, length, skip) << NODE_BITS;
+                for (int at = lowerBound(hash); at < deletes.length && (deletes[at] & HASH_MASK) == hash; at++) {
+                    int node = (int) deletes[at];
+                    int distance = distance(node);
+                    if (distance > 0) {
+                        found = keep(out.length, found, node, distance);
+                    }
+                }
+            }
+            for (int i = 0; i < found; i++) {
+                out[i] = ids[nodes[i]];
+            }
+            return found;
+        }
+
+        /**
+         * Inserts a word into the suggestions found so far, kept sorted by distance and then by word id,
+         * unless it's already there (a word is filed under several of the query's deletes when it repeats a letter,
+         * and the dictionary may have the same word twice).
+         * @return how many suggestions there are now
+         */
+        private int keep(int room, int found, int node, int distance) {
+            for (int i = 0; i < found; i++) {
+                if (distances[i] == distance && sameWord(nodes[i], node)) {
+                    return found;
+                }
+            }
+            int at = found;
+            while (at > 0 && (distances[at - 1] > distance || (distances[at - 1] == distance && nodes[at - 1] > node))) {
+                at--;
+            }
+            if (at == room) {
+                return found;
+            }
+            int moved = Math.min(found, room - 1) - at;
+            System.arraycopy(nodes, at, nodes, at + 1, moved);
+            System.arraycopy(distances, at, distances, at + 1, moved);
+            nodes[at] = node;
+            distances[at] = distance;
+            return Math.min(found + 1, room);
+        }
+
+        private boolean sameWord(int a, int b) {
+            return Arrays.equals(letters, letterStarts[a], letterStarts[a + 1], letters, letterStarts[b], letterStarts[b + 1]);
+        }
+
+        /**
+         * The Levenshtein distance between the query and a word, with the classic two rows of the dynamic programming table.
+         */
+        private int distance(int node) {
+            int start = letterStarts[node];
+            int nodeLength = letterStarts[node + 1] - start;
+            int previous = 0;
+            int current = nodeLength + 1;
+            for (int j = 0; j <= nodeLength; j++) {
+                rows[j] = j;
+            }
+            for (int i = 1; i <= length; i++) {
+                rows[current] = i;
+                int letter = query[i - 1];
+                for (int j = 1; j <= nodeLength; j++) {
+                    int substitution = rows[previous + j - 1] + (letter == letters[start + j - 1] ? 0 : 1);
+                    int deletion = rows[previous + j] + 1;
+                    int insertion = rows[current + j - 1] + 1;
+                    rows[current + j] = Math.min(substitution, Math.min(deletion, insertion));
+                }
+                int swap = previous;
+                previous = current;
+                current = swap;
+            }
+            return rows[previous + nodeLength];
+        }
+
+        /**
+         * Folds what the player typed into the query.
+         * @return false if it's empty or too long to be a word of the game
+         */
+        private boolean load(CharSequence text) {
+            if (!isFolded(text)) {
+                text = normalize(text);
+            }
+            int count = Character.codePointCount(text, 0, text.length());
+            if (count == 0 || count > HangmanGame.MAX_WORD_LENGTH) {
+                return false;
+            }
+            length = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = Character.codePointAt(text, i);
+                query[length++] = codePoint;
+                i += Character.charCount(codePoint);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * @return the first position in the sorted deletes that isn't below the key
+     */
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = deletes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (deletes[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return true if the text is plain lower case ASCII, which is already in the form we keep words in
+     */
+    private static boolean isFolded(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the spell checker of a dictionary file and looks a few words up, timing it:
+     *   java -cp hangman.jar dictionary.SpellChecker words.hdict hangnan jazz
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SpellChecker <dictionary.hdict> [word ...]");
+            System.exit(2);
+        }
+        MappedDictionary dictionary = MappedDictionary.open(Path.of(args[0]));
+        long start = System.nanoTime();
+        SpellChecker checker = build(dictionary);
+        System.out.printf("Filed %d words in %d ms, %d KB%n", checker.size(),
+                (System.nanoTime() - start) / 1_000_000, checker.heapBytes() / 1024);
+
+        Searcher searcher = checker.searcher();
+        int[] suggestions = new int[5];
+        for (int i = 1; i < args.length; i++) {
+            start = System.nanoTime();
+            boolean isWord = searcher.isWord(args[i]);
+            int found = searcher.suggest(args[i], suggestions);
+            long micros = (System.nanoTime() - start) / 1000;
+            StringBuilder line = new StringBuilder(args[i]).append(isWord ? " is a word" : " is not a word");
+            line.append(" (").append(micros).append(" us), closest:");
+            for (int s = 0; s < found; s++) {
+                line.append(' ').append(dictionary.word(suggestions[s]));
+            }
+            System.out.println(line);
+        }
+    }
+}
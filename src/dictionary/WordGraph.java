@@ -0,0 +1,530 @@
+package dictionary;
+
+import engine.HangmanGame;
+import engine.LetterSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * The words of a dictionary as a DAWG (a directed acyclic word graph): a trie where every group of identical endings
+ * is kept only once. "walking", "talking" and "balking" share the same "alking" nodes, and millions of English words
+ * end up as a few hundred thousand edges, a small fraction of what the same words take as Strings.
+ * ------------
+ * It answers the question the solver keeps asking: how many words fit "_a__le" and use none of the letters t, r or s?
+ * The search walks down the graph one position of the pattern at a time and never enters an edge that can't fit,
+ * so a wrong letter or a revealed one cuts off everything below it at once. Each node also knows the shortest and
+ * longest word below it, which cuts off every branch of the wrong length. Since shared endings are shared nodes,
+ * the count below a node is worked out once per search and reused from every path that leads to it.
+ * Counting never builds a single word, {@link Matcher#forEach} only builds the words that match.
+ * ------------
+ * The graph is stored in a handful of flat arrays, nodes and edges being just indexes into them:
+ * the edges of a node are the ones from firstEdge[node] up to firstEdge[node + 1], each with its letter and target node.
+ * It is built once, in memory, and never changes afterwards, so any number of threads can search it at the same time,
+ * each with its own {@link Matcher}.
+ * ------------
+ * Letters are kept as code points in the form the game compares them in (see {@link HangmanGame#fold(int)}),
+ * so the words come out of the graph in lower case.
+ */
+public final class WordGraph {
+    private static final int NO_NODE = -1;
+
+    private final int root;
+    private final int size;
+    private final int nodes;
+    private final int[] firstEdge;
+    private final int[] labels;
+    private final int[] targets;
+    private final long[] finals;
+    private final byte[] minLength;
+    private final byte[] maxLength;
+
+    private WordGraph(Builder builder, int root, int size) {
+        this.root = root;
+        this.size = size;
+        this.nodes = builder.nodes;
+        this.firstEdge = Arrays.copyOf(builder.firstEdge, nodes + 1);
+        this.labels = Arrays.copyOf(builder.labels, builder.edges);
+        this.targets = Arrays.copyOf(builder.targets, builder.edges);
+        this.finals = Arrays.copyOf(builder.finals, (nodes + Long.SIZE - 1) / Long.SIZE);
+        this.minLength = Arrays.copyOf(builder.minLength, nodes);
+        this.maxLength = Arrays.copyOf(builder.maxLength, nodes);
+    }
+
+    /**
+     * Builds the graph of every word of a dictionary the game can play, sorting them first.
+     * Words that are empty or too long for the game are left out, and so are repeated words.
+     * @param dictionary: the words
+     * @return the graph
+     */
+    public static WordGraph build(Dictionary dictionary) {
+        String[] words = new String[dictionary.size()];
+        int count = 0;
+        for (int id = 0; id < words.length; id++) {
+            String word = normalize(dictionary.word(id));
+            int length = word.codePointCount(0, word.length());
+            if (length > 0 && length <= HangmanGame.MAX_WORD_LENGTH) {
+                words[count++] = word;
+            }
+        }
+        Arrays.sort(words, 0, count);
+
+        Builder builder = new Builder();
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || !words[i].equals(words[i - 1])) {
+                builder.add(words[i]);
+                added++;
+            }
+        }
+        return new WordGraph(builder, builder.finish(), added);
+    }
+
+    private static String normalize(String word) {
+        StringBuilder folded = new StringBuilder(word.length());
+        Normalizer.normalize(word, Normalizer.Form.NFC).toLowerCase(Locale.ROOT).codePoints()
+                .forEach(codePoint -> folded.appendCodePoint(HangmanGame.fold(codePoint)));
+        return folded.toString();
+    }
+
+    /**
+     * @return how many different words the graph holds
+     */
+    public int size() {
+        return size;
+    }
+
+    public int nodeCount() {
+        return nodes;
+    }
+
+    public int edgeCount() {
+        return labels.length;
+    }
+
+    /**
+     * @return roughly how many bytes of heap the graph takes
+     */
+    public long heapBytes() {
+        return 4L * firstEdge.length + 4L * labels.length + 4L * targets.length + 8L * finals.length
+                + minLength.length + maxLength.length;
+    }
+
+    /**
+     * @param word: any word
+     * @return whether the word is in the graph, upper case letters being the same as lower case ones
+     */
+    public boolean contains(String word) {
+        String folded = normalize(word);
+        int node = root;
+        for (int i = 0; i < folded.length() && node != NO_NODE; ) {
+            int codePoint = folded.codePointAt(i);
+            node = child(node, codePoint);
+            i += Character.charCount(codePoint);
+        }
+        return node != NO_NODE && isFinal(node);
+    }
+
+    private int child(int node, int letter) {
+        for (int edge = firstEdge[node], end = firstEdge[node + 1]; edge < end; edge++) {
+            if (labels[edge] == letter) {
+                return targets[edge];
+            }
+        }
+        return NO_NODE;
+    }
+
+    private boolean isFinal(int node) {
+        return (finals[node >>> 6] & (1L << node)) != 0;
+    }
+
+    /**
+     * @return a new matcher to search this graph with, to be used by one thread only
+     */
+    public Matcher matcher() {
+        return new Matcher();
+    }
+
+    /**
+     * Searches the graph for the words that fit a pattern, like "_a__le". The rules are those of a game of Hangman:
+     * a revealed letter must be in its place, a hidden position ({@link HangmanGame#HIDDEN}) can be any letter except
+     * the excluded ones and except the letters revealed elsewhere, since the game reveals a letter everywhere at once.
+     * ------------
+     * A matcher keeps what it learns about each node during a search in two int arrays as big as the graph,
+     * created on the first search and reused by the next ones, so searching doesn't allocate.
+     */
+    public final class Matcher {
+        private static final int DEPTH_BITS = 7;
+
+        private final int[] pattern = new int[HangmanGame.MAX_WORD_LENGTH];
+        private final int[] path = new int[HangmanGame.MAX_WORD_LENGTH];
+        private final LetterSet forbidden = new LetterSet();
+        private final LetterSet excludedLetters = new LetterSet();
+        private int length;
+        private int[] stamps;
+        private int[] counts;
+        private int stamp;
+
+        private Matcher() {
+        }
+
+        /**
+         * @param pattern: the word as the player sees it, like "_a__le"
+         * @param excluded: the letters the word can't have, like "trs"
+         * @return how many words fit
+         */
+        public int count(CharSequence pattern, CharSequence excluded) {
+            excludedLetters.clear();
+            for (int i = 0; i < excluded.length(); ) {
+                int codePoint = Character.codePointAt(excluded, i);
+                excludedLetters.add(HangmanGame.fold(codePoint));
+                i += Character.charCount(codePoint);
+            }
+            return count(pattern, excludedLetters);
+        }
+
+        /**
+         * @param pattern: the word as the player sees it, like "_a__le"
+         * @param excluded: the letters the word can't have, folded like {@link HangmanGame#fold(int)} does
+         * @return how many words fit
+         */
+        public int count(CharSequence pattern, LetterSet excluded) {
+            if (!prepare(pattern, excluded)) {
+                return 0;
+            }
+            return count(root, 0);
+        }
+
+        /**
+         * Hands every word that fits the pattern to an action, in the order of the graph.
+         * @param pattern: the word as the player sees it, like "_a__le"
+         * @param excluded: the letters the word can't have, folded like {@link HangmanGame#fold(int)} does
+         * @param action: what to do with each word
+         * @return how many words fit
+         */
+        public int forEach(CharSequence pattern, LetterSet excluded, Consumer<String> action) {
+            if (!prepare(pattern, excluded)) {
+                return 0;
+            }
+            int total = count(root, 0);
+            if (total > 0) {
+                visit(root, 0, action);
+            }
+            return total;
+        }
+
+        /**
+         * Reads the pattern, and starts a new search.
+         * @return false if nothing can possibly fit the pattern
+         */
+        private boolean prepare(CharSequence text, LetterSet excluded) {
+            forbidden.copyFrom(excluded);
+            length = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = Character.codePointAt(text, i);
+                i += Character.charCount(codePoint);
+                if (length == HangmanGame.MAX_WORD_LENGTH) {
+                    return false;
+                }
+                int letter = codePoint == HangmanGame.HIDDEN ? HangmanGame.HIDDEN : HangmanGame.fold(codePoint);
+                pattern[length++] = letter;
+                if (letter != HangmanGame.HIDDEN) {
+                    forbidden.add(letter);
+                }
+            }
+            if (length == 0) {
+                return false;
+            }
+
+            if (stamps == null) {
+                stamps = new int[nodes];
+                counts = new int[nodes];
+            }
+            stamp += 1 << DEPTH_BITS;
+            if (stamp < 0) { // after 16 million searches, start counting again
+                Arrays.fill(stamps, 0);
+                stamp = 1 << DEPTH_BITS;
+            }
+            return true;
+        }
+
+        /**
+         * @return how many words below a node fit the rest of the pattern, from the given position on
+         */
+        private int count(int node, int depth) {
+            int remaining = length - depth;
+            if (remaining < minLength[node] || remaining > maxLength[node]) {
+                return 0;
+            }
+            if (remaining == 0) {
+                return 1; // the shortest word below is this one, so the node is final
+            }
+            int key = stamp | depth;
+            if (stamps[node] == key) {
+                return counts[node];
+            }
+
+            int total = 0;
+            int letter = pattern[depth];
+            if (letter != HangmanGame.HIDDEN) {
+                int next = child(node, letter);
+                if (next != NO_NODE) {
+                    total = count(next, depth + 1);
+                }
+            } else {
+                for (int edge = firstEdge[node], end = firstEdge[node + 1]; edge < end; edge++) {
+                    if (fitsHidden(labels[edge])) {
+                        total += count(targets[edge], depth + 1);
+                    }
+                }
+            }
+            stamps[node] = key;
+            counts[node] = total;
+            return total;
+        }
+
+        private boolean fitsHidden(int label) {
+            return !forbidden.contains(label) && Character.isLetter(label);
+        }
+
+        /**
+         * Goes down every edge with matches below it, which {@link #count(int, int)} already worked out.
+         */
+        private void visit(int node, int depth, Consumer<String> action) {
+            if (depth == length) {
+                action.accept(new String(path, 0, length));
+                return;
+            }
+            int letter = pattern[depth];
+            for (int edge = firstEdge[node], end = firstEdge[node + 1]; edge < end; edge++) {
+                int label = labels[edge];
+                if ((letter == HangmanGame.HIDDEN ? fitsHidden(label) : label == letter)
+                        && count(targets[edge], depth + 1) > 0) {
+                    path[depth] = label;
+                    visit(targets[edge], depth + 1, action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the graph from sorted words in one pass, without ever building the whole trie (Daciuk's algorithm).
+     * Only the nodes along the last word added can still change. As soon as the next word leaves that path,
+     * the nodes it left are final: each one is either the same as a node already in the graph (same end of word flag,
+     * same edges to the same nodes), and it's replaced by it, or it's new and goes into the arrays.
+     * A hash table of node ids finds the identical node, comparing straight against the arrays.
+     */
+    private static final class Builder {
+        private int nodes;
+        private int edges;
+        private int[] firstEdge = new int[1024];
+        private int[] labels = new int[1024];
+        private int[] targets = new int[1024];
+        private long[] finals = new long[16];
+        private byte[] minLength = new byte[1024];
+        private byte[] maxLength = new byte[1024];
+        private int[] register = new int[1024]; // node id + 1, 0 being an empty slot
+        private int registered;
+
+        // the path of the last word added, the node at depth d being the one reached after d letters
+        private final int[][] pathLabels = new int[HangmanGame.MAX_WORD_LENGTH + 1][4];
+        private final int[][] pathTargets = new int[HangmanGame.MAX_WORD_LENGTH + 1][4];
+        private final int[] pathDegree = new int[HangmanGame.MAX_WORD_LENGTH + 1];
+        private final boolean[] pathFinal = new boolean[HangmanGame.MAX_WORD_LENGTH + 1];
+        private final int[] previous = new int[HangmanGame.MAX_WORD_LENGTH];
+        private int previousLength;
+
+        /**
+         * @param word: a word that comes after the previous one in sorted order
+         */
+        void add(String word) {
+            int length = 0;
+            int common = 0;
+            boolean same = true;
+            int[] letters = new int[word.length()];
+            for (int i = 0; i < word.length(); ) {
+                int codePoint = word.codePointAt(i);
+                i += Character.charCount(codePoint);
+                letters[length] = codePoint;
+                if (same && length < previousLength && previous[length] == codePoint) {
+                    common++;
+                } else {
+                    same = false;
+                }
+                length++;
+            }
+
+            freezeDownTo(common);
+            for (int depth = common; depth < length; depth++) {
+                int degree = pathDegree[depth]++;
+                if (degree == pathLabels[depth].length) {
+                    pathLabels[depth] = Arrays.copyOf(pathLabels[depth], degree * 2);
+                    pathTargets[depth] = Arrays.copyOf(pathTargets[depth], degree * 2);
+                }
+                pathLabels[depth][degree] = letters[depth];
+                pathDegree[depth + 1] = 0;
+                pathFinal[depth + 1] = false;
+            }
+            pathFinal[length] = true;
+            System.arraycopy(letters, 0, previous, 0, length);
+            previousLength = length;
+        }
+
+        /**
+         * @return the root node, once every word was added
+         */
+        int finish() {
+            freezeDownTo(0);
+            return freeze(0);
+        }
+
+        /**
+         * Freezes the nodes of the last word deeper than the given depth, pointing their parents' last edge at them.
+         */
+        private void freezeDownTo(int depth) {
+            for (int d = previousLength; d > depth; d--) {
+                pathTargets[d - 1][pathDegree[d - 1] - 1] = freeze(d);
+            }
+            previousLength = Math.min(previousLength, depth);
+        }
+
+        /**
+         * @return the id of the node identical to the one on the path at that depth, added to the arrays if it's new
+         */
+        private int freeze(int depth) {
+            int degree = pathDegree[depth];
+            int[] nodeLabels = pathLabels[depth];
+            int[] nodeTargets = pathTargets[depth];
+            boolean isFinal = pathFinal[depth];
+
+            int hash = isFinal ? 1 : 0;
+            for (int i = 0; i < degree; i++) {
+                hash = (hash * 31 + nodeLabels[i]) * 31 + nodeTargets[i];
+            }
+            int mask = register.length - 1;
+            int slot = spread(hash) & mask;
+            for (; register[slot] != 0; slot = (slot + 1) & mask) {
+                int node = register[slot] - 1;
+                if (sameNode(node, isFinal, nodeLabels, nodeTargets, degree)) {
+                    return node;
+                }
+            }
+
+            int node = append(isFinal, nodeLabels, nodeTargets, degree);
+            register[slot] = node + 1;
+            if (++registered * 2 > register.length) {
+                growRegister();
+            }
+            return node;
+        }
+
+        private boolean sameNode(int node, boolean isFinal, int[] nodeLabels, int[] nodeTargets, int degree) {
+            int first = firstEdge[node];
+            if (((finals[node >>> 6] & (1L << node)) != 0) != isFinal || firstEdge[node + 1] - first != degree) {
+                return false;
+            }
+            for (int i = 0; i < degree; i++) {
+                if (labels[first + i] != nodeLabels[i] || targets[first + i] != nodeTargets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int append(boolean isFinal, int[] nodeLabels, int[] nodeTargets, int degree) {
+            int node = nodes++;
+            if (nodes + 1 > firstEdge.length) {
+                firstEdge = Arrays.copyOf(firstEdge, firstEdge.length * 2);
+                minLength = Arrays.copyOf(minLength, firstEdge.length);
+                maxLength = Arrays.copyOf(maxLength, firstEdge.length);
+            }
+            if (node >>> 6 == finals.length) {
+                finals = Arrays.copyOf(finals, finals.length * 2);
+            }
+            if (edges + degree > labels.length) {
+                int capacity = Math.max(labels.length * 2, edges + degree);
+                labels = Arrays.copyOf(labels, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+            }
+
+            int shortest = isFinal ? 0 : HangmanGame.MAX_WORD_LENGTH;
+            int longest = 0;
+            for (int i = 0; i < degree; i++) {
+                labels[edges + i] = nodeLabels[i];
+                targets[edges + i] = nodeTargets[i];
+                shortest = Math.min(shortest, minLength[nodeTargets[i]] + 1);
+                longest = Math.max(longest, maxLength[nodeTargets[i]] + 1);
+            }
+            firstEdge[node] = edges;
+            edges += degree;
+            firstEdge[node + 1] = edges;
+            if (isFinal) {
+                finals[node >>> 6] |= 1L << node;
+            }
+            minLength[node] = (byte) shortest;
+            maxLength[node] = (byte) longest;
+            return node;
+        }
+
+        private void growRegister() {
+            int[] old = register;
+            register = new int[old.length * 2];
+            int mask = register.length - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int node = entry - 1;
+                    int hash = (finals[node >>> 6] & (1L << node)) != 0 ? 1 : 0;
+                    for (int edge = firstEdge[node]; edge < firstEdge[node + 1]; edge++) {
+                        hash = (hash * 31 + labels[edge]) * 31 + targets[edge];
+                    }
+                    int slot = spread(hash) & mask;
+                    while (register[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    register[slot] = entry;
+                }
+            }
+        }
+
+        private static int spread(int hash) {
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+    /**
+     * Counts and lists the words of a dictionary file that fit a pattern, and tells how big the graph is:
+     *   java -cp hangman.jar dictionary.WordGraph words.hdict _a__le trs
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: WordGraph <words.hdict> <pattern> [excluded letters]");
+            System.exit(2);
+        }
+        MappedDictionary dictionary = MappedDictionary.open(Path.of(args[0]));
+        long start = System.nanoTime();
+        WordGraph graph = build(dictionary);
+        System.out.printf("%d words, %d nodes, %d edges, %.1f MB, built in %d ms%n", graph.size(), graph.nodeCount(),
+                graph.edgeCount(), graph.heapBytes() / 1e6, (System.nanoTime() - start) / 1_000_000);
+
+        Matcher matcher = graph.matcher();
+        String excluded = args.length == 3 ? args[2] : "";
+        start = System.nanoTime();
+        int count = matcher.count(args[1], excluded);
+        System.out.printf("%d words fit %s without %s (%d us)%n", count, args[1], excluded.isEmpty() ? "-" : excluded,
+                (System.nanoTime() - start) / 1000);
+
+        LetterSet letters = new LetterSet();
+        excluded.codePoints().forEach(codePoint -> letters.add(HangmanGame.fold(codePoint)));
+        int[] shown = {0};
+        matcher.forEach(args[1], letters, word -> {
+            if (shown[0]++ < 20) {
+                System.out.println("  " + word);
+            }
+        });
+    }
+}
@@ -0,0 +1,293 @@
+package dictionary;
+
+import engine.HangmanGame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A precomputed index over a dictionary that groups word ids into buckets by length,
+ * number of repeated letters and difficulty. A {@link WordQuery} only ever touches the buckets,
+ * never the words, so picking a random word that matches costs the same for 50 words or 50 million.
+ * ------------
+ * For a mapped dictionary the index is stored next to it ("words.hdict" gets "words.hdict.idx")
+ * and mapped the same way, it's only rebuilt when the words in the dictionary change. Like the {@link WordScores}
+ * the difficulty buckets come from, that's checked with a hash of the dictionary's content, not just its size,
+ * the one stored in the dictionary's header (see {@link MappedDictionary#contentHash()}), so checking costs nothing.
+ * File layout, little endian ints: magic, version, dictionary word count, dictionary file size,
+ * bucket count, content hash (a long, low int first), then (bucket count + 1) bucket starts,
+ * then the word ids sorted by bucket.
+ */
+public final class WordIndex {
+    static final int MAGIC = 0x48494458; // "HIDX"
+    static final int VERSION = 6;
+    static final int HEADER_INTS = 7;
+
+    private static final int REPEATED_VALUES = HangmanGame.MAX_WORD_LENGTH;
+    private static final int DIFFICULTIES = Difficulty.values().length;
+    static final int BUCKETS = HangmanGame.MAX_WORD_LENGTH * REPEATED_VALUES * DIFFICULTIES;
+
+    private final IntBuffer bucketStarts;
+    private final IntBuffer ids;
+
+    private WordIndex(IntBuffer bucketStarts, IntBuffer ids) {
+        this.bucketStarts = bucketStarts;
+        this.ids = ids;
+    }
+
+    /**
+     * @param length: the word length, from 1 to {@link HangmanGame#MAX_WORD_LENGTH}
+     * @param repeated: how many of the word's letters repeat one before them, see {@link #repeatedLetters(String, int[])}
+     * @param difficulty: the difficulty of the word
+     * @return the bucket the word goes into
+     */
+    static int bucket(int length, int repeated, Difficulty difficulty) {
+        return ((length - 1) * REPEATED_VALUES + repeated) * DIFFICULTIES + difficulty.ordinal();
+    }
+
+    /**
+     * @param bucket: a bucket from {@link #bucket(int, int, Difficulty)}
+     * @return the length of the words in it
+     */
+    static int length(int bucket) {
+        return bucket / (REPEATED_VALUES * DIFFICULTIES) + 1;
+    }
+
+    /**
+     * Scores the words of the dictionary and indexes them, see {@link #build(Dictionary, WordScores)}.
+     * @param dictionary: the words to index
+     * @return the index, kept in memory
+     */
+    public static WordIndex build(Dictionary dictionary) {
+        return build(dictionary, WordScores.compute(dictionary));
+    }
+
+    /**
+     * Goes through every word of the dictionary once and sorts the ids into buckets (a counting sort).
+     * Words that are too long for the game are left out. Lengths are counted in code points, like the game does.
+     * @param dictionary: the words to index
+     * @param scores: the scores of those words, which decide their difficulty
+     * @return the index, kept in memory
+     */
+    public static WordIndex build(Dictionary dictionary, WordScores scores) {
+        int size = dictionary.size();
+        int[] buckets = new int[size];
+        int[] starts = new int[BUCKETS + 1];
+        int[] seen = new int[HangmanGame.MAX_WORD_LENGTH];
+
+        for (int id = 0; id < size; id++) {
+            String word = dictionary.word(id);
+            int length = word.codePointCount(0, word.length());
+            if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+                buckets[id] = -1;
+                continue;
+            }
+            buckets[id] = bucket(length, repeatedLetters(word, seen), scores.difficulty(id));
+            starts[buckets[id] + 1]++;
+        }
+        for (int b = 0; b < BUCKETS; b++) {
+            starts[b + 1] += starts[b];
+        }
+
+        int[] sorted = new int[starts[BUCKETS]];
+        int[] next = Arrays.copyOf(starts, BUCKETS);
+        for (int id = 0; id < size; id++) {
+            if (buckets[id] >= 0) {
+                sorted[next[buckets[id]]++] = id;
+            }
+        }
+        return new WordIndex(IntBuffer.wrap(starts), IntBuffer.wrap(sorted));
+    }
+
+    /**
+     * Counts the letters that were already seen earlier in the word, telling letters apart the way the game does:
+     * folded with {@link HangmanGame#fold(int)}, in any script, and leaving out anything that isn't a letter
+     * (the game shows those from the start). A word has no repeated letters when it's 0, whatever its hyphens
+     * or spaces, so "x-ray" is one just like "xray".
+     * @param word: a word of at most {@link HangmanGame#MAX_WORD_LENGTH} code points
+     * @param seen: room for the letters outside a-z, reused between words
+     * @return how many letters it has beyond its different ones
+     */
+    static int repeatedLetters(String word, int[] seen) {
+        int latin = 0;
+        int others = 0;
+        int repeated = 0;
+        for (int i = 0; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetter(codePoint)) {
+                continue;
+            }
+            int letter = HangmanGame.fold(codePoint);
+            int index = HangmanGame.letterIndex(letter);
+            if (index >= 0) {
+                repeated += (latin >>> index) & 1;
+                latin |= 1 << index;
+            } else if (contains(seen, others, letter)) {
+                repeated++;
+            } else {
+                seen[others++] = letter;
+            }
+        }
+        return repeated;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param dictionaryFile: the path of a dictionary file
+     * @return where its index is stored
+     */
+    public static Path indexFile(Path dictionaryFile) {
+        return dictionaryFile.resolveSibling(dictionaryFile.getFileName() + ".idx");
+    }
+
+    /**
+     * Maps the stored index of a dictionary, or builds it and stores it if it's missing or out of date.
+     * If the index can't be written (a read only folder, for example) we just keep the one we built in memory.
+     * @param dictionary: a mapped dictionary
+     * @return the index for it
+     */
+    public static WordIndex openOrBuild(MappedDictionary dictionary) {
+        Path file = indexFile(dictionary.getPath());
+        long hash = dictionary.contentHash();
+        try {
+            WordIndex index = open(file, dictionary, hash);
+            if (index != null) {
+                return index;
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read word index " + file + ", rebuilding it. " + e.getMessage());
+        }
+
+        WordIndex index = build(dictionary, WordScores.openOrCompute(dictionary, hash));
+        try {
+            index.write(file, dictionary, hash);
+        } catch (IOException e) {
+            System.out.println("Unable to save word index " + file + ". " + e.getMessage());
+        }
+        return index;
+    }
+
+    /**
+     * @return the index, or null if the file is missing or was built for another version of the dictionary
+     */
+    private static WordIndex open(Path file, MappedDictionary dictionary, long hash) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE || channel.size() < HEADER_INTS * Integer.BYTES) {
+                return null;
+            }
+            IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION || ints.get(4) != BUCKETS
+                    || ints.get(2) != dictionary.size() || ints.get(3) != dictionary.byteSize()
+                    || ints.get(5) != (int) hash || ints.get(6) != (int) (hash >>> 32)) {
+                return null;
+            }
+            int count = ints.get(HEADER_INTS + BUCKETS);
+            if (ints.capacity() != HEADER_INTS + BUCKETS + 1 + count) {
+                return null;
+            }
+            IntBuffer starts = ints.slice(HEADER_INTS, BUCKETS + 1);
+            IntBuffer ids = ints.slice(HEADER_INTS + BUCKETS + 1, count);
+            return new WordIndex(starts, ids);
+        }
+    }
+
+    /**
+     * Stores the index next to its dictionary, writing a temporary file first and then moving it in place.
+     */
+    void write(Path file, MappedDictionary dictionary, long hash) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "index", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeIntLE(out, MAGIC);
+                writeIntLE(out, VERSION);
+                writeIntLE(out, dictionary.size());
+                writeIntLE(out, dictionary.byteSize());
+                writeIntLE(out, BUCKETS);
+                writeIntLE(out, (int) hash);
+                writeIntLE(out, (int) (hash >>> 32));
+                for (int b = 0; b <= BUCKETS; b++) {
+                    writeIntLE(out, bucketStarts.get(b));
+                }
+                for (int i = 0; i < ids.capacity(); i++) {
+                    writeIntLE(out, ids.get(i));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeIntLE(DataOutputStream out, int value) throws IOException {
+        out.writeInt(Integer.reverseBytes(value));
+    }
+
+    /**
+     * Finds the buckets matching a query. The result can be kept and reused for every new game,
+     * only picking from it happens per game.
+     * @param query: which words are allowed
+     * @return the words that match, ready to be picked from
+     */
+    public WordSelection select(WordQuery query) {
+        int[] matching = new int[BUCKETS];
+        long[] cumulative = new long[BUCKETS];
+        int count = 0;
+        long total = 0;
+
+        for (int length = query.getMinLength(); length <= query.getMaxLength(); length++) {
+            int maxRepeated = query.isNoRepeatedLetters() ? 0 : length - 1;
+            for (int repeated = 0; repeated <= maxRepeated; repeated++) {
+                for (Difficulty difficulty : Difficulty.values()) {
+                    if (!query.allows(difficulty)) {
+                        continue;
+                    }
+                    int b = bucket(length, repeated, difficulty);
+                    int size = bucketStarts.get(b + 1) - bucketStarts.get(b);
+                    if (size > 0) {
+                        total += size;
+                        matching[count] = b;
+                        cumulative[count] = total;
+                        count++;
+                    }
+                }
+            }
+        }
+        return new WordSelection(this, Arrays.copyOf(matching, count), Arrays.copyOf(cumulative, count));
+    }
+
+    int bucketStart(int bucket) {
+        return bucketStarts.get(bucket);
+    }
+
+    int idAt(int position) {
+        return ids.get(position);
+    }
+
+    /**
+     * @return how many words are in the index
+     */
+    public int size() {
+        return ids.capacity();
+    }
+}
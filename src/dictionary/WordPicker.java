@@ -0,0 +1,250 @@
+package dictionary;
+
+import java.nio.ByteBuffer;
+import java.util.random.RandomGenerator;
+
+/**
+ * Picks the words of new games for one player (or one session, or one simulation thread), with its own random
+ * generator, so nothing is shared between players and no two threads ever wait on the same seed.
+ * ------------
+ * Given a seed, a picker always picks the same words in the same order, which makes a game easy to play again.
+ * Other pickers are made from it with {@link #split()}, each with a random generator of its own that is still decided
+ * by the seed, so a server or a simulation is just as reproducible as one game panel.
+ * The seed and the number of picks are all it takes to get a picker back exactly as it was, see {@link #resume(long, int)},
+ * but that picks every word again. To put a picker aside and get it back later, {@link #writeState} writes its
+ * generator and its last picks instead, and {@link #readState} reads them back, whatever the number of picks.
+ * ------------
+ * A picker also remembers its last picks and never picks any of them again, so a player doesn't see the same word
+ * twice in a row. That only costs a ring of the last ids and a small hash set of them: a pick checks the set
+ * and forgets the oldest id, the same work whether the dictionary has 50 words or 50 million. A pick that was
+ * picked recently is simply drawn again, and since at most half of the words are ever remembered, that happens
+ * less than once per pick on average.
+ * This class is not thread safe, each thread or session should have its own picker.
+ */
+public final class WordPicker {
+    private final Dictionary dictionary;
+    private final WordSelection selection;
+    private final long seed;
+    private final SplitMix random;
+    private final int window;
+    private int picks;
+
+    private final int[] recent;
+    private int recentCount;
+    private int oldest;
+    private final int[] recentSet; // id + 1, 0 being an empty slot
+
+    /**
+     * @param dictionary: the words
+     * @param selection: which of them may be picked
+     * @param seed: the seed of the random generator
+     * @param noRepeat: how many of the last picks can't be picked again, lowered to half the selection if it's bigger
+     */
+    public WordPicker(Dictionary dictionary, WordSelection selection, long seed, int noRepeat) {
+        if (selection.isEmpty()) {
+            throw new IllegalArgumentException("No word to pick from");
+        }
+        this.dictionary = dictionary;
+        this.selection = selection;
+        this.seed = seed;
+        this.random = new SplitMix(seed);
+        this.window = (int) Math.max(0, Math.min(noRepeat, selection.size() / 2));
+        this.recent = new int[window];
+        this.recentSet = new int[Integer.highestOneBit(Math.max(1, window) * 4 - 1) << 1];
+    }
+
+    /**
+     * The generator of {@link java.util.SplittableRandom}, SplitMix64, with a state we can write and read back.
+     * It gives the same numbers as a SplittableRandom made with the same seed.
+     */
+    private static final class SplitMix implements RandomGenerator {
+        private static final long GAMMA = 0x9E3779B97F4A7C15L;
+        long state;
+
+        SplitMix(long seed) {
+            this.state = seed;
+        }
+
+        @Override
+        public long nextLong() {
+            long z = state += GAMMA;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    /**
+     * @param noRepeat: how many of the last picks a picker remembers, see {@link #getNoRepeat()}
+     * @return how many bytes {@link #writeState} writes for such a picker
+     */
+    public static int stateBytes(int noRepeat) {
+        return 3 * Long.BYTES + noRepeat * Integer.BYTES;
+    }
+
+    /**
+     * Writes what it takes to get this picker back as it is, in the buffer's byte order:
+     *   0 seed, 8 generator state, 16 words picked, 20 how many last picks follow, 24 the last picks, oldest first.
+     * @param buffer: where to write, with room for {@link #stateBytes(int)} bytes of this picker's window from at
+     * @param at: where in the buffer
+     */
+    public void writeState(ByteBuffer buffer, int at) {
+        buffer.putLong(at, seed);
+        buffer.putLong(at + 8, random.state);
+        buffer.putInt(at + 16, picks);
+        buffer.putInt(at + 20, recentCount);
+        int first = recentCount == window ? oldest : 0;
+        for (int i = 0; i < recentCount; i++) {
+            buffer.putInt(at + 24 + i * Integer.BYTES, recent[(first + i) % window]);
+        }
+    }
+
+    /**
+     * Gets back a picker that was made from this one (or with the same words) from what {@link #writeState} wrote.
+     * Unlike {@link #resume(long, int)} it takes the same time however many words the picker picked.
+     * @param buffer: where the state was written
+     * @param at: where in the buffer
+     * @return the picker, as it was
+     * @throws IllegalArgumentException if the state is of a picker remembering more picks than this one
+     */
+    public WordPicker readState(ByteBuffer buffer, int at) {
+        WordPicker picker = new WordPicker(dictionary, selection, buffer.getLong(at), window);
+        picker.random.state = buffer.getLong(at + 8);
+        picker.picks = buffer.getInt(at + 16);
+        int count = buffer.getInt(at + 20);
+        if (count < 0 || count > window) {
+            throw new IllegalArgumentException("The state remembers " + count + " picks, more than " + window);
+        }
+        for (int i = 0; i < count; i++) {
+            picker.remember(buffer.getInt(at + 24 + i * Integer.BYTES));
+        }
+        return picker;
+    }
+
+    /**
+     * @return a new picker with a random generator of its own, for another thread or session,
+     * which picks from the same words and remembers as many of its own picks
+     */
+    public WordPicker split() {
+        return new WordPicker(dictionary, selection, random.nextLong(), window);
+    }
+
+    /**
+     * Gets back a picker that was made from this one (or with the same words) by its seed and how many words it picked.
+     * The picks are made again, so it remembers the same last picks too.
+     * @param seed: the seed of the picker, see {@link #getSeed()}
+     * @param picks: how many words it had picked, see {@link #getPicks()}
+     * @return the picker, as it was
+     */
+    public WordPicker resume(long seed, int picks) {
+        WordPicker picker = new WordPicker(dictionary, selection, seed, window);
+        for (int i = 0; i < picks; i++) {
+            picker.next();
+        }
+        return picker;
+    }
+
+    /**
+     * @return the id of a word not picked in the last picks
+     */
+    public int next() {
+        int id = selection.pick(random);
+        while (isRecent(id)) {
+            id = selection.pick(random);
+        }
+        remember(id);
+        picks++;
+        return id;
+    }
+
+    /**
+     * @return a word not picked in the last picks
+     */
+    public String nextWord() {
+        return dictionary.word(next());
+    }
+
+    /**
+     * @param id: a word id
+     * @return the word
+     */
+    public String word(int id) {
+        return dictionary.word(id);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return how many words this picker picked
+     */
+    public int getPicks() {
+        return picks;
+    }
+
+    /**
+     * @return how many of the last picks can't be picked again
+     */
+    public int getNoRepeat() {
+        return window;
+    }
+
+    private boolean isRecent(int id) {
+        int mask = recentSet.length - 1;
+        for (int slot = slot(id); recentSet[slot] != 0; slot = (slot + 1) & mask) {
+            if (recentSet[slot] == id + 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a pick to the ring and the set, pushing the oldest one out of both once the ring is full.
+     */
+    private void remember(int id) {
+        if (window == 0) {
+            return;
+        }
+        if (recentCount == window) {
+            forget(recent[oldest]);
+            recent[oldest] = id;
+            oldest = (oldest + 1) % window;
+        } else {
+            recent[recentCount++] = id;
+        }
+        int mask = recentSet.length - 1;
+        int slot = slot(id);
+        while (recentSet[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        recentSet[slot] = id + 1;
+    }
+
+    /**
+     * Takes an id out of the set, moving back the ids after it that would otherwise not be found anymore.
+     */
+    private void forget(int id) {
+        int mask = recentSet.length - 1;
+        int slot = slot(id);
+        while (recentSet[slot] != id + 1) {
+            slot = (slot + 1) & mask;
+        }
+        int hole = slot;
+        for (slot = (slot + 1) & mask; recentSet[slot] != 0; slot = (slot + 1) & mask) {
+            int home = slot(recentSet[slot] - 1);
+            // the entry can fill the hole if its home isn't between the hole and where it is now
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                recentSet[hole] = recentSet[slot];
+                hole = slot;
+            }
+        }
+        recentSet[hole] = 0;
+    }
+
+    private int slot(int id) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (recentSet.length - 1);
+    }
+}
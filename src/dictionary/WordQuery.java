@@ -0,0 +1,126 @@
+package dictionary;
+
+import engine.HangmanGame;
+
+import java.util.Locale;
+
+/**
+ * Describes which words a new game may pick, like "5 to 7 letters", "hard words only" or "no repeated letters".
+ * Queries are immutable, each "with" method returns a new one.
+ */
+public final class WordQuery {
+    public static final WordQuery ANY = new WordQuery(1, HangmanGame.MAX_WORD_LENGTH, 0b111, false);
+
+    private final int minLength;
+    private final int maxLength;
+    private final int difficulties;
+    private final boolean noRepeatedLetters;
+
+    private WordQuery(int minLength, int maxLength, int difficulties, boolean noRepeatedLetters) {
+        if (minLength < 1 || maxLength > HangmanGame.MAX_WORD_LENGTH || minLength > maxLength) {
+            throw new IllegalArgumentException("Invalid length range " + minLength + "-" + maxLength);
+        }
+        if (difficulties == 0) {
+            throw new IllegalArgumentException("At least one difficulty is needed");
+        }
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.difficulties = difficulties;
+        this.noRepeatedLetters = noRepeatedLetters;
+    }
+
+    public WordQuery withLength(int minLength, int maxLength) {
+        return new WordQuery(minLength, maxLength, difficulties, noRepeatedLetters);
+    }
+
+    public WordQuery withDifficulty(Difficulty... allowed) {
+        int mask = 0;
+        for (Difficulty difficulty : allowed) {
+            mask |= 1 << difficulty.ordinal();
+        }
+        return new WordQuery(minLength, maxLength, mask, noRepeatedLetters);
+    }
+
+    public WordQuery withNoRepeatedLetters(boolean noRepeatedLetters) {
+        return new WordQuery(minLength, maxLength, difficulties, noRepeatedLetters);
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public boolean allows(Difficulty difficulty) {
+        return (difficulties & (1 << difficulty.ordinal())) != 0;
+    }
+
+    public boolean isNoRepeatedLetters() {
+        return noRepeatedLetters;
+    }
+
+    /**
+     * Reads a query written like "length=5-7,difficulty=hard,unique". Every part is optional,
+     * and an empty text means any word. Several difficulties can be given with "+", like "difficulty=medium+hard".
+     * @param text: the query as text
+     * @return the query
+     */
+    public static WordQuery parse(String text) {
+        WordQuery query = ANY;
+        if (text == null || text.isBlank()) {
+            return query;
+        }
+        for (String part : text.split(",")) {
+            String[] keyValue = part.trim().toLowerCase(Locale.ROOT).split("=", 2);
+            switch (keyValue[0]) {
+                case "length": {
+                    String[] range = value(keyValue).split("-", 2);
+                    int min = Integer.parseInt(range[0].trim());
+                    int max = range.length == 2 ? Integer.parseInt(range[1].trim()) : min;
+                    query = query.withLength(min, max);
+                    break;
+                }
+                case "difficulty": {
+                    String[] names = value(keyValue).split("\\+");
+                    Difficulty[] allowed = new Difficulty[names.length];
+                    for (int i = 0; i < names.length; i++) {
+                        allowed[i] = Difficulty.valueOf(names[i].trim().toUpperCase(Locale.ROOT));
+                    }
+                    query = query.withDifficulty(allowed);
+                    break;
+                }
+                case "unique":
+                    query = query.withNoRepeatedLetters(true);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown word query option: " + part);
+            }
+        }
+        return query;
+    }
+
+    private static String value(String[] keyValue) {
+        if (keyValue.length != 2) {
+            throw new IllegalArgumentException("Missing value for " + keyValue[0]);
+        }
+        return keyValue[1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("length=").append(minLength).append('-').append(maxLength).append(",difficulty=");
+        String separator = "";
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (allows(difficulty)) {
+                text.append(separator).append(difficulty.name().toLowerCase(Locale.ROOT));
+                separator = "+";
+            }
+        }
+        if (noRepeatedLetters) {
+            text.append(",unique");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,667 @@
+package dictionary;
+
+import engine.HangmanGame;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A difficulty score for every word of a dictionary, from 0 (easiest) to 1 (hardest), worked out from the dictionary
+ * itself rather than from English in general, so a list of medical terms or of French words is ranked just as well.
+ * A word is harder when:
+ *   - its letters are rare in the dictionary, so the player guesses them late,
+ *   - it repeats few letters, so each hit reveals less of it,
+ *   - many other words of its length share its masked pattern once the most common letters were guessed
+ *     ("_a__le" after e, a, l...), so the player is still left with many words to choose from.
+ * Letters are told apart the way the game does (folded with {@link HangmanGame#fold(int)}, in any script), so Greek
+ * or accented words are ranked by their own letters, and anything that isn't a letter only counts towards the pattern.
+ * The words are then split in three: the easiest third is {@link Difficulty#EASY}, the hardest third is
+ * {@link Difficulty#HARD}, which the {@link WordIndex} buckets words by.
+ * ------------
+ * Every pass goes over the dictionary split over all cores with fork-join, and counting the words sharing a pattern
+ * is a parallel sort of the pattern keys, so the scores of millions of words take seconds, not minutes.
+ * For a mapped dictionary they're still stored next to it ("words.hdict" gets "words.hdict.scores") and mapped the
+ * same way, and only worked out again when the words in the dictionary change. Since a dictionary can be rewritten
+ * with the same number of words and bytes, we check a hash of its content rather than its size.
+ * File layout, little endian: magic, version, word count, playable word count (ints), content hash (long),
+ * the easy and hard cut off scores, then one score per word id (floats). Words the game can't play are NaN.
+ */
+public final class WordScores {
+    static final int MAGIC = 0x4853434F; // "HSCO"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 4 * Integer.BYTES + Long.BYTES + 2 * Float.BYTES;
+
+    private static final int CHUNK = 1 << 14;
+    /** How many of the most common letters are guessed before we look at the pattern left, one level each. */
+    private static final int[] PATTERN_LEVELS = {3, 6, 9};
+    private static final double RARITY_WEIGHT = 0.35;
+    private static final double UNIQUENESS_WEIGHT = 0.25;
+    private static final double AMBIGUITY_WEIGHT = 0.4;
+
+    private final FloatBuffer scores;
+    private final float easyCut;
+    private final float hardCut;
+    private final long contentHash;
+
+    private WordScores(FloatBuffer scores, float easyCut, float hardCut, long contentHash) {
+        this.scores = scores;
+        this.easyCut = easyCut;
+        this.hardCut = hardCut;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * @param id: the word id
+     * @return how hard the word is, from 0 to 1, or NaN if the game can't play it (empty or too long)
+     */
+    public float score(int id) {
+        return scores.get(id);
+    }
+
+    /**
+     * @param id: the word id of a word the game can play
+     * @return which third of the dictionary the word falls in
+     */
+    public Difficulty difficulty(int id) {
+        float score = scores.get(id);
+        if (score < easyCut) {
+            return Difficulty.EASY;
+        }
+        return score < hardCut ? Difficulty.MEDIUM : Difficulty.HARD;
+    }
+
+    /**
+     * @return how many words were scored
+     */
+    public int size() {
+        return scores.capacity();
+    }
+
+    /**
+     * @return the hash of the dictionary the scores were worked out for, see {@link #contentHash(Dictionary)}
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * @param dictionaryFile: the path of a dictionary file
+     * @return where its scores are stored
+     */
+    public static Path scoresFile(Path dictionaryFile) {
+        return dictionaryFile.resolveSibling(dictionaryFile.getFileName() + ".scores");
+    }
+
+    /**
+     * Maps the stored scores of a dictionary, or works them out and stores them if they're missing or were worked
+     * out for other words. If they can't be written we just keep the ones we worked out in memory.
+     * @param dictionary: a mapped dictionary
+     * @return the scores of its words
+     */
+    public static WordScores openOrCompute(MappedDictionary dictionary) {
+        return openOrCompute(dictionary, dictionary.contentHash());
+    }
+
+    /**
+     * The same, for a caller that already has the hash of the dictionary, see {@link MappedDictionary#contentHash()}.
+     */
+    static WordScores openOrCompute(MappedDictionary dictionary, long hash) {
+        Path file = scoresFile(dictionary.getPath());
+        try {
+            WordScores scores = open(file, dictionary.size(), hash);
+            if (scores != null) {
+                return scores;
+            }
+        } catch (IOException e) {
+            System.out.println("Unable to read word scores " + file + ", working them out again. " + e.getMessage());
+        }
+
+        WordScores scores = compute(dictionary, hash);
+        try {
+            scores.write(file);
+        } catch (IOException e) {
+            System.out.println("Unable to save word scores " + file + ". " + e.getMessage());
+        }
+        return scores;
+    }
+
+    /**
+     * Works out the scores of every word, in memory.
+     * @param dictionary: the words to score
+     * @return their scores
+     */
+    public static WordScores compute(Dictionary dictionary) {
+        return compute(dictionary, contentHash(dictionary));
+    }
+
+    private static WordScores compute(Dictionary dictionary, long hash) {
+        int size = dictionary.size();
+
+        // how many words have each letter, and how many words have each length
+        Counts counts = new CountTask(dictionary, 0, size).invoke();
+        int[] lengthCounts = new int[HangmanGame.MAX_WORD_LENGTH + 1];
+        int[] lengths = new int[size];
+        int playable = 0;
+        for (int length = 1; length <= HangmanGame.MAX_WORD_LENGTH; length++) {
+            lengthCounts[length] = (int) counts.lengths[length];
+            playable += lengthCounts[length];
+        }
+        LetterRanks ranks = new LetterRanks(counts);
+
+        float[] scores = new float[size];
+        parallelFor(size, (from, to) -> {
+            int[] seen = new int[HangmanGame.MAX_WORD_LENGTH];
+            for (int id = from; id < to; id++) {
+                String word = dictionary.word(id);
+                lengths[id] = word.codePointCount(0, word.length());
+                scores[id] = baseScore(word, lengths[id], ranks, seen);
+            }
+        });
+
+        // for each level, the pattern of every word is turned into a key, and the keys are sorted so the words
+        // sharing a pattern end up next to each other and can be counted with two binary searches
+        long[] keys = new long[size];
+        float[] ambiguity = new float[size];
+        for (int level : PATTERN_LEVELS) {
+            parallelFor(size, (from, to) -> {
+                for (int id = from; id < to; id++) {
+                    keys[id] = patternKey(dictionary.word(id), ranks, level);
+                }
+            });
+            long[] sorted = keys.clone();
+            Arrays.parallelSort(sorted);
+            parallelFor(size, (from, to) -> {
+                for (int id = from; id < to; id++) {
+                    if (Float.isNaN(scores[id])) {
+                        continue;
+                    }
+                    int sameLength = lengthCounts[lengths[id]];
+                    if (sameLength > 1) {
+                        int family = upperBound(sorted, keys[id]) - lowerBound(sorted, keys[id]);
+                        ambiguity[id] += (float) (Math.log(family) / Math.log(sameLength) / PATTERN_LEVELS.length);
+                    }
+                }
+            });
+        }
+        parallelFor(size, (from, to) -> {
+            for (int id = from; id < to; id++) {
+                scores[id] += (float) (AMBIGUITY_WEIGHT * ambiguity[id]);
+            }
+        });
+
+        // NaN sorts last, so the playable words come first and we can cut them in thirds
+        float[] sortedScores = scores.clone();
+        Arrays.parallelSort(sortedScores);
+        float easyCut = playable > 0 ? sortedScores[playable / 3] : 0;
+        float hardCut = playable > 0 ? sortedScores[playable * 2 / 3] : 0;
+        return new WordScores(FloatBuffer.wrap(scores), easyCut, hardCut, hash);
+    }
+
+    /**
+     * The rank of every letter of the dictionary, 0 for the one in the most words. The letters a-z are looked up
+     * in an array, the others (far fewer words have them in most dictionaries) with a binary search.
+     */
+    private static final class LetterRanks {
+        final int[] latin = new int[HangmanGame.ALPHABET_SIZE];
+        final int[] others; // sorted code points
+        final int[] otherRanks;
+        final int alphabet; // how many letters the dictionary uses
+
+        LetterRanks(Counts counts) {
+            // a letter's word count, negated, in the high bits and the letter in the low ones: sorting the keys puts
+            // the letters in the most words first, and the same counts in code point order
+            long[] order = new long[HangmanGame.ALPHABET_SIZE + counts.others.size];
+            this.others = new int[counts.others.size];
+            this.otherRanks = new int[others.length];
+            int size = 0;
+            int used = 0;
+            for (int i = 0; i < HangmanGame.ALPHABET_SIZE; i++) {
+                order[size++] = -counts.latin[i] << 32 | ('a' + i);
+                used += counts.latin[i] > 0 ? 1 : 0;
+            }
+            int n = 0;
+            for (int slot = 0; slot < counts.others.letters.length; slot++) {
+                int letter = counts.others.letters[slot];
+                if (letter != OtherCounts.FREE) {
+                    order[size++] = -counts.others.counts[slot] << 32 | letter;
+                    others[n++] = letter;
+                    used++; // a letter only gets in the table with a word that has it
+                }
+            }
+            Arrays.sort(order);
+            Arrays.sort(others);
+            for (int rank = 0; rank < size; rank++) {
+                int letter = (int) order[rank];
+                int index = HangmanGame.letterIndex(letter);
+                if (index >= 0) {
+                    latin[index] = rank;
+                } else {
+                    otherRanks[Arrays.binarySearch(others, letter)] = rank;
+                }
+            }
+            this.alphabet = used;
+        }
+
+        /**
+         * @param letter: a folded letter
+         * @return its rank, or Integer.MAX_VALUE for a letter only found in words the game can't play
+         */
+        int rank(int letter) {
+            int index = HangmanGame.letterIndex(letter);
+            if (index >= 0) {
+                return latin[index];
+            }
+            int at = Arrays.binarySearch(others, letter);
+            return at >= 0 ? otherRanks[at] : Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * @param length: how many code points the word has
+     * @param seen: room for the distinct letters of a word, reused between words
+     * @return the score of a word from its letters alone, or NaN if the game can't play it
+     */
+    private static float baseScore(String word, int length, LetterRanks ranks, int[] seen) {
+        if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+            return Float.NaN;
+        }
+        int letters = 0;
+        int distinct = 0;
+        int rankSum = 0;
+        for (int i = 0; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (!Character.isLetter(codePoint)) {
+                continue;
+            }
+            int letter = HangmanGame.fold(codePoint);
+            letters++;
+            if (!contains(seen, distinct, letter)) {
+                seen[distinct++] = letter;
+                rankSum += ranks.rank(letter);
+            }
+        }
+        if (distinct == 0) {
+            return 0;
+        }
+        double rarity = rankSum / (distinct * Math.max(1.0, ranks.alphabet - 1.0));
+        double uniqueness = distinct / (double) letters;
+        return (float) (RARITY_WEIGHT * rarity + UNIQUENESS_WEIGHT * uniqueness);
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hashes what the player sees of a word once the most common letters were guessed: its length, where each of
+     * those letters is, and the characters that aren't letters (like '-'), which are shown from the start.
+     * @param level: how many of the most common letters were guessed
+     * @return the key, the same for every word with the same pattern
+     */
+    private static long patternKey(String word, LetterRanks ranks, int level) {
+        long hash = word.codePointCount(0, word.length());
+        for (int i = 0; i < word.length(); ) {
+            int codePoint = word.codePointAt(i);
+            i += Character.charCount(codePoint);
+            long value;
+            if (!Character.isLetter(codePoint)) {
+                value = 0x200000 | codePoint; // above every code point, so it's never a rank
+            } else {
+                int rank = ranks.rank(HangmanGame.fold(codePoint));
+                value = rank < level ? rank + 1 : 0;
+            }
+            hash = (hash ^ value) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Hashes every word of the dictionary in order (FNV-1a over the characters, or the UTF-8 bytes of a mapped
+     * dictionary), split over all cores. The split only depends on the number of words, so the same words always
+     * give the same hash.
+     * @param dictionary: the words
+     * @return a 64 bit hash of them
+     */
+    public static long contentHash(Dictionary dictionary) {
+        return new HashTask(dictionary, 0, dictionary.size()).invoke() ^ dictionary.size();
+    }
+
+    /**
+     * How many words have each letter, and how many words have each length in code points.
+     */
+    private static final class Counts {
+        final long[] latin = new long[HangmanGame.ALPHABET_SIZE];
+        final long[] lengths = new long[HangmanGame.MAX_WORD_LENGTH + 1];
+        final OtherCounts others = new OtherCounts();
+
+        void add(Counts other) {
+            for (int i = 0; i < latin.length; i++) {
+                latin[i] += other.latin[i];
+            }
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] += other.lengths[i];
+            }
+            for (int slot = 0; slot < other.others.letters.length; slot++) {
+                if (other.others.letters[slot] != OtherCounts.FREE) {
+                    others.add(other.others.letters[slot], other.others.counts[slot]);
+                }
+            }
+        }
+    }
+
+    /**
+     * How many words have each letter outside a-z, in an open addressing table of primitives, so counting a letter
+     * never boxes it or its count. A folded letter is never 0, which marks a free slot.
+     */
+    private static final class OtherCounts {
+        static final int FREE = 0;
+
+        int[] letters = new int[16];
+        long[] counts = new long[16];
+        int size;
+
+        void add(int letter, long count) {
+            if ((size + 1) * 2 > letters.length) {
+                int[] oldLetters = letters;
+                long[] oldCounts = counts;
+                letters = new int[oldLetters.length * 2];
+                counts = new long[oldLetters.length * 2];
+                size = 0;
+                for (int slot = 0; slot < oldLetters.length; slot++) {
+                    if (oldLetters[slot] != FREE) {
+                        counts[slot(oldLetters[slot])] = oldCounts[slot];
+                    }
+                }
+            }
+            counts[slot(letter)] += count;
+        }
+
+        /**
+         * @return the slot of the letter, taking a free one for it if it isn't in the table yet
+         */
+        private int slot(int letter) {
+            int mask = letters.length - 1;
+            int hash = letter * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (letters[slot] != letter) {
+                if (letters[slot] == FREE) {
+                    letters[slot] = letter;
+                    size++;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<Counts> {
+        private final Dictionary dictionary;
+        private final int from;
+        private final int to;
+
+        CountTask(Dictionary dictionary, int from, int to) {
+            this.dictionary = dictionary;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Counts compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                CountTask right = new CountTask(dictionary, middle, to);
+                right.fork();
+                Counts counts = new CountTask(dictionary, from, middle).compute();
+                counts.add(right.join());
+                return counts;
+            }
+            Counts counts = new Counts();
+            int[] seen = new int[HangmanGame.MAX_WORD_LENGTH];
+            for (int id = from; id < to; id++) {
+                String word = dictionary.word(id);
+                int length = word.codePointCount(0, word.length());
+                if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+                    continue;
+                }
+                counts.lengths[length]++;
+                int latin = 0;
+                int others = 0;
+                for (int i = 0; i < word.length(); ) {
+                    int codePoint = word.codePointAt(i);
+                    i += Character.charCount(codePoint);
+                    if (!Character.isLetter(codePoint)) {
+                        continue;
+                    }
+                    int letter = HangmanGame.fold(codePoint);
+                    int index = HangmanGame.letterIndex(letter);
+                    if (index >= 0) {
+                        latin |= 1 << index;
+                    } else if (!contains(seen, others, letter)) {
+                        seen[others++] = letter;
+                        counts.others.add(letter, 1);
+                    }
+                }
+                for (; latin != 0; latin &= latin - 1) {
+                    counts.latin[Integer.numberOfTrailingZeros(latin)]++;
+                }
+            }
+            return counts;
+        }
+    }
+
+    private static final class HashTask extends RecursiveTask<Long> {
+        private static final long OFFSET = 0xCBF29CE484222325L;
+        private static final long PRIME = 0x100000001B3L;
+
+        private final Dictionary dictionary;
+        private final int from;
+        private final int to;
+
+        HashTask(Dictionary dictionary, int from, int to) {
+            this.dictionary = dictionary;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                HashTask right = new HashTask(dictionary, middle, to);
+                right.fork();
+                long left = new HashTask(dictionary, from, middle).compute();
+                return (left * PRIME) ^ Long.rotateLeft(right.join(), 31);
+            }
+            long hash = OFFSET;
+            if (dictionary instanceof MappedDictionary mapped) {
+                for (int id = from; id < to; id++) {
+                    int length = mapped.byteLength(id);
+                    for (int i = 0; i < length; i++) {
+                        hash = (hash ^ (mapped.byteAt(id, i) & 0xFF)) * PRIME;
+                    }
+                    hash = (hash ^ 0x100) * PRIME; // the end of a word, so "ab" "c" isn't "a" "bc"
+                }
+            } else {
+                for (int id = from; id < to; id++) {
+                    String word = dictionary.word(id);
+                    for (int i = 0; i < word.length(); i++) {
+                        hash = (hash ^ word.charAt(i)) * PRIME;
+                    }
+                    hash = (hash ^ 0x10000) * PRIME;
+                }
+            }
+            return hash;
+        }
+    }
+
+    private interface Range {
+        void run(int from, int to);
+    }
+
+    private static void parallelFor(int size, Range body) {
+        new RangeTask(body, 0, size).invoke();
+    }
+
+    /**
+     * Runs a loop over a range of word ids, splitting the range in half until it's small enough.
+     */
+    private static final class RangeTask extends RecursiveAction {
+        private final Range body;
+        private final int from;
+        private final int to;
+
+        RangeTask(Range body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RangeTask(body, from, middle), new RangeTask(body, middle, to));
+                return;
+            }
+            body.run(from, to);
+        }
+    }
+
+    /**
+     * @return the scores, or null if the file is missing or was written for other words
+     */
+    private static WordScores open(Path file, int size, long hash) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + (long) size * Float.BYTES) {
+                return null;
+            }
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            if (bytes.getInt(0) != MAGIC || bytes.getInt(4) != VERSION || bytes.getInt(8) != size
+                    || bytes.getLong(16) != hash) {
+                return null;
+            }
+            FloatBuffer scores = bytes.slice(HEADER_BYTES, size * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            return new WordScores(scores, bytes.getFloat(24), bytes.getFloat(28), hash);
+        }
+    }
+
+    /**
+     * Stores the scores next to their dictionary, writing a temporary file first and then moving it in place.
+     */
+    void write(Path file) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "scores", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                int playable = 0;
+                for (int id = 0; id < scores.capacity(); id++) {
+                    if (!Float.isNaN(scores.get(id))) {
+                        playable++;
+                    }
+                }
+                out.writeInt(Integer.reverseBytes(MAGIC));
+                out.writeInt(Integer.reverseBytes(VERSION));
+                out.writeInt(Integer.reverseBytes(scores.capacity()));
+                out.writeInt(Integer.reverseBytes(playable));
+                out.writeLong(Long.reverseBytes(contentHash));
+                out.writeInt(Integer.reverseBytes(Float.floatToRawIntBits(easyCut)));
+                out.writeInt(Integer.reverseBytes(Float.floatToRawIntBits(hardCut)));
+                for (int id = 0; id < scores.capacity(); id++) {
+                    out.writeInt(Integer.reverseBytes(Float.floatToRawIntBits(scores.get(id))));
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Prints the easiest and the hardest words of a dictionary file, working out and storing its scores if needed:
+     *   java -cp hangman.jar dictionary.WordScores words.hdict 20
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: WordScores <dictionary.hdict> [how many words to show]");
+            System.exit(2);
+        }
+        MappedDictionary dictionary = MappedDictionary.open(Path.of(args[0]));
+        int show = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        long start = System.nanoTime();
+        WordScores scores = openOrCompute(dictionary);
+        System.out.printf("Scored %d words in %d ms%n", scores.size(), (System.nanoTime() - start) / 1_000_000);
+
+        // the score's bits made to sort like the score in the high bits, the id in the low ones
+        long[] playable = new long[scores.size()];
+        int count = 0;
+        for (int id = 0; id < scores.size(); id++) {
+            float score = scores.score(id);
+            if (!Float.isNaN(score)) {
+                int bits = Float.floatToIntBits(score);
+                playable[count++] = (long) (bits ^ (bits >> 31 & Integer.MAX_VALUE)) << 32 | id;
+            }
+        }
+        Arrays.sort(playable, 0, count);
+        System.out.println("Easiest:");
+        for (int i = 0; i < Math.min(show, count); i++) {
+            int id = (int) playable[i];
+            System.out.printf("  %.3f %s%n", scores.score(id), dictionary.word(id));
+        }
+        System.out.println("Hardest:");
+        for (int i = Math.max(0, count - show); i < count; i++) {
+            int id = (int) playable[i];
+            System.out.printf("  %.3f %s%n", scores.score(id), dictionary.word(id));
+        }
+    }
+}
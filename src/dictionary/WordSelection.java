@@ -0,0 +1,81 @@
+package dictionary;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * The words of a {@link WordIndex} that match one {@link WordQuery}. It only keeps the list of matching buckets
+ * and how many words there are up to each one, so picking a word is a random number and a binary search over
+ * a few buckets, no matter how big the dictionary is.
+ */
+public final class WordSelection {
+    private final WordIndex index;
+    private final int[] buckets;
+    private final long[] cumulative;
+
+    WordSelection(WordIndex index, int[] buckets, long[] cumulative) {
+        this.index = index;
+        this.buckets = buckets;
+        this.cumulative = cumulative;
+    }
+
+    /**
+     * @return how many words match the query
+     */
+    public long size() {
+        return cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @param n: from 0 to size() - 1
+     * @return the id of the n-th matching word
+     */
+    public int get(long n) {
+        if (n < 0 || n >= size()) {
+            throw new IndexOutOfBoundsException(Long.toString(n));
+        }
+        int slot = Arrays.binarySearch(cumulative, n + 1);
+        if (slot < 0) {
+            slot = -slot - 1;
+        }
+        long before = slot == 0 ? 0 : cumulative[slot - 1];
+        return index.idAt(index.bucketStart(buckets[slot]) + (int) (n - before));
+    }
+
+    /**
+     * Narrows the selection down to the words of one length, from the buckets alone, without reading a single word.
+     * @param length: a word length, in code points
+     * @return the words of this selection with that length
+     */
+    public WordSelection withLength(int length) {
+        int[] matching = new int[buckets.length];
+        long[] sizes = new long[buckets.length];
+        int count = 0;
+        long total = 0;
+        for (int slot = 0; slot < buckets.length; slot++) {
+            if (WordIndex.length(buckets[slot]) == length) {
+                total += cumulative[slot] - (slot == 0 ? 0 : cumulative[slot - 1]);
+                matching[count] = buckets[slot];
+                sizes[count] = total;
+                count++;
+            }
+        }
+        return new WordSelection(index, Arrays.copyOf(matching, count), Arrays.copyOf(sizes, count));
+    }
+
+    /**
+     * Picks a random matching word, every word having the same chance.
+     * @param random: where the randomness comes from
+     * @return the id of the picked word
+     */
+    public int pick(RandomGenerator random) {
+        if (isEmpty()) {
+            throw new IllegalStateException("No word matches this query");
+        }
+        return get(random.nextLong(size()));
+    }
+}
@@ -0,0 +1,40 @@
+package engine;
+
+/**
+ * Gets told what happens in a game as it's played, right after the front end shows it. Nothing waits on a listener:
+ * it's called on the thread that played the guess (the Swing thread for the game panel), and should return quickly.
+ * Scripts, tests and anything else driving the game use it to know when a game ends, instead of watching for dialogs.
+ * Every method does nothing by default, so a listener only overrides what it cares about.
+ */
+public interface GameListener {
+
+    /**
+     * A guess changed the game.
+     * @param letter: the letter guessed, as a code point
+     * @param result: {@link GuessResult#HIT} or {@link GuessResult#MISS}
+     */
+    default void guessPlayed(int letter, GuessResult result) {
+    }
+
+    /**
+     * A guess of the whole word changed the game.
+     * @param word: the word guessed
+     * @param result: {@link GuessResult#HIT} if it was the right word, {@link GuessResult#WRONG_WORD} otherwise
+     */
+    default void wordPlayed(CharSequence word, GuessResult result) {
+    }
+
+    /**
+     * A guess was refused, and the game didn't change.
+     * @param result: why, see {@link GuessResult#getMessage()}
+     */
+    default void guessRejected(GuessResult result) {
+    }
+
+    /**
+     * The game was won or lost.
+     * @param game: the game, as it ended
+     */
+    default void gameOver(HangmanGame game) {
+    }
+}
@@ -0,0 +1,53 @@
+package engine;
+
+/**
+ * Every possible outcome of handing a guess to the {@link HangmanGame}.
+ * The game panel (or any other front end) decides how to show each one to the player,
+ * the engine itself never talks to the screen. The rejected outcomes come with the message
+ * the game panel has always shown for them, so every front end tells the player the same thing.
+ */
+public enum GuessResult {
+    /** The letter is in the word and its positions have been revealed, or the whole word guessed was the right one. */
+    HIT(null),
+    /** The letter is not in the word, the player loses one guess. */
+    MISS(null),
+    /** The game was already won or lost, so no more guesses are accepted. */
+    GAME_OVER("Game is over!"),
+    /** Nothing was typed. */
+    NO_INPUT("Please enter a letter."),
+    /** More than one character was typed. */
+    TOO_MANY_LETTERS("Just one letter"),
+    /** The character is not a letter at all. */
+    NOT_A_LETTER("Not a letter"),
+    /** The letter was already tried before, nothing changes. */
+    ALREADY_GUESSED("Letter already guessed!"),
+    /** A whole word was guessed and it's not the mystery word, the player loses one guess. */
+    WRONG_WORD(null),
+    /** A whole word was guessed that doesn't have as many letters as the mystery word. */
+    WRONG_LENGTH("Not the length of the word"),
+    /**
+     * A whole word was guessed that isn't in the dictionary. The game itself never says this, it doesn't know
+     * the dictionary, the front ends that check words against it do (see dictionary.SpellChecker).
+     */
+    NOT_A_WORD("Not a word");
+
+    private final String message;
+
+    GuessResult(String message) {
+        this.message = message;
+    }
+
+    /**
+     * @return whether this outcome actually changed the state of the game
+     */
+    public boolean isAccepted() {
+        return this == HIT || this == MISS || this == WRONG_WORD;
+    }
+
+    /**
+     * @return why the guess was rejected, or null if it was accepted
+     */
+    public String getMessage() {
+        return message;
+    }
+}
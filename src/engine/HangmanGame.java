@@ -0,0 +1,529 @@
+package engine;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * This class holds the rules of Hangman and nothing else. No Swing, no dialogs, no images.
+ * The game panel is just a view over it, and the same class can be used on a server or in a
+ * simulation where we play millions of games.
+ * ------------
+ * Any letter can be guessed, whatever the alphabet: Latin with or without accents, Greek, Cyrillic, and even letters
+ * outside the Basic Multilingual Plane, so the word is worked with as Unicode code points, not chars.
+ * Upper and lower case count as the same letter (and so do the two Greek sigmas), while accented letters count as
+ * letters of their own, 'é' is not 'e'. Characters in the word that are not letters (hyphens, spaces...) are revealed from the start.
+ * ------------
+ * To keep each guess cheap we never allocate after a word has been started:
+ * the guessed and wrong letters are {@link LetterSet}s, the positions of every distinct letter in the word are
+ * precomputed as a bitmask of positions, and the revealed positions are one more bitmask.
+ * That is why words are limited to {@link #MAX_WORD_LENGTH} letters.
+ * ------------
+ * This class is not thread safe, each game should be used by one thread at a time.
+ */
+public final class HangmanGame {
+    public static final int DEFAULT_MAX_WRONG_GUESSES = 6;
+    public static final int MAX_WORD_LENGTH = Long.SIZE;
+    public static final int ALPHABET_SIZE = 26;
+    public static final char HIDDEN = '_';
+
+    private final int maxWrongGuesses;
+
+    private String word;
+    private int length; // in code points
+    private final int[] codePoints = new int[MAX_WORD_LENGTH];
+    private long wordMask;
+    private long revealedMask;
+
+    // the distinct letters of the word and where each of them is, 'a' to 'z' being found straight away through latinSlots
+    private final int[] letters = new int[MAX_WORD_LENGTH];
+    private final long[] letterPositions = new long[MAX_WORD_LENGTH];
+    private int distinctLetters;
+    private final byte[] latinSlots = new byte[ALPHABET_SIZE];
+
+    private final LetterSet guessedLetters = new LetterSet();
+    private final LetterSet wrongLetters = new LetterSet();
+    private final int[] wrongOrder = new int[ALPHABET_SIZE];
+    private int wrongCount;
+    private int wrongWords;
+
+    public HangmanGame() {
+        this(DEFAULT_MAX_WRONG_GUESSES);
+    }
+
+    public HangmanGame(int maxWrongGuesses) {
+        if (maxWrongGuesses <= 0 || maxWrongGuesses > ALPHABET_SIZE) {
+            throw new IllegalArgumentException("maxWrongGuesses must be between 1 and " + ALPHABET_SIZE);
+        }
+        this.maxWrongGuesses = maxWrongGuesses;
+    }
+
+    /**
+     * Starts a new game with the given mystery word, forgetting everything about the previous one.
+     * This is the only place where we go through the word letter by letter, every guess afterwards
+     * is just a couple of bit operations.
+     * @param word: the new mystery word
+     */
+    public void start(String word) {
+        load(word);
+        this.guessedLetters.clear();
+        this.wrongLetters.clear();
+        this.wrongCount = 0;
+        this.wrongWords = 0;
+    }
+
+    /**
+     * Swaps the mystery word for another one in the middle of a game, keeping every guess made so far.
+     * The new word has to tell the same story as the old one: same length, a wrong letter still isn't in it,
+     * and the letters guessed right show up in exactly the same places. That's what the evil mode uses
+     * to keep changing its mind about the word without the player noticing.
+     * @param word: the new mystery word
+     * @throws IllegalArgumentException if the new word doesn't fit the guesses made so far
+     */
+    public void changeWord(String word) {
+        if (this.word == null) {
+            throw new IllegalStateException("No game was started");
+        }
+        long revealed = revealedMask;
+        int length = this.length;
+        String previous = this.word;
+        load(word);
+        for (int slot = 0; slot < distinctLetters; slot++) {
+            if (guessedLetters.contains(letters[slot])) {
+                revealedMask |= letterPositions[slot];
+            }
+        }
+        if (this.length != length || revealedMask != revealed) {
+            load(previous);
+            revealedMask = revealed;
+            throw new IllegalArgumentException(word + " doesn't fit the guesses made so far");
+        }
+    }
+
+    /**
+     * Reads the word letter by letter, working out where each distinct letter is. Guesses are left alone.
+     */
+    private void load(String word) {
+        if (!isComposed(word) && !Normalizer.isNormalized(word, Normalizer.Form.NFC)) {
+            word = Normalizer.normalize(word, Normalizer.Form.NFC); // an accent typed as its own character joins its letter
+        }
+        int length = word.codePointCount(0, word.length());
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be between 1 and " + MAX_WORD_LENGTH + ": " + word);
+        }
+
+        this.word = word;
+        this.length = length;
+        this.wordMask = length == Long.SIZE ? -1L : (1L << length) - 1;
+        this.revealedMask = 0L;
+        this.distinctLetters = 0;
+        Arrays.fill(latinSlots, (byte) 0);
+
+        for (int i = 0, at = 0; i < length; i++) {
+            int codePoint = word.codePointAt(at);
+            at += Character.charCount(codePoint);
+            codePoints[i] = codePoint;
+            if (!Character.isLetter(codePoint)) {
+                revealedMask |= 1L << i;
+                continue;
+            }
+
+            int letter = fold(codePoint);
+            int slot = slotOf(letter);
+            if (slot < 0) {
+                slot = distinctLetters++;
+                letters[slot] = letter;
+                letterPositions[slot] = 0L;
+                int index = letterIndex(letter);
+                if (index >= 0) {
+                    latinSlots[index] = (byte) (slot + 1);
+                }
+            }
+            letterPositions[slot] |= 1L << i;
+        }
+    }
+
+    /**
+     * The quick way to know a word has nothing to normalize, without the garbage of asking the Normalizer:
+     * nothing below U+0300 ever changes under NFC, and that's every character of most words.
+     * @return true if the word is surely in NFC, false if the Normalizer has to be asked
+     */
+    private static boolean isComposed(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) >= '\u0300') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Makes this game an exact copy of another one, mid game included. Handy to keep the state of a game
+     * at some point and go back to it later without playing all the guesses again.
+     * @param other: a game with the same number of wrong guesses allowed
+     */
+    public void copyFrom(HangmanGame other) {
+        if (other.maxWrongGuesses != maxWrongGuesses) {
+            throw new IllegalArgumentException("Can't copy a game allowing " + other.maxWrongGuesses
+                    + " wrong guesses into one allowing " + maxWrongGuesses);
+        }
+        this.word = other.word;
+        this.length = other.length;
+        System.arraycopy(other.codePoints, 0, codePoints, 0, MAX_WORD_LENGTH);
+        this.wordMask = other.wordMask;
+        this.revealedMask = other.revealedMask;
+        System.arraycopy(other.letters, 0, letters, 0, MAX_WORD_LENGTH);
+        System.arraycopy(other.letterPositions, 0, letterPositions, 0, MAX_WORD_LENGTH);
+        this.distinctLetters = other.distinctLetters;
+        System.arraycopy(other.latinSlots, 0, latinSlots, 0, ALPHABET_SIZE);
+        this.guessedLetters.copyFrom(other.guessedLetters);
+        this.wrongLetters.copyFrom(other.wrongLetters);
+        System.arraycopy(other.wrongOrder, 0, wrongOrder, 0, ALPHABET_SIZE);
+        this.wrongCount = other.wrongCount;
+        this.wrongWords = other.wrongWords;
+    }
+
+    /**
+     * Gets a game back from the little it takes to describe it: its word, which positions are revealed
+     * and the wrong letters in the order they were guessed. The letters guessed right are the ones at the revealed
+     * positions, so they don't need to be kept anywhere. That's how the server keeps millions of games
+     * in a few bytes each and still plays them with the rules of this class.
+     * Wrong guesses of the whole word aren't part of it, the server only plays letters.
+     * @param word: the mystery word
+     * @param revealedMask: the revealed positions, see {@link #getRevealedMask()}
+     * @param wrongLetters: the wrong letters, in the order they were guessed
+     * @param wrongCount: how many of them there are
+     * @throws IllegalArgumentException if that isn't a game that could have been played with that word
+     */
+    public void restore(String word, long revealedMask, int[] wrongLetters, int wrongCount) {
+        start(word);
+        for (int slot = 0; slot < distinctLetters; slot++) {
+            if ((letterPositions[slot] & revealedMask) != 0) {
+                guessedLetters.add(letters[slot]);
+                this.revealedMask |= letterPositions[slot];
+            }
+        }
+        if (this.revealedMask != revealedMask || wrongCount > maxWrongGuesses) {
+            throw new IllegalArgumentException("Not a game of " + word);
+        }
+        for (int i = 0; i < wrongCount; i++) {
+            int letter = fold(wrongLetters[i]);
+            if (!Character.isLetter(letter) || slotOf(letter) >= 0 || !guessedLetters.add(letter)) {
+                throw new IllegalArgumentException("Not a game of " + word);
+            }
+            this.wrongLetters.add(letter);
+            wrongOrder[this.wrongCount++] = letter;
+        }
+    }
+
+    /**
+     * Plays whatever the player typed. This is the whole rule set of the game panel's "Guess" button:
+     * the game must not be over, and the text must be exactly one letter.
+     * @param text: what the player typed
+     * @return what happened with that guess
+     */
+    public GuessResult guess(CharSequence text) {
+        if (word == null || isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        if (text.length() == 0) {
+            return GuessResult.NO_INPUT;
+        }
+        int codePoint = Character.codePointAt(text, 0);
+        if (text.length() > Character.charCount(codePoint)) {
+            return GuessResult.TOO_MANY_LETTERS;
+        }
+        return guessCodePoint(codePoint);
+    }
+
+    /**
+     * Plays a guess of the whole word. The right word reveals every letter left and wins the game, a wrong one costs
+     * a guess just like a wrong letter, without adding any letter to the wrong ones. Upper and lower case don't matter,
+     * and the characters that aren't letters have to be there too ("jack-o-lantern", not "jackolantern").
+     * Checking that the guess is a real word is left to the front end, the game doesn't know the dictionary.
+     * @param text: the word the player typed
+     * @return {@link GuessResult#HIT} for the right word, {@link GuessResult#WRONG_WORD} for a wrong one,
+     * or why the guess was refused
+     */
+    public GuessResult guessWord(CharSequence text) {
+        if (word == null || isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        if (text.length() == 0) {
+            return GuessResult.NO_INPUT;
+        }
+        if (!isComposed(text) && !Normalizer.isNormalized(text, Normalizer.Form.NFC)) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        }
+        if (Character.codePointCount(text, 0, text.length()) != length) {
+            return GuessResult.WRONG_LENGTH;
+        }
+        for (int i = 0, at = 0; i < length; i++) {
+            int codePoint = Character.codePointAt(text, at);
+            at += Character.charCount(codePoint);
+            if (fold(codePoint) != fold(codePoints[i])) {
+                return missWord();
+            }
+        }
+        for (int slot = 0; slot < distinctLetters; slot++) {
+            guessedLetters.add(letters[slot]);
+        }
+        revealedMask = wordMask;
+        return GuessResult.HIT;
+    }
+
+    /**
+     * Counts a wrong guess of the whole word, without needing the word itself. That's all the journal keeps of
+     * a wrong word, and how a replay plays it again.
+     * @return {@link GuessResult#WRONG_WORD}, or {@link GuessResult#GAME_OVER} if the game was already over
+     */
+    public GuessResult missWord() {
+        if (word == null || isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        wrongWords++;
+        return GuessResult.WRONG_WORD;
+    }
+
+    /**
+     * Plays one letter.
+     * @param letter: the letter guessed by the player, upper case is accepted
+     * @return what happened with that guess
+     */
+    public GuessResult guess(char letter) {
+        return guessCodePoint(letter);
+    }
+
+    /**
+     * Plays one letter, given as a code point so letters outside the Basic Multilingual Plane can be played too.
+     * @param codePoint: the letter guessed by the player, upper case is accepted
+     * @return what happened with that guess
+     */
+    public GuessResult guessCodePoint(int codePoint) {
+        if (word == null || isOver()) {
+            return GuessResult.GAME_OVER;
+        }
+        if (!Character.isLetter(codePoint)) {
+            return GuessResult.NOT_A_LETTER;
+        }
+
+        int letter = fold(codePoint);
+        if (!guessedLetters.add(letter)) {
+            return GuessResult.ALREADY_GUESSED;
+        }
+
+        int slot = slotOf(letter);
+        if (slot >= 0) {
+            revealedMask |= letterPositions[slot];
+            return GuessResult.HIT;
+        }
+
+        wrongLetters.add(letter);
+        wrongOrder[wrongCount++] = letter;
+        return GuessResult.MISS;
+    }
+
+    /**
+     * Turns a letter into the form we compare letters in: lower case, with the Greek final sigma as a regular sigma.
+     * @param codePoint: a letter
+     * @return the same letter, in the form the game keeps it
+     */
+    public static int fold(int codePoint) {
+        int lower = Character.toLowerCase(codePoint);
+        return lower == 'ς' ? 'σ' : lower;
+    }
+
+    /**
+     * @return which of the word's distinct letters this one is, or -1 if it's not in the word
+     */
+    private int slotOf(int letter) {
+        int index = letterIndex(letter);
+        if (index >= 0) {
+            return latinSlots[index] - 1;
+        }
+        for (int slot = 0; slot < distinctLetters; slot++) {
+            if (letters[slot] == letter) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Converts a character to its bit in the 'a' to 'z' masks the solver works with.
+     * @param c: a lower case character
+     * @return 0 for 'a' up to 25 for 'z', or -1 if it's not one of those
+     */
+    public static int letterIndex(int c) {
+        int index = c - 'a';
+        return index >= 0 && index < ALPHABET_SIZE ? index : -1;
+    }
+
+    /**
+     * @return whether every position of the word has been revealed
+     */
+    public boolean isWon() {
+        return word != null && revealedMask == wordMask;
+    }
+
+    /**
+     * @return whether the player ran out of guesses
+     */
+    public boolean isLost() {
+        return wrongCount + wrongWords >= maxWrongGuesses;
+    }
+
+    /**
+     * @return whether no more guesses will be accepted
+     */
+    public boolean isOver() {
+        return isWon() || isLost();
+    }
+
+    /**
+     * Tells us if a letter is in the mystery word, without counting it as a guess.
+     * @param letter: a letter, as a char or a code point
+     * @return whether the letter is in the word
+     */
+    public boolean isInWord(int letter) {
+        return letterPositions(letter) != 0L;
+    }
+
+    /**
+     * @param letter: a letter, as a char or a code point
+     * @return how many times the letter shows up in the mystery word
+     */
+    public int getLetterFrequency(int letter) {
+        return Long.bitCount(letterPositions(letter));
+    }
+
+    /**
+     * The positions of a letter in the mystery word, bit i being set meaning the letter is at index i.
+     * @param letter: a letter, as a char or a code point
+     * @return the positions as a bitmask, 0 if the letter is not in the word
+     */
+    public long letterPositions(int letter) {
+        int slot = slotOf(fold(letter));
+        return slot < 0 ? 0L : letterPositions[slot];
+    }
+
+    /**
+     * @param letter: a letter, as a char or a code point
+     * @return whether the player already tried that letter
+     */
+    public boolean wasGuessedAlready(int letter) {
+        return guessedLetters.contains(fold(letter));
+    }
+
+    /**
+     * @param i: a position in the word, counted in code points
+     * @return the letter at that position if it was revealed, or {@link #HIDDEN} otherwise
+     */
+    public int maskedCodePointAt(int i) {
+        return (revealedMask & (1L << i)) != 0 ? codePoints[i] : HIDDEN;
+    }
+
+    /**
+     * The same as {@link #maskedCodePointAt(int)} for words made of chars only, like the solver's plain a-z words.
+     * @param i: a position in the word
+     * @return the letter at that position if it was revealed, or {@link #HIDDEN} otherwise
+     */
+    public char maskedCharAt(int i) {
+        return (char) maskedCodePointAt(i);
+    }
+
+    /**
+     * Writes the players guess so far with each character spaced out from another, like "_ a _ _ l e".
+     * The caller can reuse the same builder on every guess.
+     * @param out: where to write the formatted guess
+     */
+    public void appendGuess(StringBuilder out) {
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            out.appendCodePoint(maskedCodePointAt(i));
+        }
+    }
+
+    /**
+     * Writes all the wrongly guessed letters, in the order they were guessed, spaced out just like {@link #appendGuess}.
+     * @param out: where to write the letters
+     */
+    public void appendWrongLetters(StringBuilder out) {
+        for (int i = 0; i < wrongCount; i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            out.appendCodePoint(wrongOrder[i]);
+        }
+    }
+
+    /**
+     * @param i: 0 for the first wrong letter, up to {@link #getWrongLetterCount()} - 1
+     * @return the i-th wrongly guessed letter, as a code point
+     */
+    public int wrongLetterAt(int i) {
+        if (i < 0 || i >= wrongCount) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return wrongOrder[i];
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    /**
+     * @return the length of the word in letters, which is its length in chars unless it has letters outside the Basic Multilingual Plane
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public int getMaxWrongGuesses() {
+        return maxWrongGuesses;
+    }
+
+    /**
+     * @return how many different letters were guessed, right or wrong
+     */
+    public int getGuessCount() {
+        return guessedLetters.size();
+    }
+
+    /**
+     * @return how many guesses were wrong, letters and whole words
+     */
+    public int getWrongGuessCount() {
+        return wrongCount + wrongWords;
+    }
+
+    /**
+     * @return how many letters were guessed wrong, see {@link #wrongLetterAt(int)}
+     */
+    public int getWrongLetterCount() {
+        return wrongCount;
+    }
+
+    public int getGuessesRemaining() {
+        return maxWrongGuesses - wrongCount - wrongWords;
+    }
+
+    /**
+     * @return the letters 'a' to 'z' guessed so far as a bitmask, bit 0 being 'a', for the solver
+     */
+    public int getGuessedMask() {
+        return guessedLetters.latinMask();
+    }
+
+    /**
+     * @return the letters 'a' to 'z' guessed wrong so far as a bitmask, bit 0 being 'a', for the solver
+     */
+    public int getWrongMask() {
+        return wrongLetters.latinMask();
+    }
+
+    public long getRevealedMask() {
+        return revealedMask;
+    }
+}
@@ -0,0 +1,144 @@
+package engine;
+
+import java.util.Arrays;
+
+/**
+ * A set of letters, as Unicode code points, without boxing a single one of them.
+ * ------------
+ * Code points below {@link #DENSE_LIMIT} cover the alphabets of most dictionaries we'd play with: Latin with all its
+ * accented letters, Greek, Cyrillic, Armenian, Hebrew and Arabic. Those are kept as one bit each in a small bitmap
+ * (256 bytes), so adding or looking up a letter is one array access and a shift.
+ * Anything above (CJK, supplementary code points...) goes into a small open addressing hash table, which only gets
+ * created the first time such a letter is added, and still finds a letter in constant time on average.
+ * ------------
+ * Looking letters up never allocates. This class is not thread safe.
+ */
+public final class LetterSet {
+    public static final int DENSE_LIMIT = 0x800;
+
+    private static final int LATIN_WORD = 'a' / Long.SIZE;
+    private static final int LATIN_SHIFT = 'a' % Long.SIZE;
+    private static final int LATIN_BITS = (1 << HangmanGame.ALPHABET_SIZE) - 1;
+
+    private final long[] dense = new long[DENSE_LIMIT / Long.SIZE];
+    private int[] sparse; // code point + 1, so 0 is an empty slot
+    private int sparseCount;
+    private int size;
+
+    /**
+     * @param codePoint: the letter to add
+     * @return true if it wasn't in the set yet
+     */
+    public boolean add(int codePoint) {
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+            throw new IllegalArgumentException("Not a code point: " + codePoint);
+        }
+        if (codePoint < DENSE_LIMIT) {
+            long bit = 1L << codePoint;
+            int word = codePoint >>> 6;
+            if ((dense[word] & bit) != 0) {
+                return false;
+            }
+            dense[word] |= bit;
+            size++;
+            return true;
+        }
+
+        if (sparse == null || (sparseCount + 1) * 2 > sparse.length) {
+            grow();
+        }
+        int mask = sparse.length - 1;
+        for (int slot = hash(codePoint) & mask; ; slot = (slot + 1) & mask) {
+            if (sparse[slot] == 0) {
+                sparse[slot] = codePoint + 1;
+                sparseCount++;
+                size++;
+                return true;
+            }
+            if (sparse[slot] == codePoint + 1) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @param codePoint: any code point
+     * @return whether it's in the set
+     */
+    public boolean contains(int codePoint) {
+        if (codePoint >= 0 && codePoint < DENSE_LIMIT) {
+            return (dense[codePoint >>> 6] & (1L << codePoint)) != 0;
+        }
+        if (sparse == null) {
+            return false;
+        }
+        int mask = sparse.length - 1;
+        for (int slot = hash(codePoint) & mask; sparse[slot] != 0; slot = (slot + 1) & mask) {
+            if (sparse[slot] == codePoint + 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(int codePoint) {
+        int h = codePoint * 0x9E3779B9; // spreads neighbouring code points (one alphabet) over the table
+        return h ^ (h >>> 16);
+    }
+
+    private void grow() {
+        int[] old = sparse;
+        sparse = new int[old == null ? 8 : old.length * 2];
+        sparseCount = 0;
+        if (old != null) {
+            int mask = sparse.length - 1;
+            for (int entry : old) {
+                if (entry != 0) {
+                    int slot = hash(entry - 1) & mask;
+                    while (sparse[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    sparse[slot] = entry;
+                    sparseCount++;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Empties the set, keeping the memory it already has.
+     */
+    public void clear() {
+        Arrays.fill(dense, 0L);
+        if (sparseCount > 0) {
+            Arrays.fill(sparse, 0);
+            sparseCount = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Makes this set hold exactly the letters of another one.
+     */
+    public void copyFrom(LetterSet other) {
+        System.arraycopy(other.dense, 0, dense, 0, dense.length);
+        sparse = other.sparse == null ? null : other.sparse.clone();
+        sparseCount = other.sparseCount;
+        size = other.size;
+    }
+
+    /**
+     * @return the letters 'a' to 'z' of the set as a bitmask, bit 0 being 'a', like the solver works with
+     */
+    public int latinMask() {
+        return (int) (dense[LATIN_WORD] >>> LATIN_SHIFT) & LATIN_BITS;
+    }
+}
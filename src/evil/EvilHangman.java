@@ -0,0 +1,380 @@
+package evil;
+
+import dictionary.Dictionary;
+import dictionary.WordSelection;
+import engine.HangmanGame;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The evil mode of the game: the computer never really picks a word. It keeps every word that could still be
+ * the mystery word, and each time the player guesses a letter it splits them into families by where that letter is
+ * ("e" nowhere, "e" only at the end, "e" second and last...). Then it keeps the biggest family, so the player gets
+ * the answer that leaves them the most words to get through. The player can still win, it's just a lot harder.
+ * ------------
+ * The {@link HangmanGame} doesn't know any of this: before each guess we swap its word for one of the family we kept
+ * (see {@link HangmanGame#changeWord(String)}), and the guess is played as usual. Since every word of the family gives
+ * the same answer to every guess so far, the game looks exactly like a normal game with whatever word it ends on.
+ * ------------
+ * A family is known by a long, the positions of the letter in the word as a bitmask, so splitting the words
+ * is just working out one long per word and counting how many words share it.
+ * With hundreds of thousands of words left the split is done on all cores with fork-join.
+ * The words are kept as folded code points in one flat int array, so no String is built while playing.
+ * The game panel plays in evil mode when started with -Dhangman.evil=true.
+ * This class is not thread safe, each game should have its own.
+ */
+public final class EvilHangman {
+    public static final String EVIL_PROPERTY = "hangman.evil";
+    static final int CHUNK = 1 << 13;
+
+    private final Dictionary dictionary;
+    private int length;
+    private int size;
+    private int[] ids = new int[0];
+    private int[] letters = new int[0];
+    private long[] keys = new long[0];
+
+    /**
+     * @param dictionary: the words the game plays with
+     */
+    public EvilHangman(Dictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Starts keeping track of a game that was just started. Every word of the selection that looks like the game's
+     * word before any guess (same length, same hyphens, spaces and other characters that aren't letters)
+     * could be the mystery word. Only the words of the right length are read, the word index finds them for us.
+     * @param game: a game that was just started with a word from the selection
+     * @param selection: the words the game could have picked
+     */
+    public void start(HangmanGame game, WordSelection selection) {
+        int length = game.getLength();
+        int[] shape = new int[length];
+        for (int i = 0; i < length; i++) {
+            int codePoint = game.maskedCodePointAt(i);
+            shape[i] = codePoint == HangmanGame.HIDDEN ? -1 : codePoint; // -1 for a letter, whichever it is
+        }
+
+        selection = selection.withLength(length);
+        long total = selection.size();
+        Collected[] chunks = new Collected[(int) ((total + CHUNK - 1) / CHUNK)];
+        new CollectTask(dictionary, selection, shape, chunks, 0, chunks.length).invoke();
+
+        int count = 0;
+        for (Collected chunk : chunks) {
+            count += chunk.size;
+        }
+        this.length = length;
+        this.size = 0;
+        this.ids = new int[count];
+        this.letters = new int[count * length];
+        this.keys = new long[count];
+        for (Collected chunk : chunks) {
+            System.arraycopy(chunk.ids, 0, ids, size, chunk.size);
+            System.arraycopy(chunk.letters, 0, letters, size * length, chunk.size * length);
+            size += chunk.size;
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("The game's word " + game.getWord() + " isn't one of the selection");
+        }
+    }
+
+    /**
+     * Called with whatever the player typed, right before the game plays it. If it's a guess the game will accept,
+     * we pick the family first and swap the game's word for one of it, anything else is left to the game to refuse.
+     * @param game: the game being played, started with {@link #start}
+     * @param text: what the player typed
+     */
+    public void beforeGuess(HangmanGame game, CharSequence text) {
+        if (text.length() == 0 || game.isOver()) {
+            return;
+        }
+        int codePoint = Character.codePointAt(text, 0);
+        if (text.length() == Character.charCount(codePoint) && Character.isLetter(codePoint)
+                && !game.wasGuessedAlready(codePoint)) {
+            guess(game, codePoint);
+        } else if (text.length() > Character.charCount(codePoint)) {
+            guessWord(game, text);
+        }
+    }
+
+    /**
+     * Before a guess of the whole word: the word guessed is dropped from the words left, and if any are left
+     * one of them becomes the game's word, so the guess misses. Only when it's the last word left does the player win.
+     * @param game: the game being played, started with {@link #start}
+     * @param text: the word guessed
+     */
+    private void guessWord(HangmanGame game, CharSequence text) {
+        int candidate = find(text);
+        if (candidate < 0 || size == 1) {
+            return;
+        }
+        size--;
+        System.arraycopy(ids, candidate + 1, ids, candidate, size - candidate);
+        System.arraycopy(letters, (candidate + 1) * length, letters, candidate * length, (size - candidate) * length);
+        game.changeWord(dictionary.word(ids[0]));
+    }
+
+    /**
+     * @return which of the words left is the text, or -1 if none is
+     */
+    private int find(CharSequence text) {
+        for (int i = 0; i < size; i++) {
+            int at = 0;
+            int position = 0;
+            while (at < text.length() && position < length) {
+                int codePoint = Character.codePointAt(text, at);
+                int letter = Character.isLetter(codePoint) ? HangmanGame.fold(codePoint) : -1; // the way they're kept
+                if (letter != letters[i * length + position]) {
+                    break;
+                }
+                at += Character.charCount(codePoint);
+                position++;
+            }
+            if (at == text.length() && position == length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Splits the words left by where a letter is, keeps the biggest family and makes one of its words the game's word.
+     * @param game: the game being played, started with {@link #start}
+     * @param codePoint: a letter not guessed yet
+     * @return the positions of the letter in the family kept, as a bitmask, 0 meaning the guess will miss
+     */
+    public long guess(HangmanGame game, int codePoint) {
+        int letter = HangmanGame.fold(codePoint);
+        Families families = new SplitTask(this, letter, 0, size).invoke();
+        long kept = families.biggest();
+
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == kept) {
+                ids[next] = ids[i];
+                System.arraycopy(letters, i * length, letters, next * length, length);
+                next++;
+            }
+        }
+        size = next;
+        game.changeWord(dictionary.word(ids[0]));
+        return kept;
+    }
+
+    /**
+     * @return how many words could still be the mystery word
+     */
+    public int candidates() {
+        return size;
+    }
+
+    /**
+     * Works out the family of every word in a range, splitting the range in half until it's small enough,
+     * and counts the size of each family.
+     */
+    private static final class SplitTask extends RecursiveTask<Families> {
+        private final EvilHangman evil;
+        private final int letter;
+        private final int from;
+        private final int to;
+
+        SplitTask(EvilHangman evil, int letter, int from, int to) {
+            this.evil = evil;
+            this.letter = letter;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Families compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                SplitTask right = new SplitTask(evil, letter, middle, to);
+                right.fork();
+                Families left = new SplitTask(evil, letter, from, middle).compute();
+                return left.merge(right.join());
+            }
+
+            Families families = new Families();
+            int length = evil.length;
+            int[] letters = evil.letters;
+            long[] keys = evil.keys;
+            for (int i = from, at = from * length; i < to; i++) {
+                long key = 0L;
+                for (int position = 0; position < length; position++, at++) {
+                    if (letters[at] == letter) {
+                        key |= 1L << position;
+                    }
+                }
+                keys[i] = key;
+                families.add(key, 1);
+            }
+            return families;
+        }
+    }
+
+    /**
+     * How many words are in each family, in a small open addressing table of long keys, so nothing is boxed.
+     * Every long is a family (a 64 letter word of one letter repeated has them all set), so the used slots
+     * are marked apart from the keys.
+     */
+    static final class Families {
+        private long[] keys = new long[16];
+        private int[] counts = new int[16];
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        void add(long key, int count) {
+            int mask = keys.length - 1;
+            int slot = (int) (key * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                size++;
+            }
+            counts[slot] += count;
+            if (size * 2 > keys.length) {
+                grow();
+            }
+        }
+
+        Families merge(Families other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.used[i]) {
+                    add(other.keys[i], other.counts[i]);
+                }
+            }
+            return this;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldCounts = counts;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    add(oldKeys[i], oldCounts[i]);
+                }
+            }
+        }
+
+        /**
+         * @return the family with the most words. On a tie the one revealing the fewest letters wins,
+         * a miss above all, and then the lowest key, so the same words always give the same family.
+         * @throws IllegalStateException if there's no family at all
+         */
+        long biggest() {
+            long best = 0L;
+            int bestCount = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (!used[i]) {
+                    continue;
+                }
+                long key = keys[i];
+                int count = counts[i];
+                if (bestCount == 0 || count > bestCount
+                        || count == bestCount && (Long.bitCount(key) < Long.bitCount(best)
+                        || Long.bitCount(key) == Long.bitCount(best) && Long.compareUnsigned(key, best) < 0)) {
+                    best = key;
+                    bestCount = count;
+                }
+            }
+            if (bestCount == 0) {
+                throw new IllegalStateException("No word left to split into families");
+            }
+            return best;
+        }
+    }
+
+    /**
+     * The words of one range of the selection that fit the game's word.
+     */
+    private static final class Collected {
+        int[] ids = new int[64];
+        int[] letters;
+        int size;
+    }
+
+    /**
+     * Goes through a range of chunks of the selection and keeps the words that fit the shape of the game's word,
+     * each chunk into its own {@link Collected}, so they can be put together in order afterwards.
+     */
+    private static final class CollectTask extends RecursiveAction {
+        private final Dictionary dictionary;
+        private final WordSelection selection;
+        private final int[] shape;
+        private final Collected[] chunks;
+        private final int from;
+        private final int to;
+
+        CollectTask(Dictionary dictionary, WordSelection selection, int[] shape, Collected[] chunks, int from, int to) {
+            this.dictionary = dictionary;
+            this.selection = selection;
+            this.shape = shape;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CollectTask(dictionary, selection, shape, chunks, from, middle),
+                        new CollectTask(dictionary, selection, shape, chunks, middle, to));
+                return;
+            }
+            if (from < to) {
+                chunks[from] = collect((long) from * CHUNK, Math.min(selection.size(), (long) (from + 1) * CHUNK));
+            }
+        }
+
+        private Collected collect(long first, long last) {
+            int length = shape.length;
+            Collected chunk = new Collected();
+            chunk.letters = new int[chunk.ids.length * length];
+            for (long n = first; n < last; n++) {
+                int id = selection.get(n);
+                String word = dictionary.word(id);
+                if (chunk.size == chunk.ids.length) {
+                    chunk.ids = Arrays.copyOf(chunk.ids, chunk.size * 2);
+                    chunk.letters = Arrays.copyOf(chunk.letters, chunk.size * 2 * length);
+                }
+                if (fits(word, chunk.letters, chunk.size * length)) {
+                    chunk.ids[chunk.size++] = id;
+                }
+            }
+            return chunk;
+        }
+
+        /**
+         * Writes the folded letters of a word at the given place, if the word fits the shape.
+         */
+        private boolean fits(String word, int[] out, int at) {
+            int position = 0;
+            for (int i = 0; i < word.length(); position++) {
+                int codePoint = word.codePointAt(i);
+                i += Character.charCount(codePoint);
+                if (position == shape.length) {
+                    return false;
+                }
+                if (shape[position] < 0 ? !Character.isLetter(codePoint) : shape[position] != codePoint) {
+                    return false;
+                }
+                out[at + position] = Character.isLetter(codePoint) ? HangmanGame.fold(codePoint) : -1;
+            }
+            return position == shape.length;
+        }
+    }
+}
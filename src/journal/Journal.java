@@ -0,0 +1,344 @@
+package journal;
+
+import engine.GuessResult;
+import engine.HangmanGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * An append only log of everything that happens in our games: every new word, every guess with whether it hit or missed,
+ * and how every game ended, each with the time it happened. It's written in a compact binary format (see {@link JournalSegment})
+ * and read back with {@link JournalReader}.
+ * ------------
+ * Writing a record only copies a few bytes into a memory mapped file, so it takes microseconds and never waits for the disk.
+ * A background thread asks the operating system to write what's new to disk every few milliseconds, all the records
+ * written in the meantime in one go (a "group commit"). Whoever needs a record to be on disk before carrying on
+ * can call {@link #sync()}.
+ * ------------
+ * The journal is a directory of fixed size segment files. When a segment is full we move on to a new one,
+ * and when the journal is opened again we carry on right after the last complete record of the newest segment.
+ * A journal directory must only be open by one Journal at a time. All methods are thread safe.
+ */
+public final class Journal implements Closeable {
+    public static final String JOURNAL_PROPERTY = "hangman.journal";
+    public static final int DEFAULT_SEGMENT_BYTES = 4 << 20;
+    public static final long DEFAULT_FLUSH_MILLIS = 10;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushNanos;
+    private final CRC32C crc = new CRC32C();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private final Condition flushRequested = lock.newCondition();
+    private final Thread flusher;
+
+    // everything below is guarded by the lock
+    private JournalSegment segment;
+    private int position;
+    private int flushedPosition;
+    private long nextGameId;
+    private long written; // bytes written since the journal was opened
+    private long durable; // how many of those are known to be on disk
+    private IOException failure;
+    private boolean closed;
+
+    private Journal(Path directory, int segmentBytes, long flushMillis) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        Files.createDirectories(directory);
+
+        List<Path> segments = JournalSegment.list(directory);
+        if (segments.isEmpty()) {
+            segment = JournalSegment.create(directory, 0, 0, segmentBytes);
+            position = JournalSegment.HEADER_BYTES;
+            nextGameId = 0;
+        } else {
+            reopen(segments.get(segments.size() - 1));
+        }
+        flushedPosition = 0;
+
+        flusher = new Thread(this::flushLoop, "hangman-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Picks up the newest segment where it was left: after its last complete record, with the next game id
+     * following the last game started in it.
+     */
+    private void reopen(Path newest) throws IOException {
+        segment = JournalSegment.open(newest, true);
+        position = segment.end(crc);
+        nextGameId = segment.firstGameId;
+        MappedByteBuffer buffer = segment.buffer;
+        for (int at = JournalSegment.HEADER_BYTES; at < position; at += buffer.getInt(at)) {
+            if (buffer.get(at + 8) == JournalEvent.GAME_STARTED.code()) {
+                nextGameId = Math.max(nextGameId, buffer.getLong(at + 20) + 1);
+            }
+        }
+        // whatever a crash left after the last complete record is wiped, so it can't be mistaken for a record later on
+        for (int at = position; at + Integer.BYTES <= segment.capacity(); at += Integer.BYTES) {
+            if (buffer.getInt(at) != 0) {
+                buffer.putInt(at, 0);
+            }
+        }
+    }
+
+    /**
+     * Opens a journal, creating its directory if needed.
+     * @param directory: where the segment files live
+     * @return the journal, ready to write
+     * @throws IOException if the directory or its newest segment can't be opened
+     */
+    public static Journal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_FLUSH_MILLIS);
+    }
+
+    /**
+     * @param segmentBytes: how big each segment file is
+     * @param flushMillis: how often what was written is flushed to disk
+     */
+    public static Journal open(Path directory, int segmentBytes, long flushMillis) throws IOException {
+        if (segmentBytes < JournalSegment.HEADER_BYTES + JournalSegment.recordBytes(HangmanGame.MAX_WORD_LENGTH)) {
+            throw new IllegalArgumentException("Segments must fit at least one record: " + segmentBytes);
+        }
+        return new Journal(directory, segmentBytes, flushMillis);
+    }
+
+    /**
+     * Opens the journal the game writes to: the directory in the "hangman.journal" system property,
+     * or ".hangman/journal" in the user's home. Setting the property to "off" turns the journal off.
+     * @return the journal, or null if it's turned off or can't be opened, the game is perfectly playable without it
+     */
+    public static Journal openDefault() {
+        String property = System.getProperty(JOURNAL_PROPERTY);
+        if ("off".equalsIgnoreCase(property)) {
+            return null;
+        }
+        Path directory = property == null || property.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".hangman", "journal")
+                : Path.of(property);
+        try {
+            return open(directory);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Unable to open the game journal in " + directory + ", games won't be recorded. " + e.getMessage());
+            return null;
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Records the start of a new game.
+     * @param word: the mystery word
+     * @param maxWrongGuesses: how many wrong guesses the player is allowed
+     * @return the id of the new game, to pass along with its guesses and outcome
+     */
+    public long gameStarted(String word, int maxWrongGuesses) throws IOException {
+        lock.lock();
+        try {
+            long gameId = nextGameId;
+            int at = reserve(JournalSegment.recordBytes(word.length()));
+            MappedByteBuffer buffer = segment.buffer;
+            for (int i = 0; i < word.length(); i++) {
+                buffer.putChar(at + JournalSegment.RECORD_HEADER_BYTES + i * Character.BYTES, word.charAt(i));
+            }
+            commit(at, JournalEvent.GAME_STARTED, maxWrongGuesses, (char) word.length(), gameId);
+            nextGameId = gameId + 1;
+            return gameId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a guess. Only guesses that changed the game (hits and misses) are worth recording.
+     * A wrong guess of the whole word is recorded with the letter 0 and {@link GuessResult#WRONG_WORD}, and the right
+     * word as a hit for each letter it revealed, so a replay ends up in the same state.
+     * @param gameId: the id given by {@link #gameStarted}
+     * @param letter: the letter guessed
+     * @param result: what happened with it
+     */
+    public void guessed(long gameId, char letter, GuessResult result) throws IOException {
+        lock.lock();
+        try {
+            int at = reserve(JournalSegment.recordBytes(0));
+            commit(at, JournalEvent.GUESS, result.ordinal(), letter, gameId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records how a game ended.
+     * @param gameId: the id given by {@link #gameStarted}
+     * @param won: whether the player found the word
+     * @param wrongGuesses: how many guesses the player got wrong
+     */
+    public void gameOver(long gameId, boolean won, int wrongGuesses) throws IOException {
+        lock.lock();
+        try {
+            int at = reserve(JournalSegment.recordBytes(0));
+            commit(at, JournalEvent.GAME_OVER, won ? 1 : 0, (char) wrongGuesses, gameId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes room for a record, moving on to a new segment if it doesn't fit in this one.
+     * @return where the record starts
+     */
+    private int reserve(int bytes) throws IOException {
+        if (closed) {
+            throw new IOException("The journal is closed");
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        if (position + bytes > segment.capacity()) {
+            rollOver();
+        }
+        int at = position;
+        position += bytes;
+        written += bytes;
+        return at;
+    }
+
+    /**
+     * Fills in the fixed part of a record and its checksum. The length goes in last, so a record is only
+     * found by a reader once all of its bytes are there.
+     */
+    private void commit(int at, JournalEvent event, int small, char letter, long gameId) {
+        MappedByteBuffer buffer = segment.buffer;
+        int length = position - at;
+        buffer.put(at + 8, event.code());
+        buffer.put(at + 9, (byte) small);
+        buffer.putChar(at + 10, letter);
+        buffer.putLong(at + 12, System.currentTimeMillis());
+        buffer.putLong(at + 20, gameId);
+        buffer.putInt(at + 4, segment.checksum(crc, at, length));
+        buffer.putInt(at, length);
+    }
+
+    /**
+     * Flushes the full segment to disk and moves on to a new one. This only happens once every few
+     * megabytes, so the one writer that hits it waiting for the disk is fine.
+     */
+    private void rollOver() throws IOException {
+        segment.buffer.force(flushedPosition, position - flushedPosition);
+        durable = written;
+        segment = JournalSegment.create(directory, segment.number + 1, nextGameId, segmentBytes);
+        position = JournalSegment.HEADER_BYTES;
+        flushedPosition = 0;
+    }
+
+    /**
+     * Waits until everything written so far is on disk.
+     */
+    public void sync() throws IOException {
+        lock.lock();
+        try {
+            long target = written;
+            flushRequested.signal();
+            while (durable < target && failure == null && !closed) {
+                flushed.awaitUninterruptibly();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The background thread: every few milliseconds, or sooner if someone is waiting in {@link #sync()},
+     * flush whatever was written since the last time in one go.
+     */
+    private void flushLoop() {
+        lock.lock();
+        try {
+            while (!closed) {
+                try {
+                    flushRequested.awaitNanos(flushNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                flushLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes what's new in the current segment. The lock is let go while the disk works, so writers can
+     * keep appending, and whatever they add is picked up by the next flush.
+     */
+    private void flushLocked() {
+        if (written == durable || failure != null) {
+            return;
+        }
+        JournalSegment flushing = segment;
+        int from = flushedPosition;
+        int to = position;
+        long target = written;
+        lock.unlock();
+        try {
+            flushing.buffer.force(from, to - from);
+        } catch (RuntimeException e) {
+            lock.lock();
+            failure = new IOException("Unable to write the journal to disk", e);
+            flushed.signalAll();
+            return;
+        }
+        lock.lock();
+        if (segment == flushing) {
+            flushedPosition = Math.max(flushedPosition, to);
+        }
+        durable = Math.max(durable, target);
+        flushed.signalAll();
+    }
+
+    /**
+     * Flushes everything to disk and stops the background thread. Records can't be written afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            flushLocked();
+            closed = true;
+            flushRequested.signal();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
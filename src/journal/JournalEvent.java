@@ -0,0 +1,40 @@
+package journal;
+
+/**
+ * The kinds of records the {@link Journal} writes. The code of each one is the byte stored on disk,
+ * so codes must never be changed or reused, only new ones added.
+ */
+public enum JournalEvent {
+    /** A new mystery word was picked, the record holds the word and how many wrong guesses are allowed. */
+    GAME_STARTED(1),
+    /** The player guessed a letter, the record holds the letter and whether it was a hit or a miss. */
+    GUESS(2),
+    /** The game was won or lost, the record holds the outcome and how many guesses were wrong. */
+    GAME_OVER(3);
+
+    private static final JournalEvent[] BY_CODE = new JournalEvent[4];
+
+    static {
+        for (JournalEvent event : values()) {
+            BY_CODE[event.code] = event;
+        }
+    }
+
+    private final byte code;
+
+    JournalEvent(int code) {
+        this.code = (byte) code;
+    }
+
+    byte code() {
+        return code;
+    }
+
+    /**
+     * @param code: the byte read from disk
+     * @return the matching event, or null if no event has that code
+     */
+    static JournalEvent fromCode(int code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
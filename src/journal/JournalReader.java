@@ -0,0 +1,90 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads back what a {@link Journal} wrote. Every segment can be read on its own, so big journals can be
+ * read segment by segment on several threads. Reading stops at the first record that isn't complete,
+ * which is the end of the journal even if the game crashed while writing it.
+ * ------------
+ * It can also print a journal as text, one record per line:
+ *   java -cp hangman.jar journal.JournalReader ~/.hangman/journal
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    /**
+     * @param directory: the journal directory
+     * @return its segment files, oldest first
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        return JournalSegment.list(directory);
+    }
+
+    /**
+     * Reads every record of the journal, oldest first.
+     * @param directory: the journal directory
+     * @param visitor: called with each record, see {@link JournalRecord} for why it can't be kept
+     * @return how many records were read
+     */
+    public static long read(Path directory, Consumer<JournalRecord> visitor) throws IOException {
+        long count = 0;
+        for (Path segment : segments(directory)) {
+            count += readSegment(segment, visitor);
+        }
+        return count;
+    }
+
+    /**
+     * Reads every record of one segment.
+     * @param segment: a segment file, from {@link #segments(Path)}
+     * @param visitor: called with each record
+     * @return how many records were read
+     */
+    public static int readSegment(Path segment, Consumer<JournalRecord> visitor) throws IOException {
+        return readSegmentWhile(segment, record -> {
+            visitor.accept(record);
+            return true;
+        });
+    }
+
+    /**
+     * Reads the records of one segment until the visitor has seen enough.
+     * @param segment: a segment file, from {@link #segments(Path)}
+     * @param visitor: called with each record, returns false to stop reading
+     * @return how many records were read
+     */
+    public static int readSegmentWhile(Path segment, Predicate<JournalRecord> visitor) throws IOException {
+        JournalSegment file = JournalSegment.open(segment, false);
+        CRC32C crc = new CRC32C();
+        JournalRecord record = new JournalRecord();
+        int count = 0;
+        int position = JournalSegment.HEADER_BYTES;
+        int length;
+        while ((length = file.recordAt(crc, position)) != 0) {
+            record.point(file.buffer, position);
+            count++;
+            if (!visitor.test(record)) {
+                break;
+            }
+            position += length;
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println("Usage: java journal.JournalReader <journal directory>");
+            System.exit(1);
+        }
+        long count = read(Path.of(args[0]), System.out::println);
+        System.out.println(count + " records");
+    }
+}
@@ -0,0 +1,111 @@
+package journal;
+
+import engine.GuessResult;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A look at one record of the journal while it's being read. To read millions of records without creating
+ * millions of objects, the {@link JournalReader} hands out the same JournalRecord over and over, pointing it at the next
+ * record each time, so it must not be kept after the callback returns. Use {@link #toString()} to keep a copy around.
+ */
+public final class JournalRecord {
+    private static final GuessResult[] RESULTS = GuessResult.values();
+
+    private ByteBuffer buffer;
+    private int at;
+    private JournalEvent event;
+
+    void point(ByteBuffer buffer, int at) {
+        this.buffer = buffer;
+        this.at = at;
+        this.event = JournalEvent.fromCode(buffer.get(at + 8));
+    }
+
+    public JournalEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * @return when it happened, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return buffer.getLong(at + 12);
+    }
+
+    public long getGameId() {
+        return buffer.getLong(at + 20);
+    }
+
+    /**
+     * @return the mystery word of a {@link JournalEvent#GAME_STARTED} record
+     */
+    public String getWord() {
+        checkEvent(JournalEvent.GAME_STARTED);
+        char[] word = new char[buffer.getChar(at + 10)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = buffer.getChar(at + JournalSegment.RECORD_HEADER_BYTES + i * Character.BYTES);
+        }
+        return new String(word);
+    }
+
+    /**
+     * @return how many wrong guesses the game of a {@link JournalEvent#GAME_STARTED} record allows
+     */
+    public int getMaxWrongGuesses() {
+        checkEvent(JournalEvent.GAME_STARTED);
+        return buffer.get(at + 9);
+    }
+
+    /**
+     * @return the letter of a {@link JournalEvent#GUESS} record
+     */
+    public char getLetter() {
+        checkEvent(JournalEvent.GUESS);
+        return buffer.getChar(at + 10);
+    }
+
+    /**
+     * @return whether the letter of a {@link JournalEvent#GUESS} record was a hit or a miss
+     */
+    public GuessResult getResult() {
+        checkEvent(JournalEvent.GUESS);
+        return RESULTS[buffer.get(at + 9)];
+    }
+
+    /**
+     * @return whether the player of a {@link JournalEvent#GAME_OVER} record won
+     */
+    public boolean isWon() {
+        checkEvent(JournalEvent.GAME_OVER);
+        return buffer.get(at + 9) != 0;
+    }
+
+    /**
+     * @return how many letters the player of a {@link JournalEvent#GAME_OVER} record got wrong
+     */
+    public int getWrongGuesses() {
+        checkEvent(JournalEvent.GAME_OVER);
+        return buffer.getChar(at + 10);
+    }
+
+    private void checkEvent(JournalEvent expected) {
+        if (event != expected) {
+            throw new IllegalStateException("Not a " + expected + " record: " + event);
+        }
+    }
+
+    /**
+     * @return the record as one line of text, like "12 GUESS e HIT 1718000000000"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder().append(getGameId()).append(' ').append(event).append(' ');
+        switch (event) {
+            case GAME_STARTED -> text.append(getWord()).append(' ').append(getMaxWrongGuesses());
+            case GUESS -> text.append(getLetter()).append(' ').append(getResult());
+            case GAME_OVER -> text.append(isWon() ? "WON" : "LOST").append(' ').append(getWrongGuesses());
+        }
+        return text.append(' ').append(getTime()).toString();
+    }
+}
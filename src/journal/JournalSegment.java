@@ -0,0 +1,171 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One file of the journal, and everything that knows how records are laid out in it.
+ * ------------
+ * A segment is created at its full size and mapped into memory, so it starts out as zeros.
+ * Segment layout, all numbers little endian:
+ *   header: magic, version (ints), segment number, id of the first game started in it (longs),
+ *   then records one after the other, each starting on a multiple of 4 bytes.
+ * Record layout:
+ *   0  int   length of the whole record, 0 meaning there are no more records
+ *   4  int   CRC32C of bytes 8 up to the length
+ *   8  byte  event code, see {@link JournalEvent}
+ *   9  byte  guess result ordinal / 1 if won / max wrong guesses, depending on the event
+ *   10 char  the letter guessed / word length / wrong guess count, depending on the event
+ *   12 long  when it happened, in milliseconds since the epoch
+ *   20 long  the game id
+ *   28 chars the mystery word, only for {@link JournalEvent#GAME_STARTED}
+ * A record that was only partly written when the game crashed fails its checksum, and it is where the
+ * segment is considered to end.
+ */
+final class JournalSegment {
+    static final int MAGIC = 0x484A4E4C; // "HJNL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    static final int RECORD_HEADER_BYTES = 28;
+    static final String SUFFIX = ".hjournal";
+
+    final Path path;
+    final long number;
+    final long firstGameId;
+    final MappedByteBuffer buffer;
+    private final ByteBuffer checksumView;
+
+    private JournalSegment(Path path, long number, long firstGameId, MappedByteBuffer buffer) {
+        this.path = path;
+        this.number = number;
+        this.firstGameId = firstGameId;
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.checksumView = buffer.duplicate(); // moved around to checksum records, so the buffer itself is never touched
+    }
+
+    static Path path(Path directory, long number) {
+        return directory.resolve(String.format("%016d%s", number, SUFFIX));
+    }
+
+    /**
+     * Creates a new, empty segment of the given size.
+     */
+    static JournalSegment create(Path directory, long number, long firstGameId, int size) throws IOException {
+        Path path = path(directory, number);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        JournalSegment segment = new JournalSegment(path, number, firstGameId, buffer);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, number);
+        buffer.putLong(16, firstGameId);
+        return segment;
+    }
+
+    /**
+     * Maps an existing segment, to read it or to keep appending to it.
+     * @param writable: whether records will be appended to it
+     */
+    static JournalSegment open(Path path, boolean writable) throws IOException {
+        StandardOpenOption[] options = writable
+                ? new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE}
+                : new StandardOpenOption[]{StandardOpenOption.READ};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+                    0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IOException("Unsupported journal version " + buffer.getInt(4) + ": " + path);
+            }
+            return new JournalSegment(path, buffer.getLong(8), buffer.getLong(16), buffer);
+        }
+    }
+
+    /**
+     * @return every segment in the directory, oldest first
+     */
+    static List<Path> list(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                segments.add(file);
+            }
+        }
+        segments.sort(null); // the names are zero padded numbers, so sorting by name sorts by number
+        return segments;
+    }
+
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @param wordLength: the length of the mystery word, 0 for events that don't hold one
+     * @return how many bytes a record takes, rounded up to a multiple of 4
+     */
+    static int recordBytes(int wordLength) {
+        return (RECORD_HEADER_BYTES + wordLength * Character.BYTES + 3) & ~3;
+    }
+
+    /**
+     * Works out the checksum of a record whose bytes from 8 onwards are already written.
+     */
+    int checksum(CRC32C crc, int position, int length) {
+        checksumView.limit(position + length).position(position + 8);
+        crc.reset();
+        crc.update(checksumView);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Checks the record starting at the given position.
+     * @return its length, or 0 if there is no complete record there
+     */
+    int recordAt(CRC32C crc, int position) {
+        if (position + RECORD_HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        if (length < RECORD_HEADER_BYTES || (length & 3) != 0 || length > buffer.capacity() - position
+                || JournalEvent.fromCode(buffer.get(position + 8)) == null) {
+            return 0;
+        }
+        return checksum(crc, position, length) == buffer.getInt(position + 4) ? length : 0;
+    }
+
+    /**
+     * Walks over the records to find where the last complete one ends.
+     * @return the position right after the last complete record
+     */
+    int end(CRC32C crc) {
+        int position = HEADER_BYTES;
+        int length;
+        while ((length = recordAt(crc, position)) != 0) {
+            position += length;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,21 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Shows up in a Java Flight Recording every time an image is decoded and scaled.
+ */
+@Name("hangman.AssetLoad")
+@Label("Asset Load")
+@Category("Hangman")
+@Description("An image was decoded and scaled")
+public final class AssetLoadEvent extends jdk.jfr.Event {
+    @Label("Asset")
+    public String asset;
+
+    @Label("Screen Scale")
+    public double scale;
+}
@@ -0,0 +1,20 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Shows up in a Java Flight Recording when the Swing thread was busy for so long that the window froze.
+ */
+@Name("hangman.EdtStall")
+@Label("Swing Thread Stall")
+@Category("Hangman")
+@Description("The Swing event thread didn't get to a queued task in time")
+public final class EdtStallEvent extends jdk.jfr.Event {
+    @Label("Delay")
+    @Timespan(Timespan.NANOSECONDS)
+    public long delay;
+}
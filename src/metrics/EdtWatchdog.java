@@ -0,0 +1,55 @@
+package metrics;
+
+import java.awt.EventQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Notices when the Swing thread freezes. Every {@link #PERIOD_MILLIS} a background thread queues a tiny task on the
+ * Swing thread and notes the time; the task checks how long it waited. Anything queued behind a guess, a repaint or a dialog
+ * should run within a few milliseconds, so a wait longer than the threshold (100ms, or the "hangman.stallMillis"
+ * system property) is a freeze the player could feel, and it's counted as a stall.
+ * Only one task is queued at a time, so a long freeze is one stall, not hundreds.
+ */
+final class EdtWatchdog {
+    static final long PERIOD_MILLIS = 50;
+
+    private static final long THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("hangman.stallMillis", 100));
+    private static final AtomicBoolean WAITING = new AtomicBoolean();
+
+    private EdtWatchdog() {
+    }
+
+    static void start() {
+        Thread watchdog = new Thread(EdtWatchdog::watch, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    private static void watch() {
+        while (true) {
+            try {
+                Thread.sleep(PERIOD_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (WAITING.compareAndSet(false, true)) {
+                EdtStallEvent event = new EdtStallEvent();
+                event.begin();
+                long queued = System.nanoTime();
+                EventQueue.invokeLater(() -> {
+                    long delay = System.nanoTime() - queued;
+                    WAITING.set(false);
+                    if (delay >= THRESHOLD_NANOS) {
+                        Metrics.edtStalled(delay);
+                        event.end();
+                        if (event.shouldCommit()) {
+                            event.delay = delay;
+                            event.commit();
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Shows up in a Java Flight Recording every time a game is won or lost.
+ */
+@Name("hangman.GameOver")
+@Label("Game Over")
+@Category("Hangman")
+@Description("A game was won or lost")
+public final class GameOverEvent extends jdk.jfr.Event {
+    @Label("Won")
+    public boolean won;
+
+    @Label("Wrong Guesses")
+    public int wrongGuesses;
+
+    @Label("Word Length")
+    public int wordLength;
+}
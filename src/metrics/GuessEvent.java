@@ -0,0 +1,21 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Shows up in a Java Flight Recording every time the game panel handles a guess, with how long it took.
+ */
+@Name("hangman.Guess")
+@Label("Guess")
+@Category("Hangman")
+@Description("The game panel handled a guess")
+public final class GuessEvent extends jdk.jfr.Event {
+    @Label("Letter")
+    public char letter;
+
+    @Label("Result")
+    public String result;
+}
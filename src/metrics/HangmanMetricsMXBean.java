@@ -0,0 +1,42 @@
+package metrics;
+
+import java.util.Map;
+
+/**
+ * What {@link Metrics} shows in JConsole, VisualVM or any other JMX client, under "io.github.afonsosilvestre.hangman".
+ * Times are in microseconds unless said otherwise.
+ */
+public interface HangmanMetricsMXBean {
+    long getGuesses();
+
+    double getGuessMeanMicros();
+
+    long getGuessP50Micros();
+
+    long getGuessP99Micros();
+
+    long getGuessMaxMicros();
+
+    long getGamesStarted();
+
+    long getWins();
+
+    long getLosses();
+
+    /**
+     * @return how many times the Swing thread froze for longer than the stall threshold
+     */
+    long getEdtStalls();
+
+    long getEdtStallMaxMillis();
+
+    /**
+     * @return how long each image took to decode and scale, in milliseconds
+     */
+    Map<String, Long> getAssetLoadMillis();
+
+    /**
+     * Forgets the guess times and the stalls, to measure from now on.
+     */
+    void reset();
+}
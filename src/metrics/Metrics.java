@@ -0,0 +1,197 @@
+package metrics;
+
+import engine.GuessResult;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where the game keeps track of where its time goes: how long each guess takes to handle, how many games are won
+ * and lost, when the Swing thread freezes (see {@link EdtWatchdog}) and how long each image takes to load.
+ * ------------
+ * Everything can be looked at while the game runs, without a debugger:
+ *   over JMX, with JConsole or VisualVM, as the "io.github.afonsosilvestre.hangman:type=Metrics" bean,
+ *   and as custom events (Guess, Game Over, Swing Thread Stall, Asset Load) in a Java Flight Recording:
+ *     java -XX:StartFlightRecording=filename=hangman.jfr -jar hangman.jar
+ * Recording costs a few atomic increments, and the flight recorder events cost nothing when no recording is running.
+ */
+public final class Metrics {
+    public static final String OBJECT_NAME = "io.github.afonsosilvestre.hangman:type=Metrics";
+
+    private static final Histogram GUESSES = new Histogram();
+    private static final LongAdder GAMES_STARTED = new LongAdder();
+    private static final LongAdder WINS = new LongAdder();
+    private static final LongAdder LOSSES = new LongAdder();
+    private static final LongAdder EDT_STALLS = new LongAdder();
+    private static final AtomicLong EDT_STALL_MAX = new AtomicLong();
+    private static final Map<String, Long> ASSET_LOADS = new ConcurrentHashMap<>();
+    private static boolean installed;
+
+    private Metrics() {
+    }
+
+    /**
+     * Publishes the metrics over JMX and starts watching the Swing thread. Calling it again does nothing.
+     */
+    public static synchronized void install() {
+        if (installed) {
+            return;
+        }
+        installed = true;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // someone else in this JVM already published them, which is just as good
+        } catch (JMException e) {
+            System.out.println("Unable to publish the game metrics over JMX. " + e.getMessage());
+        }
+        EdtWatchdog.start();
+    }
+
+    /**
+     * Starts timing a guess. Pass what it returns to {@link #guessHandled} once the panel shows the outcome.
+     * @return the flight recorder event of this guess, already started
+     */
+    public static GuessEvent guessStarted() {
+        GuessEvent event = new GuessEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event: from {@link #guessStarted()}
+     * @param startNanos: System.nanoTime() from when the guess started
+     * @param letter: the letter guessed, or 0 if what was typed isn't one letter
+     * @param result: what happened with it
+     */
+    public static void guessHandled(GuessEvent event, long startNanos, char letter, GuessResult result) {
+        GUESSES.record(System.nanoTime() - startNanos);
+        event.end();
+        if (event.shouldCommit()) {
+            event.letter = letter;
+            event.result = result.name();
+            event.commit();
+        }
+    }
+
+    public static void gameStarted() {
+        GAMES_STARTED.increment();
+    }
+
+    /**
+     * @param won: whether the player found the word
+     * @param wrongGuesses: how many letters they got wrong
+     * @param wordLength: how long the word was
+     */
+    public static void gameOver(boolean won, int wrongGuesses, int wordLength) {
+        (won ? WINS : LOSSES).increment();
+        GameOverEvent event = new GameOverEvent();
+        if (event.shouldCommit()) {
+            event.won = won;
+            event.wrongGuesses = wrongGuesses;
+            event.wordLength = wordLength;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts timing an image load. Pass what it returns to {@link #assetLoaded} once it's loaded.
+     */
+    public static AssetLoadEvent assetLoading() {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * @param event: from {@link #assetLoading()}
+     * @param startNanos: System.nanoTime() from when the load started
+     * @param asset: the name of the image
+     * @param scale: the screen scale it was loaded for
+     */
+    public static void assetLoaded(AssetLoadEvent event, long startNanos, String asset, double scale) {
+        ASSET_LOADS.put(asset, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        event.end();
+        if (event.shouldCommit()) {
+            event.asset = asset;
+            event.scale = scale;
+            event.commit();
+        }
+    }
+
+    /**
+     * Called by the {@link EdtWatchdog} when the Swing thread froze.
+     * @param delayNanos: how long it took to get to a task that should have run right away
+     */
+    static void edtStalled(long delayNanos) {
+        EDT_STALLS.increment();
+        EDT_STALL_MAX.accumulateAndGet(delayNanos, Math::max);
+    }
+
+    /**
+     * @return the guess handling times, for whoever wants more than the bean shows
+     */
+    public static Histogram guesses() {
+        return GUESSES;
+    }
+
+    private static final class Bean implements HangmanMetricsMXBean {
+        public long getGuesses() {
+            return GUESSES.getCount();
+        }
+
+        public double getGuessMeanMicros() {
+            return GUESSES.getMean() / 1000;
+        }
+
+        public long getGuessP50Micros() {
+            return TimeUnit.NANOSECONDS.toMicros(GUESSES.getPercentile(50));
+        }
+
+        public long getGuessP99Micros() {
+            return TimeUnit.NANOSECONDS.toMicros(GUESSES.getPercentile(99));
+        }
+
+        public long getGuessMaxMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(GUESSES.getMax());
+        }
+
+        public long getGamesStarted() {
+            return GAMES_STARTED.sum();
+        }
+
+        public long getWins() {
+            return WINS.sum();
+        }
+
+        public long getLosses() {
+            return LOSSES.sum();
+        }
+
+        public long getEdtStalls() {
+            return EDT_STALLS.sum();
+        }
+
+        public long getEdtStallMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(EDT_STALL_MAX.get());
+        }
+
+        public Map<String, Long> getAssetLoadMillis() {
+            return new TreeMap<>(ASSET_LOADS);
+        }
+
+        public void reset() {
+            GUESSES.reset();
+            EDT_STALLS.reset();
+            EDT_STALL_MAX.set(0);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package replay;
+
+import engine.GuessResult;
+import engine.HangmanGame;
+import journal.JournalEvent;
+import journal.JournalReader;
+import journal.JournalRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Replays a whole journal archive with today's rules on all cores, to check that a change to the rules
+ * doesn't change how any recorded game plays out.
+ * ------------
+ * Unlike {@link Replayer} nothing is loaded up front: the games are replayed straight out of the mapped segment files
+ * as the records are read, so the speed is the speed of reading the records.
+ * Segments are handed out to the threads round robin. A thread replays the games that start in its segments,
+ * and when a game carries on into the next segment it reads on into it just until those games are over.
+ */
+public final class BulkReplay {
+
+    private BulkReplay() {
+    }
+
+    /**
+     * @param journal: the journal directory
+     * @param threads: how many threads to replay on
+     * @return what the replay found
+     */
+    public static ReplayReport verify(Path journal, int threads) throws IOException, InterruptedException {
+        List<Path> segments = JournalReader.segments(journal);
+        ReplayReport[] reports = new ReplayReport[threads];
+        IOException[] failures = new IOException[threads];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int worker = i;
+            workers[i] = new Thread(() -> {
+                try {
+                    reports[worker] = replay(segments, worker, threads);
+                } catch (IOException e) {
+                    failures[worker] = e;
+                }
+            }, "replay-" + i);
+            workers[i].start();
+        }
+
+        ReplayReport merged = new ReplayReport();
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+            if (failures[i] != null) {
+                throw failures[i];
+            }
+            merged.add(reports[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * What one worker does: every threads-th segment, starting from its own number.
+     */
+    private static ReplayReport replay(List<Path> segments, int worker, int threads) throws IOException {
+        SegmentReplay replay = new SegmentReplay();
+        for (int s = worker; s < segments.size(); s += threads) {
+            replay.owned = true;
+            JournalReader.readSegment(segments.get(s), replay::accept);
+
+            replay.owned = false;
+            for (int next = s + 1; next < segments.size() && !replay.open.isEmpty(); next++) {
+                JournalReader.readSegmentWhile(segments.get(next), replay);
+            }
+            replay.report.unfinished += replay.open.size();
+            replay.spare.addAll(replay.open.values());
+            replay.open.clear();
+            replay.lastId = -1;
+            replay.last = null;
+        }
+        return replay.report;
+    }
+
+    /**
+     * Replays the records of a segment. While reading a segment of its own it starts every game it finds,
+     * while reading on into the next one it only follows the games it already has.
+     */
+    private static final class SegmentReplay implements Predicate<JournalRecord> {
+        final ReplayReport report = new ReplayReport();
+        final Map<Long, HangmanGame> open = new HashMap<>();
+        final ArrayDeque<HangmanGame> spare = new ArrayDeque<>(); // finished games, reused for the next ones
+        boolean owned;
+        long lastId = -1;
+        HangmanGame last;
+
+        void accept(JournalRecord record) {
+            test(record);
+        }
+
+        @Override
+        public boolean test(JournalRecord record) {
+            long id = record.getGameId();
+            JournalEvent event = record.getEvent();
+            if (event == JournalEvent.GAME_STARTED) {
+                if (owned) {
+                    start(id, record.getWord(), record.getMaxWrongGuesses());
+                }
+                return true;
+            }
+
+            HangmanGame game = id == lastId ? last : open.get(id);
+            if (game == null) {
+                return owned || !open.isEmpty(); // a game started in an earlier segment, someone else replays it
+            }
+            report.records++;
+            if (event == JournalEvent.GUESS) {
+                report.guesses++;
+                GuessResult recorded = record.getResult();
+                GuessResult result = recorded == GuessResult.WRONG_WORD ? game.missWord() : game.guess(record.getLetter());
+                if (result != recorded) {
+                    report.mismatchedGuesses++;
+                    report.example("game " + id + " (" + game.getWord() + "): '" + record.getLetter()
+                            + "' was " + recorded + ", now " + result);
+                }
+            } else if (event == JournalEvent.GAME_OVER) {
+                if (!game.isOver() || game.isWon() != record.isWon()) {
+                    report.mismatchedOutcomes++;
+                    report.example("game " + id + " (" + game.getWord() + "): was " + (record.isWon() ? "won" : "lost")
+                            + ", now " + (game.isWon() ? "won" : game.isLost() ? "lost" : "not over"));
+                }
+                finish(id, game);
+            }
+            return owned || !open.isEmpty();
+        }
+
+        private void start(long id, String word, int maxWrongGuesses) {
+            HangmanGame game = spare.poll();
+            if (game == null || game.getMaxWrongGuesses() != maxWrongGuesses) {
+                game = new HangmanGame(maxWrongGuesses);
+            }
+            game.start(word);
+            HangmanGame previous = open.put(id, game);
+            if (previous != null) {
+                report.unfinished++; // the same id started twice, the first one was never finished
+            }
+            report.records++;
+            report.games++;
+            lastId = id;
+            last = game;
+        }
+
+        private void finish(long id, HangmanGame game) {
+            open.remove(id);
+            spare.push(game);
+            if (id == lastId) {
+                lastId = -1;
+                last = null;
+            }
+        }
+    }
+}
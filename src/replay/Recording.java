@@ -0,0 +1,215 @@
+package replay;
+
+import engine.GuessResult;
+import journal.JournalEvent;
+import journal.JournalReader;
+import journal.JournalRecord;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The games of a session as they were played: every mystery word, and every letter guessed in it along with
+ * what the game said about it back then (hit or miss) and how each game ended. It's read from the game journal,
+ * which the game panel writes as it's played, and {@link Replayer} plays it again.
+ * ------------
+ * Everything is kept in a few flat arrays instead of an object per game or per guess:
+ * the guesses of game g are the letters from firstGuess[g] up to firstGuess[g + 1], so a recording of
+ * millions of guesses is just a few megabytes.
+ */
+public final class Recording {
+    /** The outcome of a game that was still being played when the recording ends. */
+    public static final byte UNFINISHED = -1;
+    public static final byte LOST = 0;
+    public static final byte WON = 1;
+
+    private static final GuessResult[] RESULTS = GuessResult.values();
+
+    private final long[] gameIds;
+    private final String[] words;
+    private final byte[] maxWrongGuesses;
+    private final byte[] outcomes;
+    private final int[] firstGuess;
+    private final char[] letters;
+    private final byte[] results;
+
+    private Recording(Builder builder) {
+        int games = builder.games.size();
+        this.gameIds = new long[games];
+        this.words = new String[games];
+        this.maxWrongGuesses = new byte[games];
+        this.outcomes = new byte[games];
+        this.firstGuess = new int[games + 1];
+        int guesses = 0;
+        for (Builder.Game game : builder.games) {
+            guesses += game.guesses;
+        }
+        this.letters = new char[guesses];
+        this.results = new byte[guesses];
+
+        int at = 0;
+        for (int g = 0; g < games; g++) {
+            Builder.Game game = builder.games.get(g);
+            gameIds[g] = game.id;
+            words[g] = game.word;
+            maxWrongGuesses[g] = (byte) game.maxWrongGuesses;
+            outcomes[g] = game.outcome;
+            firstGuess[g] = at;
+            System.arraycopy(game.letters, 0, letters, at, game.guesses);
+            System.arraycopy(game.results, 0, results, at, game.guesses);
+            at += game.guesses;
+        }
+        firstGuess[games] = at;
+    }
+
+    /**
+     * Reads every game of a journal.
+     * @param journal: the journal directory
+     * @return the recording of those games
+     */
+    public static Recording read(Path journal) throws IOException {
+        Builder builder = new Builder();
+        JournalReader.read(journal, builder::add);
+        return builder.build();
+    }
+
+    public int games() {
+        return words.length;
+    }
+
+    /**
+     * @return how many guesses all the games have together
+     */
+    public int guesses() {
+        return letters.length;
+    }
+
+    public long gameId(int game) {
+        return gameIds[game];
+    }
+
+    public String word(int game) {
+        return words[game];
+    }
+
+    public int maxWrongGuesses(int game) {
+        return maxWrongGuesses[game];
+    }
+
+    /**
+     * @return {@link #WON}, {@link #LOST} or {@link #UNFINISHED}
+     */
+    public byte outcome(int game) {
+        return outcomes[game];
+    }
+
+    /**
+     * @return the index of the first guess of a game, guesses being numbered across the whole recording
+     */
+    public int firstGuess(int game) {
+        return firstGuess[game];
+    }
+
+    /**
+     * @param game: a game of the recording, or the number of games to get the total number of guesses
+     * @return the index right after the last guess of the game
+     */
+    public int endGuess(int game) {
+        return firstGuess[game + 1];
+    }
+
+    public char letter(int guess) {
+        return letters[guess];
+    }
+
+    /**
+     * @return what the game said about that guess when it was played
+     */
+    public GuessResult result(int guess) {
+        return RESULTS[results[guess]];
+    }
+
+    /**
+     * Puts a recording together one event at a time. Games are kept apart by their id, so the events of
+     * several games played at the same time (on a server) can come mixed up. Guesses and outcomes of games
+     * that started before the first event given are skipped, since their word is unknown.
+     */
+    public static final class Builder {
+        private final List<Game> games = new ArrayList<>();
+        private final Map<Long, Game> open = new HashMap<>();
+        private Game last;
+
+        private static final class Game {
+            final long id;
+            final String word;
+            final int maxWrongGuesses;
+            byte outcome = UNFINISHED;
+            char[] letters = new char[8];
+            byte[] results = new byte[8];
+            int guesses;
+
+            Game(long id, String word, int maxWrongGuesses) {
+                this.id = id;
+                this.word = word;
+                this.maxWrongGuesses = maxWrongGuesses;
+            }
+        }
+
+        public Builder gameStarted(long id, String word, int maxWrongGuesses) {
+            last = new Game(id, word, maxWrongGuesses);
+            games.add(last);
+            open.put(id, last);
+            return this;
+        }
+
+        public Builder guessed(long id, char letter, GuessResult result) {
+            Game game = find(id);
+            if (game != null) {
+                if (game.guesses == game.letters.length) {
+                    game.letters = Arrays.copyOf(game.letters, game.guesses * 2);
+                    game.results = Arrays.copyOf(game.results, game.guesses * 2);
+                }
+                game.letters[game.guesses] = letter;
+                game.results[game.guesses] = (byte) result.ordinal();
+                game.guesses++;
+            }
+            return this;
+        }
+
+        public Builder gameOver(long id, boolean won) {
+            Game game = find(id);
+            if (game != null) {
+                game.outcome = won ? WON : LOST;
+                open.remove(id);
+            }
+            return this;
+        }
+
+        /**
+         * Adds one journal record, whatever its event.
+         */
+        public void add(JournalRecord record) {
+            JournalEvent event = record.getEvent();
+            if (event == JournalEvent.GAME_STARTED) {
+                gameStarted(record.getGameId(), record.getWord(), record.getMaxWrongGuesses());
+            } else if (event == JournalEvent.GUESS) {
+                guessed(record.getGameId(), record.getLetter(), record.getResult());
+            } else if (event == JournalEvent.GAME_OVER) {
+                gameOver(record.getGameId(), record.isWon());
+            }
+        }
+
+        private Game find(long id) {
+            return last != null && last.id == id ? last : open.get(id); // games are almost always played one after another
+        }
+
+        public Recording build() {
+            return new Recording(this);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package replay;
+
+import engine.HangmanGame;
+
+import java.nio.file.Path;
+
+/**
+ * Replays the game journal from the command line.
+ * ------------
+ * Check that every recorded game still plays out the same with today's rules, on all cores:
+ *   java -cp hangman.jar replay.Replay verify ~/.hangman/journal [--threads T]
+ * Show the game as it was right after the n-th guess of the journal (counting from 0, across all its games):
+ *   java -cp hangman.jar replay.Replay seek ~/.hangman/journal n [n ...]
+ */
+public final class Replay {
+
+    private Replay() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || !(args[0].equals("verify") || args[0].equals("seek"))) {
+            System.err.println("Usage: java replay.Replay verify <journal directory> [--threads T]");
+            System.err.println("       java replay.Replay seek <journal directory> <guess> [<guess> ...]");
+            System.exit(2);
+        }
+        Path journal = Path.of(args[1]);
+        if (args[0].equals("verify")) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--threads") && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else {
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+                }
+            }
+            System.exit(verify(journal, threads) ? 0 : 1);
+        } else {
+            seek(journal, args);
+        }
+    }
+
+    private static boolean verify(Path journal, int threads) throws Exception {
+        long start = System.nanoTime();
+        ReplayReport report = BulkReplay.verify(journal, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Replayed %,d games (%,d guesses, %,d records) on %d threads in %.2fs, %,.0f records/s%n",
+                report.getGames(), report.getGuesses(), report.getRecords(), threads, seconds, report.getRecords() / seconds);
+        System.out.printf("Mismatched guesses: %,d, mismatched outcomes: %,d, unfinished games: %,d%n",
+                report.getMismatchedGuesses(), report.getMismatchedOutcomes(), report.getUnfinished());
+        for (String example : report.getExamples()) {
+            System.out.println("  " + example);
+        }
+        return report.isClean();
+    }
+
+    private static void seek(Path journal, String[] args) throws Exception {
+        Replayer replayer = new Replayer(Recording.read(journal));
+        StringBuilder line = new StringBuilder();
+        for (int i = 2; i < args.length; i++) {
+            replayer.seek(Integer.parseInt(args[i]));
+            HangmanGame game = replayer.getGame();
+            line.setLength(0);
+            line.append(replayer.getPosition()).append(": game ").append(replayer.getCurrentGame()).append(' ');
+            game.appendGuess(line);
+            line.append("  wrong: ");
+            game.appendWrongLetters(line);
+            line.append("  ").append(game.isWon() ? "WON" : game.isLost() ? "LOST" : "PLAYING");
+            System.out.println(line);
+        }
+    }
+}
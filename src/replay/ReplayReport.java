@@ -0,0 +1,91 @@
+package replay;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What a bulk replay found. Every worker fills its own report and they're added together at the end,
+ * so workers never share anything while they replay.
+ */
+public final class ReplayReport {
+    static final int MAX_EXAMPLES = 10;
+
+    long records;
+    long games;
+    long guesses;
+    long mismatchedGuesses;
+    long mismatchedOutcomes;
+    long unfinished;
+    final List<String> examples = new ArrayList<>();
+
+    /**
+     * Keeps a description of a mismatch, only the first few are kept.
+     */
+    void example(String description) {
+        if (examples.size() < MAX_EXAMPLES) {
+            examples.add(description);
+        }
+    }
+
+    /**
+     * Adds the counts of another report to this one.
+     */
+    void add(ReplayReport other) {
+        records += other.records;
+        games += other.games;
+        guesses += other.guesses;
+        mismatchedGuesses += other.mismatchedGuesses;
+        mismatchedOutcomes += other.mismatchedOutcomes;
+        unfinished += other.unfinished;
+        for (String example : other.examples) {
+            example(example);
+        }
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getGuesses() {
+        return guesses;
+    }
+
+    /**
+     * @return how many guesses got another result (hit, miss or rejected) than when they were played
+     */
+    public long getMismatchedGuesses() {
+        return mismatchedGuesses;
+    }
+
+    /**
+     * @return how many games ended differently than when they were played
+     */
+    public long getMismatchedOutcomes() {
+        return mismatchedOutcomes;
+    }
+
+    /**
+     * @return how many games were never finished, and so have no outcome to check
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * @return descriptions of the first few mismatches
+     */
+    public List<String> getExamples() {
+        return examples;
+    }
+
+    /**
+     * @return whether every game replayed exactly like it was played
+     */
+    public boolean isClean() {
+        return mismatchedGuesses == 0 && mismatchedOutcomes == 0;
+    }
+}
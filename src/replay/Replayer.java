@@ -0,0 +1,175 @@
+package replay;
+
+import engine.GuessResult;
+import engine.HangmanGame;
+
+/**
+ * Plays a {@link Recording} again, guess by guess, with today's rules. Since Hangman has no randomness once the
+ * word is picked, replaying the same recording always ends up in the same state, and any guess whose outcome
+ * differs from the recorded one means the rules changed (or the recording is broken).
+ * ------------
+ * Guesses are numbered across the whole recording, and "position n" is the state right after the first n guesses.
+ * To jump to any position without playing everything before it, a copy of the game is kept every
+ * checkpointEvery guesses on a first pass. Seeking restores the closest checkpoint before the target and
+ * plays at most checkpointEvery - 1 guesses from there.
+ * ------------
+ * This class is not thread safe, each replayer should be used by one thread at a time.
+ */
+public final class Replayer {
+    public static final int DEFAULT_CHECKPOINT_EVERY = 256;
+
+    private final Recording recording;
+    private final int checkpointEvery;
+    private final HangmanGame[] checkpoints;
+    private final int[] checkpointGames;
+
+    private HangmanGame game;
+    private int currentGame;
+    private int position;
+    private int mismatches;
+    private int firstMismatch = -1;
+
+    public Replayer(Recording recording) {
+        this(recording, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+    /**
+     * Replays the whole recording once to take the checkpoints, and then goes back to the start.
+     * @param recording: what to replay
+     * @param checkpointEvery: how many guesses apart the checkpoints are
+     */
+    public Replayer(Recording recording, int checkpointEvery) {
+        if (checkpointEvery <= 0) {
+            throw new IllegalArgumentException("checkpointEvery must be positive: " + checkpointEvery);
+        }
+        this.recording = recording;
+        this.checkpointEvery = checkpointEvery;
+        int count = recording.games() == 0 ? 0 : recording.guesses() / checkpointEvery + 1;
+        this.checkpoints = new HangmanGame[count];
+        this.checkpointGames = new int[count];
+
+        rewind();
+        for (int i = 0; i < count; i++) {
+            while (position < i * checkpointEvery) {
+                step();
+            }
+            HangmanGame copy = new HangmanGame(game.getMaxWrongGuesses());
+            copy.copyFrom(game);
+            checkpoints[i] = copy;
+            checkpointGames[i] = currentGame;
+        }
+        rewind();
+    }
+
+    /**
+     * Goes back to position 0: the first game just started, nothing guessed.
+     */
+    public void rewind() {
+        position = 0;
+        mismatches = 0;
+        firstMismatch = -1;
+        if (recording.games() > 0) {
+            startGame(0);
+        }
+    }
+
+    private void startGame(int g) {
+        currentGame = g;
+        int maxWrongGuesses = recording.maxWrongGuesses(g);
+        if (game == null || game.getMaxWrongGuesses() != maxWrongGuesses) {
+            game = new HangmanGame(maxWrongGuesses);
+        }
+        game.start(recording.word(g));
+    }
+
+    /**
+     * Plays the next guess of the recording, starting the next game first if this one has no more guesses.
+     * @return what the game says about the guess today, or null if there are no guesses left
+     */
+    public GuessResult step() {
+        if (position >= recording.guesses()) {
+            return null;
+        }
+        if (position >= recording.endGuess(currentGame)) {
+            int next = currentGame + 1;
+            while (recording.endGuess(next) <= position) {
+                next++; // skips games where nothing was guessed
+            }
+            startGame(next);
+        }
+
+        GuessResult recorded = recording.result(position);
+        GuessResult result = recorded == GuessResult.WRONG_WORD ? game.missWord() : game.guess(recording.letter(position));
+        boolean mismatch = result != recorded;
+        position++;
+        if (position == recording.endGuess(currentGame) && recording.outcome(currentGame) != Recording.UNFINISHED) {
+            mismatch |= !game.isOver() || game.isWon() != (recording.outcome(currentGame) == Recording.WON);
+        }
+        if (mismatch) {
+            if (firstMismatch < 0) {
+                firstMismatch = position - 1;
+            }
+            mismatches++;
+        }
+        return result;
+    }
+
+    /**
+     * Jumps to any position, going through the closest checkpoint before it. Mismatches are only counted
+     * for the guesses actually played, so use {@link #rewind()} and {@link #step()} to check a whole recording.
+     * @param target: 0 up to {@link Recording#guesses()}
+     */
+    public void seek(int target) {
+        if (target < 0 || target > recording.guesses()) {
+            throw new IndexOutOfBoundsException(target);
+        }
+        if (recording.games() == 0) {
+            return;
+        }
+        int i = target / checkpointEvery;
+        if (target < position || i * checkpointEvery > position) { // only restore if it's not quicker to just keep going
+            HangmanGame checkpoint = checkpoints[i];
+            if (game.getMaxWrongGuesses() != checkpoint.getMaxWrongGuesses()) {
+                game = new HangmanGame(checkpoint.getMaxWrongGuesses());
+            }
+            game.copyFrom(checkpoint);
+            currentGame = checkpointGames[i];
+            position = i * checkpointEvery;
+        }
+        while (position < target) {
+            step();
+        }
+    }
+
+    /**
+     * @return the game as it is at the current position, to look at but not to play
+     */
+    public HangmanGame getGame() {
+        return game;
+    }
+
+    /**
+     * @return which game of the recording is being played at the current position
+     */
+    public int getCurrentGame() {
+        return currentGame;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * @return how many of the guesses played since the last rewind didn't end like they did when recorded
+     */
+    public int getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * @return the first of those guesses, or -1 if there were none
+     */
+    public int getFirstMismatch() {
+        return firstMismatch;
+    }
+}
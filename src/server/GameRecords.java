@@ -0,0 +1,439 @@
+package server;
+
+import dictionary.WordPicker;
+import engine.GuessResult;
+import engine.HangmanGame;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The server's sessions as fixed size records outside the heap, for when there are millions of them.
+ * A session object with its game and its picker is a couple of kilobytes of heap the garbage collector has to go
+ * through on every collection. A record is 64 bytes of direct memory the garbage collector never sees,
+ * so the heap and the collection pauses stay the same whether the server hosts a thousand games or ten million.
+ * ------------
+ * A game is fully described by its word, its revealed positions and its wrong letters in order (the letters guessed
+ * right are the ones at the revealed positions), so that's all a record keeps, little endian:
+ *   0 version, 8 session id, 16 word id, 20 wrong guess count, 24 revealed positions (a bitmask),
+ *   32 the wrong letters in the order they were guessed, 21 bit code points, 3 to a long, 12 at most.
+ * To play a guess the record is read into a game borrowed from a small pool ({@link HangmanGame#restore}), the game
+ * plays it with its usual rules, and the result is written back. Nothing is allocated but the word's String.
+ * ------------
+ * There's no lock anywhere. The version of a record is even when the record can be read and odd while it's written:
+ * reading a record is reading the version, then the fields, then the version again, and reading it again if the
+ * version changed in between. Writing it is moving the version from the one we read to the next odd number
+ * with one compare and set, which fails if anyone wrote the record since we read it. Then we play our guess again
+ * on top of theirs, just like two players typing on the same session would take turns.
+ * ------------
+ * A session id is the index of its record in the low 32 bits and how many times the record was used in the high bits,
+ * so finding a session is just arithmetic, and an old id never finds the game that reused its record.
+ * Records of ended sessions go on a free list (a compare and set stack) and are reused before new ones.
+ * Records are allocated 65536 at a time (4MB), up to about a billion, and count against -XX:MaxDirectMemorySize.
+ * ------------
+ * The words of every session come from the server's one picker, taken in turn under a lock, which is once per game.
+ * It doesn't pick a word again within its last picks over the whole server, so a player won't see a word again soon
+ * while few players are on, but a record has no picker of its own: with many players picking at once, a player can
+ * get a word they had a few games before. With -Dhangman.seed the words come in the same order on every run.
+ * The server keeps its sessions in records when started with -Dhangman.records=true.
+ */
+public final class GameRecords implements Sessions {
+    public static final String RECORDS_PROPERTY = "hangman.records";
+    static final int RECORD_BYTES = 64;
+    static final int SLAB_BITS = 16;
+    static final int SLAB_SIZE = 1 << SLAB_BITS;
+    static final int MAX_SLABS = 1 << 14;
+    static final int MAX_WRONG_LETTERS = 12;
+
+    private static final int VERSION = 0;
+    private static final int ID = 8;
+    private static final int WORD = 16; // the next free record + 1 when the record is free
+    private static final int WRONG_COUNT = 20;
+    private static final int REVEALED = 24;
+    private static final int WRONG_LETTERS = 32;
+    private static final int LETTER_BITS = 21;
+    private static final int LETTERS_PER_LONG = 3;
+    private static final int LETTER_LONGS = MAX_WRONG_LETTERS / LETTERS_PER_LONG;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final WordPicker picker;
+    private final ReentrantLock pickerLock = new ReentrantLock();
+    private final int maxWrongGuesses;
+    private final AtomicReferenceArray<ByteBuffer> slabs = new AtomicReferenceArray<>(MAX_SLABS);
+    private final AtomicInteger used = new AtomicInteger();
+    private final AtomicLong free = new AtomicLong(); // a tag in the high bits, the first free record + 1 in the low bits
+    private final LongAdder size = new LongAdder();
+    private final AtomicReferenceArray<Scratch> scratches = new AtomicReferenceArray<>(
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) << 1);
+
+    /**
+     * @param picker: the server's picker, which picks the words of every session
+     */
+    public GameRecords(WordPicker picker) {
+        this(picker, HangmanGame.DEFAULT_MAX_WRONG_GUESSES);
+    }
+
+    /**
+     * @param picker: the server's picker, which picks the words of every session
+     * @param maxWrongGuesses: how many wrong guesses the games allow, at most {@link #MAX_WRONG_LETTERS}
+     */
+    public GameRecords(WordPicker picker, int maxWrongGuesses) {
+        if (maxWrongGuesses <= 0 || maxWrongGuesses > MAX_WRONG_LETTERS) {
+            throw new IllegalArgumentException("maxWrongGuesses must be between 1 and " + MAX_WRONG_LETTERS);
+        }
+        this.picker = picker;
+        this.maxWrongGuesses = maxWrongGuesses;
+    }
+
+    /**
+     * What a thread needs to play records: a game to read them into and room to decode the wrong letters.
+     */
+    private static final class Scratch {
+        final HangmanGame game;
+        final long[] letters = new long[LETTER_LONGS];
+        final int[] wrongLetters = new int[MAX_WRONG_LETTERS];
+        int wordId;
+        int wrongCount;
+        long revealed;
+
+        Scratch(int maxWrongGuesses) {
+            this.game = new HangmanGame(maxWrongGuesses);
+        }
+    }
+
+    @Override
+    public long create(StringBuilder state) {
+        int index = allocate();
+        ByteBuffer slab = slab(index);
+        int at = at(index);
+        int wordId = nextWord();
+        Scratch scratch = takeScratch();
+        try {
+            scratch.game.start(picker.word(wordId));
+            return create(slab, at, index, wordId, scratch.game, state);
+        } finally {
+            giveBack(scratch);
+        }
+    }
+
+    private long create(ByteBuffer slab, int at, int index, int wordId, HangmanGame game, StringBuilder state) {
+        long previous = slab.getLong(at + ID); // the last id of a free record, flipped, or 0 if it was never used
+        long serial = ((~previous >>> 32) + 1) & Integer.MAX_VALUE;
+        long id = Math.max(1, serial) << 32 | index;
+        // nobody else writes a free record, but a player with an old id may still be reading it
+        while (!write(slab, at, (long) LONGS.getAcquire(slab, at + VERSION), id, wordId, game)) {
+            Thread.onSpinWait();
+        }
+        size.increment();
+        GameSession.appendState(id, game, state);
+        return id;
+    }
+
+    @Override
+    public GuessResult guess(long id, CharSequence text, StringBuilder state) {
+        ByteBuffer slab = slabOf(id);
+        if (slab == null) {
+            return null;
+        }
+        int at = at((int) id);
+        Scratch scratch = takeScratch();
+        try {
+            while (true) {
+                long version = read(slab, at, id, scratch);
+                if (version < 0) {
+                    return null;
+                }
+                HangmanGame game = restore(scratch);
+                GuessResult result = game.guess(text);
+                if (!result.isAccepted() || write(slab, at, version, id, scratch.wordId, game)) {
+                    GameSession.appendState(id, game, state);
+                    return result;
+                }
+                // someone played this session since we read it, play the guess again on top of theirs
+            }
+        } finally {
+            giveBack(scratch);
+        }
+    }
+
+    @Override
+    public boolean state(long id, StringBuilder state) {
+        ByteBuffer slab = slabOf(id);
+        if (slab == null) {
+            return false;
+        }
+        Scratch scratch = takeScratch();
+        try {
+            if (read(slab, at((int) id), id, scratch) < 0) {
+                return false;
+            }
+            GameSession.appendState(id, restore(scratch), state);
+            return true;
+        } finally {
+            giveBack(scratch);
+        }
+    }
+
+    @Override
+    public boolean restart(long id, StringBuilder state) {
+        ByteBuffer slab = slabOf(id);
+        if (slab == null) {
+            return false;
+        }
+        int at = at((int) id);
+        Scratch scratch = takeScratch();
+        try {
+            int wordId = -1;
+            while (true) {
+                long version = read(slab, at, id, scratch);
+                if (version < 0) {
+                    return false;
+                }
+                if (wordId < 0) {
+                    wordId = nextWord();
+                    scratch.game.start(picker.word(wordId));
+                }
+                if (write(slab, at, version, id, wordId, scratch.game)) {
+                    GameSession.appendState(id, scratch.game, state);
+                    return true;
+                }
+            }
+        } finally {
+            giveBack(scratch);
+        }
+    }
+
+    @Override
+    public boolean remove(long id) {
+        ByteBuffer slab = slabOf(id);
+        if (slab == null) {
+            return false;
+        }
+        int index = (int) id;
+        int at = at(index);
+        Scratch scratch = takeScratch();
+        try {
+            while (true) {
+                long version = read(slab, at, id, scratch);
+                if (version < 0) {
+                    return false;
+                }
+                if (LONGS.compareAndSet(slab, at + VERSION, version, version + 1)) {
+                    slab.putLong(at + ID, ~id);
+                    LONGS.setRelease(slab, at + VERSION, version + 2);
+                    size.decrement();
+                    release(index);
+                    return true;
+                }
+            }
+        } finally {
+            giveBack(scratch);
+        }
+    }
+
+    /**
+     * @return how many sessions there are
+     */
+    @Override
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * @return how many bytes of direct memory the records take
+     */
+    public long offHeapBytes() {
+        return (long) ((used.get() + SLAB_SIZE - 1) >>> SLAB_BITS) * SLAB_SIZE * RECORD_BYTES;
+    }
+
+    /**
+     * Reads a record into a scratch, reading it again if it was written in the meantime.
+     * @return the version read, or -1 if the record isn't this session's
+     */
+    private static long read(ByteBuffer slab, int at, long id, Scratch scratch) {
+        while (true) {
+            long version = (long) LONGS.getAcquire(slab, at + VERSION);
+            if ((version & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            long recordId = slab.getLong(at + ID);
+            scratch.wordId = slab.getInt(at + WORD);
+            scratch.wrongCount = slab.getInt(at + WRONG_COUNT);
+            scratch.revealed = slab.getLong(at + REVEALED);
+            for (int i = 0; i < LETTER_LONGS; i++) {
+                scratch.letters[i] = slab.getLong(at + WRONG_LETTERS + i * Long.BYTES);
+            }
+            VarHandle.loadLoadFence();
+            if ((long) LONGS.getVolatile(slab, at + VERSION) == version) {
+                return recordId == id ? version : -1;
+            }
+        }
+    }
+
+    /**
+     * @return the scratch's game, as the record read into the scratch describes it
+     */
+    private HangmanGame restore(Scratch scratch) {
+        for (int wrong = 0; wrong < scratch.wrongCount; wrong++) {
+            long letters = scratch.letters[wrong / LETTERS_PER_LONG];
+            scratch.wrongLetters[wrong] = (int) (letters >>> (LETTER_BITS * (wrong % LETTERS_PER_LONG))) & ((1 << LETTER_BITS) - 1);
+        }
+        scratch.game.restore(picker.word(scratch.wordId), scratch.revealed, scratch.wrongLetters, scratch.wrongCount);
+        return scratch.game;
+    }
+
+    /**
+     * Writes a game into a record, if nobody wrote the record since we read the given version.
+     * @return false if somebody did
+     */
+    private static boolean write(ByteBuffer slab, int at, long version, long id, int wordId, HangmanGame game) {
+        if ((version & 1) != 0 || !LONGS.compareAndSet(slab, at + VERSION, version, version + 1)) {
+            return false;
+        }
+        slab.putLong(at + ID, id);
+        slab.putInt(at + WORD, wordId);
+        slab.putInt(at + WRONG_COUNT, game.getWrongLetterCount());
+        slab.putLong(at + REVEALED, game.getRevealedMask());
+        for (int i = 0; i < LETTER_LONGS; i++) {
+            long letters = 0L;
+            for (int j = 0; j < LETTERS_PER_LONG; j++) {
+                int wrong = i * LETTERS_PER_LONG + j;
+                if (wrong < game.getWrongLetterCount()) {
+                    letters |= (long) game.wrongLetterAt(wrong) << (LETTER_BITS * j);
+                }
+            }
+            slab.putLong(at + WRONG_LETTERS + i * Long.BYTES, letters);
+        }
+        LONGS.setRelease(slab, at + VERSION, version + 2);
+        return true;
+    }
+
+    /**
+     * @return a free record, from the free list if there's one, a new one otherwise
+     */
+    private int allocate() {
+        while (true) {
+            long head = free.get();
+            int first = (int) head - 1;
+            if (first < 0) {
+                break;
+            }
+            int next = slabs.get(first >>> SLAB_BITS).getInt(at(first) + WORD);
+            if (free.compareAndSet(head, ((head >>> 32) + 1) << 32 | (next & 0xFFFFFFFFL))) {
+                return first;
+            }
+        }
+        int index = used.getAndIncrement();
+        if (index < 0 || index >= MAX_SLABS * SLAB_SIZE) {
+            used.decrementAndGet();
+            throw new IllegalStateException("No room for more than " + MAX_SLABS * SLAB_SIZE + " sessions");
+        }
+        return index;
+    }
+
+    /**
+     * Puts the record of an ended session on the free list. The tag changes on every push and pop, so a pop that read
+     * the list before somebody else popped and pushed the same record fails its compare and set.
+     */
+    private void release(int index) {
+        ByteBuffer slab = slabs.get(index >>> SLAB_BITS);
+        while (true) {
+            long head = free.get();
+            slab.putInt(at(index) + WORD, (int) head);
+            if (free.compareAndSet(head, ((head >>> 32) + 1) << 32 | (index + 1))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the slab of a record, allocating it if it's the first record of the slab to be used
+     */
+    private ByteBuffer slab(int index) {
+        int number = index >>> SLAB_BITS;
+        ByteBuffer slab = slabs.get(number);
+        if (slab == null) {
+            slab = ByteBuffer.allocateDirect(SLAB_SIZE * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (!slabs.compareAndSet(number, null, slab)) {
+                slab = slabs.get(number);
+            }
+        }
+        return slab;
+    }
+
+    /**
+     * @return the slab a session's record is in, or null if there's no such record
+     */
+    private ByteBuffer slabOf(long id) {
+        int index = (int) id;
+        if (id <= 0 || index < 0 || index >= used.get()) {
+            return null;
+        }
+        return slabs.get(index >>> SLAB_BITS);
+    }
+
+    private static int at(int index) {
+        return (index & (SLAB_SIZE - 1)) * RECORD_BYTES;
+    }
+
+    /**
+     * @return the id of the word for a new game. The server's picker isn't thread safe, so threads take turns,
+     * but that's once per game against a guess or more for every command.
+     */
+    private int nextWord() {
+        pickerLock.lock();
+        try {
+            return picker.next();
+        } finally {
+            pickerLock.unlock();
+        }
+    }
+
+    /**
+     * Borrows a scratch from the pool, or makes one if they're all taken. A command doesn't block while it has one,
+     * so about as many are in use at once as there are cores, however many connections (one virtual thread each)
+     * the server has. Threads start looking at different slots so they don't all fight over the first ones.
+     */
+    private Scratch takeScratch() {
+        int mask = scratches.length() - 1;
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i <= mask; i++) {
+            int slot = (start + i) & mask;
+            Scratch scratch = scratches.get(slot);
+            if (scratch != null && scratches.compareAndSet(slot, scratch, null)) {
+                return scratch;
+            }
+        }
+        return new Scratch(maxWrongGuesses);
+    }
+
+    /**
+     * Puts a scratch back in the pool, or leaves it to the garbage collector if the pool is full.
+     */
+    private void giveBack(Scratch scratch) {
+        int mask = scratches.length() - 1;
+        int start = (int) Thread.currentThread().threadId();
+        for (int i = 0; i <= mask; i++) {
+            int slot = (start + i) & mask;
+            if (scratches.get(slot) == null && scratches.compareAndSet(slot, null, scratch)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Nothing to do: the records are freed by the garbage collector along with this table.
+     */
+    @Override
+    public void close() {
+    }
+}
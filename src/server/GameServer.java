@@ -0,0 +1,194 @@
+package server;
+
+import dictionary.Dictionaries;
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordPicker;
+import dictionary.WordSelection;
+import engine.GuessResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hosts many games of Hangman from one process, over a simple text protocol on a local TCP port.
+ * Every connection runs on its own virtual thread, so thousands of players cost little more than their sessions.
+ * A connection can play any number of sessions, and a session can be picked up again from another connection.
+ * ------------
+ * Every command is one line, and every answer is one line starting with OK or ERROR:
+ *   NEW                  -> OK id guess remaining wrongLetters status
+ *   GUESS id letter      -> OK RESULT id guess remaining wrongLetters status   (or ERROR message, like the game panel)
+ *   STATE id             -> OK id guess remaining wrongLetters status
+ *   RESTART id           -> OK id guess remaining wrongLetters status
+ *   END id               -> OK
+ *   QUIT                 -> closes the connection
+ * The words come from a packed dictionary file, and can be narrowed down just like in the game (see {@link Dictionaries}).
+ * Every session picks its words with a picker of its own, split from the server's, so sessions never share a random
+ * generator, and with -Dhangman.seed the server hands out the same words to its sessions every time it runs.
+ * Sessions nobody played for a while are put to sleep in a file (see {@link SessionStore}) and wake up on their next
+ * command, so players who leave without an END don't keep their session in memory.
+ * With -Dhangman.records=true the sessions are kept as records outside the heap instead (see {@link GameRecords}),
+ * for servers hosting millions of games; their words all come from the server's picker, one game after the other.
+ * Try it with: java -Dhangman.dictionary=words.hdict -cp hangman.jar server.GameServer 7777   and then   nc localhost 7777
+ */
+public final class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 7777;
+
+    private final Sessions sessions;
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    public GameServer(int port, Dictionary dictionary, WordSelection selection) throws IOException {
+        this.serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        WordPicker picker = Dictionaries.picker(dictionary, selection);
+        this.sessions = Boolean.getBoolean(GameRecords.RECORDS_PROPERTY)
+                ? new GameRecords(picker)
+                : new SessionTable(SessionStore.openDefault(picker), picker);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        if (System.getProperty(Dictionaries.DICTIONARY_PROPERTY) == null) {
+            System.err.println("Usage: java -D" + Dictionaries.DICTIONARY_PROPERTY + "=words.hdict server.GameServer [port]");
+            System.exit(2);
+        }
+        Dictionary dictionary = Dictionaries.load(new String[0]);
+        if (dictionary.size() == 0) {
+            System.exit(1);
+        }
+        WordIndex index = Dictionaries.index(dictionary);
+        try (GameServer server = new GameServer(port, dictionary, Dictionaries.select(index))) {
+            System.out.println("Hangman server listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public Sessions getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Accepts connections until the server is closed, handing each one to a new virtual thread.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            connections.execute(() -> handle(socket));
+        }
+    }
+
+    /**
+     * Starts accepting connections on a virtual thread of its own and returns right away.
+     */
+    public void start() {
+        Thread.ofVirtual().name("hangman-accept").start(() -> {
+            try {
+                serve();
+            } catch (IOException e) {
+                System.out.println("Hangman server stopped: " + e.getMessage());
+            }
+        });
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder answer = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                answer.setLength(0);
+                if (!execute(line, answer)) {
+                    break;
+                }
+                out.append(answer).append('\n').flush();
+            }
+        } catch (IOException e) {
+            // the player went away, their sessions stay in the table
+        }
+    }
+
+    /**
+     * Runs one command of the protocol.
+     * @param line: the command
+     * @param answer: where to write the answer line
+     * @return false if the connection should be closed
+     */
+    boolean execute(String line, StringBuilder answer) {
+        String[] parts = line.trim().split(" ", 3);
+        String command = parts[0].toUpperCase(Locale.ROOT);
+        try {
+            switch (command) {
+                case "NEW":
+                    sessions.create(answer.append("OK "));
+                    return true;
+                case "GUESS": {
+                    StringBuilder state = new StringBuilder();
+                    GuessResult result = parts.length > 1
+                            ? sessions.guess(Long.parseLong(parts[1]), parts.length > 2 ? parts[2] : "", state)
+                            : null;
+                    if (result == null) {
+                        answer.append("ERROR Unknown session");
+                    } else if (result.isAccepted()) {
+                        answer.append("OK ").append(result.name()).append(' ').append(state);
+                    } else {
+                        answer.append("ERROR ").append(result.getMessage());
+                    }
+                    return true;
+                }
+                case "STATE":
+                case "RESTART": {
+                    StringBuilder state = new StringBuilder();
+                    boolean found = parts.length > 1 && (command.equals("STATE")
+                            ? sessions.state(Long.parseLong(parts[1]), state)
+                            : sessions.restart(Long.parseLong(parts[1]), state));
+                    answer.append(found ? "OK " : "ERROR Unknown session").append(state);
+                    return true;
+                }
+                case "END":
+                    answer.append(parts.length > 1 && sessions.remove(Long.parseLong(parts[1])) ? "OK" : "ERROR Unknown session");
+                    return true;
+                case "QUIT":
+                    return false;
+                default:
+                    answer.append("ERROR Unknown command");
+                    return true;
+            }
+        } catch (NumberFormatException e) {
+            answer.setLength(0);
+            answer.append("ERROR Invalid session id");
+            return true;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+        sessions.close();
+    }
+}
@@ -0,0 +1,280 @@
+package server;
+
+import dictionary.WordPicker;
+import engine.GuessResult;
+import engine.HangmanGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One game hosted by the server. Each session has its own lock, so two players guessing on two different
+ * sessions never wait for each other, and two connections guessing on the same session take turns.
+ * We use a ReentrantLock rather than synchronized because a virtual thread blocked in synchronized
+ * keeps its carrier thread busy.
+ * ------------
+ * A session nobody played for a while is put to sleep: its snapshot goes into the {@link SessionStore} and the object
+ * is dropped from the session table. The snapshot is one record, little endian:
+ *   0 session id, 8 word id, 12 wrong guesses allowed, 13 wrong guess count, 14 letters guessed,
+ *   16 revealed positions (a bitmask), 24 letters 'a' to 'z' guessed (a bitmask),
+ *   32 the wrong letters in the order they were guessed, 5 bits each, 12 to a long,
+ *   56 the picker's generator and last picks (see {@link WordPicker#writeState}), as long as the picker's window needs.
+ * That's enough to get the game back exactly as it was: the letters are played again, the wrong ones in their order
+ * and the right ones in any order, since they don't show up in the wrong letters list. The picker is read back as is,
+ * without picking its words again, so waking a session up takes the same time however many games it played.
+ * Games with a letter outside 'a' to 'z' don't fit the record, they just stay awake.
+ */
+public final class GameSession {
+    private static final int PICKER = 56;
+    private static final int LETTERS_PER_LONG = 12;
+
+    private final long id;
+    private final HangmanGame game;
+    private final WordPicker picker;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int wordId;
+    private volatile long lastAccess;
+    private volatile boolean asleep;
+
+    /**
+     * @param id: the session id
+     * @param picker: where the words of this session come from, used by this session only
+     */
+    GameSession(long id, WordPicker picker) {
+        this(id, picker, new HangmanGame());
+        this.wordId = picker.next();
+        this.game.start(picker.word(wordId));
+    }
+
+    private GameSession(long id, WordPicker picker, HangmanGame game) {
+        this.id = id;
+        this.picker = picker;
+        this.game = game;
+        touch();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return when this session was last used, from System.nanoTime()
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    private void touch() {
+        lastAccess = System.nanoTime();
+    }
+
+    /**
+     * Locks the session, unless it was put to sleep since it was looked up.
+     * @return false if the session is asleep, and has to be looked up again in the session table
+     */
+    private boolean lockAwake() {
+        lock.lock();
+        if (asleep) {
+            lock.unlock();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Plays what the player typed, with the same rules as the game panel's "Guess" button.
+     * @param text: what the player typed
+     * @param state: where to write the state of the game after the guess
+     * @return what happened with that guess, or null if the session was put to sleep and has to be looked up again
+     */
+    public GuessResult guess(CharSequence text, StringBuilder state) {
+        if (!lockAwake()) {
+            return null;
+        }
+        try {
+            touch();
+            GuessResult result = game.guess(text);
+            appendState(id, game, state);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Starts a new word in this session, like the game panel's "New Word" button.
+     * @return false if the session was put to sleep and has to be looked up again
+     */
+    public boolean restart(StringBuilder state) {
+        if (!lockAwake()) {
+            return false;
+        }
+        try {
+            touch();
+            wordId = picker.next();
+            game.start(picker.word(wordId));
+            appendState(id, game, state);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the state of the game as one line: id, guess so far, guesses remaining, wrong letters
+     * (or "-" if there are none), and PLAYING, WON or LOST. The word is only shown once the game is lost.
+     * @return false if the session was put to sleep and has to be looked up again
+     */
+    public boolean state(StringBuilder state) {
+        if (!lockAwake()) {
+            return false;
+        }
+        try {
+            touch();
+            appendState(id, game, state);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the state of a game as one line, see {@link #state(StringBuilder)}.
+     */
+    static void appendState(long id, HangmanGame game, StringBuilder out) {
+        out.append(id).append(' ');
+        for (int i = 0; i < game.getLength(); i++) {
+            out.appendCodePoint(game.maskedCodePointAt(i));
+        }
+        out.append(' ').append(game.getGuessesRemaining()).append(' ');
+        if (game.getWrongLetterCount() == 0) {
+            out.append('-');
+        }
+        for (int i = 0; i < game.getWrongLetterCount(); i++) {
+            out.appendCodePoint(game.wrongLetterAt(i));
+        }
+        if (game.isWon()) {
+            out.append(" WON");
+        } else if (game.isLost()) {
+            out.append(" LOST ").append(game.getWord());
+        } else {
+            out.append(" PLAYING");
+        }
+    }
+
+    /**
+     * Puts the session to sleep if nobody used it since the given time. Its snapshot is written to the store,
+     * and from then on this object is dead: anyone still holding it is told to look the session up again.
+     * A session being played right now is never waited for, it's obviously not idle.
+     * @param store: where to write the snapshot
+     * @param idleSince: a System.nanoTime() the session must not have been used after
+     * @return whether the session was put to sleep
+     */
+    boolean hibernate(SessionStore store, long idleSince) throws IOException {
+        if (!lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (asleep || lastAccess - idleSince > 0 || Integer.bitCount(game.getGuessedMask()) != game.getGuessCount()) {
+                return false;
+            }
+            store.put(id, this);
+            asleep = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param noRepeat: how many of the last picks the pickers of the sessions remember, see {@link WordPicker#getNoRepeat()}
+     * @return how many bytes the snapshot of such a session takes, a multiple of 8
+     */
+    static int snapshotBytes(int noRepeat) {
+        return (PICKER + WordPicker.stateBytes(noRepeat) + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * Writes the snapshot of the session, see the layout above.
+     */
+    void writeSnapshot(ByteBuffer buffer, int at) {
+        buffer.putLong(at, id);
+        buffer.putInt(at + 8, wordId);
+        buffer.put(at + 12, (byte) game.getMaxWrongGuesses());
+        buffer.put(at + 13, (byte) game.getWrongLetterCount());
+        buffer.putShort(at + 14, (short) game.getGuessCount());
+        buffer.putLong(at + 16, game.getRevealedMask());
+        buffer.putInt(at + 24, game.getGuessedMask());
+        for (int word = 0; word * LETTERS_PER_LONG < HangmanGame.ALPHABET_SIZE; word++) {
+            long letters = 0L;
+            for (int i = 0; i < LETTERS_PER_LONG; i++) {
+                int wrong = word * LETTERS_PER_LONG + i;
+                if (wrong < game.getWrongLetterCount()) {
+                    letters |= (long) HangmanGame.letterIndex(game.wrongLetterAt(wrong)) << (5 * i);
+                }
+            }
+            buffer.putLong(at + 32 + word * Long.BYTES, letters);
+        }
+        picker.writeState(buffer, at + PICKER);
+    }
+
+    /**
+     * Gets a session back from its snapshot, exactly as it was when put to sleep.
+     * @param picker: the server's picker, which the session's own picker was made from
+     * @return the session, awake
+     * @throws IOException if the snapshot doesn't match its word anymore
+     */
+    static GameSession readSnapshot(ByteBuffer buffer, int at, WordPicker picker) throws IOException {
+        long id = buffer.getLong(at);
+        int wordId = buffer.getInt(at + 8);
+        int maxWrongGuesses = buffer.get(at + 12);
+        int wrongCount = buffer.get(at + 13);
+        int guessCount = buffer.getShort(at + 14);
+        long revealedMask = buffer.getLong(at + 16);
+        int guessedMask = buffer.getInt(at + 24);
+
+        GameSession session;
+        try {
+            session = new GameSession(id, picker.readState(buffer, at + PICKER), new HangmanGame(maxWrongGuesses));
+        } catch (IllegalArgumentException err) {
+            throw new IOException("The snapshot of session " + id + " doesn't fit the server's picker", err);
+        }
+        session.wordId = wordId;
+        HangmanGame game = session.game;
+        game.start(picker.word(wordId));
+
+        int wrongMask = 0;
+        for (int wrong = 0; wrong < wrongCount; wrong++) {
+            long letters = buffer.getLong(at + 32 + (wrong / LETTERS_PER_LONG) * Long.BYTES);
+            wrongMask |= 1 << ((int) (letters >>> (5 * (wrong % LETTERS_PER_LONG))) & 31);
+        }
+        // a lost game gets its right letters first and a won game its wrong ones, so the game only ends on the last guess
+        if (wrongCount >= maxWrongGuesses) {
+            playLetters(game, guessedMask & ~wrongMask);
+            playWrongLetters(game, buffer, at, wrongCount);
+        } else {
+            playWrongLetters(game, buffer, at, wrongCount);
+            playLetters(game, guessedMask & ~wrongMask);
+        }
+
+        if (game.getRevealedMask() != revealedMask || game.getWrongLetterCount() != wrongCount
+                || game.getGuessCount() != guessCount || game.getGuessedMask() != guessedMask) {
+            throw new IOException("The snapshot of session " + id + " doesn't fit its word " + game.getWord());
+        }
+        return session;
+    }
+
+    private static void playWrongLetters(HangmanGame game, ByteBuffer buffer, int at, int wrongCount) {
+        for (int wrong = 0; wrong < wrongCount; wrong++) {
+            long letters = buffer.getLong(at + 32 + (wrong / LETTERS_PER_LONG) * Long.BYTES);
+            game.guess((char) ('a' + ((int) (letters >>> (5 * (wrong % LETTERS_PER_LONG))) & 31)));
+        }
+    }
+
+    private static void playLetters(HangmanGame game, int letters) {
+        for (; letters != 0; letters &= letters - 1) {
+            game.guess((char) ('a' + Integer.numberOfTrailingZeros(letters)));
+        }
+    }
+}
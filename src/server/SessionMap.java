@@ -0,0 +1,149 @@
+package server;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The sessions of one stripe of the {@link SessionTable}, in an open addressing table keyed by the session id,
+ * so looking a session up never boxes its id into a Long (the cache of small Longs is far from reaching session ids).
+ * ------------
+ * Lookups don't lock: ids and sessions are read and written with volatile semantics, a session is set before its id,
+ * and a bigger table is filled in before it's published. Everything that changes the map must hold the stripe's lock.
+ * An id keeps its slot once it's put, with no session once removed, so a lookup never misses an id that moved;
+ * those slots are dropped when the table is rebuilt. Session ids are never 0, which marks a free slot.
+ */
+final class SessionMap {
+    private static final long FREE = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile int size;
+    private int used; // slots with an id, whether its session was removed or not
+
+    private static final class Table {
+        final AtomicLongArray ids;
+        final AtomicReferenceArray<GameSession> sessions;
+        final int mask;
+
+        Table(int capacity) {
+            this.ids = new AtomicLongArray(capacity);
+            this.sessions = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * @return the slot of the id, or the free slot where it would go. The table is never more than half full,
+         * so there always is one
+         */
+        int slot(long id) {
+            int slot = (int) (id * 0x9E3779B97F4A7C15L >>> 40) & mask;
+            for (long key = ids.get(slot); key != id && key != FREE; key = ids.get(slot)) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * A test that can put a session somewhere else before saying it's to be removed, see {@link #removeIf}.
+     */
+    interface Filter {
+        boolean remove(GameSession session) throws IOException;
+    }
+
+    /**
+     * @param id: a session id
+     * @return the session, or null if there is none with that id
+     */
+    GameSession get(long id) {
+        Table table = this.table;
+        int slot = table.slot(id);
+        return table.ids.get(slot) == id ? table.sessions.get(slot) : null;
+    }
+
+    /**
+     * Adds a session, or replaces the one with the same id. The caller must hold the stripe's lock.
+     */
+    void put(long id, GameSession session) {
+        if ((used + 1) * 2 > table.ids.length()) {
+            rebuild();
+        }
+        Table table = this.table;
+        int slot = table.slot(id);
+        if (table.sessions.get(slot) == null) {
+            size++;
+        }
+        table.sessions.set(slot, session);
+        if (table.ids.get(slot) == FREE) {
+            used++;
+            table.ids.set(slot, id);
+        }
+    }
+
+    /**
+     * Removes a session. The caller must hold the stripe's lock.
+     * @return the session removed, or null if there was none with that id
+     */
+    GameSession remove(long id) {
+        Table table = this.table;
+        int slot = table.slot(id);
+        GameSession session = table.ids.get(slot) == id ? table.sessions.get(slot) : null;
+        if (session != null) {
+            table.sessions.set(slot, null);
+            size--;
+        }
+        return session;
+    }
+
+    /**
+     * Removes every session the filter says to remove. The caller must hold the stripe's lock.
+     * @return how many were removed
+     * @throws IOException if the filter failed, the sessions it removed before that stay removed
+     */
+    int removeIf(Filter filter) throws IOException {
+        Table table = this.table;
+        int removed = 0;
+        for (int slot = 0; slot <= table.mask; slot++) {
+            GameSession session = table.sessions.get(slot);
+            if (session != null && filter.remove(session)) {
+                table.sessions.set(slot, null);
+                size--;
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return how many sessions there are
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Moves the sessions into a new table with room for as many again, leaving the removed ones behind.
+     */
+    private void rebuild() {
+        Table old = table;
+        int capacity = MIN_CAPACITY;
+        while (capacity < (size + 1) * 4) {
+            capacity <<= 1;
+        }
+        Table table = new Table(capacity);
+        int count = 0;
+        for (int slot = 0; slot <= old.mask; slot++) {
+            GameSession session = old.sessions.get(slot);
+            if (session != null) {
+                long id = old.ids.get(slot);
+                int to = table.slot(id);
+                table.sessions.set(to, session);
+                table.ids.set(to, id);
+                count++;
+            }
+        }
+        used = count;
+        this.table = table;
+    }
+}
@@ -0,0 +1,260 @@
+package server;
+
+import dictionary.WordPicker;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Where the server keeps the sessions it put to sleep, so its memory grows with the players playing right now
+ * and not with every player who ever started a game. Each sleeping session is one snapshot (see {@link GameSession}),
+ * 56 bytes plus 4 for every pick its picker remembers, in a slot of a memory mapped file, and the only thing left
+ * on the heap is its slot number in a table of primitive longs and ints, 12 bytes or so per session.
+ * ------------
+ * Slots freed by sessions waking up are reused before the file grows, and the file grows by doubling and mapping it again.
+ * The file only lives as long as the server: it's emptied when the server starts, since session ids start over anyway.
+ * It's "~/.hangman/sessions.hses" unless the "hangman.sessions" system property says otherwise ("off" keeps every
+ * session in memory), and sessions go to sleep after 5 minutes without a command ("hangman.idleSeconds").
+ */
+public final class SessionStore implements AutoCloseable {
+    public static final String STORE_PROPERTY = "hangman.sessions";
+    public static final String IDLE_PROPERTY = "hangman.idleSeconds";
+    public static final int DEFAULT_IDLE_SECONDS = 300;
+    static final int INITIAL_SLOTS = 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int slotBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private MappedByteBuffer buffer;
+    private int slots;
+    private int used; // slots below this one were used at some point
+    private int[] free = new int[64];
+    private int freeCount;
+
+    // session id -> slot, open addressing, id 0 being an empty entry (session ids are never 0)
+    private long[] ids = new long[INITIAL_SLOTS * 2];
+    private int[] places = new int[INITIAL_SLOTS * 2];
+    private int size;
+
+    private SessionStore(Path path, FileChannel channel, int slotBytes) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.slotBytes = slotBytes;
+        map(INITIAL_SLOTS);
+    }
+
+    /**
+     * Creates an empty store, replacing the file if there's one already.
+     * @param file: where to keep the sleeping sessions
+     * @param picker: the server's picker, whose window decides how big the snapshots of its sessions are
+     */
+    public static SessionStore open(Path file, WordPicker picker) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new SessionStore(file, channel, GameSession.snapshotBytes(picker.getNoRepeat()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @param picker: the server's picker, whose window decides how big the snapshots of its sessions are
+     * @return the store named by the "hangman.sessions" system property, or null if it's "off" or can't be opened
+     */
+    public static SessionStore openDefault(WordPicker picker) {
+        String property = System.getProperty(STORE_PROPERTY);
+        if ("off".equalsIgnoreCase(property)) {
+            return null;
+        }
+        Path file = property == null || property.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".hangman", "sessions.hses")
+                : Path.of(property);
+        try {
+            return open(file, picker);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Unable to open the session store " + file + ", every session stays in memory. " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return how long a session has to go without a command before it's put to sleep, in nanoseconds
+     */
+    public static long idleNanos() {
+        return Integer.getInteger(IDLE_PROPERTY, DEFAULT_IDLE_SECONDS) * 1_000_000_000L;
+    }
+
+    private void map(int slots) throws IOException {
+        if ((long) slots * slotBytes > Integer.MAX_VALUE) {
+            throw new IOException("Session stores are limited to 2GB: " + path);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slots * slotBytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.slots = slots;
+    }
+
+    /**
+     * Writes the snapshot of a session going to sleep. Called by {@link GameSession#hibernate}, with the session locked.
+     */
+    void put(long id, GameSession session) throws IOException {
+        lock.lock();
+        try {
+            int slot;
+            if (freeCount > 0) {
+                slot = free[--freeCount];
+            } else {
+                if (used == slots) {
+                    map(slots * 2);
+                }
+                slot = used++;
+            }
+            session.writeSnapshot(buffer, slot * slotBytes);
+            index(id, slot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wakes a session up: reads it back from its snapshot and frees its slot.
+     * @param id: a session id
+     * @param picker: the server's picker, which the session's picker was made from
+     * @return the session, or null if it isn't sleeping here
+     */
+    GameSession take(long id, WordPicker picker) throws IOException {
+        lock.lock();
+        try {
+            int slot = unindex(id);
+            if (slot < 0) {
+                return null;
+            }
+            try {
+                return GameSession.readSnapshot(buffer, slot * slotBytes, picker);
+            } finally {
+                release(slot);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets a sleeping session for good, when its player ends it.
+     * @return whether the session was sleeping here
+     */
+    boolean remove(long id) {
+        lock.lock();
+        try {
+            int slot = unindex(id);
+            if (slot < 0) {
+                return false;
+            }
+            release(slot);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(int slot) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * @return how many sessions are sleeping
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int home(long id) {
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 40) & (ids.length - 1);
+    }
+
+    private void index(long id, int slot) {
+        if ((size + 1) * 2 > ids.length) {
+            long[] oldIds = ids;
+            int[] oldPlaces = places;
+            ids = new long[oldIds.length * 2];
+            places = new int[oldIds.length * 2];
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != 0) {
+                    insert(oldIds[i], oldPlaces[i]);
+                }
+            }
+        }
+        insert(id, slot);
+        size++;
+    }
+
+    private void insert(long id, int slot) {
+        int mask = ids.length - 1;
+        int i = home(id);
+        while (ids[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        ids[i] = id;
+        places[i] = slot;
+    }
+
+    /**
+     * Takes a session out of the table, moving back the entries after it that would otherwise not be found anymore.
+     * @return its slot, or -1 if it isn't in the table
+     */
+    private int unindex(long id) {
+        int mask = ids.length - 1;
+        int i = home(id);
+        while (ids[i] != id) {
+            if (ids[i] == 0) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+        int slot = places[i];
+        int hole = i;
+        for (i = (i + 1) & mask; ids[i] != 0; i = (i + 1) & mask) {
+            int home = home(ids[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                ids[hole] = ids[i];
+                places[hole] = places[i];
+                hole = i;
+            }
+        }
+        ids[hole] = 0;
+        size--;
+        return slot;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+            Files.deleteIfExists(path);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package server;
+
+import dictionary.WordPicker;
+import engine.GuessResult;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * All the sessions hosted by the server, split into stripes by session id. Each stripe is its own
+ * {@link SessionMap} with its own id counter and lock, so creating, finding and removing sessions on different stripes
+ * never touch the same memory. Changing a stripe takes its lock, looking a session up never locks, nor boxes the id.
+ * The low bits of a session id tell which stripe it lives in.
+ * ------------
+ * With a {@link SessionStore}, idle sessions are put to sleep by {@link #hibernateIdle(long)} and only their snapshot
+ * is kept. Looking up a sleeping session wakes it up. Waking up, putting to sleep and removing take the stripe's lock,
+ * so a session is never woken up twice or ended while it's falling asleep, but a lookup of an awake session still
+ * doesn't lock anything.
+ * A session can fall asleep between being looked up and being played, in which case it's looked up again,
+ * which wakes it up. A thread of the table puts idle sessions to sleep four times per idle period, until it's closed.
+ */
+public final class SessionTable implements Sessions {
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final SessionStore store;
+    private final WordPicker picker;
+    private final ReentrantLock pickerLock = new ReentrantLock();
+    private final Thread hibernator;
+
+    /**
+     * @param store: where idle sessions sleep, or null to keep every session in memory
+     * @param picker: the server's picker, which the pickers of the sessions are split from
+     */
+    public SessionTable(SessionStore store, WordPicker picker) {
+        this.store = store;
+        this.picker = picker;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.hibernator = store == null ? null : Thread.ofVirtual().name("hangman-hibernate").start(this::hibernateIdle);
+    }
+
+    private static final class Stripe {
+        final SessionMap sessions = new SessionMap();
+        final AtomicLong nextId = new AtomicLong();
+        final ReentrantLock lock = new ReentrantLock();
+    }
+
+    private Stripe stripe(long id) {
+        return stripes[(int) (id & (STRIPES - 1))];
+    }
+
+    /**
+     * Creates a new session on the stripe picked by the caller's thread, so connections spread over the stripes.
+     * @param factory: builds the session for the id it's given
+     * @return the new session
+     */
+    public GameSession create(LongFunction<GameSession> factory) {
+        int index = (int) (Thread.currentThread().threadId() & (STRIPES - 1));
+        Stripe stripe = stripes[index];
+        long id = (stripe.nextId.incrementAndGet() << STRIPE_BITS) | index;
+        GameSession session = factory.apply(id);
+        stripe.lock.lock();
+        try {
+            stripe.sessions.put(id, session);
+        } finally {
+            stripe.lock.unlock();
+        }
+        return session;
+    }
+
+    @Override
+    public long create(StringBuilder state) {
+        GameSession session = create(id -> new GameSession(id, newPicker()));
+        if (!session.state(state)) {
+            state(session.getId(), state);
+        }
+        return session.getId();
+    }
+
+    @Override
+    public GuessResult guess(long id, CharSequence text, StringBuilder state) {
+        for (GameSession session = get(id); session != null; session = get(id)) {
+            GuessResult result = session.guess(text, state);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean state(long id, StringBuilder state) {
+        for (GameSession session = get(id); session != null; session = get(id)) {
+            if (session.state(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean restart(long id, StringBuilder state) {
+        for (GameSession session = get(id); session != null; session = get(id)) {
+            if (session.restart(state)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a picker for a new session. Splitting changes the server's picker, so sessions take turns,
+     * but that's once per session, every word afterwards is picked by the session alone.
+     */
+    private WordPicker newPicker() {
+        pickerLock.lock();
+        try {
+            return picker.split();
+        } finally {
+            pickerLock.unlock();
+        }
+    }
+
+    /**
+     * @param id: a session id
+     * @return the session, woken up if it was sleeping, or null if there is no session with that id
+     */
+    public GameSession get(long id) {
+        Stripe stripe = stripe(id);
+        GameSession session = stripe.sessions.get(id);
+        if (session != null || store == null) {
+            return session;
+        }
+        stripe.lock.lock();
+        try {
+            session = stripe.sessions.get(id);
+            if (session == null) {
+                session = store.take(id, picker);
+                if (session != null) {
+                    stripe.sessions.put(id, session);
+                }
+            }
+            return session;
+        } catch (IOException e) {
+            System.out.println("Unable to wake up session " + id + ": " + e.getMessage());
+            return null;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @param id: a session id
+     * @return whether the session existed, awake or sleeping
+     */
+    @Override
+    public boolean remove(long id) {
+        Stripe stripe = stripe(id);
+        stripe.lock.lock();
+        try {
+            boolean removed = stripe.sessions.remove(id) != null;
+            return store != null && store.remove(id) || removed;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Puts to sleep every session that wasn't used for a while. Sessions being played right now are skipped.
+     * @param idleNanos: how long a session has to go without a command, in nanoseconds
+     * @return how many sessions were put to sleep
+     */
+    public int hibernateIdle(long idleNanos) {
+        if (store == null) {
+            return 0;
+        }
+        long idleSince = System.nanoTime() - idleNanos;
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.sessions.removeIf(session -> session.hibernate(store, idleSince));
+            } catch (IOException e) {
+                System.out.println("Unable to put sessions to sleep: " + e.getMessage());
+                return count;
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Puts idle sessions to sleep, checking four times per idle period, until the table is closed.
+     */
+    private void hibernateIdle() {
+        long idleNanos = SessionStore.idleNanos();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(Math.max(1, idleNanos / 4_000_000));
+                hibernateIdle(idleNanos);
+            }
+        } catch (InterruptedException e) {
+            // the table is closing
+        }
+    }
+
+    /**
+     * @return how many sessions are sleeping in the store
+     */
+    public int sleeping() {
+        return store == null ? 0 : store.size();
+    }
+
+    /**
+     * @return how many sessions are awake right now
+     */
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.sessions.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (hibernator != null) {
+            hibernator.interrupt();
+            try {
+                hibernator.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package server;
+
+import engine.GuessResult;
+
+import java.io.IOException;
+
+/**
+ * Where the server keeps its games, one per session id. The server only talks to its sessions through this,
+ * so the sessions can live as objects on the heap ({@link SessionTable}) or as records off the heap ({@link GameRecords}).
+ * Every method writes the state of the game as one line: id, guess so far, guesses remaining, wrong letters
+ * (or "-" if there are none), and PLAYING, WON or LOST, the word being shown once the game is lost.
+ * Every method can be called from any number of threads at once.
+ */
+public interface Sessions extends AutoCloseable {
+
+    /**
+     * Starts a new session with a new word.
+     * @param state: where to write the state of the game
+     * @return the id of the session
+     */
+    long create(StringBuilder state);
+
+    /**
+     * Plays what the player typed, with the same rules as the game panel's "Guess" button.
+     * @param id: a session id
+     * @param text: what the player typed
+     * @param state: where to write the state of the game after the guess
+     * @return what happened with that guess, or null if there is no session with that id
+     */
+    GuessResult guess(long id, CharSequence text, StringBuilder state);
+
+    /**
+     * @param id: a session id
+     * @param state: where to write the state of the game
+     * @return false if there is no session with that id
+     */
+    boolean state(long id, StringBuilder state);
+
+    /**
+     * Starts a new word in a session, like the game panel's "New Word" button.
+     * @param id: a session id
+     * @param state: where to write the state of the new game
+     * @return false if there is no session with that id
+     */
+    boolean restart(long id, StringBuilder state);
+
+    /**
+     * Ends a session for good.
+     * @param id: a session id
+     * @return whether the session existed
+     */
+    boolean remove(long id);
+
+    /**
+     * @return how many sessions are in memory right now
+     */
+    int size();
+
+    @Override
+    void close() throws IOException;
+}
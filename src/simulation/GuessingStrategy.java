@@ -0,0 +1,29 @@
+package simulation;
+
+import engine.HangmanGame;
+
+import java.util.SplittableRandom;
+
+/**
+ * A way of playing Hangman, used by the simulation to play games without a player.
+ * Each simulation worker gets its own strategy, so a strategy never has to be thread safe.
+ */
+public interface GuessingStrategy {
+    /** What {@link #nextGuess(HangmanGame)} returns when every letter the strategy knows of was tried. */
+    char NO_LETTER = 0;
+
+    /**
+     * Called once a new word was started, before the first guess. Strategies that remember things
+     * about the current game should forget them here.
+     * @param game: the game that was just started
+     * @param random: the only randomness the strategy may use during this game, so runs can be repeated from their seed
+     */
+    default void newGame(HangmanGame game, SplittableRandom random) {
+    }
+
+    /**
+     * @param game: the game being played, which is not over yet
+     * @return the next letter to guess, which must not have been guessed already, or {@link #NO_LETTER} if there's none left
+     */
+    char nextGuess(HangmanGame game);
+}
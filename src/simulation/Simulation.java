@@ -0,0 +1,207 @@
+package simulation;
+
+import dictionary.Dictionaries;
+import dictionary.Dictionary;
+import dictionary.WordQuery;
+import dictionary.WordSelection;
+import engine.HangmanGame;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays a lot of Hangman games without any window, to measure how hard each word is and how well a strategy does.
+ * ------------
+ * The games are split into blocks, and block b always gets the same random generator for the same seed,
+ * which picks the words and is the only randomness the strategy gets, so a run gives exactly the same
+ * results for the same seed no matter how many threads play it.
+ * Each thread plays its own blocks with its own game, strategy and stats, and nothing is shared until the end.
+ * ------------
+ *   java -Dhangman.dictionary=words.hdict -cp hangman.jar simulation.Simulation --games 1000000 --strategy solver --seed 42
+ * Options: --games N, --seed S, --strategy frequency|random|solver, --threads T, --max-wrong M,
+ * --words QUERY (see {@link WordQuery#parse}), --top K (hardest and easiest words to show), --csv FILE (per word results).
+ */
+public final class Simulation {
+    private static final int BLOCK = 4096;
+
+    private final Dictionary dictionary;
+    private final WordSelection selection;
+    private final Strategies.Factory strategies;
+    private final int maxWrongGuesses;
+    private final long seed;
+
+    public Simulation(Dictionary dictionary, WordSelection selection, Strategies.Factory strategies, int maxWrongGuesses, long seed) {
+        this.dictionary = dictionary;
+        this.selection = selection;
+        this.strategies = strategies;
+        this.maxWrongGuesses = maxWrongGuesses;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws Exception {
+        long games = 100_000;
+        long seed = 42;
+        String strategy = "frequency";
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxWrong = HangmanGame.DEFAULT_MAX_WRONG_GUESSES;
+        String query = null;
+        int top = 10;
+        Path csv = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--games": games = Long.parseLong(value); i++; break;
+                case "--seed": seed = Long.parseLong(value); i++; break;
+                case "--strategy": strategy = value; i++; break;
+                case "--threads": threads = Integer.parseInt(value); i++; break;
+                case "--max-wrong": maxWrong = Integer.parseInt(value); i++; break;
+                case "--words": query = value; i++; break;
+                case "--top": top = Integer.parseInt(value); i++; break;
+                case "--csv": csv = Path.of(value); i++; break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        if (System.getProperty(Dictionaries.DICTIONARY_PROPERTY) == null) {
+            System.err.println("Usage: java -D" + Dictionaries.DICTIONARY_PROPERTY + "=words.hdict simulation.Simulation [options]");
+            System.exit(2);
+        }
+        Dictionary dictionary = Dictionaries.load(new String[0]);
+        WordSelection selection = Dictionaries.index(dictionary).select(WordQuery.parse(query));
+        if (dictionary.size() == 0 || selection.isEmpty()) {
+            System.err.println("No word matches " + query);
+            System.exit(1);
+        }
+
+        Simulation simulation = new Simulation(dictionary, selection, Strategies.byName(strategy, dictionary), maxWrong, seed);
+        long start = System.nanoTime();
+        SimulationStats stats = simulation.run(games, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        simulation.report(stats, strategy, threads, seconds, top);
+        if (csv != null) {
+            simulation.writeCsv(stats, csv);
+        }
+    }
+
+    /**
+     * Plays the games over the given number of threads and merges the results.
+     * @param games: how many games to play
+     * @param threads: how many threads to play them on
+     * @return the merged stats
+     */
+    SimulationStats run(long games, int threads) throws InterruptedException {
+        long blocks = (games + BLOCK - 1) / BLOCK;
+        SimulationStats[] results = new SimulationStats[threads];
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            int worker = i;
+            workers[i] = new Thread(() -> results[worker] = play(worker, threads, blocks, games), "simulation-" + i);
+            workers[i].start();
+        }
+
+        SimulationStats merged = new SimulationStats(dictionary.size());
+        for (int i = 0; i < threads; i++) {
+            workers[i].join();
+            merged.add(results[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * What one worker does: every threads-th block, starting from its own number.
+     */
+    private SimulationStats play(int worker, int threads, long blocks, long games) {
+        SimulationStats stats = new SimulationStats(dictionary.size());
+        HangmanGame game = new HangmanGame(maxWrongGuesses);
+        GuessingStrategy strategy = strategies.create();
+
+        for (long block = worker; block < blocks; block += threads) {
+            SplittableRandom random = new SplittableRandom(mix(seed, block));
+            long end = Math.min(games, (block + 1) * BLOCK);
+            for (long n = block * BLOCK; n < end; n++) {
+                int id = selection.pick(random);
+                game.start(dictionary.word(id));
+                strategy.newGame(game, random);
+                int guesses = 0;
+                while (!game.isOver()) {
+                    // a word with letters outside a-z can outlast every letter the strategies know, that game is lost
+                    char letter = strategy.nextGuess(game);
+                    if (letter == GuessingStrategy.NO_LETTER || !game.guess(letter).isAccepted()) {
+                        break;
+                    }
+                    guesses++;
+                }
+                stats.record(id, game.isWon(), game.getWrongGuessCount(), guesses);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Turns the seed and a block number into the seed of that block (the SplitMix64 finalizer).
+     */
+    private static long mix(long seed, long block) {
+        long z = seed + (block + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void report(SimulationStats stats, String strategy, int threads, double seconds, int top) {
+        System.out.printf("Strategy %s, seed %d, %d threads%n", strategy, seed, threads);
+        System.out.printf("Games: %d in %.2f s (%.0f games/s)%n", stats.games, seconds, stats.games / seconds);
+        System.out.printf("Win rate: %.2f%%%n", 100.0 * stats.gamesWon / Math.max(1, stats.games));
+        System.out.printf("Average wrong guesses: %.3f%n", stats.totalWrongGuesses / (double) Math.max(1, stats.games));
+        System.out.printf("Average guesses to solve: %.3f%n", stats.totalGuessesToSolve / (double) Math.max(1, stats.gamesWon));
+
+        // only words that were played enough times to say something about them
+        int minPlays = (int) Math.max(1, Math.min(10, stats.games / Math.max(1, selection.size())));
+        List<Integer> played = new ArrayList<>();
+        for (int id = 0; id < stats.plays.length; id++) {
+            if (stats.plays[id] >= minPlays) {
+                played.add(id);
+            }
+        }
+        Comparator<Integer> byWinRate = Comparator.comparingDouble(stats::winRate);
+        played.sort(byWinRate);
+        System.out.printf("Hardest words (played at least %d times):%n", minPlays);
+        for (int i = 0; i < Math.min(top, played.size()); i++) {
+            printWord(stats, played.get(i));
+        }
+        System.out.println("Easiest words:");
+        for (int i = 0; i < Math.min(top, played.size()); i++) {
+            printWord(stats, played.get(played.size() - 1 - i));
+        }
+    }
+
+    private void printWord(SimulationStats stats, int id) {
+        System.out.printf("  %-20s %6.2f%% won over %d games, %.2f wrong guesses%n",
+                dictionary.word(id), 100 * stats.winRate(id), stats.plays[id], stats.wrongGuesses[id] / (double) stats.plays[id]);
+    }
+
+    private void writeCsv(SimulationStats stats, Path file) throws IOException {
+        try (PrintWriter out = new PrintWriter(new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8)))) {
+            out.println("word,plays,wins,win_rate,avg_wrong_guesses,avg_guesses_to_solve");
+            for (int id = 0; id < stats.plays.length; id++) {
+                if (stats.plays[id] == 0) {
+                    continue;
+                }
+                out.printf("%s,%d,%d,%.4f,%.4f,%.4f%n", dictionary.word(id), stats.plays[id], stats.wins[id], stats.winRate(id),
+                        stats.wrongGuesses[id] / (double) stats.plays[id],
+                        stats.wins[id] == 0 ? 0 : stats.guessesToSolve[id] / (double) stats.wins[id]);
+            }
+        }
+    }
+}
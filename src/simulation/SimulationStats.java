@@ -0,0 +1,61 @@
+package simulation;
+
+/**
+ * The results of the games one worker played, per word and overall. Every worker has its own,
+ * so workers never share anything while they play, and the stats are only merged once they're done.
+ * Per word counters are plain arrays indexed by word id.
+ */
+final class SimulationStats {
+    final int[] plays;
+    final int[] wins;
+    final long[] wrongGuesses;
+    final long[] guessesToSolve;
+
+    long games;
+    long gamesWon;
+    long totalWrongGuesses;
+    long totalGuessesToSolve;
+
+    SimulationStats(int dictionarySize) {
+        plays = new int[dictionarySize];
+        wins = new int[dictionarySize];
+        wrongGuesses = new long[dictionarySize];
+        guessesToSolve = new long[dictionarySize];
+    }
+
+    /**
+     * @param id: the word that was played
+     * @param won: whether the strategy found it
+     * @param wrong: how many wrong guesses it made
+     * @param guesses: how many letters it guessed in total
+     */
+    void record(int id, boolean won, int wrong, int guesses) {
+        plays[id]++;
+        wrongGuesses[id] += wrong;
+        games++;
+        totalWrongGuesses += wrong;
+        if (won) {
+            wins[id]++;
+            guessesToSolve[id] += guesses;
+            gamesWon++;
+            totalGuessesToSolve += guesses;
+        }
+    }
+
+    void add(SimulationStats other) {
+        for (int id = 0; id < plays.length; id++) {
+            plays[id] += other.plays[id];
+            wins[id] += other.wins[id];
+            wrongGuesses[id] += other.wrongGuesses[id];
+            guessesToSolve[id] += other.guessesToSolve[id];
+        }
+        games += other.games;
+        gamesWon += other.gamesWon;
+        totalWrongGuesses += other.totalWrongGuesses;
+        totalGuessesToSolve += other.totalGuessesToSolve;
+    }
+
+    double winRate(int id) {
+        return plays[id] == 0 ? 0 : wins[id] / (double) plays[id];
+    }
+}
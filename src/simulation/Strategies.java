@@ -0,0 +1,105 @@
+package simulation;
+
+import dictionary.Dictionary;
+import engine.HangmanGame;
+import solver.Candidates;
+import solver.Solver;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The guessing strategies the simulation knows by name:
+ *   frequency - guesses letters from the most to the least common in English
+ *   random    - guesses random letters it didn't try yet
+ *   solver    - guesses what the Hint button would suggest
+ */
+public final class Strategies {
+    private static final String LETTERS_BY_FREQUENCY = "etaoinshrdlcumwfgypbvkjxqz";
+
+    private Strategies() {
+    }
+
+    /**
+     * Builds strategies for the simulation workers.
+     */
+    public interface Factory {
+        /**
+         * @return a new strategy for one worker
+         */
+        GuessingStrategy create();
+    }
+
+    /**
+     * @param name: the strategy name
+     * @param dictionary: the dictionary the games are played with
+     * @return a factory for that strategy
+     */
+    public static Factory byName(String name, Dictionary dictionary) {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "frequency":
+                return Strategies::frequency;
+            case "random":
+                return Strategies::random;
+            case "solver": {
+                Solver shared = new Solver(dictionary);
+                shared.prepare();
+                return () -> solver(shared.sequential());
+            }
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + name + " (frequency, random or solver)");
+        }
+    }
+
+    public static GuessingStrategy frequency() {
+        return game -> {
+            for (int i = 0; i < LETTERS_BY_FREQUENCY.length(); i++) {
+                char letter = LETTERS_BY_FREQUENCY.charAt(i);
+                if (!game.wasGuessedAlready(letter)) {
+                    return letter;
+                }
+            }
+            return GuessingStrategy.NO_LETTER;
+        };
+    }
+
+    public static GuessingStrategy random() {
+        return new GuessingStrategy() {
+            private SplittableRandom random;
+
+            public void newGame(HangmanGame game, SplittableRandom random) {
+                this.random = random;
+            }
+
+            public char nextGuess(HangmanGame game) {
+                int left = ~game.getGuessedMask() & ((1 << HangmanGame.ALPHABET_SIZE) - 1);
+                if (left == 0) {
+                    return NO_LETTER;
+                }
+                int pick = random.nextInt(Integer.bitCount(left));
+                for (int i = 0; i < pick; i++) {
+                    left &= left - 1;
+                }
+                return (char) ('a' + Integer.numberOfTrailingZeros(left));
+            }
+        };
+    }
+
+    /**
+     * @param solver: a solver only this strategy uses, see {@link Solver#sequential()}
+     */
+    public static GuessingStrategy solver(Solver solver) {
+        return new GuessingStrategy() {
+            private Candidates candidates;
+
+            public void newGame(HangmanGame game, SplittableRandom random) {
+                candidates = null;
+            }
+
+            public char nextGuess(HangmanGame game) {
+                candidates = solver.candidates(Solver.pattern(game), game.getGuessedMask(), game.getWrongMask(), candidates);
+                return solver.suggest(candidates).getLetter(); // 0, which is NO_LETTER, once a-z are all tried
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package solver;
+
+/**
+ * The dictionary words that still fit a game, along with how many of them use each letter that wasn't guessed yet.
+ * The next call to the solver for the same game can start from these instead of the whole dictionary.
+ */
+public final class Candidates {
+    final String pattern;
+    final int guessedMask;
+    final int wrongMask;
+    final int[] positions;
+    final int size;
+    final int[] letterCounts;
+
+    Candidates(String pattern, int guessedMask, int wrongMask, int[] positions, int size, int[] letterCounts) {
+        this.pattern = pattern;
+        this.guessedMask = guessedMask;
+        this.wrongMask = wrongMask;
+        this.positions = positions;
+        this.size = size;
+        this.letterCounts = letterCounts;
+    }
+
+    /**
+     * @return how many words still fit
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param letter: a lower case letter from 'a' to 'z'
+     * @return how many of the words use that letter, 0 for letters already guessed
+     */
+    public int countWith(char letter) {
+        return letterCounts[letter - 'a'];
+    }
+
+    /**
+     * Whether a later state of the same game can be solved by filtering these candidates further,
+     * which is true when it has the same length and every letter guessed here was guessed there too.
+     */
+    boolean isRefinedBy(String pattern, int guessedMask) {
+        return this.pattern.length() == pattern.length() && (this.guessedMask & ~guessedMask) == 0;
+    }
+}
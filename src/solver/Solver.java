@@ -0,0 +1,317 @@
+package solver;
+
+import dictionary.Dictionary;
+import engine.HangmanGame;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Suggests the next letter to guess. It narrows the dictionary down to the words that still fit the guess so far
+ * (the revealed letters in their places, none of the wrong letters, and no other guessed letter in the hidden places),
+ * then picks the letter that tells us the most about the word: the one whose "is it in the word?" answer
+ * is the hardest to predict, which is the letter used by closest to half of the remaining words.
+ * ------------
+ * To stay well under a frame on big dictionaries, words are first checked against their letter masks
+ * (see {@link WordSignatures}), only the survivors are read letter by letter, and the work is split over all
+ * cores with fork-join. Passing the previous {@link Candidates} of the same game makes the next call only
+ * look at the words that were still possible.
+ * ------------
+ * A solver can be shared by many threads, the signatures are built once on first use.
+ * Code that already runs one task per core (like the simulation) can use {@link #sequential()} instead,
+ * which shares the signatures but does all the filtering on the calling thread.
+ */
+public final class Solver {
+    private static final int CHUNK = 1 << 13;
+    private static final String LETTERS_BY_FREQUENCY = "etaoinshrdlcumwfgypbvkjxqz";
+
+    private final Dictionary dictionary;
+    private final ForkJoinPool pool;
+    private volatile WordSignatures signatures;
+    private final AtomicReferenceArray<Candidates> fresh = new AtomicReferenceArray<>(HangmanGame.MAX_WORD_LENGTH + 1);
+
+    public Solver(Dictionary dictionary) {
+        this(dictionary, ForkJoinPool.commonPool());
+    }
+
+    public Solver(Dictionary dictionary, ForkJoinPool pool) {
+        this.dictionary = dictionary;
+        this.pool = pool;
+    }
+
+    /**
+     * @return a solver over the same dictionary and signatures that never leaves the calling thread
+     */
+    public Solver sequential() {
+        Solver solver = new Solver(dictionary, null);
+        solver.signatures = signatures();
+        return solver;
+    }
+
+    /**
+     * Builds the word signatures now rather than on the first suggestion. Safe to call from a background thread.
+     */
+    public void prepare() {
+        signatures();
+    }
+
+    private WordSignatures signatures() {
+        WordSignatures built = signatures;
+        if (built == null) {
+            synchronized (this) {
+                built = signatures;
+                if (built == null) {
+                    RecursiveTask<WordSignatures> build = new RecursiveTask<WordSignatures>() {
+                        @Override
+                        protected WordSignatures compute() {
+                            return WordSignatures.build(dictionary);
+                        }
+                    };
+                    built = (pool != null ? pool : ForkJoinPool.commonPool()).invoke(build);
+                    signatures = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Writes a game's guess so far the way the solver reads it, like "_a__le".
+     * @param game: the game to look at
+     * @return the pattern
+     */
+    public static String pattern(HangmanGame game) {
+        char[] pattern = new char[game.getLength()];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = game.maskedCharAt(i);
+        }
+        return new String(pattern);
+    }
+
+    /**
+     * @param game: the game to solve
+     * @return the words that still fit it
+     */
+    public Candidates candidates(HangmanGame game) {
+        return candidates(pattern(game), game.getGuessedMask(), game.getWrongMask(), null);
+    }
+
+    /**
+     * Finds the dictionary words that still fit a game.
+     * @param pattern: the guess so far, with {@link HangmanGame#HIDDEN} for letters not found yet
+     * @param guessedMask: every letter guessed so far, as a bitmask
+     * @param wrongMask: the letters that were not in the word, as a bitmask
+     * @param previous: the candidates of an earlier state of the same game, or null to search the whole dictionary
+     * @return the words that fit
+     */
+    public Candidates candidates(String pattern, int guessedMask, int wrongMask, Candidates previous) {
+        WordSignatures signatures = signatures();
+        int length = pattern.length();
+        if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+            return new Candidates(pattern, guessedMask, wrongMask, new int[0], 0, new int[HangmanGame.ALPHABET_SIZE]);
+        }
+
+        // before the first guess every word of that length fits, which is also the biggest search, so we remember it
+        boolean nothingGuessed = guessedMask == 0 && pattern.chars().allMatch(c -> c == HangmanGame.HIDDEN);
+        if (nothingGuessed && fresh.get(length) != null) {
+            return fresh.get(length);
+        }
+
+        Filter filter = new Filter(signatures, pattern, guessedMask, wrongMask);
+        FilterTask task;
+        if (previous != null && previous.isRefinedBy(pattern, guessedMask)) {
+            task = new FilterTask(filter, previous.positions, 0, previous.size);
+        } else {
+            task = new FilterTask(filter, null, signatures.lengthStart(length), signatures.lengthEnd(length));
+        }
+        Result result = pool != null ? pool.invoke(task) : task.computeSequentially();
+        Candidates candidates = new Candidates(pattern, guessedMask, wrongMask, result.positions, result.size, result.letterCounts);
+        if (nothingGuessed) {
+            fresh.compareAndSet(length, null, candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * @param game: the game to solve
+     * @return the letter to guess next
+     */
+    public Suggestion suggest(HangmanGame game) {
+        return suggest(candidates(game));
+    }
+
+    /**
+     * Picks the letter with the most information out of the candidates. If no dictionary word fits
+     * (the word isn't in the dictionary), we fall back to the most common English letter not guessed yet.
+     * @param candidates: the words that still fit the game
+     * @return the letter to guess next
+     */
+    public Suggestion suggest(Candidates candidates) {
+        int total = candidates.size;
+        int best = -1;
+        double bestInformation = -1;
+        for (int letter = 0; letter < HangmanGame.ALPHABET_SIZE; letter++) {
+            int count = candidates.letterCounts[letter];
+            if (count == 0 || (candidates.guessedMask & (1 << letter)) != 0) {
+                continue;
+            }
+            double information = entropy(count / (double) total);
+            if (information > bestInformation
+                    || (information == bestInformation && count > candidates.letterCounts[best])) {
+                best = letter;
+                bestInformation = information;
+            }
+        }
+        if (best >= 0) {
+            return new Suggestion((char) ('a' + best), bestInformation, total, candidates.letterCounts[best]);
+        }
+
+        for (int i = 0; i < LETTERS_BY_FREQUENCY.length(); i++) {
+            int letter = LETTERS_BY_FREQUENCY.charAt(i) - 'a';
+            if ((candidates.guessedMask & (1 << letter)) == 0) {
+                return new Suggestion((char) ('a' + letter), 0, total, 0);
+            }
+        }
+        return new Suggestion((char) 0, 0, total, 0);
+    }
+
+    private static double entropy(double p) {
+        if (p <= 0 || p >= 1) {
+            return 0;
+        }
+        return -(p * Math.log(p) + (1 - p) * Math.log(1 - p)) / Math.log(2);
+    }
+
+    /**
+     * Everything a word is checked against, precomputed from the pattern once per call.
+     */
+    private static final class Filter {
+        final WordSignatures signatures;
+        final Dictionary dictionary;
+        final String pattern;
+        final int length;
+        final int guessedMask;
+        final int wrongMask;
+        final int revealedLetters;
+
+        Filter(WordSignatures signatures, String pattern, int guessedMask, int wrongMask) {
+            this.signatures = signatures;
+            this.dictionary = signatures.dictionary();
+            this.pattern = pattern;
+            this.length = pattern.length();
+            this.guessedMask = guessedMask;
+            this.wrongMask = wrongMask;
+            int revealed = 0;
+            for (int i = 0; i < length; i++) {
+                int index = HangmanGame.letterIndex(pattern.charAt(i));
+                if (index >= 0) {
+                    revealed |= 1 << index;
+                }
+            }
+            this.revealedLetters = revealed;
+        }
+
+        boolean matches(int position) {
+            int mask = signatures.mask(position);
+            // cheap checks first: no wrong letter, and every revealed letter somewhere in the word
+            if ((mask & wrongMask) != 0 || (mask & revealedLetters) != revealedLetters) {
+                return false;
+            }
+            int id = signatures.id(position);
+            for (int i = 0; i < length; i++) {
+                char expected = pattern.charAt(i);
+                char actual = dictionary.charAt(id, i);
+                if (expected == HangmanGame.HIDDEN) {
+                    int index = HangmanGame.letterIndex(actual);
+                    if (index < 0 || (guessedMask & (1 << index)) != 0) {
+                        return false;
+                    }
+                } else if (expected != actual) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The surviving positions of one range of words, and how many of them use each letter.
+     */
+    private static final class Result {
+        int[] positions;
+        int size;
+        final int[] letterCounts = new int[HangmanGame.ALPHABET_SIZE];
+    }
+
+    /**
+     * Filters a range of words, either a range of signature positions or a range of earlier candidates,
+     * splitting it in half until it's small enough to do on one core.
+     */
+    private static final class FilterTask extends RecursiveTask<Result> {
+        private final Filter filter;
+        private final int[] source;
+        private final int from;
+        private final int to;
+
+        FilterTask(Filter filter, int[] source, int from, int to) {
+            this.filter = filter;
+            this.source = source;
+            this.from = from;
+            this.to = to;
+        }
+
+        Result computeSequentially() {
+            return filter(from, to);
+        }
+
+        @Override
+        protected Result compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                FilterTask right = new FilterTask(filter, source, middle, to);
+                right.fork();
+                Result left = new FilterTask(filter, source, from, middle).compute();
+                return merge(left, right.join());
+            }
+            return filter(from, to);
+        }
+
+        private Result filter(int from, int to) {
+            Result result = new Result();
+            result.positions = new int[Math.min(to - from, 64)];
+            int unguessed = ~filter.guessedMask;
+            for (int i = from; i < to; i++) {
+                int position = source == null ? i : source[i];
+                if (!filter.matches(position)) {
+                    continue;
+                }
+                if (result.size == result.positions.length) {
+                    result.positions = Arrays.copyOf(result.positions, result.size * 2);
+                }
+                result.positions[result.size++] = position;
+                int letters = filter.signatures.mask(position) & unguessed;
+                while (letters != 0) {
+                    result.letterCounts[Integer.numberOfTrailingZeros(letters)]++;
+                    letters &= letters - 1;
+                }
+            }
+            return result;
+        }
+
+        private static Result merge(Result left, Result right) {
+            if (right.size > 0) {
+                if (left.positions.length < left.size + right.size) {
+                    left.positions = Arrays.copyOf(left.positions, left.size + right.size);
+                }
+                System.arraycopy(right.positions, 0, left.positions, left.size, right.size);
+                left.size += right.size;
+            }
+            for (int i = 0; i < HangmanGame.ALPHABET_SIZE; i++) {
+                left.letterCounts[i] += right.letterCounts[i];
+            }
+            return left;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package solver;
+
+/**
+ * What the solver thinks the player should guess next.
+ */
+public final class Suggestion {
+    private final char letter;
+    private final double information;
+    private final int candidates;
+    private final int matching;
+
+    Suggestion(char letter, double information, int candidates, int matching) {
+        this.letter = letter;
+        this.information = information;
+        this.candidates = candidates;
+        this.matching = matching;
+    }
+
+    /**
+     * @return the letter to guess, or 0 if there's nothing left to guess
+     */
+    public char getLetter() {
+        return letter;
+    }
+
+    /**
+     * @return how much the guess is expected to tell us about the word, in bits
+     */
+    public double getInformation() {
+        return information;
+    }
+
+    /**
+     * @return how many dictionary words still fit the guess so far
+     */
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return how many of those words have the suggested letter
+     */
+    public int getMatching() {
+        return matching;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Try '%c' (%d of %d possible words have it)", letter, matching, candidates);
+    }
+}
@@ -0,0 +1,149 @@
+package solver;
+
+import dictionary.Dictionary;
+import engine.HangmanGame;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A compact summary of every word in a dictionary that the solver can check without reading the word itself:
+ * the set of letters it uses, as a 26 bit mask. Word ids are grouped by length, so when we look for
+ * candidates of a given length we only ever go over the words of that length.
+ * ------------
+ * Only words made of plain ASCII are kept, since those are the words the game engine can play with.
+ * Building it goes over the dictionary once, split over all cores with fork-join.
+ */
+final class WordSignatures {
+    private static final int CHUNK = 1 << 14;
+
+    private final Dictionary dictionary;
+    private final int[] lengthStarts = new int[HangmanGame.MAX_WORD_LENGTH + 2];
+    private final int[] ids;
+    private final int[] masks;
+
+    private WordSignatures(Dictionary dictionary, int[] ids, int[] masks) {
+        this.dictionary = dictionary;
+        this.ids = ids;
+        this.masks = masks;
+    }
+
+    static WordSignatures build(Dictionary dictionary) {
+        int size = dictionary.size();
+        int[] wordMasks = new int[size];
+        byte[] lengths = new byte[size];
+        new SignatureTask(dictionary, wordMasks, lengths, 0, size).invoke();
+
+        // counting sort of the ids by length, 0 meaning the word is left out
+        int[] starts = new int[HangmanGame.MAX_WORD_LENGTH + 2];
+        for (int id = 0; id < size; id++) {
+            starts[lengths[id] + 1]++;
+        }
+        for (int length = 0; length <= HangmanGame.MAX_WORD_LENGTH; length++) {
+            starts[length + 1] += starts[length];
+        }
+        int kept = size - starts[1];
+        int[] ids = new int[kept];
+        int[] masks = new int[kept];
+        int[] next = new int[HangmanGame.MAX_WORD_LENGTH + 1];
+        for (int length = 1; length <= HangmanGame.MAX_WORD_LENGTH; length++) {
+            next[length] = starts[length] - starts[1];
+        }
+        for (int id = 0; id < size; id++) {
+            int length = lengths[id];
+            if (length > 0) {
+                int position = next[length]++;
+                ids[position] = id;
+                masks[position] = wordMasks[id];
+            }
+        }
+
+        WordSignatures signatures = new WordSignatures(dictionary, ids, masks);
+        for (int length = 1; length <= HangmanGame.MAX_WORD_LENGTH + 1; length++) {
+            signatures.lengthStarts[length] = starts[length] - starts[1];
+        }
+        return signatures;
+    }
+
+    /**
+     * Works out the letter mask and length of a range of words, splitting the range in half until it's small enough.
+     */
+    private static final class SignatureTask extends RecursiveAction {
+        private final Dictionary dictionary;
+        private final int[] masks;
+        private final byte[] lengths;
+        private final int from;
+        private final int to;
+
+        SignatureTask(Dictionary dictionary, int[] masks, byte[] lengths, int from, int to) {
+            this.dictionary = dictionary;
+            this.masks = masks;
+            this.lengths = lengths;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > CHUNK) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SignatureTask(dictionary, masks, lengths, from, middle),
+                        new SignatureTask(dictionary, masks, lengths, middle, to));
+                return;
+            }
+            for (int id = from; id < to; id++) {
+                int length = dictionary.length(id);
+                if (length == 0 || length > HangmanGame.MAX_WORD_LENGTH) {
+                    continue;
+                }
+                int mask = 0;
+                boolean ascii = true;
+                for (int i = 0; i < length && ascii; i++) {
+                    char c = dictionary.charAt(id, i);
+                    int index = HangmanGame.letterIndex(c);
+                    if (index >= 0) {
+                        mask |= 1 << index;
+                    } else {
+                        ascii = c < 128;
+                    }
+                }
+                if (ascii) {
+                    masks[id] = mask;
+                    lengths[id] = (byte) length;
+                }
+            }
+        }
+    }
+
+    Dictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * @return the first position (in {@link #id} and {@link #mask}) of the words with that length
+     */
+    int lengthStart(int length) {
+        return lengthStarts[length];
+    }
+
+    /**
+     * @return the position right after the last word with that length
+     */
+    int lengthEnd(int length) {
+        return lengthStarts[length + 1];
+    }
+
+    int id(int position) {
+        return ids[position];
+    }
+
+    int mask(int position) {
+        return masks[position];
+    }
+
+    /**
+     * @return how many words the solver can use
+     */
+    int size() {
+        return ids.length;
+    }
+}
@@ -0,0 +1,42 @@
+package stats;
+
+/**
+ * One finished game in a player's history.
+ */
+public final class GameEntry {
+    private final String word;
+    private final boolean won;
+    private final int wrongGuesses;
+    private final long time;
+
+    GameEntry(String word, boolean won, int wrongGuesses, long time) {
+        this.word = word;
+        this.won = won;
+        this.wrongGuesses = wrongGuesses;
+        this.time = time;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+
+    public int getWrongGuesses() {
+        return wrongGuesses;
+    }
+
+    /**
+     * @return when the game ended, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return word + " " + (won ? "WON" : "LOST") + " " + wrongGuesses;
+    }
+}
@@ -0,0 +1,152 @@
+package stats;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file of fixed size records, mapped into memory, that the {@link StatsStore} keeps its numbers in.
+ * Record i lives at a fixed place in the file, so reading or updating it is a couple of memory accesses, and the
+ * file only grows (doubling, then mapped again) when records are added past its end.
+ * ------------
+ * File layout, all numbers little endian ints:
+ *   magic, version, record size, record count, then the records.
+ * A record is only counted once all of it is written, so a crash while adding one loses that record and nothing else.
+ */
+final class MappedTable {
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+
+    private final Path path;
+    private final int recordBytes;
+    private MappedByteBuffer buffer;
+    private int count;
+
+    private MappedTable(Path path, int recordBytes, MappedByteBuffer buffer) {
+        this.path = path;
+        this.recordBytes = recordBytes;
+        this.buffer = buffer;
+        this.count = buffer.getInt(12);
+    }
+
+    /**
+     * Opens a table, creating it with room for the given number of records if it doesn't exist.
+     * @param magic: four bytes telling one kind of table from another
+     */
+    static MappedTable open(Path path, int magic, int recordBytes, int initialRecords) throws IOException {
+        boolean exists = Files.exists(path);
+        MappedByteBuffer buffer = map(path, exists ? Files.size(path) : HEADER_BYTES + (long) recordBytes * initialRecords);
+        if (!exists) {
+            buffer.putInt(0, magic);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, recordBytes);
+            buffer.putInt(12, 0);
+        } else if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != magic) {
+            throw new IOException("Not a statistics file: " + path);
+        } else if (buffer.getInt(4) != VERSION || buffer.getInt(8) != recordBytes) {
+            throw new IOException("Unsupported statistics file version " + buffer.getInt(4) + ": " + path);
+        } else if (HEADER_BYTES + (long) buffer.getInt(12) * recordBytes > buffer.capacity()) {
+            throw new IOException("Corrupted statistics file: " + path);
+        }
+        return new MappedTable(path, recordBytes, buffer);
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Statistics files are limited to 2GB: " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Makes sure there's room for one more record and tells where it goes. The record isn't counted until {@link #commit()}.
+     * @return the index of the new record
+     */
+    int reserve() throws IOException {
+        long end = HEADER_BYTES + (long) (count + 1) * recordBytes;
+        if (end > buffer.capacity()) {
+            long grown = Math.max(end, HEADER_BYTES + 2L * (buffer.capacity() - HEADER_BYTES));
+            buffer.force();
+            buffer = map(path, Math.min(grown, Integer.MAX_VALUE));
+            if (end > buffer.capacity()) {
+                throw new IOException("Statistics file is full: " + path);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the record given by the last {@link #reserve()}.
+     */
+    void commit() {
+        count++;
+        buffer.putInt(12, count);
+    }
+
+    private int at(int record, int offset) {
+        return HEADER_BYTES + record * recordBytes + offset;
+    }
+
+    long getLong(int record, int offset) {
+        return buffer.getLong(at(record, offset));
+    }
+
+    void putLong(int record, int offset, long value) {
+        buffer.putLong(at(record, offset), value);
+    }
+
+    int getInt(int record, int offset) {
+        return buffer.getInt(at(record, offset));
+    }
+
+    void putInt(int record, int offset, int value) {
+        buffer.putInt(at(record, offset), value);
+    }
+
+    byte get(int record, int offset) {
+        return buffer.get(at(record, offset));
+    }
+
+    void put(int record, int offset, byte value) {
+        buffer.put(at(record, offset), value);
+    }
+
+    /**
+     * Reads a string stored as a char count followed by the chars.
+     */
+    String getString(int record, int offset) {
+        char[] chars = new char[buffer.getChar(at(record, offset))];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(at(record, offset) + Character.BYTES * (i + 1));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Stores a string as a char count followed by the chars, cut to the given number of chars.
+     */
+    void putString(int record, int offset, String text, int maxChars) {
+        int length = Math.min(text.length(), maxChars);
+        buffer.putChar(at(record, offset), (char) length);
+        for (int i = 0; i < length; i++) {
+            buffer.putChar(at(record, offset) + Character.BYTES * (i + 1), text.charAt(i));
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+}
@@ -0,0 +1,84 @@
+package stats;
+
+import java.util.Comparator;
+
+/**
+ * A copy of one player's numbers, as they were when it was read from the {@link StatsStore}.
+ */
+public final class PlayerStats {
+    /** Most games won first. */
+    public static final Comparator<PlayerStats> BY_WINS = Comparator.comparingLong(PlayerStats::getWins);
+    /** Longest winning streak first. */
+    public static final Comparator<PlayerStats> BY_BEST_STREAK = Comparator.comparingInt(PlayerStats::getBestStreak);
+    /** Highest share of games won first. */
+    public static final Comparator<PlayerStats> BY_WIN_RATE = Comparator.comparingDouble(PlayerStats::getWinRate);
+
+    private final String name;
+    private final long games;
+    private final long wins;
+    private final long wrongGuesses;
+    private final int streak;
+    private final int bestStreak;
+    private final long lastPlayed;
+
+    PlayerStats(String name, long games, long wins, long wrongGuesses, int streak, int bestStreak, long lastPlayed) {
+        this.name = name;
+        this.games = games;
+        this.wins = wins;
+        this.wrongGuesses = wrongGuesses;
+        this.streak = streak;
+        this.bestStreak = bestStreak;
+        this.lastPlayed = lastPlayed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getLosses() {
+        return games - wins;
+    }
+
+    public long getWrongGuesses() {
+        return wrongGuesses;
+    }
+
+    /**
+     * @return how many games in a row the player won (a positive number) or lost (a negative number) lately
+     */
+    public int getStreak() {
+        return streak;
+    }
+
+    /**
+     * @return the most games in a row the player ever won
+     */
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    /**
+     * @return when the player last finished a game, in milliseconds since the epoch
+     */
+    public long getLastPlayed() {
+        return lastPlayed;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d games, %d won (%.1f%%), streak %d, best streak %d",
+                name, games, wins, 100 * getWinRate(), streak, bestStreak);
+    }
+}
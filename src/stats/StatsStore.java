@@ -0,0 +1,384 @@
+package stats;
+
+import engine.HangmanGame;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps everyone's numbers across games: wins, losses and streaks per player, and how hard each word and
+ * each word length turned out to be. Every finished game updates the totals it touches right away, so reading
+ * a player's numbers, a word's numbers or a leaderboard never goes through the past games one by one.
+ * ------------
+ * It's a directory of {@link MappedTable} files:
+ *   players.hstats: one record per player with their totals and where their latest game is,
+ *   words.hstats: one record per word ever played with its totals,
+ *   lengths.hstats: one record per word length with its totals,
+ *   games.hstats: one small record per finished game, pointing at the player's game before it,
+ *                 so a player's history is read newest first by following those links.
+ * Leaderboards go through the player (or word) records once, keeping only the best n on the way,
+ * so they cost the same with a thousand games recorded or with millions.
+ * ------------
+ * All methods are thread safe. A stats directory must only be open by one StatsStore at a time.
+ */
+public final class StatsStore implements Closeable {
+    public static final String STATS_PROPERTY = "hangman.stats";
+    public static final String PLAYER_PROPERTY = "hangman.player";
+    public static final int MAX_NAME_LENGTH = 25;
+
+    private static final int PLAYERS_MAGIC = 0x48535450; // "HSTP"
+    private static final int WORDS_MAGIC = 0x48535457; // "HSTW"
+    private static final int LENGTHS_MAGIC = 0x4853544C; // "HSTL"
+    private static final int GAMES_MAGIC = 0x48535447; // "HSTG"
+
+    // player record: games, wins, wrong guesses, streak, best streak, last played, latest game, name
+    private static final int P_GAMES = 0, P_WINS = 8, P_WRONG = 16, P_STREAK = 24, P_BEST = 28, P_LAST_PLAYED = 32,
+            P_LATEST_GAME = 40, P_NAME = 44, PLAYER_BYTES = 96;
+    // word and length record: games, wins, wrong guesses, and the word for word records
+    private static final int T_GAMES = 0, T_WINS = 8, T_WRONG = 16, T_WORD = 24, LENGTH_BYTES = 24,
+            WORD_BYTES = 160;
+    // game record: time, player, the player's previous game, word, won, wrong guesses
+    private static final int G_TIME = 0, G_PLAYER = 8, G_PREVIOUS = 12, G_WORD = 16, G_WON = 20, G_WRONG = 21,
+            GAME_BYTES = 24;
+
+    private final MappedTable players;
+    private final MappedTable words;
+    private final MappedTable lengths;
+    private final MappedTable games;
+    private final Map<String, Integer> playerIds = new HashMap<>();
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private StatsStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        players = MappedTable.open(directory.resolve("players.hstats"), PLAYERS_MAGIC, PLAYER_BYTES, 64);
+        words = MappedTable.open(directory.resolve("words.hstats"), WORDS_MAGIC, WORD_BYTES, 1024);
+        lengths = MappedTable.open(directory.resolve("lengths.hstats"), LENGTHS_MAGIC, LENGTH_BYTES, HangmanGame.MAX_WORD_LENGTH + 1);
+        games = MappedTable.open(directory.resolve("games.hstats"), GAMES_MAGIC, GAME_BYTES, 4096);
+
+        while (lengths.size() <= HangmanGame.MAX_WORD_LENGTH) { // one zeroed record per length, made once
+            lengths.reserve();
+            lengths.commit();
+        }
+        for (int id = 0; id < players.size(); id++) {
+            playerIds.put(players.getString(id, P_NAME), id);
+        }
+        for (int id = 0; id < words.size(); id++) {
+            wordIds.put(words.getString(id, T_WORD), id);
+        }
+    }
+
+    /**
+     * Opens a stats directory, creating it if needed.
+     * @param directory: where the stats files live
+     * @return the store
+     * @throws IOException if the files can't be opened or aren't stats files
+     */
+    public static StatsStore open(Path directory) throws IOException {
+        return new StatsStore(directory);
+    }
+
+    /**
+     * Opens the stats the game keeps: in the directory of the "hangman.stats" system property,
+     * or ".hangman/stats" in the user's home. Setting the property to "off" turns the stats off.
+     * @return the store, or null if it's turned off or can't be opened
+     */
+    public static StatsStore openDefault() {
+        String property = System.getProperty(STATS_PROPERTY);
+        if ("off".equalsIgnoreCase(property)) {
+            return null;
+        }
+        Path directory = property == null || property.isBlank()
+                ? Path.of(System.getProperty("user.home"), ".hangman", "stats")
+                : Path.of(property);
+        try {
+            return open(directory);
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Unable to open the player statistics in " + directory + ", games won't be counted. " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the name of whoever is playing: the "hangman.player" system property, or the name of the user on this computer
+     */
+    public static String defaultPlayer() {
+        String name = System.getProperty(PLAYER_PROPERTY);
+        return name == null || name.isBlank() ? System.getProperty("user.name", "player") : name;
+    }
+
+    private static String playerKey(String name) {
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+
+    /**
+     * Counts a finished game in the totals of its player, its word and its word length, and adds it to the player's history.
+     * @param player: who played it
+     * @param word: the mystery word
+     * @param won: whether the player found it
+     * @param wrongGuesses: how many letters the player got wrong
+     * @param time: when the game ended, in milliseconds since the epoch
+     * @return the player's numbers after this game
+     */
+    public PlayerStats recordGame(String player, String word, boolean won, int wrongGuesses, long time) throws IOException {
+        if (word.isEmpty() || word.length() > HangmanGame.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be between 1 and " + HangmanGame.MAX_WORD_LENGTH + ": " + word);
+        }
+        lock.lock();
+        try {
+            int playerId = playerId(playerKey(player));
+            int wordId = wordId(word);
+
+            int game = games.reserve();
+            games.putLong(game, G_TIME, time);
+            games.putInt(game, G_PLAYER, playerId);
+            games.putInt(game, G_PREVIOUS, players.getInt(playerId, P_LATEST_GAME));
+            games.putInt(game, G_WORD, wordId);
+            games.put(game, G_WON, (byte) (won ? 1 : 0));
+            games.put(game, G_WRONG, (byte) wrongGuesses);
+            games.commit();
+
+            addTotals(words, wordId, won, wrongGuesses);
+            addTotals(lengths, word.length(), won, wrongGuesses);
+
+            addTotals(players, playerId, won, wrongGuesses);
+            int streak = players.getInt(playerId, P_STREAK);
+            streak = won ? Math.max(streak, 0) + 1 : Math.min(streak, 0) - 1;
+            players.putInt(playerId, P_STREAK, streak);
+            players.putInt(playerId, P_BEST, Math.max(streak, players.getInt(playerId, P_BEST)));
+            players.putLong(playerId, P_LAST_PLAYED, time);
+            players.putInt(playerId, P_LATEST_GAME, game);
+            return readPlayer(playerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void addTotals(MappedTable table, int id, boolean won, int wrongGuesses) {
+        table.putLong(id, T_GAMES, table.getLong(id, T_GAMES) + 1);
+        table.putLong(id, T_WINS, table.getLong(id, T_WINS) + (won ? 1 : 0));
+        table.putLong(id, T_WRONG, table.getLong(id, T_WRONG) + wrongGuesses);
+    }
+
+    private int playerId(String name) throws IOException {
+        Integer id = playerIds.get(name);
+        if (id == null) {
+            id = players.reserve();
+            players.putInt(id, P_LATEST_GAME, -1);
+            players.putString(id, P_NAME, name, MAX_NAME_LENGTH);
+            players.commit();
+            playerIds.put(name, id);
+        }
+        return id;
+    }
+
+    private int wordId(String word) throws IOException {
+        Integer id = wordIds.get(word);
+        if (id == null) {
+            id = words.reserve();
+            words.putString(id, T_WORD, word, HangmanGame.MAX_WORD_LENGTH);
+            words.commit();
+            wordIds.put(word, id);
+        }
+        return id;
+    }
+
+    private PlayerStats readPlayer(int id) {
+        return new PlayerStats(players.getString(id, P_NAME), players.getLong(id, P_GAMES), players.getLong(id, P_WINS),
+                players.getLong(id, P_WRONG), players.getInt(id, P_STREAK), players.getInt(id, P_BEST),
+                players.getLong(id, P_LAST_PLAYED));
+    }
+
+    private Totals readTotals(MappedTable table, int id, String label) {
+        return new Totals(label, table.getLong(id, T_GAMES), table.getLong(id, T_WINS), table.getLong(id, T_WRONG));
+    }
+
+    /**
+     * @param name: the player
+     * @return their numbers, or null if they never finished a game
+     */
+    public PlayerStats player(String name) {
+        lock.lock();
+        try {
+            Integer id = playerIds.get(playerKey(name));
+            return id == null ? null : readPlayer(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param word: a mystery word
+     * @return its numbers, or null if it was never played
+     */
+    public Totals word(String word) {
+        lock.lock();
+        try {
+            Integer id = wordIds.get(word);
+            return id == null ? null : readTotals(words, id, word);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param length: a word length
+     * @return the numbers of all the words of that length together
+     */
+    public Totals length(int length) {
+        if (length < 1 || length > HangmanGame.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be between 1 and " + HangmanGame.MAX_WORD_LENGTH);
+        }
+        lock.lock();
+        try {
+            return readTotals(lengths, length, String.valueOf(length));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads a player's latest games, newest first, going straight from one of their games to the previous one.
+     * @param name: the player
+     * @param limit: how many games at most
+     * @return the games
+     */
+    public List<GameEntry> history(String name, int limit) {
+        lock.lock();
+        try {
+            List<GameEntry> history = new ArrayList<>();
+            Integer id = playerIds.get(playerKey(name));
+            int game = id == null ? -1 : players.getInt(id, P_LATEST_GAME);
+            while (game >= 0 && history.size() < limit) {
+                history.add(new GameEntry(words.getString(games.getInt(game, G_WORD), T_WORD),
+                        games.get(game, G_WON) != 0, games.get(game, G_WRONG), games.getLong(game, G_TIME)));
+                game = games.getInt(game, G_PREVIOUS);
+            }
+            return history;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The leaderboard.
+     * @param n: how many players
+     * @param ranking: how to rank them, like {@link PlayerStats#BY_WINS}
+     * @return the best n players, best first
+     */
+    public List<PlayerStats> topPlayers(int n, Comparator<PlayerStats> ranking) {
+        if (n <= 0) {
+            return List.of();
+        }
+        lock.lock();
+        try {
+            PriorityQueue<PlayerStats> best = new PriorityQueue<>(n + 1, ranking); // the worst of the best is on top, to be dropped
+            for (int id = 0; id < players.size(); id++) {
+                best.add(readPlayer(id));
+                if (best.size() > n) {
+                    best.poll();
+                }
+            }
+            List<PlayerStats> top = new ArrayList<>(best);
+            top.sort(ranking.reversed());
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The words players struggle with the most: the lowest share of games won, then the most wrong guesses on average.
+     * Only the numbers are read while going through the words, the n words that make it are the only ones built as Strings.
+     * @param n: how many words
+     * @param minGames: how many times a word must have been played to count, so one unlucky game doesn't make a word "hard"
+     * @return the hardest n words, hardest first
+     */
+    public List<Totals> hardestWords(int n, long minGames) {
+        if (n <= 0) {
+            return List.of();
+        }
+        lock.lock();
+        try {
+            int[] top = new int[n];
+            double[] rates = new double[n];
+            double[] wrong = new double[n];
+            int count = 0;
+            for (int id = 0; id < words.size(); id++) {
+                long played = words.getLong(id, T_GAMES);
+                if (played < Math.max(1, minGames)) {
+                    continue;
+                }
+                double rate = (double) words.getLong(id, T_WINS) / played;
+                double averageWrong = (double) words.getLong(id, T_WRONG) / played;
+                if (count < n || harder(rate, averageWrong, rates[count - 1], wrong[count - 1])) {
+                    int at = count < n ? count++ : count - 1;
+                    while (at > 0 && harder(rate, averageWrong, rates[at - 1], wrong[at - 1])) { // insertion into the few we keep, sorted hardest first
+                        rates[at] = rates[at - 1];
+                        wrong[at] = wrong[at - 1];
+                        top[at] = top[at - 1];
+                        at--;
+                    }
+                    rates[at] = rate;
+                    wrong[at] = averageWrong;
+                    top[at] = id;
+                }
+            }
+            List<Totals> hardest = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                hardest.add(readTotals(words, top[i], words.getString(top[i], T_WORD)));
+            }
+            return hardest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean harder(double rate, double averageWrong, double otherRate, double otherAverageWrong) {
+        return rate < otherRate || (rate == otherRate && averageWrong > otherAverageWrong);
+    }
+
+    /**
+     * Writes everything to disk.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            players.force();
+            words.force();
+            lengths.force();
+            games.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = args.length > 0 ? Path.of(args[0]) : Path.of(System.getProperty("user.home"), ".hangman", "stats");
+        try (StatsStore store = open(directory)) {
+            System.out.println("Most wins:");
+            for (PlayerStats player : store.topPlayers(10, PlayerStats.BY_WINS)) {
+                System.out.println("  " + player);
+            }
+            System.out.println("Hardest words (played at least 3 times):");
+            for (Totals word : store.hardestWords(10, 3)) {
+                System.out.println("  " + word);
+            }
+            String player = defaultPlayer();
+            System.out.println("Latest games of " + player + ":");
+            for (GameEntry game : store.history(player, 10)) {
+                System.out.println("  " + game);
+            }
+        }
+    }
+}
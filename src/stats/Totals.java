@@ -0,0 +1,51 @@
+package stats;
+
+/**
+ * A copy of the numbers of one word, or of every word of one length, as they were when read from the {@link StatsStore}.
+ */
+public final class Totals {
+    private final String label;
+    private final long games;
+    private final long wins;
+    private final long wrongGuesses;
+
+    Totals(String label, long games, long wins, long wrongGuesses) {
+        this.label = label;
+        this.games = games;
+        this.wins = wins;
+        this.wrongGuesses = wrongGuesses;
+    }
+
+    /**
+     * @return the word, or the word length, these numbers are about
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getWrongGuesses() {
+        return wrongGuesses;
+    }
+
+    public double getWinRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    public double getAverageWrongGuesses() {
+        return games == 0 ? 0 : (double) wrongGuesses / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d games, %.1f%% won, %.2f wrong guesses on average",
+                label, games, 100 * getWinRate(), getAverageWrongGuesses());
+    }
+}
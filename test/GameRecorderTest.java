@@ -0,0 +1,77 @@
+import engine.GuessResult;
+import engine.HangmanGame;
+import journal.Journal;
+import journal.JournalReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import replay.BulkReplay;
+import replay.ReplayReport;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A right guess of the whole word reveals several letters at once, but the game still ends only once: the journal
+ * must hold a single outcome for it, or a replay counts the game twice and the second outcome is a mismatch.
+ */
+class GameRecorderTest {
+
+    @Test
+    void aWonWordGuessHasOneOutcome(@TempDir Path directory) throws IOException, InterruptedException {
+        try (Journal journal = Journal.open(directory)) {
+            HangmanGame game = new HangmanGame();
+            GameRecorder recorder = new GameRecorder(journal, game, false);
+            game.start("jazz");
+            recorder.wordStarted();
+            recorder.guessed('j', game.guess('j'));
+            recorder.guessed(0, game.missWord());
+            assertEquals(GuessResult.HIT, game.guessWord("jazz"));
+            recorder.wordGuessed("az");
+        }
+
+        assertEquals(List.of("0 GAME_STARTED jazz 6", "0 GUESS j HIT", "0 GUESS \0 WRONG_WORD", "0 GUESS a HIT",
+                "0 GUESS z HIT", "0 GAME_OVER WON 1"), read(directory));
+        assertReplaysClean(directory);
+    }
+
+    @Test
+    void aWonWordGuessInEvilModeHasOneGame(@TempDir Path directory) throws IOException, InterruptedException {
+        try (Journal journal = Journal.open(directory)) {
+            HangmanGame game = new HangmanGame();
+            GameRecorder recorder = new GameRecorder(journal, game, true);
+            game.start("jazz");
+            recorder.wordStarted();
+            recorder.guessed('q', game.guess('q'));
+            assertEquals(GuessResult.HIT, game.guessWord("jazz"));
+            recorder.wordGuessed("jaz");
+        }
+
+        assertEquals(List.of("0 GAME_STARTED jazz 6", "0 GUESS q MISS", "0 GUESS j HIT", "0 GUESS a HIT",
+                "0 GUESS z HIT", "0 GAME_OVER WON 1"), read(directory));
+        assertReplaysClean(directory);
+    }
+
+    private static void assertReplaysClean(Path directory) throws IOException, InterruptedException {
+        ReplayReport report = BulkReplay.verify(directory, 1);
+        assertTrue(report.isClean(), () -> report.getExamples().toString());
+        assertEquals(1, report.getGames());
+        assertEquals(0, report.getUnfinished());
+    }
+
+    /**
+     * @return every record of the journal as text, without the time it was written
+     */
+    private static List<String> read(Path directory) throws IOException {
+        List<String> records = new ArrayList<>();
+        JournalReader.read(directory, record -> {
+            String text = record.toString();
+            records.add(text.substring(0, text.lastIndexOf(' ')));
+        });
+        return records;
+    }
+}
@@ -0,0 +1,84 @@
+package allocation;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Holds a piece of code to a budget of bytes allocated on the heap per run, so a hot path of the game that allocates
+ * nothing keeps allocating nothing, and one that has to allocate doesn't quietly allocate more.
+ * ------------
+ * The JVM counts every byte each thread allocates (see com.sun.management.ThreadMXBean), so we read the count of
+ * the test's own thread before and after running the code a few thousand times. The code is run plenty of times
+ * first so the JIT compiles it: the interpreter allocates things the compiled code never does (the JIT keeps small
+ * objects that don't escape in registers), and the compiled code is what players run.
+ * We keep the best of a few rounds, so a round that happened to run interpreted code again (the JIT throwing its
+ * code away and compiling it anew) doesn't fail the build.
+ */
+public final class AllocationBudget {
+    private static final int WARMUP_RUNS = 20_000;
+    private static final int RUNS = 10_000;
+    private static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationBudget() {
+    }
+
+    /**
+     * Fails the test if the code allocates more than its budget per run. Skips it on a JVM that can't count allocations.
+     * @param what: what the code does, for the failure message
+     * @param budgetBytes: how many bytes a run may allocate, 0 for a path that must not allocate at all
+     * @param code: the code, which should be the same every run (reusing its builders and games, like the game does)
+     */
+    public static void assertWithinBudget(String what, long budgetBytes, Runnable code) {
+        assertWithinBudget(what, budgetBytes, WARMUP_RUNS, RUNS, code);
+    }
+
+    /**
+     * The same, for code too slow to run tens of thousands of times.
+     */
+    public static void assertWithinBudget(String what, long budgetBytes, int warmupRuns, int runs, Runnable code) {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled(),
+                "This JVM doesn't count allocated bytes");
+        double bytes = bytesPerRun(warmupRuns, runs, code);
+        assertTrue(bytes <= budgetBytes, () -> String.format("%s allocates %.1f bytes per run, its budget is %d bytes",
+                what, bytes, budgetBytes));
+    }
+
+    /**
+     * The same, for code that can only run after a setup that allocates on its own (a new game, say): the setup is also
+     * run alone, and what it allocates is taken off what the setup and the code allocate together.
+     */
+    public static void assertWithinBudget(String what, long budgetBytes, int warmupRuns, int runs, Runnable setup, Runnable code) {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported() && THREADS.isThreadAllocatedMemoryEnabled(),
+                "This JVM doesn't count allocated bytes");
+        double setupBytes = bytesPerRun(warmupRuns, runs, setup);
+        double bytes = bytesPerRun(warmupRuns, runs, () -> {
+            setup.run();
+            code.run();
+        }) - setupBytes;
+        assertTrue(bytes <= budgetBytes, () -> String.format("%s allocates %.1f bytes per run, its budget is %d bytes",
+                what, bytes, budgetBytes));
+    }
+
+    /**
+     * @return the fewest bytes the code allocated per run, over a few rounds of runs
+     */
+    public static double bytesPerRun(int warmupRuns, int runs, Runnable code) {
+        for (int i = 0; i < warmupRuns; i++) {
+            code.run();
+        }
+        double best = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = THREADS.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < runs; i++) {
+                code.run();
+            }
+            best = Math.min(best, (double) (THREADS.getCurrentThreadAllocatedBytes() - before) / runs);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,35 @@
+package allocation;
+
+import dictionary.Dictionary;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * The words the allocation tests play with: made of the letters a to z only, so the game can play every one of them,
+ * and all of the same length, so an evil game or a word picker has all of them to go through, not just one or two.
+ */
+public final class TestWords {
+
+    private TestWords() {
+    }
+
+    /**
+     * @param count: how many words
+     * @param length: how many letters in each word
+     * @return a dictionary of that many different words, always the same ones
+     */
+    public static Dictionary of(int count, int length) {
+        SplittableRandom random = new SplittableRandom(count * 31L + length);
+        Set<String> words = new LinkedHashSet<>();
+        char[] letters = new char[length];
+        while (words.size() < count) {
+            for (int i = 0; i < length; i++) {
+                letters[i] = (char) ('a' + random.nextInt(26));
+            }
+            words.add(new String(letters));
+        }
+        return Dictionary.of(words.toArray(new String[0]));
+    }
+}
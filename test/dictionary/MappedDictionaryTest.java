@@ -0,0 +1,77 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The mapped dictionary reads characters straight out of the UTF-8 bytes, which only line up with the characters of
+ * plain ASCII words, so the accented and non-Latin ones must still read exactly like their Strings.
+ * The hash in its header stands in for its words when checking the files stored next to it, so it must be their hash.
+ */
+class MappedDictionaryTest {
+
+    @Test
+    void charactersMatchTheWordsForEveryScript(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("words.hdict");
+        DictionaryWriter.write(Stream.of("hangman", "café", "ßkiing", "слово", "日本語", "a😀b"), file);
+        MappedDictionary dictionary = MappedDictionary.open(file);
+
+        for (int id = 0; id < dictionary.size(); id++) {
+            String word = dictionary.word(id);
+            assertEquals(word.length(), dictionary.length(id), word);
+            for (int i = 0; i < word.length(); i++) {
+                assertEquals(word.charAt(i), dictionary.charAt(id, i), word + " at " + i);
+            }
+            int current = id;
+            assertThrows(StringIndexOutOfBoundsException.class, () -> dictionary.charAt(current, word.length()));
+            assertThrows(StringIndexOutOfBoundsException.class, () -> dictionary.charAt(current, -1));
+        }
+    }
+
+    @Test
+    void keepsTheHashOfItsWordsInTheHeader(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("words.hdict");
+        DictionaryWriter.write(Stream.of("ab", "cdef", "σοφός"), file);
+        MappedDictionary dictionary = MappedDictionary.open(file);
+        long hash = dictionary.contentHash();
+        assertEquals(WordScores.contentHash(dictionary), hash);
+
+        DictionaryWriter.write(Stream.of("abcd", "ef", "σοφός"), file); // as many words and bytes as before
+        assertNotEquals(hash, MappedDictionary.open(file).contentHash());
+    }
+
+    @Test
+    void hashesTheWordsOfAFileWrittenWithoutTheHash(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("words.hdict");
+        DictionaryWriter.write(Stream.of("ab", "cdef", "σοφός"), file);
+        long hash = MappedDictionary.open(file).contentHash();
+
+        // the same file as version 1 wrote it: no hash between the header and the offsets, and no ASCII flags
+        ByteBuffer current = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer old = ByteBuffer.allocate(current.capacity() - Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        old.putInt(current.getInt(0)).putInt(1).putInt(current.getInt(8)).putInt(current.getInt(12) - Long.BYTES);
+        for (int at = MappedDictionary.HEADER_BYTES; at < current.getInt(12); at += Integer.BYTES) {
+            old.putInt(current.getInt(at) & ~MappedDictionary.ASCII_FLAG);
+        }
+        old.put(current.position(current.getInt(12)));
+        Path v1 = folder.resolve("old.hdict");
+        Files.write(v1, old.array());
+
+        MappedDictionary dictionary = MappedDictionary.open(v1);
+        assertEquals("σοφός", dictionary.word(2));
+        assertEquals('f', dictionary.charAt(1, 3));
+        assertEquals(4, dictionary.length(1));
+        assertEquals(hash, dictionary.contentHash());
+    }
+}
@@ -0,0 +1,33 @@
+package dictionary;
+
+import allocation.TestWords;
+import org.junit.jupiter.api.Test;
+
+import static allocation.AllocationBudget.assertWithinBudget;
+
+/**
+ * The game panel checks every whole word guess against the dictionary on the Swing thread, and suggests the closest
+ * words when it isn't one, so both must stay a few lookups that leave no garbage behind.
+ */
+class SpellCheckerAllocationTest {
+    private static final Dictionary DICTIONARY = TestWords.of(5000, 6);
+    private static final SpellChecker CHECKER = SpellChecker.build(DICTIONARY);
+
+    @Test
+    void lookingUpAWordAllocatesNothing() {
+        SpellChecker.Searcher searcher = CHECKER.searcher();
+        String word = DICTIONARY.word(42);
+        assertWithinBudget("Checking a word and a typo", 0, () -> {
+            searcher.isWord(word);
+            searcher.isWord("wzzzzz");
+        });
+    }
+
+    @Test
+    void suggestingWordsAllocatesNothing() {
+        SpellChecker.Searcher searcher = CHECKER.searcher();
+        int[] suggestions = new int[3];
+        String typo = "x" + DICTIONARY.word(42).substring(1);
+        assertWithinBudget("Suggesting the words closest to a typo", 0, () -> searcher.suggest(typo, suggestions));
+    }
+}
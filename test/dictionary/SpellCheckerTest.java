@@ -0,0 +1,51 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A whole word guess that isn't in the dictionary costs the player nothing, so the spell checker must never turn down
+ * a real word, and what it suggests instead must be words the player could have meant: of the same length, closest first.
+ */
+class SpellCheckerTest {
+    private static final Dictionary DICTIONARY = Dictionary.of("hagnman", "zebra", "hangnat", "hangmans", "hangman", "hangmen", "σοφός");
+    private static final SpellChecker CHECKER = SpellChecker.build(DICTIONARY);
+
+    @Test
+    void acceptsEveryWordOfTheDictionary() {
+        SpellChecker.Searcher searcher = CHECKER.searcher();
+        for (int id = 0; id < DICTIONARY.size(); id++) {
+            assertTrue(searcher.isWord(DICTIONARY.word(id)), DICTIONARY.word(id));
+        }
+        assertTrue(searcher.isWord("HangMan"));
+        assertTrue(searcher.isWord("ΣΟΦΌΣ"));
+        assertFalse(searcher.isWord("hangnan"));
+        assertFalse(searcher.isWord("hangma"));
+        assertFalse(searcher.isWord(""));
+    }
+
+    @Test
+    void suggestsWordsOfTheSameLengthClosestFirst() {
+        SpellChecker.Searcher searcher = CHECKER.searcher();
+        int[] suggestions = new int[3];
+
+        // a letter changed (hangnat, hangman), then a letter moved (hagnman); hangmans is a letter longer
+        assertEquals(3, searcher.suggest("hangnan", suggestions));
+        assertArrayEquals(new int[] {2, 4, 0}, suggestions);
+
+        // the word itself is left out
+        assertEquals(2, searcher.suggest("hangman", suggestions));
+        assertEquals(5, suggestions[0]);
+        assertEquals(0, suggestions[1]);
+
+        int[] one = new int[1];
+        assertEquals(1, searcher.suggest("hangnan", one));
+        assertEquals(2, one[0]);
+
+        assertEquals(0, searcher.suggest("qwerty", suggestions));
+    }
+}
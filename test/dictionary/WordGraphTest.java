@@ -0,0 +1,151 @@
+package dictionary;
+
+import engine.HangmanGame;
+import engine.LetterSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The graph shares every ending it can, so what it must never do is share one it can't: every search is checked
+ * against a plain scan of the words, over words that end alike ("walking", "talking") and words that only end alike
+ * once a node below them was merged ("tap" and "top" once "taps" and "tops" share their s).
+ */
+class WordGraphTest {
+    private static final String[] WORDS = {"walking", "talking", "balking", "stalking", "walk", "talk", "stalk",
+            "walked", "talked", "stalked", "tall", "ball", "balls", "call", "calls", "called", "hang", "hanging",
+            "hangman", "Hangman", "banging", "ranging", "rang", "bang", "sang", "song", "long", "longing", "tap", "taps",
+            "top", "tops", "tip", "tips", "x-ray", "café", "cafe", "a", "ab", "abc"};
+
+    @Test
+    void mergesEqualEndingsIntoOneNode() {
+        // the a and the o lead to the same "p, and maybe s" node: root, t, that node, p and s are all there is
+        WordGraph graph = WordGraph.build(Dictionary.of("tops", "tap", "top", "taps"));
+        assertEquals(4, graph.size());
+        assertEquals(5, graph.nodeCount());
+        assertEquals(5, graph.edgeCount());
+
+        WordGraph words = WordGraph.build(Dictionary.of(WORDS));
+        Set<String> prefixes = new HashSet<>();
+        for (String word : distinctWords()) {
+            for (int end = 0; end <= word.length(); end++) {
+                prefixes.add(word.substring(0, end));
+            }
+        }
+        assertTrue(words.nodeCount() < prefixes.size(), words.nodeCount() + " nodes for a trie of " + prefixes.size());
+    }
+
+    @Test
+    void holdsTheSameWordsInAnyOrder() {
+        List<String> shuffled = new ArrayList<>(Arrays.asList(WORDS));
+        Collections.shuffle(shuffled, new Random(7));
+        WordGraph graph = WordGraph.build(Dictionary.of(WORDS));
+        WordGraph other = WordGraph.build(Dictionary.of(shuffled.toArray(new String[0])));
+
+        assertEquals(distinctWords().size(), graph.size());
+        assertEquals(graph.size(), other.size());
+        assertEquals(graph.nodeCount(), other.nodeCount());
+        assertEquals(graph.edgeCount(), other.edgeCount());
+        for (String word : WORDS) {
+            assertTrue(graph.contains(word), word);
+            assertTrue(graph.contains(word.toUpperCase()), word);
+            assertTrue(other.contains(word), word);
+        }
+        for (String word : new String[] {"", "walkin", "alking", "tapss", "to", "ta", "stal", "hangmen", "x", "cafés"}) {
+            assertFalse(graph.contains(word), word);
+            assertFalse(other.contains(word), word);
+        }
+    }
+
+    @Test
+    void findsWhatAScanOfTheWordsFinds() {
+        WordGraph graph = WordGraph.build(Dictionary.of(WORDS));
+        WordGraph.Matcher matcher = graph.matcher(); // one matcher for every search, like the solver does
+        List<String> words = distinctWords();
+        SplittableRandom random = new SplittableRandom(42);
+        LetterSet excluded = new LetterSet();
+        StringBuilder excludedText = new StringBuilder();
+
+        for (int search = 0; search < 5000; search++) {
+            String word = words.get(random.nextInt(words.size()));
+            StringBuilder pattern = new StringBuilder();
+            if (random.nextInt(4) == 0) { // nothing revealed, just a length
+                pattern.append(String.valueOf(HangmanGame.HIDDEN).repeat(word.codePointCount(0, word.length())));
+            } else {
+                // reveal some of the word's letters, everywhere they are, like the game does
+                Set<Integer> revealed = new HashSet<>();
+                word.codePoints().forEach(letter -> {
+                    if (!Character.isLetter(letter) || random.nextInt(3) == 0) {
+                        revealed.add(letter);
+                    }
+                });
+                word.codePoints().forEach(letter -> pattern.appendCodePoint(revealed.contains(letter) ? letter : HangmanGame.HIDDEN));
+            }
+            excluded.clear();
+            excludedText.setLength(0);
+            for (int i = random.nextInt(4); i > 0; i--) {
+                int letter = 'a' + random.nextInt(26);
+                excluded.add(letter);
+                excludedText.appendCodePoint(letter);
+            }
+
+            Set<String> expected = scan(words, pattern, excluded);
+            Set<String> found = new TreeSet<>();
+            String what = pattern + " without " + excludedText;
+            assertEquals(expected.size(), matcher.forEach(pattern, excluded, found::add), what);
+            assertEquals(expected, found, what);
+            assertEquals(expected.size(), matcher.count(pattern, excluded), what);
+            assertEquals(expected.size(), matcher.count(pattern, excludedText), what);
+        }
+    }
+
+    /**
+     * @return the words of the dictionary as the graph keeps them: lower case, each once
+     */
+    private static List<String> distinctWords() {
+        Set<String> words = new TreeSet<>();
+        for (String word : WORDS) {
+            StringBuilder folded = new StringBuilder();
+            word.codePoints().forEach(codePoint -> folded.appendCodePoint(HangmanGame.fold(codePoint)));
+            words.add(folded.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * The rules of the game, one word at a time: a revealed letter is in its place, and a hidden one is a letter
+     * (the game always shows the rest) that is neither excluded nor revealed somewhere else.
+     */
+    private static Set<String> scan(List<String> words, CharSequence pattern, LetterSet excluded) {
+        int[] wanted = pattern.codePoints().toArray();
+        Set<String> found = new TreeSet<>();
+        for (String word : words) {
+            int[] letters = word.codePoints().toArray();
+            boolean fits = letters.length == wanted.length;
+            for (int i = 0; fits && i < letters.length; i++) {
+                if (wanted[i] != HangmanGame.HIDDEN) {
+                    fits = HangmanGame.fold(wanted[i]) == letters[i];
+                } else {
+                    int letter = letters[i];
+                    fits = Character.isLetter(letter) && !excluded.contains(letter) && Arrays.stream(wanted).noneMatch(shown -> shown == letter);
+                }
+            }
+            if (fits) {
+                found.add(word);
+            }
+        }
+        return found;
+    }
+}
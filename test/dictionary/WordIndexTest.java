@@ -0,0 +1,60 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The index tells letters apart the way the game does, so "no repeated letters" means the same thing for a Greek,
+ * an accented or a plain English word.
+ */
+class WordIndexTest {
+
+    @Test
+    void countsRepeatedFoldedLettersOfAnyScript() {
+        int[] seen = new int[64];
+        assertEquals(0, WordIndex.repeatedLetters("hang", seen));
+        assertEquals(2, WordIndex.repeatedLetters("hanging", seen));
+        assertEquals(0, WordIndex.repeatedLetters("café", seen));
+        assertEquals(0, WordIndex.repeatedLetters("cafe-é", seen)); // the hyphen is no letter, the accented e is one of its own
+        assertEquals(0, WordIndex.repeatedLetters("x-ray", seen));
+        assertEquals(1, WordIndex.repeatedLetters("HaNgh", seen));
+        assertEquals(1, WordIndex.repeatedLetters("слово", seen));
+        assertEquals(1, WordIndex.repeatedLetters("σοφός", seen)); // the final sigma is the same letter as the first
+        assertEquals(0, WordIndex.repeatedLetters("日本語", seen));
+    }
+
+    @Test
+    void selectsWordsWithoutRepeatedLettersInAnyScript() {
+        Dictionary dictionary = Dictionary.of("hang", "hanging", "café", "cafféé", "слово", "слон", "日本語", "𝒜𝒜", "x-ray", "ice cream");
+        WordSelection unique = WordIndex.build(dictionary).select(WordQuery.ANY.withNoRepeatedLetters(true));
+
+        Set<String> words = new HashSet<>();
+        for (long n = 0; n < unique.size(); n++) {
+            words.add(dictionary.word(unique.get(n)));
+        }
+        assertEquals(Set.of("hang", "café", "слон", "日本語", "x-ray"), words);
+        assertEquals(1, unique.withLength(3).size());
+    }
+
+    @Test
+    void rebuildsTheStoredIndexWhenTheWordsChangeButNotTheSize(@TempDir Path folder) throws IOException {
+        Path file = folder.resolve("words.hdict");
+        DictionaryWriter.write(Stream.of("ab", "cdef"), file);
+        WordSelection fourLetters = WordIndex.openOrBuild(MappedDictionary.open(file)).select(WordQuery.ANY.withLength(4, 4));
+        assertEquals(1, fourLetters.get(0));
+
+        DictionaryWriter.write(Stream.of("abcd", "ef"), file); // as many words and bytes as before
+        MappedDictionary edited = MappedDictionary.open(file);
+        fourLetters = WordIndex.openOrBuild(edited).select(WordQuery.ANY.withLength(4, 4));
+        assertEquals(1, fourLetters.size());
+        assertEquals("abcd", edited.word(fourLetters.get(0)));
+    }
+}
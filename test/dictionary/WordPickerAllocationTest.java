@@ -0,0 +1,26 @@
+package dictionary;
+
+import allocation.TestWords;
+import org.junit.jupiter.api.Test;
+
+import static allocation.AllocationBudget.assertWithinBudget;
+
+/**
+ * Picking a word happens on every new game, of every player, and of every simulated game, so it must not allocate.
+ */
+class WordPickerAllocationTest {
+    private static final Dictionary DICTIONARY = TestWords.of(5000, 6);
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    @Test
+    void pickingAllocatesNothing() {
+        WordPicker picker = new WordPicker(DICTIONARY, SELECTION, 42, 100);
+        assertWithinBudget("Picking a word id", 0, picker::next);
+    }
+
+    @Test
+    void pickingAWordAllocatesNothing() {
+        WordPicker picker = new WordPicker(DICTIONARY, SELECTION, 42, 1000);
+        assertWithinBudget("Picking a word of a dictionary in memory", 0, picker::nextWord);
+    }
+}
@@ -0,0 +1,102 @@
+package dictionary;
+
+import allocation.TestWords;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A picker is only as reproducible as its seed and its state: the same seed must give the same words, and a picker
+ * written aside and read back must go on with exactly the words it would have picked.
+ */
+class WordPickerTest {
+    private static final Dictionary DICTIONARY = TestWords.of(1000, 6);
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    @Test
+    void neverPicksAWordAgainWithinItsWindow() {
+        for (int noRepeat : new int[] {1, 10, 100, 500}) { // 500 is half the words, the most a picker remembers
+            WordPicker picker = new WordPicker(DICTIONARY, SELECTION, noRepeat, noRepeat);
+            assertEquals(noRepeat, picker.getNoRepeat());
+            Map<Integer, Integer> lastPicked = new HashMap<>();
+            for (int pick = 0; pick < 20_000; pick++) {
+                int id = picker.next();
+                Integer last = lastPicked.put(id, pick);
+                assertTrue(last == null || pick - last > noRepeat, id + " picked at " + last + " and " + pick);
+            }
+        }
+        assertEquals(500, new WordPicker(DICTIONARY, SELECTION, 42, 100_000).getNoRepeat());
+    }
+
+    @Test
+    void theSameSeedPicksTheSameWords() {
+        WordPicker picker = new WordPicker(DICTIONARY, SELECTION, 42, 100);
+        WordPicker again = new WordPicker(DICTIONARY, SELECTION, 42, 100);
+        WordPicker other = new WordPicker(DICTIONARY, SELECTION, 43, 100);
+        int same = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int id = picker.next();
+            assertEquals(id, again.next());
+            same += id == other.next() ? 1 : 0;
+        }
+        assertTrue(same < 100, same + " of the picks of another seed are the same");
+
+        // split pickers are decided by the seed too
+        WordPicker split = picker.split();
+        WordPicker splitAgain = again.split();
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(split.next(), splitAgain.next());
+        }
+    }
+
+    @Test
+    void resumeGoesOnWhereThePickerWas() {
+        WordPicker server = new WordPicker(DICTIONARY, SELECTION, 42, 100);
+        for (int picks : new int[] {0, 10, 77, 5000}) {
+            WordPicker picker = server.split();
+            for (int i = 0; i < picks; i++) {
+                picker.next();
+            }
+            WordPicker back = server.resume(picker.getSeed(), picker.getPicks());
+            assertEquals(picks, back.getPicks());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(picker.next(), back.next(), "pick " + i + " after " + picks);
+            }
+        }
+    }
+
+    @Test
+    void picksWhatASplittableRandomWithTheSameSeedPicks() {
+        WordPicker picker = new WordPicker(DICTIONARY, SELECTION, 42, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(SELECTION.pick(random), picker.next());
+        }
+    }
+
+    @Test
+    void readStateGoesOnWhereThePickerWas() {
+        for (int picks : new int[] {0, 10, 77, 5000}) { // an empty ring, a ring filling up, and rings gone round
+            WordPicker picker = new WordPicker(DICTIONARY, SELECTION, 42, 100);
+            for (int i = 0; i < picks; i++) {
+                picker.next();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(8 + WordPicker.stateBytes(picker.getNoRepeat())).order(ByteOrder.LITTLE_ENDIAN);
+            picker.writeState(buffer, 8);
+            WordPicker back = new WordPicker(DICTIONARY, SELECTION, 7, 100).readState(buffer, 8);
+
+            assertEquals(picker.getSeed(), back.getSeed());
+            assertEquals(picker.getPicks(), back.getPicks());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(picker.next(), back.next(), "pick " + i + " after " + picks);
+            }
+        }
+    }
+}
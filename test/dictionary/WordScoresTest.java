@@ -0,0 +1,38 @@
+package dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scores come from the letters of the dictionary itself, whatever its script, so a dictionary written with other
+ * letters ranks its words exactly like the same dictionary written in a-z.
+ */
+class WordScoresTest {
+    private static final String[] WORDS = {"hangman", "jazz", "zebra", "apple", "banana", "cherry", "kiwi", "melon",
+            "grape", "lemon", "mango", "peach", "plum", "x-ray", "quiz", "fjord", "rhythm", "banana-split"};
+
+    @Test
+    void scoresEveryScriptLikeLatin() {
+        String[] cyrillic = new String[WORDS.length];
+        for (int i = 0; i < WORDS.length; i++) {
+            StringBuilder word = new StringBuilder();
+            WORDS[i].chars().forEach(c -> word.appendCodePoint(c >= 'a' && c <= 'z' ? 'а' + (c - 'a') : c));
+            cyrillic[i] = word.toString();
+        }
+        WordScores latin = WordScores.compute(Dictionary.of(WORDS));
+        WordScores other = WordScores.compute(Dictionary.of(cyrillic));
+
+        Set<Float> distinct = new HashSet<>();
+        for (int id = 0; id < WORDS.length; id++) {
+            assertEquals(latin.score(id), other.score(id), WORDS[id] + " / " + cyrillic[id]);
+            assertEquals(latin.difficulty(id), other.difficulty(id));
+            distinct.add(other.score(id));
+        }
+        assertTrue(distinct.size() > WORDS.length / 2, "The words are told apart: " + distinct);
+    }
+}
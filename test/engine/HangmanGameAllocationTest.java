@@ -0,0 +1,91 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static allocation.AllocationBudget.assertWithinBudget;
+
+/**
+ * The engine promises to never allocate once a word is started (see {@link HangmanGame}), and the game panel,
+ * the server and the simulation all count on it. These tests hold it to that.
+ */
+class HangmanGameAllocationTest {
+    private static final String[] WORDS = {"hangman", "programming", "crème-brûlée", "zebra", "jazz"};
+
+    private final HangmanGame game = new HangmanGame();
+    private final StringBuilder out = new StringBuilder();
+    private int next;
+
+    @Test
+    void guessesAllocateNothing() {
+        assertWithinBudget("A guess, a hit, a miss and a few refused ones", 0, () -> {
+            game.start("hangman");
+            game.guess("a");
+            game.guess("q");
+            game.guess("A");
+            game.guess("ab");
+            game.guess("");
+            game.guess("1");
+            game.guessCodePoint('é');
+        });
+    }
+
+    @Test
+    void aWholeGameAllocatesNothing() {
+        assertWithinBudget("A game, from its word to its last guess, shown after each guess", 0, () -> {
+            game.start(WORDS[next++ % WORDS.length]);
+            for (char letter = 'a'; letter <= 'z' && !game.isOver(); letter++) {
+                game.guess(letter);
+                out.setLength(0);
+                game.appendGuess(out);
+                game.appendWrongLetters(out);
+                out.append(game.getGuessesRemaining());
+            }
+        });
+    }
+
+    @Test
+    void guessingTheWholeWordAllocatesNothing() {
+        assertWithinBudget("A wrong word, a word of the wrong length and the right word", 0, () -> {
+            game.start("crème-brûlée");
+            game.guessWord("crème-brûlés");
+            game.guessWord("crème");
+            game.guessWord("CRÈME-BRÛLÉE");
+        });
+    }
+
+    @Test
+    void lookingAtTheWordAllocatesNothing() {
+        game.start("programming");
+        assertWithinBudget("Asking where letters are and which were guessed", 0, () -> {
+            for (char letter = 'a'; letter <= 'z'; letter++) {
+                game.isInWord(letter);
+                game.getLetterFrequency(letter);
+                game.letterPositions(letter);
+                game.wasGuessedAlready(letter);
+            }
+            for (int i = 0; i < game.getLength(); i++) {
+                game.maskedCodePointAt(i);
+            }
+        });
+    }
+
+    @Test
+    void restoringAGameAllocatesNothing() {
+        int[] wrong = {'q', 'z', 'x'};
+        assertWithinBudget("Getting a game back from its revealed positions and wrong letters", 0, () -> {
+            game.restore("hangman", 0b0100010L, wrong, wrong.length);
+        });
+    }
+
+    @Test
+    void aGameInAnotherAlphabetOnlyAllocatesToNormalizeItsWord() {
+        // words with characters from U+0300 up are checked by the JDK's Normalizer, which allocates a little
+        assertWithinBudget("A game with a Greek word", 128, () -> {
+            game.start("σίσυφος");
+            game.guessCodePoint('σ');
+            game.guessCodePoint('ς');
+            game.guessCodePoint('α');
+            game.guessCodePoint('Ί');
+        });
+    }
+}
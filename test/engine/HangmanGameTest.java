@@ -0,0 +1,64 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guessing the whole word is all or nothing: the right word wins at once, a wrong one costs a guess like a wrong letter,
+ * and a word that can't be it (too short, too long) costs nothing, the player only mistyped it.
+ */
+class HangmanGameTest {
+    private final HangmanGame game = new HangmanGame(3);
+
+    @Test
+    void theRightWordWins() {
+        game.start("jack-o-lantern");
+        assertEquals(GuessResult.HIT, game.guess('a'));
+        assertEquals(GuessResult.HIT, game.guessWord("Jack-O-Lantern"));
+        assertTrue(game.isWon());
+        assertEquals(0, game.getWrongGuessCount());
+        assertEquals("j a c k - o - l a n t e r n", guess());
+        assertEquals(GuessResult.GAME_OVER, game.guessWord("jack-o-lantern"));
+    }
+
+    @Test
+    void aWrongWordCostsAGuess() {
+        game.start("hangman");
+        assertEquals(GuessResult.WRONG_WORD, game.guessWord("hangmen"));
+        assertEquals(1, game.getWrongGuessCount());
+        assertEquals(2, game.getGuessesRemaining());
+        assertEquals("", wrongLetters());
+        assertEquals("_ _ _ _ _ _ _", guess());
+
+        assertEquals(GuessResult.WRONG_WORD, game.missWord());
+        assertEquals(GuessResult.MISS, game.guess('z'));
+        assertTrue(game.isLost());
+        assertEquals(GuessResult.GAME_OVER, game.missWord());
+        assertEquals(3, game.getWrongGuessCount());
+    }
+
+    @Test
+    void aWordOfTheWrongLengthCostsNothing() {
+        game.start("jack-o-lantern");
+        assertEquals(GuessResult.WRONG_LENGTH, game.guessWord("jackolantern"));
+        assertEquals(GuessResult.WRONG_LENGTH, game.guessWord("hangman"));
+        assertEquals(GuessResult.NO_INPUT, game.guessWord(""));
+        assertEquals(0, game.getWrongGuessCount());
+        assertFalse(game.isOver());
+    }
+
+    private String guess() {
+        StringBuilder out = new StringBuilder();
+        game.appendGuess(out);
+        return out.toString();
+    }
+
+    private String wrongLetters() {
+        StringBuilder out = new StringBuilder();
+        game.appendWrongLetters(out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,56 @@
+package evil;
+
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordQuery;
+import dictionary.WordSelection;
+import engine.HangmanGame;
+import allocation.TestWords;
+import org.junit.jupiter.api.Test;
+
+import static allocation.AllocationBudget.assertWithinBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The evil mode has to allocate: a table of families per guess, and the candidate words when a game starts.
+ * These budgets make sure that's all it allocates, and that a guess doesn't start copying the words around.
+ * Every word of the dictionary has the length of the game's word, so the evil mode has all of them to go through.
+ */
+class EvilHangmanAllocationTest {
+    private static final int WORDS = 5000;
+    private static final Dictionary DICTIONARY = TestWords.of(WORDS, 6);
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    @Test
+    void aGuessOnlyAllocatesItsFamilies() {
+        EvilHangman evil = new EvilHangman(DICTIONARY);
+        HangmanGame game = new HangmanGame(HangmanGame.ALPHABET_SIZE);
+        game.start(DICTIONARY.word(0));
+        evil.start(game, SELECTION);
+        assertEquals(WORDS, evil.candidates());
+        assertWithinBudget("A game's worth of evil guesses", HangmanGame.ALPHABET_SIZE * 1024, 200, 200, () -> {
+            game.start(DICTIONARY.word(0));
+            evil.start(game, SELECTION);
+        }, () -> {
+            for (char letter = 'a'; letter <= 'z' && !game.isOver(); letter++) {
+                evil.beforeGuess(game, String.valueOf(letter));
+                game.guess(letter);
+            }
+        });
+    }
+
+    @Test
+    void aGameStaysWithinItsBudget() {
+        EvilHangman evil = new EvilHangman(DICTIONARY);
+        HangmanGame game = new HangmanGame();
+        // the words of the right length are copied a few times when the game starts (ids, folded letters, family keys)
+        assertWithinBudget("An evil game among " + WORDS + " words", 160L * WORDS, 200, 200, () -> {
+            game.start(DICTIONARY.word(0));
+            evil.start(game, SELECTION);
+            for (char letter = 'a'; letter <= 'z' && !game.isOver(); letter++) {
+                evil.beforeGuess(game, String.valueOf(letter));
+                game.guess(letter);
+            }
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package evil;
+
+import allocation.TestWords;
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordQuery;
+import dictionary.WordSelection;
+import engine.GuessResult;
+import engine.HangmanGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The evil mode may dodge every guess it can, but it must never cheat: each answer it gives is the biggest family
+ * of the words still possible, the word it ends on gives the same answers to every guess of the game,
+ * and the player can always win by running out the words.
+ */
+class EvilHangmanTest {
+    private static final Dictionary DICTIONARY = TestWords.of(3000, 5);
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    @Test
+    void keepsTheBiggestFamily() {
+        // e splits them four and four, a tie the miss wins, then every word left has its u second
+        Dictionary dictionary = Dictionary.of("bell", "belt", "bent", "best", "bust", "dust", "must", "gust");
+        EvilHangman evil = new EvilHangman(dictionary);
+        HangmanGame game = new HangmanGame();
+        game.start("bell");
+        evil.start(game, WordIndex.build(dictionary).select(WordQuery.ANY));
+
+        assertEquals(0L, evil.guess(game, 'e'));
+        assertEquals(GuessResult.MISS, game.guess('e'));
+        assertEquals(4, evil.candidates());
+        assertEquals(0b10L, evil.guess(game, 'u'));
+        assertEquals(GuessResult.HIT, game.guess('u'));
+        assertEquals(4, evil.candidates());
+        assertEquals(0b1000L, evil.guess(game, 't'));
+        assertEquals(GuessResult.HIT, game.guess('t'));
+        assertEquals(0L, evil.guess(game, 'b')); // the b is in one word of the four, the other three stay
+        assertEquals(GuessResult.MISS, game.guess('b'));
+        assertEquals(3, evil.candidates());
+    }
+
+    @Test
+    void answersLikeABruteForceSplit() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 20; round++) {
+            EvilHangman evil = new EvilHangman(DICTIONARY);
+            HangmanGame game = new HangmanGame(HangmanGame.ALPHABET_SIZE);
+            game.start(DICTIONARY.word(random.nextInt(DICTIONARY.size())));
+            evil.start(game, SELECTION);
+            List<String> left = new ArrayList<>();
+            for (int id = 0; id < DICTIONARY.size(); id++) {
+                left.add(DICTIONARY.word(id));
+            }
+
+            for (char letter : shuffledAlphabet(random)) {
+                if (game.isOver()) {
+                    break;
+                }
+                Map<Long, List<String>> families = new HashMap<>();
+                for (String word : left) {
+                    families.computeIfAbsent(positions(word, letter), key -> new ArrayList<>()).add(word);
+                }
+                int biggest = families.values().stream().mapToInt(List::size).max().orElseThrow();
+
+                long kept = evil.guess(game, letter);
+                game.guess(letter);
+                left = families.get(kept);
+                assertEquals(biggest, left.size(), "the family of " + letter);
+                assertEquals(left.size(), evil.candidates());
+                assertTrue(left.contains(game.getWord()), game.getWord());
+            }
+        }
+    }
+
+    @Test
+    void endsOnAWordThatFitsEveryAnswer() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int round = 0; round < 50; round++) {
+            EvilHangman evil = new EvilHangman(DICTIONARY);
+            HangmanGame game = new HangmanGame();
+            game.start(DICTIONARY.word(random.nextInt(DICTIONARY.size())));
+            evil.start(game, SELECTION);
+
+            Map<Character, Long> answers = new HashMap<>();
+            for (char letter : shuffledAlphabet(random)) {
+                if (game.isOver()) {
+                    break;
+                }
+                String text = String.valueOf(letter);
+                evil.beforeGuess(game, text);
+                game.guess(text);
+                answers.put(letter, game.letterPositions(letter));
+            }
+            assertTrue(game.isOver());
+            for (Map.Entry<Character, Long> answer : answers.entrySet()) {
+                assertEquals(answer.getValue(), positions(game.getWord(), answer.getKey()),
+                        game.getWord() + " and the answer to " + answer.getKey());
+            }
+        }
+    }
+
+    @Test
+    void canAlwaysBeWon() {
+        // with a guess for every letter, every letter of the word gets guessed before the guesses run out
+        SplittableRandom random = new SplittableRandom(3);
+        for (int round = 0; round < 20; round++) {
+            EvilHangman evil = new EvilHangman(DICTIONARY);
+            HangmanGame game = new HangmanGame(HangmanGame.ALPHABET_SIZE);
+            game.start(DICTIONARY.word(random.nextInt(DICTIONARY.size())));
+            evil.start(game, SELECTION);
+            for (char letter : shuffledAlphabet(random)) {
+                evil.beforeGuess(game, String.valueOf(letter));
+                game.guess(letter);
+                assertTrue(evil.candidates() > 0);
+            }
+            assertTrue(game.isWon(), game.getWord());
+        }
+
+        // a word guessed is dodged while another is left, and wins once it's the last one
+        Dictionary dictionary = Dictionary.of("bell", "belt");
+        EvilHangman evil = new EvilHangman(dictionary);
+        HangmanGame game = new HangmanGame();
+        game.start("bell");
+        evil.start(game, WordIndex.build(dictionary).select(WordQuery.ANY));
+        evil.beforeGuess(game, "bell");
+        assertEquals(GuessResult.WRONG_WORD, game.guessWord("bell"));
+        evil.beforeGuess(game, "belt");
+        assertEquals(GuessResult.HIT, game.guessWord("belt"));
+        assertTrue(game.isWon());
+    }
+
+    @Test
+    void tellsAWordOfOneLetterAtEveryPositionFromNoFamily() {
+        // a 64 letter word of a's is a family with every bit set, -1, a key an empty slot must not be mistaken for
+        String a64 = "a".repeat(HangmanGame.MAX_WORD_LENGTH);
+        Dictionary dictionary = Dictionary.of(a64, a64.toUpperCase(), "a".repeat(HangmanGame.MAX_WORD_LENGTH - 1) + "b");
+        EvilHangman evil = new EvilHangman(dictionary);
+        HangmanGame game = new HangmanGame();
+        game.start(a64);
+        evil.start(game, WordIndex.build(dictionary).select(WordQuery.ANY));
+
+        assertEquals(-1L, evil.guess(game, 'a'));
+        assertEquals(2, evil.candidates());
+
+        EvilHangman.Families families = new EvilHangman.Families();
+        families.add(0L, 1);
+        families.add(-1L, 2);
+        assertEquals(-1L, families.biggest());
+    }
+
+    private static char[] shuffledAlphabet(SplittableRandom random) {
+        char[] letters = new char[HangmanGame.ALPHABET_SIZE];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + i);
+        }
+        for (int i = letters.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            char swap = letters[i];
+            letters[i] = letters[j];
+            letters[j] = swap;
+        }
+        return letters;
+    }
+
+    private static long positions(String word, char letter) {
+        long positions = 0L;
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) == letter) {
+                positions |= 1L << i;
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,125 @@
+package journal;
+
+import engine.GuessResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The journal is the only record of the games played, so whatever was written before a crash must read back
+ * exactly, and whatever a crash left half written must never be read back, not even once more is appended after it.
+ */
+class JournalTest {
+
+    @Test
+    void readsBackWhatWasWritten(@TempDir Path directory) throws IOException {
+        try (Journal journal = Journal.open(directory)) {
+            long first = journal.gameStarted("crème", 6);
+            journal.guessed(first, 'e', GuessResult.HIT);
+            journal.guessed(first, 'z', GuessResult.MISS);
+            journal.guessed(first, (char) 0, GuessResult.WRONG_WORD);
+            journal.gameOver(first, false, 2);
+            long second = journal.gameStarted("jazz", 1);
+            journal.sync();
+
+            assertEquals(0, first);
+            assertEquals(1, second);
+        }
+
+        assertEquals(List.of("0 GAME_STARTED crème 6", "0 GUESS e HIT", "0 GUESS z MISS", "0 GUESS \0 WRONG_WORD",
+                "0 GAME_OVER LOST 2", "1 GAME_STARTED jazz 1"), read(directory));
+    }
+
+    @Test
+    void rollsOverToNewSegments(@TempDir Path directory) throws IOException {
+        List<String> expected = new ArrayList<>();
+        try (Journal journal = Journal.open(directory, 256, 1)) {
+            for (int g = 0; g < 20; g++) {
+                long id = journal.gameStarted("word" + g, 6);
+                journal.guessed(id, 'w', GuessResult.HIT);
+                journal.gameOver(id, true, 0);
+                expected.add(id + " GAME_STARTED word" + g + " 6");
+                expected.add(id + " GUESS w HIT");
+                expected.add(id + " GAME_OVER WON 0");
+            }
+        }
+
+        assertTrue(JournalReader.segments(directory).size() > 1);
+        assertEquals(expected, read(directory));
+    }
+
+    @Test
+    void dropsWhatACrashLeftHalfWrittenAndCarriesOn(@TempDir Path directory) throws IOException {
+        try (Journal journal = Journal.open(directory)) {
+            long id = journal.gameStarted("hangman", 6);
+            journal.guessed(id, 'a', GuessResult.HIT);
+            journal.gameOver(id, false, 6);
+            id = journal.gameStarted("zebra", 6);
+            journal.guessed(id, 'q', GuessResult.MISS);
+        }
+
+        // the crash: the last guess is torn, another record was only started after it, and the pages holding a
+        // record further on made it to disk (a copy of the game over, the checksum and all)
+        Path segment = JournalReader.segments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            int gameOver = JournalSegment.HEADER_BYTES + buffer.getInt(JournalSegment.HEADER_BYTES);
+            gameOver += buffer.getInt(gameOver);
+            int last = gameOver + buffer.getInt(gameOver);
+            last += buffer.getInt(last);
+            int end = last + buffer.getInt(last);
+            buffer.putChar(last + 10, 'x');
+            buffer.putInt(end, JournalSegment.recordBytes(0));
+            buffer.put(end + 8, (byte) 2);
+            int stale = end + JournalSegment.recordBytes("jazz".length()) + JournalSegment.recordBytes(0); // right after what's written next
+            for (int i = 0; i < JournalSegment.recordBytes(0); i++) {
+                buffer.put(stale + i, buffer.get(gameOver + i));
+            }
+            buffer.force();
+        }
+        assertEquals(List.of("0 GAME_STARTED hangman 6", "0 GUESS a HIT", "0 GAME_OVER LOST 6", "1 GAME_STARTED zebra 6"),
+                read(directory));
+
+        try (Journal journal = Journal.open(directory)) {
+            journal.guessed(1, 'z', GuessResult.HIT);
+            long id = journal.gameStarted("jazz", 3);
+            assertEquals(2, id);
+            journal.gameOver(id, true, 0);
+        }
+        assertEquals(List.of("0 GAME_STARTED hangman 6", "0 GUESS a HIT", "0 GAME_OVER LOST 6", "1 GAME_STARTED zebra 6",
+                "1 GUESS z HIT", "2 GAME_STARTED jazz 3", "2 GAME_OVER WON 0"), read(directory));
+    }
+
+    @Test
+    void refusesRecordsOnceClosed(@TempDir Path directory) throws IOException {
+        Journal journal = Journal.open(directory);
+        journal.close();
+        IOException refused = assertThrows(IOException.class, () -> journal.gameStarted("late", 6));
+        assertEquals("The journal is closed", refused.getMessage());
+    }
+
+    /**
+     * @return every record of the journal as text, without the time it was written
+     */
+    private static List<String> read(Path directory) throws IOException {
+        List<String> records = new ArrayList<>();
+        JournalReader.read(directory, record -> {
+            String text = record.toString();
+            records.add(text.substring(0, text.lastIndexOf(' ')));
+        });
+        return records;
+    }
+}
@@ -0,0 +1,133 @@
+package replay;
+
+import engine.GuessResult;
+import engine.HangmanGame;
+import journal.Journal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeking through a checkpoint must land in exactly the state that playing every guess up to there does, or a replay
+ * shows the player a game that never happened, and verifying must tell a recording that plays out the same from one that doesn't.
+ */
+class ReplayerTest {
+    private static final String[] WORDS = {"hangman", "crème-brûlée", "jazz", "zebra", "programming", "σοφός"};
+
+    @Test
+    void seekingLandsWhereSteppingDoes() {
+        Recording recording = record(new Recording.Builder(), 40, new Random(7)).build();
+        Replayer stepped = new Replayer(recording, 5);
+        List<String> states = new ArrayList<>();
+        states.add(describe(stepped));
+        while (stepped.step() != null) {
+            states.add(describe(stepped));
+        }
+        assertEquals(recording.guesses() + 1, states.size());
+        assertEquals(0, stepped.getMismatches());
+
+        Replayer seeking = new Replayer(recording, 5);
+        Random random = new Random(11);
+        for (int i = 0; i < 500; i++) { // forwards, backwards, onto checkpoints and in between
+            int target = random.nextInt(recording.guesses() + 1);
+            seeking.seek(target);
+            assertEquals(states.get(target), describe(seeking), "seek to " + target);
+        }
+        for (int target = 0; target <= recording.guesses(); target += 5) {
+            seeking.seek(target);
+            assertEquals(states.get(target), describe(seeking), "seek to checkpoint " + target);
+        }
+    }
+
+    @Test
+    void verifyingFindsTheFirstMismatch() {
+        Recording.Builder builder = new Recording.Builder()
+                .gameStarted(0, "jazz", 6)
+                .guessed(0, 'j', GuessResult.HIT)
+                .guessed(0, 'e', GuessResult.HIT) // it was a miss
+                .guessed(0, 'a', GuessResult.HIT)
+                .guessed(0, 'z', GuessResult.HIT)
+                .gameOver(0, true);
+        Replayer replayer = new Replayer(builder.build(), 2);
+        while (replayer.step() != null) {
+        }
+        assertEquals(1, replayer.getFirstMismatch());
+        assertEquals(1, replayer.getMismatches());
+    }
+
+    @Test
+    void replaysAWholeJournal(@TempDir Path directory) throws IOException, InterruptedException {
+        try (Journal journal = Journal.open(directory, 4096, 1)) {
+            Random random = new Random(3);
+            HangmanGame game = new HangmanGame();
+            for (int g = 0; g < 60; g++) {
+                long id = journal.gameStarted(WORDS[g % WORDS.length], game.getMaxWrongGuesses());
+                game.start(WORDS[g % WORDS.length]);
+                while (!game.isOver()) {
+                    GuessResult result;
+                    char letter = (char) ('a' + random.nextInt(26));
+                    if (random.nextInt(10) == 0) {
+                        result = game.missWord();
+                        letter = 0;
+                    } else {
+                        result = game.guess(letter);
+                    }
+                    if (result.isAccepted()) {
+                        journal.guessed(id, letter, result);
+                    }
+                }
+                journal.gameOver(id, game.isWon(), game.getWrongGuessCount());
+            }
+        }
+
+        ReplayReport report = BulkReplay.verify(directory, 3);
+        assertTrue(report.isClean(), () -> report.getExamples().toString());
+        assertEquals(60, report.getGames());
+        assertEquals(0, report.getUnfinished());
+
+        Replayer replayer = new Replayer(Recording.read(directory));
+        while (replayer.step() != null) {
+        }
+        assertEquals(0, replayer.getMismatches());
+    }
+
+    /**
+     * Plays random games like a player would and records them, the last one left unfinished.
+     */
+    private static Recording.Builder record(Recording.Builder builder, int games, Random random) {
+        for (int g = 0; g < games; g++) {
+            int maxWrongGuesses = 3 + random.nextInt(6);
+            HangmanGame game = new HangmanGame(maxWrongGuesses);
+            game.start(WORDS[random.nextInt(WORDS.length)]);
+            builder.gameStarted(g, game.getWord(), maxWrongGuesses);
+            while (!game.isOver() && (g < games - 1 || game.getGuessCount() < 3)) {
+                char letter = (char) ('a' + random.nextInt(26));
+                GuessResult result = random.nextInt(12) == 0 ? game.missWord() : game.guess(letter);
+                if (result.isAccepted()) {
+                    builder.guessed(g, letter, result);
+                }
+            }
+            if (game.isOver()) {
+                builder.gameOver(g, game.isWon());
+            }
+        }
+        return builder;
+    }
+
+    private static String describe(Replayer replayer) {
+        HangmanGame game = replayer.getGame();
+        StringBuilder out = new StringBuilder().append(replayer.getCurrentGame()).append(' ');
+        game.appendGuess(out);
+        out.append(' ');
+        game.appendWrongLetters(out);
+        return out.append(' ').append(game.getGuessesRemaining()).append(game.isWon() ? " won" : game.isLost() ? " lost" : "").toString();
+    }
+}
@@ -0,0 +1,154 @@
+package server;
+
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordPicker;
+import dictionary.WordQuery;
+import engine.GuessResult;
+import engine.HangmanGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The records have no lock, so what keeps two players apart is the version of each record and the use count in each
+ * session id. These tests play many sessions at once, with old ids of ended sessions thrown in, and check every answer
+ * against a game of our own: an old id must never find the session that reused its record, and two guesses
+ * on the same session at the same time must both count.
+ */
+class GameRecordsTest {
+    private static final String WORD = "hangman";
+    private static final int THREADS = 8;
+
+    // every word is the same, so each session can be checked against a game of our own playing the same guesses
+    private static GameRecords records(int maxWrongGuesses) {
+        Dictionary dictionary = Dictionary.of(WORD, WORD, WORD, WORD);
+        return new GameRecords(new WordPicker(dictionary, WordIndex.build(dictionary).select(WordQuery.ANY), 42, 0), maxWrongGuesses);
+    }
+
+    @Test
+    void oldIdsNeverReachAReusedRecord() throws Exception {
+        GameRecords records = records(HangmanGame.DEFAULT_MAX_WRONG_GUESSES);
+        AtomicLongArray ended = new AtomicLongArray(64); // ids of ended sessions, shared between the players
+
+        ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> players = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int player = t;
+            players.add(threads.submit(() -> {
+                SplittableRandom random = new SplittableRandom(player);
+                HangmanGame expected = new HangmanGame();
+                StringBuilder state = new StringBuilder();
+                StringBuilder wanted = new StringBuilder();
+                for (int round = 0; round < 20_000; round++) {
+                    state.setLength(0);
+                    long id = records.create(state);
+                    expected.start(WORD);
+                    assertState(id, expected, state, wanted);
+
+                    for (int guess = 0; guess < 4; guess++) {
+                        long old = ended.get(random.nextInt(ended.length()));
+                        if (old != 0) {
+                            state.setLength(0);
+                            assertNull(records.guess(old, "z", state));
+                            assertFalse(records.state(old, state));
+                            assertFalse(records.restart(old, state));
+                            assertFalse(records.remove(old));
+                            assertEquals(0, state.length());
+                        }
+
+                        String letter = String.valueOf((char) ('a' + random.nextInt(26)));
+                        state.setLength(0);
+                        assertEquals(expected.guess(letter), records.guess(id, letter, state));
+                        assertState(id, expected, state, wanted);
+                    }
+                    state.setLength(0);
+                    assertTrue(records.state(id, state));
+                    assertState(id, expected, state, wanted);
+
+                    assertTrue(records.remove(id));
+                    assertFalse(records.remove(id));
+                    ended.set(random.nextInt(ended.length()), id);
+                }
+                return null;
+            }));
+        }
+        threads.shutdown();
+        for (Future<?> player : players) {
+            player.get();
+        }
+        assertEquals(0, records.size());
+    }
+
+    @Test
+    void guessesOnTheSameSessionAtOnceAllCount() throws Exception {
+        GameRecords records = records(GameRecords.MAX_WRONG_LETTERS);
+        String[][] letters = {{"h", "b", "c"}, {"a", "d", "e"}, {"n", "f", "i"}, {"g", "j", "k"}}; // everything but the m
+        for (int round = 0; round < 200; round++) {
+            long id = records.create(new StringBuilder());
+            ExecutorService threads = Executors.newFixedThreadPool(letters.length);
+            List<Future<?>> players = new ArrayList<>();
+            for (String[] mine : letters) {
+                players.add(threads.submit(() -> {
+                    StringBuilder state = new StringBuilder();
+                    for (String letter : mine) {
+                        state.setLength(0);
+                        GuessResult result = records.guess(id, letter, state);
+                        assertTrue(result == GuessResult.HIT || result == GuessResult.MISS, letter + " was " + result);
+                    }
+                    return null;
+                }));
+            }
+            threads.shutdown();
+            for (Future<?> player : players) {
+                player.get();
+            }
+
+            StringBuilder state = new StringBuilder();
+            assertTrue(records.state(id, state));
+            String[] parts = state.toString().split(" ");
+            assertEquals("hang_an", parts[1]);
+            assertEquals(String.valueOf(GameRecords.MAX_WRONG_LETTERS - 8), parts[2]);
+            assertEquals(8, parts[3].length());
+            assertEquals("PLAYING", parts[4]);
+            assertTrue(records.remove(id));
+        }
+    }
+
+    @Test
+    void everyThreadTakesItsWordsFromTheServersPicker() throws Exception {
+        String[] words = new String[20];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = String.valueOf((char) ('a' + i)).repeat(i + 3); // the length of the guess tells the word
+        }
+        Dictionary dictionary = Dictionary.of(words);
+        WordIndex index = WordIndex.build(dictionary);
+        GameRecords records = new GameRecords(new WordPicker(dictionary, index.select(WordQuery.ANY), 7, 5));
+        WordPicker expected = new WordPicker(dictionary, index.select(WordQuery.ANY), 7, 5);
+
+        for (int game = 0; game < 100; game++) {
+            StringBuilder state = new StringBuilder();
+            Thread connection = new Thread(() -> records.create(state)); // a thread per connection, like the server's
+            connection.start();
+            connection.join();
+            assertEquals(expected.word(expected.next()).length(), state.toString().split(" ")[1].length());
+        }
+    }
+
+    private static void assertState(long id, HangmanGame expected, StringBuilder state, StringBuilder wanted) {
+        wanted.setLength(0);
+        GameSession.appendState(id, expected, wanted);
+        assertEquals(wanted.toString(), state.toString());
+    }
+}
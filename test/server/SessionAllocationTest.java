@@ -0,0 +1,78 @@
+package server;
+
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordPicker;
+import dictionary.WordQuery;
+import dictionary.WordSelection;
+import org.junit.jupiter.api.Test;
+
+import static allocation.AllocationBudget.assertWithinBudget;
+
+/**
+ * A server with thousands of players runs these on every command, so the commands must not allocate beyond the
+ * answer line, which the connection reuses. The off-heap records in particular are only worth it if playing them
+ * leaves no garbage behind.
+ */
+class SessionAllocationTest {
+    private static final Dictionary DICTIONARY = Dictionary.of("apple", "banana", "cherry", "kiwi", "melon", "grape",
+            "lemon", "mango", "peach", "plum", "x-ray", "jack-o-lantern");
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    private final StringBuilder state = new StringBuilder();
+
+    @Test
+    void playingASessionAllocatesNothing() {
+        GameSession session = new GameSession(1, new WordPicker(DICTIONARY, SELECTION, 42, 4));
+        assertWithinBudget("A new word, a guess and the state of a session", 0, () -> {
+            state.setLength(0);
+            session.restart(state);
+            state.setLength(0);
+            session.guess("e", state);
+            state.setLength(0);
+            session.state(state);
+        });
+    }
+
+    @Test
+    void playingThroughTheSessionTableAllocatesNothing() throws Exception {
+        try (SessionTable sessions = new SessionTable(null, new WordPicker(DICTIONARY, SELECTION, 42, 4))) {
+            long id = 0;
+            while (id <= Byte.MAX_VALUE) { // past the ids the cache of small Longs would hide the boxing of
+                id = sessions.create(state);
+            }
+            long played = id;
+            assertWithinBudget("A new word, a guess and the state of a session found by its id", 0, () -> {
+                state.setLength(0);
+                sessions.restart(played, state);
+                state.setLength(0);
+                sessions.guess(played, "e", state);
+                state.setLength(0);
+                sessions.state(played, state);
+            });
+        }
+    }
+
+    @Test
+    void playingARecordAllocatesNothing() {
+        GameRecords records = new GameRecords(new WordPicker(DICTIONARY, SELECTION, 42, 4));
+        long id = records.create(state);
+        assertWithinBudget("A new word, a guess and the state of an off-heap record", 0, () -> {
+            state.setLength(0);
+            records.restart(id, state);
+            state.setLength(0);
+            records.guess(id, "e", state);
+            state.setLength(0);
+            records.state(id, state);
+        });
+    }
+
+    @Test
+    void creatingAndEndingRecordsAllocatesNothing() {
+        GameRecords records = new GameRecords(new WordPicker(DICTIONARY, SELECTION, 42, 4));
+        assertWithinBudget("Starting a session in a record and ending it", 0, () -> {
+            state.setLength(0);
+            records.remove(records.create(state));
+        });
+    }
+}
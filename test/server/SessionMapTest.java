@@ -0,0 +1,54 @@
+package server;
+
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordPicker;
+import dictionary.WordQuery;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * A session id that doesn't find its session ends the player's game, and one that finds another session plays
+ * someone else's, so the map must answer exactly like a plain map does, through any number of rebuilds.
+ */
+class SessionMapTest {
+
+    @Test
+    void answersLikeAPlainMap() throws IOException {
+        SessionMap map = new SessionMap();
+        Map<Long, GameSession> expected = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(5);
+        Dictionary dictionary = Dictionary.of("hangman");
+        WordPicker picker = new WordPicker(dictionary, WordIndex.build(dictionary).select(WordQuery.ANY), 42, 0);
+        GameSession[] sessions = new GameSession[8];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = new GameSession(i + 1, picker);
+        }
+        long next = 1;
+        for (int step = 0; step < 200_000; step++) {
+            long id = random.nextInt(3) == 0 ? next++ << 6 | 5 : random.nextLong(1, next + 1) << 6 | 5; // ids of one stripe
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    GameSession session = sessions[random.nextInt(sessions.length)];
+                    map.put(id, session);
+                    expected.put(id, session);
+                }
+                case 1 -> assertSame(expected.remove(id), map.remove(id));
+                default -> assertSame(expected.get(id), map.get(id));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+
+        assertEquals(expected.size(), map.removeIf(session -> true));
+        assertEquals(0, map.size());
+        assertNull(map.get(64 | 5));
+    }
+}
@@ -0,0 +1,73 @@
+package server;
+
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordPicker;
+import dictionary.WordQuery;
+import dictionary.WordSelection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * A session put to sleep must wake up exactly as it was, its game and the words it picks next alike,
+ * with a picker that remembers as many picks as the snapshot has room for.
+ */
+class SessionStoreTest {
+    private static final Dictionary DICTIONARY = dictionary();
+    private static final WordSelection SELECTION = WordIndex.build(DICTIONARY).select(WordQuery.ANY);
+
+    // every word has a length of its own, so the guess of a new game tells which word was picked
+    private static Dictionary dictionary() {
+        String[] words = new String[20];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = String.valueOf((char) ('a' + i)).repeat(i + 3);
+        }
+        return Dictionary.of(words);
+    }
+
+    @Test
+    void sleepingSessionsWakeUpAsTheyWere(@TempDir Path dir) throws Exception {
+        WordPicker server = new WordPicker(DICTIONARY, SELECTION, 42, 6);
+        try (SessionStore store = SessionStore.open(dir.resolve("sessions.hses"), server)) {
+            GameSession[] sessions = new GameSession[SessionStore.INITIAL_SLOTS + 10]; // the file has to grow once
+            for (int i = 0; i < sessions.length; i++) {
+                sessions[i] = new GameSession(i + 1, server.split());
+                for (int game = 0; game < i % 20; game++) {
+                    sessions[i].restart(new StringBuilder());
+                }
+                sessions[i].guess("e", new StringBuilder());
+                sessions[i].guess("z", new StringBuilder());
+                sessions[i].guess("f", new StringBuilder());
+                store.put(i + 1, sessions[i]);
+            }
+            assertEquals(sessions.length, store.size());
+
+            for (int i = 0; i < sessions.length; i++) {
+                GameSession awake = store.take(i + 1, server);
+                assertEquals(state(sessions[i]), state(awake));
+                for (int game = 0; game < 10; game++) {
+                    assertEquals(restart(sessions[i]), restart(awake), "session " + (i + 1) + ", game " + game);
+                }
+            }
+            assertEquals(0, store.size());
+            assertNull(store.take(1, server));
+        }
+    }
+
+    private static String state(GameSession session) {
+        StringBuilder state = new StringBuilder();
+        session.state(state);
+        return state.toString();
+    }
+
+    private static String restart(GameSession session) {
+        StringBuilder state = new StringBuilder();
+        session.restart(state);
+        return state.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package simulation;
+
+import allocation.TestWords;
+import dictionary.Dictionary;
+import dictionary.WordIndex;
+import dictionary.WordQuery;
+import engine.HangmanGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A simulation is only worth running if its numbers can be trusted and repeated: the same seed must play the same
+ * games however many threads play them, and the totals must add up to what the games played.
+ */
+class SimulationTest {
+    private static final int GAMES = 3 * 4096 + 17; // a few blocks and a short one, so every thread gets a share
+
+    @Test
+    void theSameSeedPlaysTheSameGamesOnAnyNumberOfThreads() throws Exception {
+        Dictionary dictionary = TestWords.of(500, 5);
+        Simulation simulation = new Simulation(dictionary, WordIndex.build(dictionary).select(WordQuery.ANY),
+                Strategies.byName("random", dictionary), HangmanGame.DEFAULT_MAX_WRONG_GUESSES, 42);
+
+        SimulationStats one = simulation.run(GAMES, 1);
+        for (int threads : new int[] {1, 3, 8}) {
+            SimulationStats again = simulation.run(GAMES, threads);
+            assertArrayEquals(one.plays, again.plays, threads + " threads");
+            assertArrayEquals(one.wins, again.wins, threads + " threads");
+            assertArrayEquals(one.wrongGuesses, again.wrongGuesses, threads + " threads");
+            assertArrayEquals(one.guessesToSolve, again.guessesToSolve, threads + " threads");
+            assertEquals(one.gamesWon, again.gamesWon);
+            assertEquals(one.totalWrongGuesses, again.totalWrongGuesses);
+            assertEquals(one.totalGuessesToSolve, again.totalGuessesToSolve);
+        }
+        assertEquals(GAMES, one.games);
+        assertTrue(one.gamesWon > 0 && one.gamesWon < GAMES, one.gamesWon + " won");
+
+        SimulationStats other = new Simulation(dictionary, WordIndex.build(dictionary).select(WordQuery.ANY),
+                Strategies.byName("random", dictionary), HangmanGame.DEFAULT_MAX_WRONG_GUESSES, 43).run(GAMES, 3);
+        assertFalse(Arrays.equals(one.plays, other.plays), "another seed picks other words");
+    }
+
+    @Test
+    void addsUpLikeTheGamesWorkedOutByHand() throws Exception {
+        // guessing e, t, a, o, i, n, s...: "tea" is won with its first three guesses, none wrong, while "quiz" only
+        // gets its i before the sixth wrong guess, the s, ends the game
+        Dictionary dictionary = Dictionary.of("tea", "quiz");
+        Simulation simulation = new Simulation(dictionary, WordIndex.build(dictionary).select(WordQuery.ANY),
+                Strategies.byName("frequency", dictionary), HangmanGame.DEFAULT_MAX_WRONG_GUESSES, 42);
+        SimulationStats stats = simulation.run(GAMES, 4);
+
+        int tea = stats.plays[0];
+        int quiz = stats.plays[1];
+        assertEquals(GAMES, tea + quiz);
+        assertTrue(tea > GAMES / 3 && quiz > GAMES / 3, tea + " and " + quiz); // both words get picked about as often
+        assertEquals(GAMES, stats.games);
+
+        assertEquals(1.0, stats.winRate(0));
+        assertEquals(0.0, stats.winRate(1));
+        assertEquals(tea, stats.gamesWon);
+        assertEquals(0, stats.wrongGuesses[0]);
+        assertEquals(6L * quiz, stats.wrongGuesses[1]);
+        assertEquals(6L * quiz, stats.totalWrongGuesses);
+        assertEquals(3L * tea, stats.guessesToSolve[0]);
+        assertEquals(0, stats.guessesToSolve[1]);
+        assertEquals(3L * tea, stats.totalGuessesToSolve);
+    }
+}
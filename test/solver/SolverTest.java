@@ -0,0 +1,167 @@
+package solver;
+
+import allocation.TestWords;
+import dictionary.Dictionary;
+import engine.HangmanGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The solver filters words with bitmasks and splits the work over cores, so its answers are checked against
+ * the plain rules of the game applied to every word, on a dictionary big enough to be split in several tasks,
+ * and against a suggestion worked out by hand on a tiny one.
+ */
+class SolverTest {
+
+    @Test
+    void suggestsTheLetterWorthTheMostBits() {
+        Dictionary dictionary = Dictionary.of("cat", "cot", "cut", "bat", "bot", "hut");
+        Solver solver = new Solver(dictionary, new ForkJoinPool(4));
+        for (Solver each : new Solver[] {solver, solver.sequential()}) {
+            // c is in half of the words, one whole bit: the t everywhere and the h in one word tell much less
+            Suggestion first = each.suggest(candidates(each, "___", ""));
+            assertEquals('c', first.getLetter());
+            assertEquals(1.0, first.getInformation(), 1e-9);
+            assertEquals(6, first.getCandidates());
+            assertEquals(3, first.getMatching());
+
+            // no c: a, b, h, o and u now all split the three words one against two, the b is in two of them
+            Suggestion second = each.suggest(candidates(each, "___", "c"));
+            assertEquals('b', second.getLetter());
+            assertEquals(-(Math.log(2 / 3.0) * 2 / 3 + Math.log(1 / 3.0) / 3) / Math.log(2), second.getInformation(), 1e-9);
+            assertEquals(3, second.getCandidates());
+            assertEquals(2, second.getMatching());
+
+            // the t tells nothing, every word has it at the end
+            Suggestion third = each.suggest(candidates(each, "__t", "ct"));
+            assertEquals('b', third.getLetter());
+            assertEquals(3, third.getCandidates());
+        }
+    }
+
+    @Test
+    void findsTheWordsThatFitLikeTheRulesSay() {
+        Dictionary dictionary = TestWords.of(3 * (1 << 13), 6); // all of one length, three chunks of the fork-join split
+        WordSignatures signatures = WordSignatures.build(dictionary); // the solver's own are built the same way
+        Solver parallel = new Solver(dictionary, new ForkJoinPool(4));
+        Solver sequential = parallel.sequential();
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int round = 0; round < 15; round++) {
+            String word = dictionary.word(random.nextInt(dictionary.size()));
+            HangmanGame game = new HangmanGame(HangmanGame.ALPHABET_SIZE);
+            game.start(word);
+            Candidates previous = null;
+            for (int guess = 0; guess < 8 && !game.isOver(); guess++) {
+                game.guess((char) ('a' + random.nextInt(HangmanGame.ALPHABET_SIZE)));
+                String pattern = Solver.pattern(game);
+                List<String> expected = scan(dictionary, pattern, game.getGuessedMask());
+                int[] counts = letterCounts(expected, game.getGuessedMask());
+
+                for (Solver solver : new Solver[] {parallel, sequential}) {
+                    Candidates fresh = solver.candidates(pattern, game.getGuessedMask(), game.getWrongMask(), null);
+                    assertEquals(expected, words(dictionary, signatures, fresh), pattern);
+                    for (char letter = 'a'; letter <= 'z'; letter++) {
+                        assertEquals(counts[letter - 'a'], fresh.countWith(letter), pattern + ", words with " + letter);
+                    }
+                    assertEquals(bestLetter(counts, expected.size()), solver.suggest(fresh).getLetter(), pattern);
+                    if (previous != null) {
+                        Candidates refined = solver.candidates(pattern, game.getGuessedMask(), game.getWrongMask(), previous);
+                        assertEquals(expected, words(dictionary, signatures, refined), pattern + " from the previous candidates");
+                    }
+                }
+                previous = parallel.candidates(pattern, game.getGuessedMask(), game.getWrongMask(), previous);
+            }
+        }
+    }
+
+    private static Candidates candidates(Solver solver, String pattern, String guessed) {
+        int guessedMask = 0;
+        int revealed = 0;
+        for (char letter : guessed.toCharArray()) {
+            guessedMask |= 1 << (letter - 'a');
+        }
+        for (char letter : pattern.toCharArray()) {
+            if (letter != HangmanGame.HIDDEN) {
+                revealed |= 1 << (letter - 'a');
+            }
+        }
+        return solver.candidates(pattern, guessedMask, guessedMask & ~revealed, null);
+    }
+
+    /**
+     * The rules, one word at a time: a revealed letter is in its place, and a hidden one is a letter not guessed yet.
+     */
+    private static List<String> scan(Dictionary dictionary, String pattern, int guessedMask) {
+        List<String> found = new ArrayList<>();
+        for (int id = 0; id < dictionary.size(); id++) {
+            String word = dictionary.word(id);
+            boolean fits = word.length() == pattern.length();
+            for (int i = 0; fits && i < word.length(); i++) {
+                char letter = word.charAt(i);
+                fits = pattern.charAt(i) == HangmanGame.HIDDEN
+                        ? letter >= 'a' && letter <= 'z' && (guessedMask & (1 << (letter - 'a'))) == 0
+                        : pattern.charAt(i) == letter;
+            }
+            if (fits) {
+                found.add(word);
+            }
+        }
+        found.sort(null);
+        return found;
+    }
+
+    private static List<String> words(Dictionary dictionary, WordSignatures signatures, Candidates candidates) {
+        TreeSet<String> words = new TreeSet<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            words.add(dictionary.word(signatures.id(candidates.positions[i])));
+        }
+        assertEquals(candidates.size(), words.size(), "a word found twice");
+        return new ArrayList<>(words);
+    }
+
+    /**
+     * @return how many of the words have each letter not guessed yet
+     */
+    private static int[] letterCounts(List<String> words, int guessedMask) {
+        int[] counts = new int[HangmanGame.ALPHABET_SIZE];
+        for (String word : words) {
+            int letters = 0;
+            for (int i = 0; i < word.length(); i++) {
+                letters |= 1 << (word.charAt(i) - 'a');
+            }
+            for (int letter = 0; letter < counts.length; letter++) {
+                counts[letter] += (letters & ~guessedMask) >>> letter & 1;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return the letter that closest to half of the words have, the most common one on a tie
+     * and the first in the alphabet after that, or 0 if the words have no letter left to guess
+     */
+    private static char bestLetter(int[] counts, int words) {
+        char best = 0;
+        double bestBits = -1;
+        for (int letter = 0; letter < counts.length; letter++) {
+            if (counts[letter] == 0) {
+                continue;
+            }
+            double p = counts[letter] / (double) words;
+            double bits = p >= 1 ? 0 : -(p * Math.log(p) + (1 - p) * Math.log(1 - p)) / Math.log(2);
+            if (bits > bestBits || bits == bestBits && counts[letter] > counts[best - 'a']) {
+                best = (char) ('a' + letter);
+                bestBits = bits;
+            }
+        }
+        return best;
+    }
+}
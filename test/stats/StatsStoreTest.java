@@ -0,0 +1,52 @@
+package stats;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The hardest words are picked from the counts alone, by keeping the few hardest ones sorted while going through every word.
+ */
+class StatsStoreTest {
+
+    @Test
+    void ranksTheHardestWords(@TempDir Path directory) throws IOException {
+        try (StatsStore stats = StatsStore.open(directory)) {
+            stats.recordGame("ana", "jazz", false, 6, 1);
+            stats.recordGame("ana", "jazz", true, 4, 2);
+            stats.recordGame("ana", "zebra", true, 1, 3);
+            stats.recordGame("ana", "zebra", true, 0, 4);
+            stats.recordGame("ana", "hangman", true, 3, 5);
+            stats.recordGame("ana", "hangman", true, 2, 6);
+            stats.recordGame("ana", "once", false, 6, 7);
+
+            assertEquals(List.of("jazz", "hangman"), labels(stats.hardestWords(2, 2)));
+            assertEquals(List.of("once", "jazz", "hangman", "zebra"), labels(stats.hardestWords(10, 1)));
+        }
+    }
+
+    @Test
+    void noWordsIsAnEmptyList(@TempDir Path directory) throws IOException {
+        try (StatsStore stats = StatsStore.open(directory)) {
+            stats.recordGame("ana", "jazz", false, 6, 1);
+
+            assertEquals(List.of(), stats.hardestWords(0, 1));
+            assertEquals(List.of(), stats.hardestWords(-1, 1));
+            assertEquals(List.of(), stats.topPlayers(0, PlayerStats.BY_WINS));
+        }
+    }
+
+    private static List<String> labels(List<Totals> totals) {
+        List<String> labels = new ArrayList<>();
+        for (Totals word : totals) {
+            labels.add(word.getLabel());
+        }
+        return labels;
+    }
+}